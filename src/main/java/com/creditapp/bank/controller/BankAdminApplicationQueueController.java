@@ -44,7 +44,9 @@ public class BankAdminApplicationQueueController {
         @RequestParam(value = "sortBy", required = false, defaultValue = "NEWEST_FIRST") String sortBy,
         @RequestParam(value = "applicationId", required = false) String applicationId,
         @RequestParam(value = "borrowerEmail", required = false) String borrowerEmail,
-        @RequestParam(value = "borrowerName", required = false) String borrowerName
+        @RequestParam(value = "borrowerName", required = false) String borrowerName,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "includeTotal", required = false, defaultValue = "false") boolean includeTotal
     ) {
         // Extract bankId from authenticated user
         UUID bankId = authorizationService.getBankIdFromContext();
@@ -62,7 +64,9 @@ public class BankAdminApplicationQueueController {
             sortBy,
             applicationId,
             borrowerEmail,
-            borrowerName
+            borrowerName,
+            cursor,
+            includeTotal
         );
 
         return ResponseEntity.ok(response);
@@ -6,11 +6,14 @@ import com.creditapp.bank.dto.ApplicationStatusUpdateRequest;
 import com.creditapp.bank.dto.ApplicationStatusUpdateResponse;
 import com.creditapp.bank.service.ApplicationQueueService;
 import com.creditapp.bank.service.ApplicationStatusUpdateService;
+import com.creditapp.bank.service.BankApplicationQueueProjection;
+import com.creditapp.shared.security.AuthorizationService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -18,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -31,6 +35,8 @@ public class BankApplicationQueueController {
 
     private final ApplicationQueueService applicationQueueService;
     private final ApplicationStatusUpdateService applicationStatusUpdateService;
+    private final BankApplicationQueueProjection applicationQueueProjection;
+    private final AuthorizationService authorizationService;
 
     @GetMapping("/application-queue")
     @PreAuthorize("hasAuthority('BANK_OFFICER')")
@@ -38,6 +44,8 @@ public class BankApplicationQueueController {
         @RequestParam("bankId") UUID bankId,
         @RequestParam(value = "limit", required = false) @Min(1) @Max(100) Integer limit,
         @RequestParam(value = "offset", required = false) @Min(0) Integer offset,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "includeTotal", required = false, defaultValue = "false") boolean includeTotal,
         @RequestParam(value = "status", required = false) String status,
         @RequestParam(value = "aprMin", required = false) BigDecimal aprMin,
         @RequestParam(value = "aprMax", required = false) BigDecimal aprMax,
@@ -53,6 +61,8 @@ public class BankApplicationQueueController {
         ApplicationQueueRequest request = ApplicationQueueRequest.builder()
             .limit(limit)
             .offset(offset)
+            .cursor(cursor)
+            .includeTotal(includeTotal)
             .status(status)
             .aprMin(aprMin)
             .aprMax(aprMax)
@@ -68,6 +78,17 @@ public class BankApplicationQueueController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rebuild the caller's bank rows of the application queue read model from the source tables.
+     */
+    @PostMapping("/application-queue/rebuild")
+    @PreAuthorize("hasAuthority('BANK_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildApplicationQueue() {
+        UUID bankId = authorizationService.getBankIdFromContext();
+        int rows = applicationQueueProjection.rebuildBank(bankId);
+        return ResponseEntity.ok(Map.of("bankId", bankId, "rows", rows));
+    }
+
     @PutMapping("/applications/{applicationId}/status")
     @PreAuthorize("hasAuthority('BANK_OFFICER')")
     public ResponseEntity<ApplicationStatusUpdateResponse> updateApplicationStatus(
@@ -44,7 +44,8 @@ public class BankOfferHistoryController {
             @RequestParam(required = false) BigDecimal aprTo,
             @RequestParam(required = false) BigDecimal paymentFrom,
             @RequestParam(required = false) BigDecimal paymentTo,
-            @RequestParam(required = false, defaultValue = "offerSubmittedAt_DESC") String sortBy) {
+            @RequestParam(required = false, defaultValue = "offerSubmittedAt_DESC") String sortBy,
+            @RequestParam(required = false) String cursor) {
         
         try {
             // Extract bank ID from security context
@@ -83,10 +84,14 @@ public class BankOfferHistoryController {
                     bankId,
                     filter,
                     page,
-                    pageSize
+                    pageSize,
+                    cursor
             );
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor or one issued for another sort
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,9 @@
+package com.creditapp.bank.dto;
+
+import java.util.UUID;
+
+/**
+ * Number of a bank's offers on one application, used to seed the distinct-application counter of the dashboard.
+ */
+public record ApplicationOfferCount(UUID applicationId, Long offers) {
+}
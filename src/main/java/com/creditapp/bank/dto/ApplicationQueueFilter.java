@@ -0,0 +1,45 @@
+package com.creditapp.bank.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filters, search terms and sort key of the bank admin application queue. Null or empty values do not filter.
+ * Search terms are resolved to {@code searchMatches}, the ids of matching applications, before the queue query
+ * runs; the queue query itself only restricts to those ids.
+ */
+public record ApplicationQueueFilter(
+    List<String> statuses,
+    List<String> loanTypes,
+    LocalDate dateFrom,
+    LocalDate dateTo,
+    BigDecimal amountFrom,
+    BigDecimal amountTo,
+    String sortBy,
+    String searchApplicationId,
+    String searchBorrowerEmail,
+    String searchBorrowerName,
+    List<UUID> searchMatches
+) {
+
+    public ApplicationQueueFilter(List<String> statuses, List<String> loanTypes, LocalDate dateFrom, LocalDate dateTo,
+                                  BigDecimal amountFrom, BigDecimal amountTo, String sortBy, String searchApplicationId,
+                                  String searchBorrowerEmail, String searchBorrowerName) {
+        this(statuses, loanTypes, dateFrom, dateTo, amountFrom, amountTo, sortBy, searchApplicationId,
+            searchBorrowerEmail, searchBorrowerName, null);
+    }
+
+    /**
+     * Whether any search term was given, even a blank one (which matches nothing).
+     */
+    public boolean hasSearch() {
+        return searchApplicationId != null || searchBorrowerEmail != null || searchBorrowerName != null;
+    }
+
+    public ApplicationQueueFilter withSearchMatches(List<UUID> matches) {
+        return new ApplicationQueueFilter(statuses, loanTypes, dateFrom, dateTo, amountFrom, amountTo, sortBy,
+            searchApplicationId, searchBorrowerEmail, searchBorrowerName, matches);
+    }
+}
@@ -14,6 +14,8 @@ import lombok.NoArgsConstructor;
 public class ApplicationQueueRequest {
     private Integer limit;
     private Integer offset;
+    private String cursor; // keyset cursor from a previous page; replaces offset when set
+    private boolean includeTotal; // count the queue on cursor pages after the first as well
 
     private String status; // filter by application status
 
@@ -14,10 +14,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ApplicationQueueResponse {
     private List<ApplicationQueueItem> applications;
-    private int totalCount;
+    private Integer totalCount; // null on cursor pages after the first unless the total was requested
     private int limit;
     private int offset;
     private boolean hasMore;
+    private String nextCursor; // keyset cursor of the following page, null on the last page
+    private boolean searchTruncated; // search matched more applications than are resolved; totals and pages cover the first ones only
 
     private ApplicationQueueMetrics queueMetrics;
     private LocalDateTime retrievedAt;
@@ -0,0 +1,27 @@
+package com.creditapp.bank.dto;
+
+import com.creditapp.borrower.model.ApplicationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One application in a bank's queue with its borrower and the bank's latest offer, as projected by the queue query.
+ * Borrower columns are null when the borrower user no longer exists.
+ */
+public record ApplicationQueueRow(
+    UUID applicationId,
+    UUID borrowerUserId,
+    String borrowerFirstName,
+    String borrowerLastName,
+    String borrowerEmail,
+    BigDecimal loanAmount,
+    Integer termMonths,
+    BigDecimal offerApr,
+    BigDecimal offerMonthlyPayment,
+    ApplicationStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime submittedAt,
+    LocalDateTime updatedAt
+) {}
@@ -0,0 +1,9 @@
+package com.creditapp.bank.dto;
+
+/**
+ * Dashboard figures of one bank over offers created since a period start, computed by a single aggregate query.
+ * Sums are null when no offer matched.
+ */
+public record DashboardAggregate(Long applicationsToday, Long applicationsAll, Long offersSubmitted,
+                                 Long offersAccepted, Long timeToOfferDaysSum, Long timeToOfferCount) {
+}
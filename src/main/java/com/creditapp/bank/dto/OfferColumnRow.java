@@ -0,0 +1,26 @@
+package com.creditapp.bank.dto;
+
+import com.creditapp.bank.model.OfferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Offer joined with the application attributes needed to build a bank's columnar offer snapshot.
+ * Application fields are null when the application no longer exists.
+ */
+public record OfferColumnRow(
+        UUID offerId,
+        UUID applicationId,
+        OfferStatus offerStatus,
+        BigDecimal apr,
+        BigDecimal monthlyPayment,
+        LocalDateTime createdAt,
+        LocalDateTime offerSubmittedAt,
+        LocalDateTime borrowerSelectedAt,
+        LocalDateTime updatedAt,
+        String loanType,
+        BigDecimal loanAmount,
+        LocalDateTime applicationCreatedAt) {
+}
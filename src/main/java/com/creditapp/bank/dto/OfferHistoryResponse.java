@@ -24,4 +24,6 @@ public class OfferHistoryResponse {
     private Integer page;
     
     private Integer pageSize;
+    
+    private String nextCursor; // keyset cursor of the following page, null on the last page
 }
@@ -0,0 +1,9 @@
+package com.creditapp.bank.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Offer count and latest update time of one bank, used to check whether a cached offer snapshot is current.
+ */
+public record OfferWatermark(Long count, LocalDateTime maxUpdatedAt) {
+}
@@ -0,0 +1,18 @@
+package com.creditapp.bank.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Submitted offer joined with the application attributes the analytics rollup buckets by.
+ */
+public record SubmittedOfferFact(
+        UUID bankId,
+        String loanType,
+        BigDecimal loanAmount,
+        LocalDateTime applicationCreatedAt,
+        BigDecimal apr,
+        LocalDateTime offerSubmittedAt,
+        LocalDateTime borrowerSelectedAt) {
+}
@@ -0,0 +1,26 @@
+package com.creditapp.bank.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after a transaction that refreshed rows of the bank application queue read model commits.
+ * Carries the refreshed rows with their current application status.
+ */
+public class BankQueueChangedEvent extends ApplicationEvent {
+    private final List<Change> changes;
+
+    public BankQueueChangedEvent(Object source, List<Change> changes) {
+        super(source);
+        this.changes = List.copyOf(changes);
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public record Change(UUID bankId, UUID applicationId, String status) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.creditapp.bank.event;
+
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import org.springframework.context.ApplicationEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by the service that calculates, submits, reprices, selects, withdraws or expires an offer, in the
+ * transaction that writes it. Carries a snapshot of the offer and the status it had before the change
+ * ({@code null} for a new offer), so listeners can tell a transition from a rewrite in the same status.
+ */
+public class OfferChangedEvent extends ApplicationEvent {
+    private final UUID offerId;
+    private final UUID applicationId;
+    private final UUID bankId;
+    private final OfferStatus previousStatus;
+    private final OfferStatus status;
+    private final BigDecimal apr;
+    private final BigDecimal monthlyPayment;
+    private final BigDecimal totalCost;
+    private final LocalDateTime expiresAt;
+
+    public OfferChangedEvent(Object source, Offer offer, OfferStatus previousStatus) {
+        super(source);
+        this.offerId = offer.getId();
+        this.applicationId = offer.getApplicationId();
+        this.bankId = offer.getBankId();
+        this.previousStatus = previousStatus;
+        this.status = offer.getOfferStatus();
+        this.apr = offer.getApr();
+        this.monthlyPayment = offer.getMonthlyPayment();
+        this.totalCost = offer.getTotalCost();
+        this.expiresAt = offer.getExpiresAt();
+    }
+
+    /**
+     * @return true if the offer did not exist before this change
+     */
+    public boolean isCreated() {
+        return previousStatus == null;
+    }
+
+    /**
+     * @return true if this change moved the offer into an expired status
+     */
+    public boolean isExpiry() {
+        return isExpired(status) && !isExpired(previousStatus);
+    }
+
+    private static boolean isExpired(OfferStatus status) {
+        return status == OfferStatus.EXPIRED || status == OfferStatus.EXPIRED_WITH_SELECTION;
+    }
+
+    public UUID getOfferId() {
+        return offerId;
+    }
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+    public UUID getBankId() {
+        return bankId;
+    }
+
+    public OfferStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public OfferStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getApr() {
+        return apr;
+    }
+
+    public BigDecimal getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,29 @@
+package com.creditapp.bank.event;
+
+import com.creditapp.bank.model.BankRateCard;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.UUID;
+
+/**
+ * Published when a bank creates or updates a rate card.
+ * Carries the newly active card version and the id of the version it replaced (if any).
+ */
+public class RateCardChangedEvent extends ApplicationEvent {
+    private final BankRateCard activeCard;
+    private final UUID replacedCardId;
+
+    public RateCardChangedEvent(Object source, BankRateCard activeCard, UUID replacedCardId) {
+        super(source);
+        this.activeCard = activeCard;
+        this.replacedCardId = replacedCardId;
+    }
+
+    public BankRateCard getActiveCard() {
+        return activeCard;
+    }
+
+    public UUID getReplacedCardId() {
+        return replacedCardId;
+    }
+}
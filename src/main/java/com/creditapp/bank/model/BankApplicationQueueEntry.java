@@ -0,0 +1,115 @@
+package com.creditapp.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model row of the bank application queue: one application a bank has offered on, with the borrower,
+ * selected and latest offer, document and approval state already joined. Also serves the bank admin queue, whose
+ * sort keys are indexed behind the bank id (V48).
+ * Written only by BankApplicationQueueProjection with SQL; immutable to JPA.
+ */
+@Entity
+@Immutable
+@IdClass(BankApplicationQueueEntry.Key.class)
+@Table(name = "bank_application_queue",
+        indexes = {
+                @Index(name = "idx_bank_application_queue_bank_latest",
+                        columnList = "bank_id, latest_offer_at DESC, application_id DESC"),
+                @Index(name = "idx_bank_application_queue_application", columnList = "application_id"),
+                @Index(name = "idx_bank_application_queue_bank_submitted",
+                        columnList = "bank_id, submitted_at, application_id"),
+                @Index(name = "idx_bank_application_queue_bank_amount",
+                        columnList = "bank_id, loan_amount, application_id"),
+                @Index(name = "idx_bank_application_queue_bank_status",
+                        columnList = "bank_id, application_status, application_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BankApplicationQueueEntry {
+
+    @Id
+    @Column(name = "bank_id")
+    private UUID bankId;
+
+    @Id
+    @Column(name = "application_id")
+    private UUID applicationId;
+
+    @Column(name = "borrower_id")
+    private UUID borrowerId;
+
+    @Column(name = "borrower_name")
+    private String borrowerName;
+
+    @Column(name = "borrower_first_name", length = 100)
+    private String borrowerFirstName;
+
+    @Column(name = "borrower_last_name", length = 100)
+    private String borrowerLastName;
+
+    @Column(name = "borrower_email")
+    private String borrowerEmail;
+
+    @Column(name = "borrower_phone", length = 50)
+    private String borrowerPhone;
+
+    @Column(name = "loan_type", length = 50)
+    private String loanType;
+
+    @Column(name = "loan_amount", precision = 15, scale = 2)
+    private BigDecimal loanAmount;
+
+    @Column(name = "term_months")
+    private Integer termMonths;
+
+    @Column(name = "application_status", length = 50)
+    private String applicationStatus;
+
+    @Column(name = "approval_status", nullable = false, length = 20)
+    private String approvalStatus;
+
+    @Column(name = "documents_status", nullable = false, length = 20)
+    private String documentsStatus;
+
+    @Column(name = "selected_offer_apr", precision = 5, scale = 2)
+    private BigDecimal selectedOfferApr;
+
+    @Column(name = "selected_offer_monthly_payment", precision = 15, scale = 2)
+    private BigDecimal selectedOfferMonthlyPayment;
+
+    @Column(name = "latest_offer_apr", precision = 5, scale = 2)
+    private BigDecimal latestOfferApr;
+
+    @Column(name = "latest_offer_monthly_payment", precision = 15, scale = 2)
+    private BigDecimal latestOfferMonthlyPayment;
+
+    @Column(name = "received_at")
+    private LocalDateTime receivedAt;
+
+    @Column(name = "submitted_at")
+    private LocalDateTime submittedAt;
+
+    @Column(name = "application_updated_at")
+    private LocalDateTime applicationUpdatedAt;
+
+    @Column(name = "latest_offer_at", nullable = false)
+    private LocalDateTime latestOfferAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID bankId;
+        private UUID applicationId;
+    }
+}
@@ -0,0 +1,89 @@
+package com.creditapp.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Daily rollup of a bank's submitted offers, bucketed by loan type and amount range.
+ * Offers are attributed to the day they were submitted; accepted counts follow the offer's submission day.
+ * Ids are assigned when a row is built, so new rows report themselves as new and are persisted in insert batches
+ * instead of being merged, which would select each id first.
+ */
+@Entity
+@Table(name = "bank_daily_metrics",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bank_daily_metrics_bucket",
+                columnNames = {"bank_id", "metric_date", "loan_type", "amount_range"}),
+        indexes = @Index(name = "idx_bank_daily_metrics_bank_date", columnList = "bank_id, metric_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BankDailyMetric implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "bank_id", nullable = false)
+    private UUID bankId;
+
+    @Column(name = "metric_date", nullable = false)
+    private LocalDate metricDate;
+
+    @Column(name = "loan_type", nullable = false, length = 50)
+    private String loanType;
+
+    @Column(name = "amount_range", nullable = false, length = 20)
+    private String amountRange;
+
+    @Column(name = "offers_count", nullable = false)
+    private long offersCount;
+
+    @Column(name = "accepted_count", nullable = false)
+    private long acceptedCount;
+
+    @Column(name = "apr_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal aprSum;
+
+    @Column(name = "time_to_offer_hours_sum", nullable = false)
+    private long timeToOfferHoursSum;
+
+    @Column(name = "time_to_offer_count", nullable = false)
+    private long timeToOfferCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
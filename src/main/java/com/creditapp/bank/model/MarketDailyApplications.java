@@ -0,0 +1,34 @@
+package com.creditapp.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Daily count of applications created across the whole market, the denominator of bank conversion rates.
+ */
+@Entity
+@Table(name = "market_daily_applications")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketDailyApplications {
+
+    @Id
+    @Column(name = "metric_date")
+    private LocalDate metricDate;
+
+    @Column(name = "applications_count", nullable = false)
+    private long applicationsCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.creditapp.bank.model;
 
+import com.creditapp.shared.model.EntityChangeListener;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -12,6 +13,7 @@ import java.util.UUID;
  * Entity representing a loan offer made by a bank for a borrower's application.
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "offers")
 public class Offer {
     
@@ -81,6 +83,14 @@ public class Offer {
     @Column(name = "notified", nullable = false)
     private boolean notified = false;
 
+    /** offerSubmittedAt as last loaded from or written to the database; null for a new offer. */
+    @Transient
+    private LocalDateTime persistedOfferSubmittedAt;
+
+    /** offerStatus as last loaded from or written to the database; null for a new offer. */
+    @Transient
+    private OfferStatus persistedOfferStatus;
+
     // Constructors
     public Offer() {}
 
@@ -220,6 +230,14 @@ public class Offer {
         this.offerSubmittedAt = offerSubmittedAt;
     }
 
+    public LocalDateTime getPersistedOfferSubmittedAt() {
+        return persistedOfferSubmittedAt;
+    }
+
+    public OfferStatus getPersistedOfferStatus() {
+        return persistedOfferStatus;
+    }
+
     public LocalDateTime getBorrowerSelectedAt() {
         return borrowerSelectedAt;
     }
@@ -272,4 +290,13 @@ public class Offer {
     public boolean isExpired() {
         return LocalDateTime.now().isAfter(this.expiresAt);
     }
-}
\ No newline at end of file
+
+    // Entity listener callbacks run before this one, so they still see the previous submission time and status
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedState() {
+        this.persistedOfferSubmittedAt = offerSubmittedAt;
+        this.persistedOfferStatus = offerStatus;
+    }
+}
@@ -0,0 +1,43 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.dto.ApplicationQueueFilter;
+import com.creditapp.bank.dto.ApplicationQueueRow;
+import com.creditapp.shared.dto.CursorPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria and search queries behind the bank admin application queue, mixed into {@link OfferRepository}.
+ */
+public interface ApplicationQueueQueries {
+
+    /**
+     * One page of the applications the bank has offered on, filtered, searched and sorted in the database.
+     */
+    Page<ApplicationQueueRow> findApplicationQueue(UUID bankId, ApplicationQueueFilter filter, Pageable pageable);
+
+    /**
+     * Up to {@code limit} queue rows following {@code after} (from the start when null) in the filter's sort, found
+     * by seeking past the position's sort key and id instead of skipping an offset.
+     */
+    CursorPage<ApplicationQueueRow> findApplicationQueueAfter(UUID bankId, ApplicationQueueFilter filter,
+                                                              ApplicationQueueSort.Position after, int limit);
+
+    /**
+     * Number of queue rows matching the filter.
+     */
+    long countApplicationQueue(UUID bankId, ApplicationQueueFilter filter);
+
+    /**
+     * Up to {@code limit} ids of the bank's applications matching any of the filter's search terms: application id
+     * prefix, or a substring of the borrower's email or full name (case-insensitive), lowest ids first so repeated
+     * calls return the same subset. Blank terms match nothing.
+     * Borrower terms are answered from trigram indexes, so the cost follows the number of matches rather than the
+     * bank's history.
+     */
+    List<UUID> searchApplicationIds(UUID bankId, ApplicationQueueFilter filter, int limit);
+}
+
@@ -0,0 +1,280 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.dto.ApplicationQueueFilter;
+import com.creditapp.bank.dto.ApplicationQueueRow;
+import com.creditapp.bank.model.BankApplicationQueueEntry;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.shared.dto.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the application queue from the {@code bank_application_queue} read model, which already holds each
+ * application's borrower and the bank's latest offer, so a page is one range scan of the bank's (key, id) index
+ * (V48). Filters, sort and limit/offset are all part of the SQL; the count query only runs when the page does not
+ * already determine the total. The keyset variant seeks past a cursor instead of an offset. Search terms are
+ * resolved to application ids beforehand by an indexed native query.
+ */
+class ApplicationQueueQueriesImpl implements ApplicationQueueQueries {
+
+    private final EntityManager entityManager;
+
+    ApplicationQueueQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<ApplicationQueueRow> findApplicationQueue(UUID bankId, ApplicationQueueFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<BankApplicationQueueEntry> entry = query.from(BankApplicationQueueEntry.class);
+
+        query.multiselect(columns(entry))
+            .where(predicates(cb, entry, bankId, filter))
+            .orderBy(order(cb, entry, ApplicationQueueSort.of(filter.sortBy())));
+
+        List<ApplicationQueueRow> rows = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultStream()
+            .map(ApplicationQueueQueriesImpl::row)
+            .toList();
+        return PageableExecutionUtils.getPage(rows, pageable, () -> countApplicationQueue(bankId, filter));
+    }
+
+    @Override
+    public CursorPage<ApplicationQueueRow> findApplicationQueueAfter(UUID bankId, ApplicationQueueFilter filter,
+                                                                     ApplicationQueueSort.Position after, int limit) {
+        ApplicationQueueSort sort = ApplicationQueueSort.of(filter.sortBy());
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<BankApplicationQueueEntry> entry = query.from(BankApplicationQueueEntry.class);
+
+        List<Predicate> predicates = new ArrayList<>(List.of(predicates(cb, entry, bankId, filter)));
+        if (after != null) {
+            predicates.add(after(cb, entry, sort, after));
+        }
+        query.multiselect(columns(entry))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(order(cb, entry, sort));
+
+        // One extra row tells whether another page follows
+        List<ApplicationQueueRow> rows = entityManager.createQuery(query)
+            .setMaxResults(limit + 1)
+            .getResultStream()
+            .map(ApplicationQueueQueriesImpl::row)
+            .toList();
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ApplicationQueueRow> page = List.copyOf(rows.subList(0, limit));
+        return new CursorPage<>(page, sort.cursorAfter(page.get(limit - 1)));
+    }
+
+    @Override
+    public long countApplicationQueue(UUID bankId, ApplicationQueueFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<BankApplicationQueueEntry> entry = query.from(BankApplicationQueueEntry.class);
+
+        query.select(cb.count(entry))
+            .where(predicates(cb, entry, bankId, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<UUID> searchApplicationIds(UUID bankId, ApplicationQueueFilter filter, int limit) {
+        // Expressions match the indexes of V38 so PostgreSQL can use them
+        List<String> matches = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (hasText(filter.searchApplicationId())) {
+            matches.add("CAST(a.id AS VARCHAR) LIKE :idPrefix ESCAPE '\\'");
+            parameters.put("idPrefix", escapeLike(filter.searchApplicationId().trim().toLowerCase()) + "%");
+        }
+        List<String> borrowerMatches = new ArrayList<>();
+        if (hasText(filter.searchBorrowerEmail())) {
+            borrowerMatches.add("lower(u.email) LIKE :email ESCAPE '\\'");
+            parameters.put("email", contains(filter.searchBorrowerEmail().toLowerCase()));
+        }
+        if (hasText(filter.searchBorrowerName())) {
+            borrowerMatches.add("lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')) LIKE :name ESCAPE '\\'");
+            parameters.put("name", contains(filter.searchBorrowerName().toLowerCase()));
+        }
+        if (!borrowerMatches.isEmpty()) {
+            matches.add("a.borrower_id IN (SELECT u.id FROM users u WHERE " + String.join(" OR ", borrowerMatches) + ")");
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = entityManager.createNativeQuery("SELECT a.id FROM applications a "
+                + "WHERE (" + String.join(" OR ", matches) + ") "
+                + "AND EXISTS (SELECT 1 FROM offers o WHERE o.bank_id = :bankId AND o.application_id = a.id) "
+                + "ORDER BY a.id LIMIT :limit", UUID.class)
+            .setParameter("bankId", bankId)
+            .setParameter("limit", limit);
+        parameters.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = query.getResultList();
+        return ids;
+    }
+
+    /**
+     * Selected as plain values: the projection rewrites read model rows with SQL, which a managed entity would not
+     * see.
+     */
+    private static List<Selection<?>> columns(Root<BankApplicationQueueEntry> entry) {
+        return List.of(
+            entry.get("applicationId"),
+            entry.get("borrowerId"),
+            entry.get("borrowerName"),
+            entry.get("borrowerFirstName"),
+            entry.get("borrowerLastName"),
+            entry.get("borrowerEmail"),
+            entry.get("loanAmount"),
+            entry.get("termMonths"),
+            entry.get("latestOfferApr"),
+            entry.get("latestOfferMonthlyPayment"),
+            entry.get("applicationStatus"),
+            entry.get("receivedAt"),
+            entry.get("submittedAt"),
+            entry.get("applicationUpdatedAt"));
+    }
+
+    /**
+     * The borrower name is null exactly when the borrower user no longer exists.
+     */
+    private static ApplicationQueueRow row(Tuple tuple) {
+        String status = tuple.get(10, String.class);
+        return new ApplicationQueueRow(
+            tuple.get(0, UUID.class),
+            tuple.get(2) == null ? null : tuple.get(1, UUID.class),
+            tuple.get(3, String.class),
+            tuple.get(4, String.class),
+            tuple.get(5, String.class),
+            tuple.get(6, BigDecimal.class),
+            tuple.get(7, Integer.class),
+            tuple.get(8, BigDecimal.class),
+            tuple.get(9, BigDecimal.class),
+            status == null ? null : ApplicationStatus.valueOf(status),
+            tuple.get(11, LocalDateTime.class),
+            tuple.get(12, LocalDateTime.class),
+            tuple.get(13, LocalDateTime.class));
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<BankApplicationQueueEntry> entry, UUID bankId,
+                                          ApplicationQueueFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(entry.get("bankId"), bankId));
+
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            List<String> statuses = new ArrayList<>();
+            for (String status : filter.statuses()) {
+                for (ApplicationStatus candidate : ApplicationStatus.values()) {
+                    if (candidate.name().equals(status)) {
+                        statuses.add(candidate.name());
+                    }
+                }
+            }
+            predicates.add(statuses.isEmpty() ? cb.disjunction() : entry.get("applicationStatus").in(statuses));
+        }
+        if (filter.loanTypes() != null && !filter.loanTypes().isEmpty()) {
+            predicates.add(entry.get("loanType").in(filter.loanTypes()));
+        }
+
+        // Ranges only exclude applications that have the value
+        Path<LocalDateTime> submittedAt = entry.get("submittedAt");
+        if (filter.dateFrom() != null) {
+            predicates.add(cb.or(cb.isNull(submittedAt),
+                cb.greaterThanOrEqualTo(submittedAt, filter.dateFrom().atStartOfDay())));
+        }
+        if (filter.dateTo() != null) {
+            predicates.add(cb.or(cb.isNull(submittedAt),
+                cb.lessThan(submittedAt, filter.dateTo().plusDays(1).atStartOfDay())));
+        }
+        Path<BigDecimal> loanAmount = entry.get("loanAmount");
+        if (filter.amountFrom() != null) {
+            predicates.add(cb.or(cb.isNull(loanAmount), cb.greaterThanOrEqualTo(loanAmount, filter.amountFrom())));
+        }
+        if (filter.amountTo() != null) {
+            predicates.add(cb.or(cb.isNull(loanAmount), cb.lessThanOrEqualTo(loanAmount, filter.amountTo())));
+        }
+
+        // Search terms are resolved to matching application ids beforehand
+        if (filter.searchMatches() != null) {
+            predicates.add(filter.searchMatches().isEmpty()
+                ? cb.disjunction()
+                : entry.get("applicationId").in(filter.searchMatches()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * (key, id), both in the key's direction and with nulls where a plain B-tree scan yields them (last ascending,
+     * first descending), so the bank's (key, id) index serves the order forwards or backwards without a sort step.
+     */
+    private static List<Order> order(CriteriaBuilder cb, Root<BankApplicationQueueEntry> entry,
+                                     ApplicationQueueSort sort) {
+        // Explicit null placement, since databases disagree on the default
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        Path<?> key = entry.get(sort.attribute());
+        Path<?> id = entry.get("applicationId");
+        return sort.ascending()
+            ? List.<Order>of(hcb.asc(key, false), hcb.asc(id))
+            : List.<Order>of(hcb.desc(key, true), hcb.desc(id));
+    }
+
+    /**
+     * Rows that come after {@code position} in the sort's (key, id) order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<BankApplicationQueueEntry> entry,
+                                   ApplicationQueueSort sort, ApplicationQueueSort.Position position) {
+        Path<Comparable> key = entry.get(sort.attribute());
+        Path<UUID> id = entry.get("applicationId");
+        Predicate laterId = sort.ascending()
+            ? cb.greaterThan(id, position.applicationId())
+            : cb.lessThan(id, position.applicationId());
+        if (position.key() == null) {
+            // Nulls lead a descending order and trail an ascending one
+            Predicate laterInNullGroup = cb.and(cb.isNull(key), laterId);
+            return sort.ascending() ? laterInNullGroup : cb.or(laterInNullGroup, cb.isNotNull(key));
+        }
+        Comparable value = position.key();
+        Predicate beyond = sort.ascending() ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate tieAfter = cb.and(cb.equal(key, value), laterId);
+        return sort.ascending() ? cb.or(beyond, tieAfter, cb.isNull(key)) : cb.or(beyond, tieAfter);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String contains(String term) {
+        return "%" + escapeLike(term) + "%";
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
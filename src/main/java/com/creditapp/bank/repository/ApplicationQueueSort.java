@@ -0,0 +1,92 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.dto.ApplicationQueueRow;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.shared.util.KeysetCursor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sort orders of the bank admin application queue. Every order is (key, application id) with both in the same
+ * direction and nulls last ascending, first descending, which is the order of the read model's (bank, key, id)
+ * indexes and also the tuple a keyset cursor seeks past. Attributes are those of the bank application queue row.
+ */
+public enum ApplicationQueueSort {
+    NEWEST_FIRST("submittedAt", false),
+    OLDEST_FIRST("submittedAt", true),
+    AMOUNT_LOW_HIGH("loanAmount", true),
+    AMOUNT_HIGH_LOW("loanAmount", false),
+    STATUS("applicationStatus", true);
+
+    private final String attribute;
+    private final boolean ascending;
+
+    ApplicationQueueSort(String attribute, boolean ascending) {
+        this.attribute = attribute;
+        this.ascending = ascending;
+    }
+
+    /**
+     * The named sort; unknown or missing names fall back to newest first.
+     */
+    public static ApplicationQueueSort of(String sortBy) {
+        if (sortBy != null) {
+            for (ApplicationQueueSort sort : values()) {
+                if (sort.name().equalsIgnoreCase(sortBy)) {
+                    return sort;
+                }
+            }
+        }
+        return NEWEST_FIRST;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+
+    boolean ascending() {
+        return ascending;
+    }
+
+    /**
+     * Cursor for the page following {@code row}.
+     */
+    public String cursorAfter(ApplicationQueueRow row) {
+        Object key = switch (attribute) {
+            case "loanAmount" -> row.loanAmount();
+            case "applicationStatus" -> row.status();
+            default -> row.submittedAt();
+        };
+        return KeysetCursor.encode(name(), key, row.applicationId());
+    }
+
+    /**
+     * Decoded cursor position: the sort key as stored in the read model (null for rows without one) and the
+     * application id.
+     */
+    public record Position(Comparable<?> key, UUID applicationId) {
+    }
+
+    /**
+     * Decode a cursor issued by {@link #cursorAfter}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    public Position position(String cursor) {
+        List<String> keys = KeysetCursor.decode(cursor, name(), 2);
+        try {
+            String key = keys.get(0);
+            Comparable<?> value = key == null ? null : switch (attribute) {
+                case "loanAmount" -> new BigDecimal(key);
+                case "applicationStatus" -> ApplicationStatus.valueOf(key).name();
+                default -> LocalDateTime.parse(key);
+            };
+            return new Position(value, UUID.fromString(keys.get(1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor for sort " + name());
+        }
+    }
+}
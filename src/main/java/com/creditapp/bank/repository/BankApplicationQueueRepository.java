@@ -0,0 +1,45 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.model.BankApplicationQueueEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads of the bank application queue read model. Rows are selected through a constructor expression so they
+ * are never managed: the projection rewrites them with SQL, which a managed copy would not see.
+ */
+@Repository
+public interface BankApplicationQueueRepository extends JpaRepository<BankApplicationQueueEntry, BankApplicationQueueEntry.Key> {
+
+    String QUEUE_ROW_SELECT = "SELECT new com.creditapp.bank.model.BankApplicationQueueEntry(q.bankId, q.applicationId, " +
+            "q.borrowerId, q.borrowerName, q.borrowerFirstName, q.borrowerLastName, q.borrowerEmail, q.borrowerPhone, " +
+            "q.loanType, q.loanAmount, q.termMonths, q.applicationStatus, q.approvalStatus, q.documentsStatus, " +
+            "q.selectedOfferApr, q.selectedOfferMonthlyPayment, q.latestOfferApr, q.latestOfferMonthlyPayment, " +
+            "q.receivedAt, q.submittedAt, q.applicationUpdatedAt, q.latestOfferAt) FROM BankApplicationQueueEntry q ";
+
+    /**
+     * Queue page of a bank, most recent offer first.
+     */
+    @Query(QUEUE_ROW_SELECT + "WHERE q.bankId = :bankId ORDER BY q.latestOfferAt DESC, q.applicationId DESC")
+    List<BankApplicationQueueEntry> findQueue(@Param("bankId") UUID bankId, Pageable pageable);
+
+    /**
+     * Keyset queue page following the row at (latestOfferAt, applicationId).
+     */
+    @Query(QUEUE_ROW_SELECT + "WHERE q.bankId = :bankId " +
+           "AND (q.latestOfferAt < :latestOfferAt OR (q.latestOfferAt = :latestOfferAt AND q.applicationId < :applicationId)) " +
+           "ORDER BY q.latestOfferAt DESC, q.applicationId DESC")
+    List<BankApplicationQueueEntry> findQueueBefore(@Param("bankId") UUID bankId,
+                                                    @Param("latestOfferAt") LocalDateTime latestOfferAt,
+                                                    @Param("applicationId") UUID applicationId,
+                                                    Pageable pageable);
+
+    long countByBankId(UUID bankId);
+}
@@ -0,0 +1,26 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.model.BankDailyMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BankDailyMetricRepository extends JpaRepository<BankDailyMetric, UUID> {
+
+    List<BankDailyMetric> findByBankIdAndMetricDateBetween(UUID bankId, LocalDate dateFrom, LocalDate dateTo);
+
+    @Modifying
+    @Query("DELETE FROM BankDailyMetric m WHERE m.bankId = :bankId AND m.metricDate = :metricDate")
+    int deleteByBankIdAndMetricDate(@Param("bankId") UUID bankId, @Param("metricDate") LocalDate metricDate);
+
+    @Modifying
+    @Query("DELETE FROM BankDailyMetric m WHERE m.metricDate = :metricDate")
+    int deleteByMetricDate(@Param("metricDate") LocalDate metricDate);
+}
@@ -0,0 +1,14 @@
+package com.creditapp.bank.repository;
+
+import com.creditapp.bank.model.MarketDailyApplications;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MarketDailyApplicationsRepository extends JpaRepository<MarketDailyApplications, LocalDate> {
+
+    List<MarketDailyApplications> findByMetricDateBetween(LocalDate dateFrom, LocalDate dateTo);
+}
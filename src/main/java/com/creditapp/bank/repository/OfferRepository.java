@@ -1,7 +1,13 @@
 package com.creditapp.bank.repository;
 
+import com.creditapp.bank.dto.ApplicationOfferCount;
+import com.creditapp.bank.dto.DashboardAggregate;
+import com.creditapp.bank.dto.OfferColumnRow;
+import com.creditapp.bank.dto.OfferWatermark;
+import com.creditapp.bank.dto.SubmittedOfferFact;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.borrower.model.ApplicationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,14 +15,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface OfferRepository extends JpaRepository<Offer, UUID> {
+public interface OfferRepository extends JpaRepository<Offer, UUID>, ApplicationQueueQueries {
+    String OFFER_COLUMN_ROW_SELECT = "SELECT new com.creditapp.bank.dto.OfferColumnRow(o.id, o.applicationId, o.offerStatus, " +
+            "o.apr, o.monthlyPayment, o.createdAt, o.offerSubmittedAt, o.borrowerSelectedAt, o.updatedAt, " +
+            "a.loanType, a.loanAmount, a.createdAt) FROM Offer o LEFT JOIN Application a ON o.applicationId = a.id ";
+
     List<Offer> findByApplicationId(UUID applicationId);
     Page<Offer> findByApplicationId(UUID applicationId, Pageable pageable);
+    List<Offer> findByApplicationIdIn(Collection<UUID> applicationIds);
     Optional<Offer> findByApplicationIdAndBankId(UUID applicationId, UUID bankId);
+    List<Offer> findByBankIdAndApplicationIdIn(UUID bankId, Collection<UUID> applicationIds);
     List<Offer> findByExpiresAtBefore(LocalDateTime expirationTime);
     List<Offer> findByApplicationIdOrderByAprAsc(UUID applicationId);
     
@@ -36,12 +49,20 @@ public interface OfferRepository extends JpaRepository<Offer, UUID> {
      */
     @Query("SELECT o FROM Offer o WHERE o.bankId = :bankId ORDER BY o.createdAt DESC")
     Page<Offer> findByBankId(@Param("bankId") UUID bankId, Pageable pageable);
-    
+
     /**
      * Count distinct applications that have at least one offer from the bank.
      */
     @Query("SELECT COUNT(DISTINCT o.applicationId) FROM Offer o WHERE o.bankId = :bankId")
     Long countDistinctApplicationsByBankId(@Param("bankId") UUID bankId);
+
+    /**
+     * Count distinct applications in a status that have at least one offer from the bank.
+     */
+    @Query("SELECT COUNT(DISTINCT o.applicationId) FROM Offer o JOIN Application a ON o.applicationId = a.id " +
+           "WHERE o.bankId = :bankId AND a.status = :status")
+    long countDistinctApplicationsByBankIdAndStatus(@Param("bankId") UUID bankId,
+                                                    @Param("status") ApplicationStatus status);
     
     /**
      * Find the currently selected (ACCEPTED) offer for an application.
@@ -124,6 +145,33 @@ public interface OfferRepository extends JpaRepository<Offer, UUID> {
      */
     @Query("SELECT o FROM Offer o WHERE o.bankId = :bankId AND o.createdAt >= :createdAfter")
     List<Offer> findByBankIdAndCreatedAtAfter(@Param("bankId") UUID bankId, @Param("createdAfter") LocalDateTime createdAfter);
+
+    /**
+     * Dashboard figures of a bank over offers created at or after {@code createdAfter}, in one aggregate query
+     * served by the (bank_id, created_at) covering index. Time to offer is whole days from creation to submission.
+     */
+    @Query("SELECT new com.creditapp.bank.dto.DashboardAggregate(" +
+           "COUNT(DISTINCT CASE WHEN o.createdAt >= :todayStart THEN o.applicationId END), " +
+           "COUNT(DISTINCT o.applicationId), " +
+           "SUM(CASE WHEN o.offerStatus IN :submittedStatuses THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN o.offerStatus IN :acceptedStatuses THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN o.offerSubmittedAt IS NOT NULL THEN ((o.offerSubmittedAt - o.createdAt) BY SECOND) / 86400 ELSE 0 END), " +
+           "COUNT(o.offerSubmittedAt)) " +
+           "FROM Offer o WHERE o.bankId = :bankId AND o.createdAt >= :createdAfter")
+    DashboardAggregate aggregateDashboard(@Param("bankId") UUID bankId,
+                                          @Param("createdAfter") LocalDateTime createdAfter,
+                                          @Param("todayStart") LocalDateTime todayStart,
+                                          @Param("submittedStatuses") Collection<OfferStatus> submittedStatuses,
+                                          @Param("acceptedStatuses") Collection<OfferStatus> acceptedStatuses);
+
+    /**
+     * Offers of a bank per application over offers created at or after {@code createdAfter}; seeds the running
+     * distinct-application counter of the TODAY dashboard. Served by the same covering index as the aggregate.
+     */
+    @Query("SELECT new com.creditapp.bank.dto.ApplicationOfferCount(o.applicationId, COUNT(o)) " +
+           "FROM Offer o WHERE o.bankId = :bankId AND o.createdAt >= :createdAfter GROUP BY o.applicationId")
+    List<ApplicationOfferCount> countOffersByApplication(@Param("bankId") UUID bankId,
+                                                         @Param("createdAfter") LocalDateTime createdAfter);
     
     /**
      * Find offers by bank submitted between two dates for analytics.
@@ -134,4 +182,46 @@ public interface OfferRepository extends JpaRepository<Offer, UUID> {
      * @return list of offers
      */
     List<Offer> findByBankIdAndOfferSubmittedAtBetween(UUID bankId, LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Submitted offers of one bank in a time window, joined with their applications, for the daily analytics rollup.
+     */
+    @Query("SELECT new com.creditapp.bank.dto.SubmittedOfferFact(o.bankId, a.loanType, a.loanAmount, a.createdAt, " +
+           "o.apr, o.offerSubmittedAt, o.borrowerSelectedAt) FROM Offer o JOIN Application a ON o.applicationId = a.id " +
+           "WHERE o.bankId = :bankId AND o.offerSubmittedAt BETWEEN :startDate AND :endDate")
+    List<SubmittedOfferFact> findSubmittedOfferFacts(@Param("bankId") UUID bankId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Submitted offers of all banks in a time window, joined with their applications, for rollup backfill.
+     */
+    @Query("SELECT new com.creditapp.bank.dto.SubmittedOfferFact(o.bankId, a.loanType, a.loanAmount, a.createdAt, " +
+           "o.apr, o.offerSubmittedAt, o.borrowerSelectedAt) FROM Offer o JOIN Application a ON o.applicationId = a.id " +
+           "WHERE o.offerSubmittedAt BETWEEN :startDate AND :endDate")
+    List<SubmittedOfferFact> findAllSubmittedOfferFacts(@Param("startDate") LocalDateTime startDate,
+                                                        @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MIN(o.offerSubmittedAt) FROM Offer o")
+    LocalDateTime findEarliestOfferSubmittedAt();
+
+    /**
+     * All offers of a bank as column rows, newest first, for a full columnar snapshot load.
+     */
+    @Query(OFFER_COLUMN_ROW_SELECT + "WHERE o.bankId = :bankId ORDER BY o.createdAt DESC")
+    List<OfferColumnRow> findOfferColumnRows(@Param("bankId") UUID bankId);
+
+    /**
+     * Offers of a bank updated at or after a watermark, for an incremental snapshot refresh.
+     */
+    @Query(OFFER_COLUMN_ROW_SELECT + "WHERE o.bankId = :bankId AND o.updatedAt >= :since")
+    List<OfferColumnRow> findOfferColumnRowsUpdatedSince(@Param("bankId") UUID bankId,
+                                                         @Param("since") LocalDateTime since);
+
+    @Query(OFFER_COLUMN_ROW_SELECT + "WHERE o.bankId = :bankId AND o.id IN :offerIds")
+    List<OfferColumnRow> findOfferColumnRowsByIds(@Param("bankId") UUID bankId,
+                                                  @Param("offerIds") Collection<UUID> offerIds);
+
+    @Query("SELECT new com.creditapp.bank.dto.OfferWatermark(COUNT(o), MAX(o.updatedAt)) FROM Offer o WHERE o.bankId = :bankId")
+    OfferWatermark findOfferWatermark(@Param("bankId") UUID bankId);
+}
@@ -0,0 +1,55 @@
+package com.creditapp.bank.scheduler;
+
+import com.creditapp.bank.service.BankApplicationQueueProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Rebuilds the bank application queue read model from the source tables. Runs once at startup when the
+ * read model is empty (first deployment, or after it was truncated), and on demand for repairs.
+ */
+@Component
+public class BankApplicationQueueRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BankApplicationQueueRebuildJob.class);
+
+    private final BankApplicationQueueProjection queueProjection;
+
+    @Value("${app.application-queue.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    public BankApplicationQueueRebuildJob(BankApplicationQueueProjection queueProjection) {
+        this.queueProjection = queueProjection;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup && queueProjection.isEmpty()) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Rebuild the rows of every bank, one transaction per bank.
+     */
+    public void rebuildAll() {
+        logger.info("Starting bank application queue rebuild");
+        int rows = 0;
+        int banks = 0;
+        for (UUID bankId : queueProjection.findBankIds()) {
+            try {
+                rows += queueProjection.rebuildBank(bankId);
+                banks++;
+            } catch (Exception e) {
+                logger.error("Bank application queue rebuild failed for bank {}: {}", bankId, e.getMessage(), e);
+            }
+        }
+        logger.info("Bank application queue rebuild completed: {} banks, {} rows", banks, rows);
+    }
+}
@@ -0,0 +1,57 @@
+package com.creditapp.bank.scheduler;
+
+import com.creditapp.bank.service.BankDailyMetricsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly rebuild of the daily analytics rollups. The first run backfills the whole history;
+ * later runs rebuild a trailing window to pick up changes the incremental refresh missed
+ * (e.g. marks lost on restart or offers moved to another submission day).
+ */
+@Component
+public class BankDailyMetricsBackfillScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BankDailyMetricsBackfillScheduler.class);
+    
+    private final BankDailyMetricsService dailyMetricsService;
+    
+    @Value("${app.analytics.rollup.backfill-days:3}")
+    private int backfillDays;
+    
+    public BankDailyMetricsBackfillScheduler(BankDailyMetricsService dailyMetricsService) {
+        this.dailyMetricsService = dailyMetricsService;
+    }
+    
+    @Scheduled(cron = "${app.analytics.rollup.backfill-cron:0 30 0 * * *}", zone = "UTC")
+    public void backfillDaily() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate from = dailyMetricsService.hasRollups()
+                ? yesterday.minusDays(backfillDays - 1L)
+                : dailyMetricsService.findEarliestActivityDate().orElse(yesterday);
+        backfill(from, yesterday);
+    }
+    
+    /**
+     * Rebuild the rollups for every day in the range, one transaction per day.
+     */
+    public void backfill(LocalDate dateFrom, LocalDate dateTo) {
+        logger.info("Starting analytics rollup backfill from {} to {}", dateFrom, dateTo);
+        int rows = 0;
+        int days = 0;
+        for (LocalDate day = dateFrom; !day.isAfter(dateTo); day = day.plusDays(1)) {
+            try {
+                rows += dailyMetricsService.backfillDay(day);
+                days++;
+            } catch (Exception e) {
+                logger.error("Analytics rollup backfill failed for {}: {}", day, e.getMessage(), e);
+            }
+        }
+        logger.info("Analytics rollup backfill completed: {} days, {} bank rows", days, rows);
+    }
+}
@@ -0,0 +1,287 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.AmountRangeBreakdownDTO;
+import com.creditapp.bank.dto.AnalyticsMetricsDTO;
+import com.creditapp.bank.dto.AnalyticsTrendDTO;
+import com.creditapp.bank.dto.LoanTypeBreakdownDTO;
+import com.creditapp.bank.dto.SubmittedOfferFact;
+import com.creditapp.bank.model.BankDailyMetric;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass accumulator for bank analytics over a date range.
+ * <p>
+ * Every input (a raw offer, a daily rollup row, or an application count) is added once; metrics,
+ * loan-type and amount-range breakdowns and trend buckets are all filled in that pass. Trend buckets
+ * are arrays indexed through a day-offset table, so placing an input in its DAILY/WEEKLY/MONTHLY
+ * bucket is an array lookup. Inputs dated outside the range are ignored. Not thread-safe.
+ */
+public final class AnalyticsAccumulator {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final long fromEpochDay;
+    private final int[] bucketByDayOffset;
+    private final LocalDate[] bucketStarts;
+    private final long[] bucketApplications;
+    private final long[] bucketOffers;
+    private final long[] bucketAccepted;
+
+    private final Map<String, long[]> loanTypeCounts = new HashMap<>();
+    private final long[] amountRangeCounts = new long[BankDailyMetricsService.AMOUNT_RANGES.size()];
+    private final long[] amountRangeAccepted = new long[BankDailyMetricsService.AMOUNT_RANGES.size()];
+
+    private long applications;
+    private long offers;
+    private long timeToOfferHours;
+    private long timeToOfferCount;
+    private BigDecimal aprSum = BigDecimal.ZERO;
+    private long aprBasisPointsSum;
+
+    public AnalyticsAccumulator(LocalDate dateFrom, LocalDate dateTo, String granularity) {
+        this.fromEpochDay = dateFrom.toEpochDay();
+        int days = (int) (dateTo.toEpochDay() - fromEpochDay + 1);
+        this.bucketByDayOffset = new int[Math.max(days, 0)];
+        
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate current = dateFrom;
+        while (!current.isAfter(dateTo)) {
+            LocalDate periodEnd = calculatePeriodEnd(current, granularity, dateTo);
+            int bucket = starts.size();
+            for (long day = current.toEpochDay(); day <= periodEnd.toEpochDay(); day++) {
+                bucketByDayOffset[(int) (day - fromEpochDay)] = bucket;
+            }
+            starts.add(current);
+            current = advancePeriod(current, granularity);
+        }
+        this.bucketStarts = starts.toArray(new LocalDate[0]);
+        this.bucketApplications = new long[bucketStarts.length];
+        this.bucketOffers = new long[bucketStarts.length];
+        this.bucketAccepted = new long[bucketStarts.length];
+    }
+
+    public static String determineGranularity(LocalDate dateFrom, LocalDate dateTo) {
+        long days = ChronoUnit.DAYS.between(dateFrom, dateTo);
+        if (days <= 7) {
+            return "DAILY";
+        } else if (days <= 90) {
+            return "WEEKLY";
+        } else {
+            return "MONTHLY";
+        }
+    }
+
+    public void addApplications(LocalDate day, long count) {
+        int bucket = bucketOf(day);
+        if (bucket < 0) {
+            return;
+        }
+        applications += count;
+        bucketApplications[bucket] += count;
+    }
+
+    public void addApplicationCreatedAt(LocalDateTime createdAt) {
+        addApplications(createdAt.toLocalDate(), 1);
+    }
+
+    public void addOffer(SubmittedOfferFact offer) {
+        int bucket = bucketOf(offer.offerSubmittedAt().toLocalDate());
+        if (bucket < 0) {
+            return;
+        }
+        long accepted = offer.borrowerSelectedAt() != null ? 1 : 0;
+        long hours = 0;
+        long timed = 0;
+        if (offer.applicationCreatedAt() != null) {
+            hours = Duration.between(offer.applicationCreatedAt(), offer.offerSubmittedAt()).toHours();
+            timed = 1;
+        }
+        add(bucket, offer.loanType(), BankDailyMetricsService.amountRangeIndex(offer.loanAmount()),
+            1, accepted, offer.apr(), hours, timed);
+    }
+
+    /**
+     * Add one offer from a columnar snapshot; APR in basis points ({@link BankOfferColumns#NULL_APR} when unknown)
+     * and an amount-range index of -1 when the loan amount is unknown.
+     */
+    public void addOffer(long submittedEpochDay, String loanType, int amountRange, boolean accepted,
+                         int aprBasisPoints, long timeToOfferHours) {
+        addOffer(submittedEpochDay, loanTypeSlot(loanType), amountRange, accepted, aprBasisPoints, timeToOfferHours);
+    }
+
+    /**
+     * As {@link #addOffer(long, String, int, boolean, int, long)} with the loan type already resolved through
+     * {@link #loanTypeSlot}, so scans over dictionary-encoded loan types skip the per-offer map lookup.
+     */
+    void addOffer(long submittedEpochDay, long[] loanTypeSlot, int amountRange, boolean accepted,
+                  int aprBasisPoints, long timeToOfferHours) {
+        int bucket = bucketOf(submittedEpochDay);
+        if (bucket < 0) {
+            return;
+        }
+        if (aprBasisPoints != BankOfferColumns.NULL_APR) {
+            aprBasisPointsSum += aprBasisPoints;
+        }
+        add(bucket, loanTypeSlot, amountRange, 1, accepted ? 1 : 0, null, timeToOfferHours, 1);
+    }
+
+    /**
+     * Counters of one loan type; types whose counters stay zero are left out of the breakdown.
+     */
+    long[] loanTypeSlot(String loanType) {
+        return loanTypeCounts.computeIfAbsent(loanType, k -> new long[2]);
+    }
+
+    public void addDailyMetric(BankDailyMetric metric) {
+        int bucket = bucketOf(metric.getMetricDate());
+        if (bucket < 0) {
+            return;
+        }
+        add(bucket, metric.getLoanType(), BankDailyMetricsService.AMOUNT_RANGES.indexOf(metric.getAmountRange()),
+            metric.getOffersCount(), metric.getAcceptedCount(), metric.getAprSum(),
+            metric.getTimeToOfferHoursSum(), metric.getTimeToOfferCount());
+    }
+
+    public AnalyticsMetricsDTO metrics() {
+        BigDecimal conversionRate = BigDecimal.ZERO;
+        if (applications > 0) {
+            conversionRate = BigDecimal.valueOf(offers)
+                    .multiply(HUNDRED)
+                    .divide(BigDecimal.valueOf(applications), 2, RoundingMode.HALF_UP);
+        }
+        double avgTimeToOfferHours = timeToOfferCount > 0 ? (double) timeToOfferHours / timeToOfferCount : 0.0;
+        BigDecimal avgAPR = offers > 0
+                ? aprSum.add(BigDecimal.valueOf(aprBasisPointsSum, 2)).divide(BigDecimal.valueOf(offers), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        
+        return AnalyticsMetricsDTO.builder()
+                .applicationsReceived(applications)
+                .offersSubmitted(offers)
+                .conversionRate(conversionRate)
+                .avgTimeToOfferHours(avgTimeToOfferHours)
+                .avgAPR(avgAPR)
+                .build();
+    }
+
+    public Map<String, LoanTypeBreakdownDTO> loanTypeBreakdown() {
+        Map<String, LoanTypeBreakdownDTO> breakdown = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : loanTypeCounts.entrySet()) {
+            long[] counts = entry.getValue();
+            if (counts[0] == 0) {
+                continue;
+            }
+            breakdown.put(entry.getKey(), LoanTypeBreakdownDTO.builder()
+                    .count(counts[0])
+                    .accepted(counts[1])
+                    .acceptanceRate(acceptanceRate(counts[1], counts[0]))
+                    .build());
+        }
+        return breakdown;
+    }
+
+    public Map<String, AmountRangeBreakdownDTO> amountRangeBreakdown() {
+        Map<String, AmountRangeBreakdownDTO> breakdown = new LinkedHashMap<>();
+        for (int i = 0; i < amountRangeCounts.length; i++) {
+            String range = BankDailyMetricsService.AMOUNT_RANGES.get(i);
+            breakdown.put(range, AmountRangeBreakdownDTO.builder()
+                    .range(range)
+                    .count(amountRangeCounts[i])
+                    .accepted(amountRangeAccepted[i])
+                    .acceptanceRate(acceptanceRate(amountRangeAccepted[i], amountRangeCounts[i]))
+                    .build());
+        }
+        return breakdown;
+    }
+
+    public List<AnalyticsTrendDTO> trends() {
+        List<AnalyticsTrendDTO> trends = new ArrayList<>(bucketStarts.length);
+        for (int i = 0; i < bucketStarts.length; i++) {
+            trends.add(AnalyticsTrendDTO.builder()
+                    .date(bucketStarts[i])
+                    .applicationsCount(bucketApplications[i])
+                    .offersCount(bucketOffers[i])
+                    .acceptanceRate(acceptanceRate(bucketAccepted[i], bucketOffers[i]))
+                    .build());
+        }
+        return trends;
+    }
+
+    private void add(int bucket, String loanType, int amountRange, long count, long accepted,
+                     BigDecimal apr, long hours, long timed) {
+        add(bucket, loanTypeSlot(loanType), amountRange, count, accepted, apr, hours, timed);
+    }
+
+    private void add(int bucket, long[] typeCounts, int amountRange, long count, long accepted,
+                     BigDecimal apr, long hours, long timed) {
+        offers += count;
+        timeToOfferHours += hours;
+        timeToOfferCount += timed;
+        if (apr != null) {
+            aprSum = aprSum.add(apr);
+        }
+        bucketOffers[bucket] += count;
+        bucketAccepted[bucket] += accepted;
+        
+        typeCounts[0] += count;
+        typeCounts[1] += accepted;
+        if (amountRange >= 0) {
+            amountRangeCounts[amountRange] += count;
+            amountRangeAccepted[amountRange] += accepted;
+        }
+    }
+
+    private int bucketOf(LocalDate day) {
+        return bucketOf(day.toEpochDay());
+    }
+
+    private int bucketOf(long epochDay) {
+        long offset = epochDay - fromEpochDay;
+        return offset < 0 || offset >= bucketByDayOffset.length ? -1 : bucketByDayOffset[(int) offset];
+    }
+
+    private static BigDecimal acceptanceRate(long accepted, long count) {
+        if (count == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(accepted)
+                .multiply(HUNDRED)
+                .divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static LocalDate calculatePeriodEnd(LocalDate start, String granularity, LocalDate maxDate) {
+        LocalDate end;
+        switch (granularity) {
+            case "WEEKLY":
+                end = start.plusDays(6);
+                break;
+            case "MONTHLY":
+                end = start.plusMonths(1).minusDays(1);
+                break;
+            default:
+                end = start;
+        }
+        return end.isAfter(maxDate) ? maxDate : end;
+    }
+
+    private static LocalDate advancePeriod(LocalDate current, String granularity) {
+        switch (granularity) {
+            case "WEEKLY":
+                return current.plusWeeks(1);
+            case "MONTHLY":
+                return current.plusMonths(1);
+            default:
+                return current.plusDays(1);
+        }
+    }
+}
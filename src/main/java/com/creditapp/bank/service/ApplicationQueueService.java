@@ -3,41 +3,33 @@ package com.creditapp.bank.service;
 import com.creditapp.bank.dto.ApplicationQueueItem;
 import com.creditapp.bank.dto.ApplicationQueueRequest;
 import com.creditapp.bank.dto.ApplicationQueueResponse;
-import com.creditapp.bank.model.Offer;
-import com.creditapp.bank.model.OfferStatus;
-import com.creditapp.bank.repository.OfferRepository;
-import com.creditapp.borrower.model.Application;
-import com.creditapp.borrower.model.ApplicationStatus;
-import com.creditapp.borrower.repository.ApplicationDocumentRepository;
-import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.bank.model.BankApplicationQueueEntry;
+import com.creditapp.bank.repository.BankApplicationQueueRepository;
 import com.creditapp.shared.model.ApplicationQueueMetrics;
+import com.creditapp.shared.util.KeysetCursor;
 import com.creditapp.shared.util.PaginationUtils;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+/**
+ * Bank dashboard application queue, served from the {@code bank_application_queue} read model: a page is one
+ * indexed range scan over the bank's rows, most recent offer first, with no per-row lookups.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ApplicationQueueService {
-    private final OfferRepository offerRepository;
-    private final ApplicationRepository applicationRepository;
-    private final ApplicationDocumentRepository applicationDocumentRepository;
+    private final BankApplicationQueueRepository queueRepository;
+    private final BankApplicationQueueProjection queueProjection;
+
+    private static final String QUEUE_CURSOR_SORT = "latestOfferAt_DESC";
 
     public ApplicationQueueResponse getApplicationQueue(UUID bankId, ApplicationQueueRequest request) {
         long start = System.currentTimeMillis();
@@ -50,101 +42,40 @@ public class ApplicationQueueService {
         }
         int limit = safeLimit(request.getLimit());
         int offset = safeOffset(request.getOffset());
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
-        Pageable pageable = PaginationUtils.validateAndGetPageable(limit, offset, sort);
-
-        Page<Offer> offerPage = offerRepository.findByBankId(bankId, pageable);
-        List<Offer> offers = offerPage.getContent();
-
-        // Deduplicate applications preserving order (most recent offer first)
-        Set<UUID> applicationIdsOrdered = offers.stream()
-            .map(Offer::getApplicationId)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-        List<UUID> applicationIds = new ArrayList<>(applicationIdsOrdered);
-
-        if (applicationIds.isEmpty()) {
-            ApplicationQueueMetrics metrics = ApplicationQueueMetrics.builder()
-                .totalApplications(0)
-                .documentsAwaitingReview(0)
-                .approvedCount(0)
-                .rejectedCount(0)
-                .build();
-            ApplicationQueueResponse response = ApplicationQueueResponse.builder()
-                .applications(Collections.emptyList())
-                .totalCount(0)
-                .limit(limit)
-                .offset(offset)
-                .hasMore(false)
-                .queueMetrics(metrics)
-                .retrievedAt(LocalDateTime.now())
-                .build();
-            logQueuePerf(start, bankId, response.getTotalCount());
-            return response;
-        }
 
-        // Load applications
-        List<Application> applications = applicationRepository.findAllById(applicationIds);
-        Map<UUID, Application> applicationMap = applications.stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toMap(Application::getId, a -> a));
+        // Changes made earlier in a caller's transaction are not committed to the read model yet
+        queueProjection.flushPending();
+
+        List<BankApplicationQueueEntry> rows;
+        if (request.getCursor() != null) {
+            // Keyset mode: seek past the previous page's last row instead of skipping an offset
+            rows = findRowsAfter(bankId, request.getCursor(), limit + 1);
+        } else {
+            rows = queueRepository.findQueue(bankId, PaginationUtils.validateAndGetPageable(limit + 1, offset));
+        }
+        boolean nextPageExists = rows.size() > limit;
+        if (nextPageExists) {
+            rows = rows.subList(0, limit);
+        }
+        String nextCursor = nextPageExists ? cursorAfter(rows.get(rows.size() - 1)) : null;
 
-        // Build queue items
-        List<ApplicationQueueItem> items = new ArrayList<>();
+        List<ApplicationQueueItem> items = rows.stream().map(ApplicationQueueService::toQueueItem).toList();
         int docsAwaitingReview = 0;
         int approvedCount = 0;
         int rejectedCount = 0;
-
-        for (UUID appId : applicationIds) {
-            Application app = applicationMap.get(appId);
-            if (app == null) continue;
-
-            Offer selected = selectOfferForBankApp(offers, appId, bankId);
-            BigDecimal apr = selected != null ? selected.getApr() : null;
-            BigDecimal monthlyPayment = selected != null ? selected.getMonthlyPayment() : null;
-
-            String borrowerName = app.getBorrower() != null
-                ? ((app.getBorrower().getFirstName() != null ? app.getBorrower().getFirstName() : "")
-                   + " "
-                   + (app.getBorrower().getLastName() != null ? app.getBorrower().getLastName() : "")).trim()
-                : null;
-            String borrowerEmail = app.getBorrower() != null ? app.getBorrower().getEmail() : null;
-            String borrowerPhone = app.getBorrower() != null
-                ? (app.getBorrower().getPhoneNumber() != null ? app.getBorrower().getPhoneNumber() : app.getBorrower().getPhone())
-                : null;
-
-            String documentsStatus = applicationDocumentRepository.findByApplicationIdAndDeletedAtIsNull(appId).isEmpty()
-                ? "none" : "submitted";
-            String approvalStatus = deriveApprovalStatus(app.getStatus());
-
-            docsAwaitingReview += ("submitted".equals(documentsStatus) && "pending".equals(approvalStatus)) ? 1 : 0;
-            approvedCount += ("approved".equals(approvalStatus)) ? 1 : 0;
-            rejectedCount += ("rejected".equals(approvalStatus)) ? 1 : 0;
-
-            items.add(ApplicationQueueItem.builder()
-                .applicationId(app.getId())
-                .referenceNumber(app.getId() != null ? app.getId().toString() : null)
-                .borrowerName(borrowerName)
-                .borrowerEmail(borrowerEmail)
-                .borrowerPhone(borrowerPhone)
-                .loanAmount(app.getLoanAmount())
-                .termMonths(app.getLoanTermMonths())
-                .selectedOfferAPR(apr)
-                .selectedOfferMonthlyPayment(monthlyPayment)
-                .status(app.getStatus() != null ? app.getStatus().name() : null)
-                .receivedAt(app.getCreatedAt())
-                .submittedAt(app.getSubmittedAt())
-                .lastUpdatedAt(app.getUpdatedAt())
-                .documentsStatus(documentsStatus)
-                .approvalStatus(approvalStatus)
-                .actionItems(Collections.emptyList())
-                .build());
+        for (ApplicationQueueItem item : items) {
+            docsAwaitingReview += ("submitted".equals(item.getDocumentsStatus())
+                && "pending".equals(item.getApprovalStatus())) ? 1 : 0;
+            approvedCount += ("approved".equals(item.getApprovalStatus())) ? 1 : 0;
+            rejectedCount += ("rejected".equals(item.getApprovalStatus())) ? 1 : 0;
         }
 
-        long totalDistinct = Optional.ofNullable(offerRepository.countDistinctApplicationsByBankId(bankId)).orElse(0L);
-        boolean hasMore = offset + items.size() < totalDistinct;
+        // Later cursor pages skip the count unless asked; the client keeps the total of the first page
+        Integer totalDistinct = countsTotal(request) ? (int) queueRepository.countByBankId(bankId) : null;
+        boolean hasMore = request.getCursor() != null ? nextPageExists : offset + items.size() < totalDistinct;
 
         ApplicationQueueMetrics metrics = ApplicationQueueMetrics.builder()
-            .totalApplications((int) totalDistinct)
+            .totalApplications(totalDistinct)
             .documentsAwaitingReview(docsAwaitingReview)
             .approvedCount(approvedCount)
             .rejectedCount(rejectedCount)
@@ -152,10 +83,11 @@ public class ApplicationQueueService {
 
         ApplicationQueueResponse response = ApplicationQueueResponse.builder()
             .applications(items)
-            .totalCount((int) totalDistinct)
+            .totalCount(totalDistinct)
             .limit(limit)
             .offset(offset)
             .hasMore(hasMore)
+            .nextCursor(nextCursor)
             .queueMetrics(metrics)
             .retrievedAt(LocalDateTime.now())
             .build();
@@ -164,6 +96,55 @@ public class ApplicationQueueService {
         return response;
     }
 
+    private static boolean countsTotal(ApplicationQueueRequest request) {
+        return request.getCursor() == null || request.getCursor().isEmpty() || request.isIncludeTotal();
+    }
+
+    /**
+     * Up to {@code count} of the bank's queue rows after the cursor; an empty cursor starts at the newest.
+     */
+    private List<BankApplicationQueueEntry> findRowsAfter(UUID bankId, String cursor, int count) {
+        Pageable window = PageRequest.of(0, count);
+        if (cursor.isEmpty()) {
+            return queueRepository.findQueue(bankId, window);
+        }
+        List<String> keys = KeysetCursor.decode(cursor, QUEUE_CURSOR_SORT, 2);
+        LocalDateTime latestOfferAt;
+        UUID applicationId;
+        try {
+            latestOfferAt = LocalDateTime.parse(keys.get(0));
+            applicationId = UUID.fromString(keys.get(1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor for sort " + QUEUE_CURSOR_SORT);
+        }
+        return queueRepository.findQueueBefore(bankId, latestOfferAt, applicationId, window);
+    }
+
+    private static String cursorAfter(BankApplicationQueueEntry row) {
+        return KeysetCursor.encode(QUEUE_CURSOR_SORT, row.getLatestOfferAt(), row.getApplicationId());
+    }
+
+    private static ApplicationQueueItem toQueueItem(BankApplicationQueueEntry row) {
+        return ApplicationQueueItem.builder()
+            .applicationId(row.getApplicationId())
+            .referenceNumber(row.getApplicationId().toString())
+            .borrowerName(row.getBorrowerName())
+            .borrowerEmail(row.getBorrowerEmail())
+            .borrowerPhone(row.getBorrowerPhone())
+            .loanAmount(row.getLoanAmount())
+            .termMonths(row.getTermMonths())
+            .selectedOfferAPR(row.getSelectedOfferApr())
+            .selectedOfferMonthlyPayment(row.getSelectedOfferMonthlyPayment())
+            .status(row.getApplicationStatus())
+            .receivedAt(row.getReceivedAt())
+            .submittedAt(row.getSubmittedAt())
+            .lastUpdatedAt(row.getApplicationUpdatedAt())
+            .documentsStatus(row.getDocumentsStatus())
+            .approvalStatus(row.getApprovalStatus())
+            .actionItems(Collections.emptyList())
+            .build();
+    }
+
     private ApplicationQueueResponse emptyResponse(ApplicationQueueRequest request) {
         return ApplicationQueueResponse.builder()
             .applications(Collections.<ApplicationQueueItem>emptyList())
@@ -187,33 +168,11 @@ public class ApplicationQueueService {
         return Math.max(o, 0);
     }
 
-    private void logQueuePerf(long start, UUID bankId, int totalCount) {
+    private void logQueuePerf(long start, UUID bankId, Integer totalCount) {
         long took = System.currentTimeMillis() - start;
         log.info("[QUEUE] Retrieved {} applications for bankId={} in {}ms", totalCount, bankId, took);
         if (took > 200) {
             log.warn("[QUEUE] Performance warning: query took {}ms (>200ms)", took);
         }
     }
-
-    private Offer selectOfferForBankApp(List<Offer> offersForBankPage, UUID applicationId, UUID bankId) {
-        // Prefer accepted offer if it belongs to this bank
-        Optional<Offer> acceptedAnyBank = offerRepository.findByApplicationIdAndOfferStatus(applicationId, OfferStatus.ACCEPTED);
-        if (acceptedAnyBank.isPresent() && bankId.equals(acceptedAnyBank.get().getBankId())) {
-            return acceptedAnyBank.get();
-        }
-        // Otherwise choose the lowest APR offer from this bank present in page content
-        return offersForBankPage.stream()
-            .filter(o -> applicationId.equals(o.getApplicationId()))
-            .min((a, b) -> a.getApr().compareTo(b.getApr()))
-            .orElse(null);
-    }
-
-    private String deriveApprovalStatus(ApplicationStatus status) {
-        if (status == null) return "pending";
-        return switch (status) {
-            case ACCEPTED, COMPLETED -> "approved";
-            case REJECTED -> "rejected";
-            default -> "pending";
-        };
-    }
 }
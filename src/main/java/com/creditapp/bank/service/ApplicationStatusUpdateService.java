@@ -7,6 +7,7 @@ import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.bank.validator.ApplicationStatusValidator;
 import com.creditapp.bank.websocket.ApplicationQueueWebSocketHandler;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.model.ApplicationStatus;
 import com.creditapp.borrower.repository.ApplicationRepository;
@@ -18,6 +19,7 @@ import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,7 @@ public class ApplicationStatusUpdateService {
     private final OfferRepository offerRepository;
     private final AuditService auditService;
     private final ApplicationQueueWebSocketHandler webSocketHandler;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ApplicationStatusUpdateResponse updateApplicationStatus(
@@ -75,6 +78,10 @@ public class ApplicationStatusUpdateService {
         application.setUpdatedAt(LocalDateTime.now());
         Application updated = applicationRepository.save(application);
         applicationRepository.flush();
+        if (previousStatus != targetStatus) {
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId, previousStatus,
+                targetStatus));
+        }
 
         try {
             Map<String, Object> oldValues = Map.of(
@@ -2,6 +2,7 @@ package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.DeclineApplicationRequest;
 import com.creditapp.bank.dto.DeclineApplicationResponse;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.model.ApplicationStatus;
 import com.creditapp.borrower.repository.ApplicationRepository;
@@ -10,6 +11,7 @@ import com.creditapp.shared.service.AuditService;
 import com.creditapp.shared.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class BankApplicationDeclineService {
     private final ApplicationRepository applicationRepository;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DeclineApplicationResponse declineApplication(UUID bankId, UUID applicationId, DeclineApplicationRequest request) {
         log.info("Declining application {} for bank {}", applicationId, bankId);
@@ -46,8 +49,11 @@ public class BankApplicationDeclineService {
         }
 
         // Update application status
+        ApplicationStatus previousStatus = application.getStatus();
         application.setStatus(ApplicationStatus.REJECTED);
         Application updatedApplication = applicationRepository.save(application);
+        eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId, previousStatus,
+                ApplicationStatus.REJECTED));
 
         // Create audit log
         auditService.logAction(
@@ -0,0 +1,346 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.event.BankQueueChangedEvent;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationDocument;
+import com.creditapp.shared.model.EntityChangedEvent;
+import com.creditapp.shared.model.User;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the {@code bank_application_queue} read model: one row per bank and application the bank has
+ * offered on, with the borrower, selected offer (the bank's accepted offer, else its lowest APR), latest offer,
+ * document and approval state joined in.
+ * <p>
+ * An offer change marks its own (bank, application) row; application and document changes mark the rows of their
+ * application and a borrower's contact change the rows of the borrower's applications. Only the marked rows are
+ * merged from the source tables (updated in place, inserted when new, deleted when their last offer is gone), in the
+ * writing transaction after Hibernate's final flush and before commit, so the read model commits or rolls back with
+ * the change. A merge that collides with a concurrent transaction's insert of the same row is rolled back to a
+ * savepoint and retried once against the committed row; a refresh that still fails fails the commit.
+ * {@link #flushPending()} applies marks early for reads later in the same transaction. Once the transaction commits,
+ * the refreshed rows are announced with a {@link BankQueueChangedEvent}.
+ */
+@Component
+@Slf4j
+public class BankApplicationQueueProjection {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String COLUMNS = "bank_id, application_id, borrower_id, borrower_name, borrower_first_name, "
+            + "borrower_last_name, borrower_email, borrower_phone, loan_type, loan_amount, term_months, "
+            + "application_status, approval_status, documents_status, selected_offer_apr, "
+            + "selected_offer_monthly_payment, latest_offer_apr, latest_offer_monthly_payment, received_at, "
+            + "submitted_at, application_updated_at, latest_offer_at";
+
+    private static final String INSERT_COLUMNS = "INSERT INTO bank_application_queue (" + COLUMNS + ") ";
+
+    private static final String ROW_SELECT_TEMPLATE = "SELECT bo.bank_id AS bank_id, a.id AS application_id, "
+            + "a.borrower_id AS borrower_id, "
+            + "CASE WHEN u.id IS NULL THEN NULL "
+            + "ELSE TRIM(CONCAT(COALESCE(u.first_name, ''), ' ', COALESCE(u.last_name, ''))) END AS borrower_name, "
+            + "u.first_name AS borrower_first_name, u.last_name AS borrower_last_name, "
+            + "u.email AS borrower_email, COALESCE(u.phone_number, u.phone) AS borrower_phone, "
+            + "a.loan_type AS loan_type, a.loan_amount AS loan_amount, a.loan_term_months AS term_months, a.status AS application_status, "
+            + "CASE WHEN a.status IN ('ACCEPTED', 'COMPLETED') THEN 'approved' "
+            + "WHEN a.status = 'REJECTED' THEN 'rejected' ELSE 'pending' END AS approval_status, "
+            + "CASE WHEN EXISTS (SELECT 1 FROM application_documents d "
+            + "WHERE d.application_id = a.id AND d.deleted_at IS NULL) THEN 'submitted' ELSE 'none' END "
+            + "AS documents_status, "
+            + "s.apr AS selected_offer_apr, s.monthly_payment AS selected_offer_monthly_payment, "
+            + "l.apr AS latest_offer_apr, l.monthly_payment AS latest_offer_monthly_payment, "
+            + "a.created_at AS received_at, a.submitted_at AS submitted_at, a.updated_at AS application_updated_at, "
+            + "bo.latest_offer_at AS latest_offer_at "
+            + "FROM (SELECT bank_id, application_id, MAX(created_at) AS latest_offer_at FROM offers "
+            + "WHERE %s GROUP BY bank_id, application_id) bo "
+            + "JOIN applications a ON a.id = bo.application_id "
+            + "LEFT JOIN users u ON u.id = a.borrower_id "
+            + "LEFT JOIN offers s ON s.id = (SELECT o.id FROM offers o "
+            + "WHERE o.bank_id = bo.bank_id AND o.application_id = bo.application_id "
+            + "ORDER BY CASE WHEN o.offer_status = 'ACCEPTED' THEN 0 ELSE 1 END, o.apr, o.id LIMIT 1) "
+            + "LEFT JOIN offers l ON l.id = (SELECT o.id FROM offers o "
+            + "WHERE o.bank_id = bo.bank_id AND o.application_id = bo.application_id "
+            + "ORDER BY o.created_at DESC, o.id DESC LIMIT 1)";
+
+    private static final String MERGE_TEMPLATE = "MERGE INTO bank_application_queue q USING (" + ROW_SELECT_TEMPLATE
+            + ") r ON (q.bank_id = r.bank_id AND q.application_id = r.application_id) "
+            + "WHEN MATCHED THEN UPDATE SET borrower_id = r.borrower_id, borrower_name = r.borrower_name, "
+            + "borrower_first_name = r.borrower_first_name, borrower_last_name = r.borrower_last_name, "
+            + "borrower_email = r.borrower_email, borrower_phone = r.borrower_phone, loan_type = r.loan_type, "
+            + "loan_amount = r.loan_amount, "
+            + "term_months = r.term_months, application_status = r.application_status, "
+            + "approval_status = r.approval_status, documents_status = r.documents_status, "
+            + "selected_offer_apr = r.selected_offer_apr, "
+            + "selected_offer_monthly_payment = r.selected_offer_monthly_payment, "
+            + "latest_offer_apr = r.latest_offer_apr, latest_offer_monthly_payment = r.latest_offer_monthly_payment, "
+            + "received_at = r.received_at, "
+            + "submitted_at = r.submitted_at, application_updated_at = r.application_updated_at, "
+            + "latest_offer_at = r.latest_offer_at "
+            + "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (r.bank_id, r.application_id, r.borrower_id, "
+            + "r.borrower_name, r.borrower_first_name, r.borrower_last_name, r.borrower_email, r.borrower_phone, "
+            + "r.loan_type, r.loan_amount, r.term_months, r.application_status, r.approval_status, "
+            + "r.documents_status, r.selected_offer_apr, r.selected_offer_monthly_payment, r.latest_offer_apr, "
+            + "r.latest_offer_monthly_payment, r.received_at, r.submitted_at, r.application_updated_at, "
+            + "r.latest_offer_at)";
+
+    // Rows whose bank no longer has an offer on the application, or whose application is gone
+    private static final String DELETE_ORPHANS_TEMPLATE = "DELETE FROM bank_application_queue q WHERE %s "
+            + "AND (NOT EXISTS (SELECT 1 FROM offers o WHERE o.bank_id = q.bank_id AND o.application_id = q.application_id) "
+            + "OR NOT EXISTS (SELECT 1 FROM applications a WHERE a.id = q.application_id))";
+
+    private static final String CHANGES_TEMPLATE = "SELECT bank_id, application_id, application_status "
+            + "FROM bank_application_queue q WHERE %s";
+
+    private static final String PAIRS = "(bank_id, application_id) IN (:pairs)";
+    private static final String QUEUE_PAIRS = "(q.bank_id, q.application_id) IN (:pairs)";
+    private static final String APPLICATIONS = "application_id IN (:applicationIds)";
+    private static final String QUEUE_APPLICATIONS = "q.application_id IN (:applicationIds)";
+    private static final String BORROWERS = "application_id IN (SELECT id FROM applications "
+            + "WHERE borrower_id IN (:borrowerIds))";
+    private static final String QUEUE_BORROWERS = "q.application_id IN (SELECT id FROM applications "
+            + "WHERE borrower_id IN (:borrowerIds))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BankApplicationQueueProjection(NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager,
+                                          ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Mark the rows affected by a flushed offer, application or document change, or a change to a borrower's
+     * name, email or phone.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof Offer offer) {
+            markOfferChanged(offer.getBankId(), offer.getApplicationId());
+        } else if (event.getEntity() instanceof Application application) {
+            markApplicationChanged(application.getId());
+        } else if (event.getEntity() instanceof ApplicationDocument document) {
+            markApplicationChanged(document.getApplicationId());
+        } else if (event.getEntity() instanceof User user && user.isContactChanged()) {
+            markBorrowerChanged(user.getId());
+        }
+    }
+
+    /**
+     * Refresh the bank's row for the application before the current transaction commits.
+     */
+    public void markOfferChanged(UUID bankId, UUID applicationId) {
+        if (bankId != null && applicationId != null && inTransaction(applicationId)) {
+            pending().pairs.add(new BankApplication(bankId, applicationId));
+        }
+    }
+
+    /**
+     * Refresh every bank's row for the application before the current transaction commits.
+     */
+    public void markApplicationChanged(UUID applicationId) {
+        if (applicationId != null && inTransaction(applicationId)) {
+            pending().applications.add(applicationId);
+        }
+    }
+
+    /**
+     * Refresh the rows of all the borrower's applications before the current transaction commits.
+     */
+    public void markBorrowerChanged(UUID borrowerId) {
+        if (borrowerId != null && inTransaction(borrowerId)) {
+            pending().borrowers.add(borrowerId);
+        }
+    }
+
+    /**
+     * Flush the persistence context and apply the marks collected so far inside the current transaction, so
+     * queue reads later in it see its own changes. Does nothing outside a transaction.
+     */
+    public void flushPending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        entityManager.flush();
+        PendingRefresh pending = currentPending();
+        if (pending != null) {
+            applyInTransaction(entityManager.unwrap(SessionImplementor.class), pending);
+        }
+    }
+
+    /**
+     * Rebuild all rows of one bank from the offers, applications, borrowers and documents tables.
+     *
+     * @return number of rows written
+     */
+    @Transactional
+    public int rebuildBank(UUID bankId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("bankId", bankId);
+        jdbcTemplate.query("SELECT id FROM applications WHERE id IN "
+                + "(SELECT application_id FROM offers WHERE bank_id = :bankId) ORDER BY id FOR UPDATE", params, rs -> { });
+        jdbcTemplate.update("DELETE FROM bank_application_queue WHERE bank_id = :bankId", params);
+        return jdbcTemplate.update(INSERT_COLUMNS + ROW_SELECT_TEMPLATE.formatted("bank_id = :bankId"), params);
+    }
+
+    /**
+     * Banks that have offered on at least one application.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findBankIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT bank_id FROM offers", new MapSqlParameterSource(), UUID.class);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN EXISTS (SELECT 1 FROM bank_application_queue) THEN FALSE ELSE TRUE END",
+                new MapSqlParameterSource(), Boolean.class);
+        return Boolean.TRUE.equals(empty);
+    }
+
+    private boolean inTransaction(UUID id) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Only reachable from a flush outside a Spring transaction; the next change or rebuild repairs the row
+            log.debug("No transaction for bank queue refresh of {}", id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Refresh the marked rows in the current transaction under a savepoint. A merge racing another transaction's
+     * insert of the same row waits for it and fails on the primary key once it commits; it is rolled back to the
+     * savepoint and retried once against the committed row.
+     */
+    private void applyInTransaction(SessionImplementor session, PendingRefresh pending) {
+        if (!pending.hasMarks()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            int announced = pending.changes.size();
+            Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+            try {
+                apply(pending);
+                session.doWork(connection -> connection.releaseSavepoint(savepoint));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                session.doWork(connection -> connection.rollback(savepoint));
+                // Marks are only cleared by a completed apply; drop the rolled back attempt's changes
+                pending.changes.subList(announced, pending.changes.size()).clear();
+                if (attempt == 2) {
+                    throw e;
+                }
+                log.debug("Bank queue refresh collided with a concurrent insert, retrying: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void apply(PendingRefresh pending) {
+        if (!pending.hasMarks()) {
+            return;
+        }
+        refresh(pending.pairs.stream().map(BankApplication::toParameter).toList(), "pairs", PAIRS, QUEUE_PAIRS,
+                pending);
+        refresh(List.copyOf(pending.applications), "applicationIds", APPLICATIONS, QUEUE_APPLICATIONS, pending);
+        refresh(List.copyOf(pending.borrowers), "borrowerIds", BORROWERS, QUEUE_BORROWERS, pending);
+        log.debug("Refreshed bank queue rows of {} offers, {} applications and {} borrowers", pending.pairs.size(),
+                pending.applications.size(), pending.borrowers.size());
+        pending.clearMarks();
+    }
+
+    private void refresh(List<?> keys, String parameter, String offerFilter, String queueFilter,
+                        PendingRefresh pending) {
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource(parameter,
+                    keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size())));
+            jdbcTemplate.update(MERGE_TEMPLATE.formatted(offerFilter), params);
+            jdbcTemplate.update(DELETE_ORPHANS_TEMPLATE.formatted(queueFilter), params);
+            pending.changes.addAll(jdbcTemplate.query(CHANGES_TEMPLATE.formatted(queueFilter), params,
+                    (rs, rowNum) -> new BankQueueChangedEvent.Change(rs.getObject(1, UUID.class),
+                            rs.getObject(2, UUID.class), rs.getString(3))));
+        }
+    }
+
+    private PendingRefresh currentPending() {
+        return (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * Refresh state of the current transaction. The first mark registers the refresh with Hibernate's action
+     * queue, which runs it after the flush at commit (so marks made by that flush are included), and the
+     * announcement after commit.
+     */
+    private PendingRefresh pending() {
+        PendingRefresh pending = currentPending();
+        if (pending != null) {
+            return pending;
+        }
+        PendingRefresh refresh = new PendingRefresh();
+        TransactionSynchronizationManager.bindResource(this, refresh);
+        entityManager.unwrap(SessionImplementor.class).getActionQueue()
+                .registerProcess(session -> applyInTransaction(session, refresh));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!refresh.changes.isEmpty()) {
+                    eventPublisher.publishEvent(new BankQueueChangedEvent(BankApplicationQueueProjection.this,
+                            refresh.changes));
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BankApplicationQueueProjection.this);
+            }
+        });
+        return refresh;
+    }
+
+    private record BankApplication(UUID bankId, UUID applicationId) {
+        Object[] toParameter() {
+            return new Object[] {bankId, applicationId};
+        }
+    }
+
+    /**
+     * Rows marked and not yet refreshed, and the rows refreshed so far, in one transaction.
+     */
+    private static final class PendingRefresh {
+        private final Set<BankApplication> pairs = new LinkedHashSet<>();
+        private final Set<UUID> applications = new LinkedHashSet<>();
+        private final Set<UUID> borrowers = new LinkedHashSet<>();
+        private final List<BankQueueChangedEvent.Change> changes = new ArrayList<>();
+
+        boolean hasMarks() {
+            return !pairs.isEmpty() || !applications.isEmpty() || !borrowers.isEmpty();
+        }
+
+        void clearMarks() {
+            pairs.clear();
+            applications.clear();
+            borrowers.clear();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.SubmittedOfferFact;
+import com.creditapp.bank.model.BankDailyMetric;
+import com.creditapp.bank.model.MarketDailyApplications;
+import com.creditapp.bank.repository.BankDailyMetricRepository;
+import com.creditapp.bank.repository.MarketDailyApplicationsRepository;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains and serves the daily analytics rollups ({@code bank_daily_metrics}, {@code market_daily_applications}).
+ * <p>
+ * Reads combine stored rollup rows with a live computation for today and for any day marked dirty by
+ * {@link BankDailyMetricsTracker}, so results match the raw data while a long range costs one row scan.
+ * Dirty days are recomputed in the background; {@link #backfillDay} rebuilds a whole day for all banks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BankDailyMetricsService {
+
+    public static final List<String> AMOUNT_RANGES = List.of("0-10k", "10k-25k", "25k-50k", "50k-100k", "100k+");
+
+    private final BankDailyMetricRepository bankDailyMetricRepository;
+    private final MarketDailyApplicationsRepository marketDailyApplicationsRepository;
+    private final OfferRepository offerRepository;
+    private final ApplicationRepository applicationRepository;
+    private final BankDailyMetricsTracker tracker;
+
+    /**
+     * Rollup rows of a bank for every day in the range, with today and dirty days computed from raw data.
+     */
+    @Transactional(readOnly = true)
+    public List<BankDailyMetric> getBankMetrics(UUID bankId, LocalDate dateFrom, LocalDate dateTo) {
+        Set<LocalDate> liveDays = liveDays(tracker.dirtyDays(bankId), dateFrom, dateTo);
+        
+        List<BankDailyMetric> metrics = new ArrayList<>();
+        for (BankDailyMetric metric : bankDailyMetricRepository.findByBankIdAndMetricDateBetween(bankId, dateFrom, dateTo)) {
+            if (!liveDays.contains(metric.getMetricDate())) {
+                metrics.add(metric);
+            }
+        }
+        if (!liveDays.isEmpty()) {
+            metrics.addAll(aggregateLiveDays(bankId, liveDays));
+        }
+        return metrics;
+    }
+
+    /**
+     * Market-wide application counts per day in the range; days without applications are omitted.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Long> getApplicationCounts(LocalDate dateFrom, LocalDate dateTo) {
+        Set<LocalDate> dirty = new TreeSet<>();
+        for (LocalDate day = dateFrom; !day.isAfter(dateTo); day = day.plusDays(1)) {
+            if (tracker.isApplicationDayDirty(day)) {
+                dirty.add(day);
+            }
+        }
+        Set<LocalDate> liveDays = liveDays(dirty, dateFrom, dateTo);
+        
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        for (MarketDailyApplications day : marketDailyApplicationsRepository.findByMetricDateBetween(dateFrom, dateTo)) {
+            if (!liveDays.contains(day.getMetricDate())) {
+                counts.put(day.getMetricDate(), day.getApplicationsCount());
+            }
+        }
+        for (LocalDate day : liveDays) {
+            long count = countApplications(day);
+            if (count > 0) {
+                counts.put(day, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Recompute every day marked dirty since the last run. The marks are cleared only once the rewritten rows
+     * have committed, so a failed refresh leaves them for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.refresh-interval-ms:30000}")
+    @Transactional
+    public void refreshDirtyDays() {
+        Map<BankDailyMetricsTracker.BankDay, Long> bankDays = tracker.pendingBankDays();
+        for (BankDailyMetricsTracker.BankDay bankDay : bankDays.keySet()) {
+            LocalDate day = bankDay.date();
+            bankDailyMetricRepository.deleteByBankIdAndMetricDate(bankDay.bankId(), day);
+            bankDailyMetricRepository.saveAll(aggregate(
+                offerRepository.findSubmittedOfferFacts(bankDay.bankId(), day.atStartOfDay(), day.atTime(LocalTime.MAX))));
+        }
+        Map<LocalDate, Long> applicationDays = tracker.pendingApplicationDays();
+        for (LocalDate day : applicationDays.keySet()) {
+            saveApplicationCount(day);
+        }
+        tracker.clearAfterCommit(bankDays, applicationDays);
+        if (!bankDays.isEmpty() || !applicationDays.isEmpty()) {
+            log.debug("Refreshed {} bank days and {} application days of analytics rollups", bankDays.size(), applicationDays.size());
+        }
+    }
+
+    /**
+     * Rebuild the rollups of one day for all banks from raw data.
+     *
+     * @return number of bank rollup rows written
+     */
+    @Transactional
+    public int backfillDay(LocalDate day) {
+        bankDailyMetricRepository.deleteByMetricDate(day);
+        List<BankDailyMetric> metrics = aggregate(
+            offerRepository.findAllSubmittedOfferFacts(day.atStartOfDay(), day.atTime(LocalTime.MAX)));
+        bankDailyMetricRepository.saveAll(metrics);
+        saveApplicationCount(day);
+        return metrics.size();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasRollups() {
+        return marketDailyApplicationsRepository.count() > 0 || bankDailyMetricRepository.count() > 0;
+    }
+
+    /**
+     * Day of the earliest submitted offer, where a full backfill has to start.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDate> findEarliestActivityDate() {
+        return Optional.ofNullable(offerRepository.findEarliestOfferSubmittedAt()).map(LocalDateTime::toLocalDate);
+    }
+
+    /**
+     * Bucket submitted offers into rollup rows by bank, submission day, loan type and amount range.
+     */
+    public static List<BankDailyMetric> aggregate(List<SubmittedOfferFact> facts) {
+        Map<List<Object>, BankDailyMetric> buckets = new LinkedHashMap<>();
+        for (SubmittedOfferFact fact : facts) {
+            LocalDate day = fact.offerSubmittedAt().toLocalDate();
+            String amountRange = categorizeAmount(fact.loanAmount());
+            BankDailyMetric metric = buckets.computeIfAbsent(List.of(fact.bankId(), day, fact.loanType(), amountRange),
+                key -> BankDailyMetric.builder()
+                    .id(UUID.randomUUID())
+                    .bankId(fact.bankId())
+                    .metricDate(day)
+                    .loanType(fact.loanType())
+                    .amountRange(amountRange)
+                    .aprSum(BigDecimal.ZERO)
+                    .build());
+            
+            metric.setOffersCount(metric.getOffersCount() + 1);
+            if (fact.borrowerSelectedAt() != null) {
+                metric.setAcceptedCount(metric.getAcceptedCount() + 1);
+            }
+            if (fact.apr() != null) {
+                metric.setAprSum(metric.getAprSum().add(fact.apr()));
+            }
+            if (fact.applicationCreatedAt() != null) {
+                metric.setTimeToOfferHoursSum(metric.getTimeToOfferHoursSum()
+                    + Duration.between(fact.applicationCreatedAt(), fact.offerSubmittedAt()).toHours());
+                metric.setTimeToOfferCount(metric.getTimeToOfferCount() + 1);
+            }
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    public static String categorizeAmount(BigDecimal amount) {
+        return AMOUNT_RANGES.get(amountRangeIndex(amount));
+    }
+
+    /**
+     * Index into {@link #AMOUNT_RANGES} for a loan amount.
+     */
+    public static int amountRangeIndex(BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.valueOf(10000)) < 0) {
+            return 0;
+        } else if (amount.compareTo(BigDecimal.valueOf(25000)) < 0) {
+            return 1;
+        } else if (amount.compareTo(BigDecimal.valueOf(50000)) < 0) {
+            return 2;
+        } else if (amount.compareTo(BigDecimal.valueOf(100000)) < 0) {
+            return 3;
+        } else {
+            return 4;
+        }
+    }
+
+    /**
+     * One projection query spanning the first to last live day, keeping only offers submitted on live days.
+     */
+    private List<BankDailyMetric> aggregateLiveDays(UUID bankId, Set<LocalDate> liveDays) {
+        TreeSet<LocalDate> days = new TreeSet<>(liveDays);
+        List<SubmittedOfferFact> facts = offerRepository.findSubmittedOfferFacts(
+            bankId, days.first().atStartOfDay(), days.last().atTime(LocalTime.MAX));
+        if (days.size() < ChronoUnit.DAYS.between(days.first(), days.last()) + 1) {
+            facts = facts.stream().filter(fact -> days.contains(fact.offerSubmittedAt().toLocalDate())).toList();
+        }
+        return aggregate(facts);
+    }
+
+    private Set<LocalDate> liveDays(Set<LocalDate> dirtyDays, LocalDate dateFrom, LocalDate dateTo) {
+        Set<LocalDate> liveDays = new TreeSet<>();
+        for (LocalDate day : dirtyDays) {
+            if (!day.isBefore(dateFrom) && !day.isAfter(dateTo)) {
+                liveDays.add(day);
+            }
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.isBefore(dateFrom) && !today.isAfter(dateTo)) {
+            liveDays.add(today);
+        }
+        return liveDays;
+    }
+
+    private long countApplications(LocalDate day) {
+        return applicationRepository.countByCreatedAtBetween(day.atStartOfDay(), day.atTime(LocalTime.MAX));
+    }
+
+    private void saveApplicationCount(LocalDate day) {
+        marketDailyApplicationsRepository.save(MarketDailyApplications.builder()
+            .metricDate(day)
+            .applicationsCount(countApplications(day))
+            .build());
+    }
+}
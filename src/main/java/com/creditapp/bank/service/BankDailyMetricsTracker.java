@@ -0,0 +1,124 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.model.Offer;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.shared.model.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which daily rollup rows no longer match the raw offer and application data.
+ * <p>
+ * A day is marked dirty as soon as the change is flushed, so readers in the same transaction compute it
+ * live, and marked again after commit, so a refresh that ran before the commit cannot leave it stale.
+ * Every mark stamps the day with a new version; a refresh takes a snapshot of the versions and clears a
+ * day only after its own transaction commits and only if the day was not marked again meanwhile.
+ * Marks are node-local; the nightly backfill covers anything lost on restart.
+ */
+@Component
+public class BankDailyMetricsTracker {
+
+    public record BankDay(UUID bankId, LocalDate date) {
+    }
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<BankDay, Long> dirtyBankDays = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Long> dirtyApplicationDays = new ConcurrentHashMap<>();
+
+    /**
+     * Mark the days of a flushed offer or application change dirty.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof Offer offer) {
+            LocalDateTime submittedAt = offer.getOfferSubmittedAt();
+            LocalDateTime previousSubmittedAt = offer.getPersistedOfferSubmittedAt();
+            if (submittedAt != null) {
+                markOfferChanged(offer.getBankId(), submittedAt.toLocalDate());
+            }
+            // A submission moved to another day (or withdrawn) also changes the day it left
+            if (previousSubmittedAt != null
+                    && (submittedAt == null || !previousSubmittedAt.toLocalDate().equals(submittedAt.toLocalDate()))) {
+                markOfferChanged(offer.getBankId(), previousSubmittedAt.toLocalDate());
+            }
+        } else if (event.getEntity() instanceof Application application && application.getCreatedAt() != null) {
+            markApplicationsChanged(application.getCreatedAt().toLocalDate());
+        }
+    }
+
+    public void markOfferChanged(UUID bankId, LocalDate date) {
+        BankDay bankDay = new BankDay(bankId, date);
+        dirtyBankDays.put(bankDay, versions.incrementAndGet());
+        afterCommit(() -> dirtyBankDays.put(bankDay, versions.incrementAndGet()));
+    }
+
+    public void markApplicationsChanged(LocalDate date) {
+        dirtyApplicationDays.put(date, versions.incrementAndGet());
+        afterCommit(() -> dirtyApplicationDays.put(date, versions.incrementAndGet()));
+    }
+
+    public Set<LocalDate> dirtyDays(UUID bankId) {
+        Set<LocalDate> days = new TreeSet<>();
+        for (BankDay bankDay : dirtyBankDays.keySet()) {
+            if (bankDay.bankId().equals(bankId)) {
+                days.add(bankDay.date());
+            }
+        }
+        return days;
+    }
+
+    public boolean isApplicationDayDirty(LocalDate date) {
+        return dirtyApplicationDays.containsKey(date);
+    }
+
+    /**
+     * Snapshot of the dirty bank days with their versions. The marks stay in place until
+     * {@link #clearAfterCommit} removes them.
+     */
+    public Map<BankDay, Long> pendingBankDays() {
+        return Map.copyOf(dirtyBankDays);
+    }
+
+    public Map<LocalDate, Long> pendingApplicationDays() {
+        return Map.copyOf(dirtyApplicationDays);
+    }
+
+    /**
+     * Clear the snapshotted marks once the current transaction commits (immediately without one).
+     * A day marked again after the snapshot keeps its newer version and stays dirty; on rollback nothing is
+     * cleared and the next refresh retries.
+     */
+    public void clearAfterCommit(Map<BankDay, Long> bankDays, Map<LocalDate, Long> applicationDays) {
+        Runnable clear = () -> {
+            bankDays.forEach(dirtyBankDays::remove);
+            applicationDays.forEach(dirtyApplicationDays::remove);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(clear);
+        } else {
+            clear.run();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
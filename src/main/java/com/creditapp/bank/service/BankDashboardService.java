@@ -1,8 +1,7 @@
 package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.BankDashboardMetrics;
-import com.creditapp.bank.model.Offer;
-import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.dto.DashboardAggregate;
 import com.creditapp.bank.repository.OfferRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,17 +11,20 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
 import java.util.UUID;
 
+/**
+ * Dashboard metrics of a bank for a time period, computed by one aggregate query over the offers created in it.
+ * The TODAY period is served from the running {@link BankDashboardTodayCounters}; the aggregate
+ * only seeds them when missing or expired.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BankDashboardService {
 
     private final OfferRepository offerRepository;
+    private final BankDashboardTodayCounters todayCounters;
 
     public BankDashboardMetrics getDashboardMetrics(UUID bankId, String timePeriod) {
         long startTime = System.currentTimeMillis();
@@ -30,38 +32,23 @@ public class BankDashboardService {
 
         LocalDateTime filterStart = calculateFilterStart(timePeriod);
         LocalDateTime now = LocalDateTime.now();
-
-        // Get all offers for this bank within the time period
-        List<Offer> allOffers = offerRepository.findByBankIdAndCreatedAtAfter(bankId, filterStart);
-        
-        // Count today's applications (distinct by applicationId)
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        long todayCount = allOffers.stream()
-            .filter(o -> o.getCreatedAt().isAfter(todayStart))
-            .map(Offer::getApplicationId)
-            .distinct()
-            .count();
-
-        // Count all applications (distinct by applicationId)
-        long allCount = allOffers.stream()
-            .map(Offer::getApplicationId)
-            .distinct()
-            .count();
-
-        // Count submitted offers
-        long offersSubmitted = allOffers.stream()
-            .filter(o -> o.getOfferStatus() == OfferStatus.SUBMITTED || 
-                         o.getOfferStatus() == OfferStatus.ACCEPTED ||
-                         o.getOfferStatus() == OfferStatus.REJECTED ||
-                         o.getOfferStatus() == OfferStatus.EXPIRED ||
-                         o.getOfferStatus() == OfferStatus.EXPIRED_WITH_SELECTION)
-            .count();
-
-        // Count accepted offers
-        long offersAccepted = allOffers.stream()
-            .filter(o -> o.getOfferStatus() == OfferStatus.ACCEPTED ||
-                         o.getOfferStatus() == OfferStatus.EXPIRED_WITH_SELECTION)
-            .count();
+        LocalDate today = LocalDate.now();
+        LocalDateTime todayStart = today.atStartOfDay();
+
+        DashboardAggregate counts;
+        if (filterStart.equals(todayStart)) {
+            counts = todayCounters.get(bankId, today).orElse(null);
+            if (counts == null) {
+                // Reconcile: seed the running counters from the database
+                counts = aggregate(bankId, todayStart, todayStart);
+                todayCounters.seed(bankId, today, counts, offerRepository.countOffersByApplication(bankId, todayStart));
+            }
+        } else {
+            counts = aggregate(bankId, filterStart, todayStart);
+        }
+        long offersSubmitted = valueOf(counts.offersSubmitted());
+        long offersAccepted = valueOf(counts.offersAccepted());
+        long timeToOfferCount = valueOf(counts.timeToOfferCount());
 
         // Calculate conversion rate
         BigDecimal conversionRate = BigDecimal.ZERO;
@@ -71,15 +58,17 @@ public class BankDashboardService {
                 .multiply(BigDecimal.valueOf(100));
         }
 
-        // Calculate average time to offer (from application created to offer submitted)
-        int averageTimeToOfferDays = calculateAverageTimeToOffer(allOffers);
+        // Average whole days from offer creation to submission
+        int averageTimeToOfferDays = timeToOfferCount > 0
+            ? (int) (valueOf(counts.timeToOfferDaysSum()) / timeToOfferCount)
+            : 0;
 
         long duration = System.currentTimeMillis() - startTime;
         log.debug("[DASHBOARD] Metrics calculated in {}ms for bank {}", duration, bankId);
 
         return new BankDashboardMetrics(
-            (int) todayCount,
-            (int) allCount,
+            (int) valueOf(counts.applicationsToday()),
+            (int) valueOf(counts.applicationsAll()),
             (int) offersSubmitted,
             (int) offersAccepted,
             conversionRate,
@@ -88,6 +77,15 @@ public class BankDashboardService {
         );
     }
 
+    private DashboardAggregate aggregate(UUID bankId, LocalDateTime filterStart, LocalDateTime todayStart) {
+        return offerRepository.aggregateDashboard(bankId, filterStart, todayStart,
+                BankDashboardTodayCounters.SUBMITTED_STATUSES, BankDashboardTodayCounters.ACCEPTED_STATUSES);
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
     private LocalDateTime calculateFilterStart(String timePeriod) {
         return switch (timePeriod.toUpperCase()) {
             case "TODAY" -> LocalDate.now().atStartOfDay();
@@ -96,20 +94,4 @@ public class BankDashboardService {
             default -> LocalDate.now().atStartOfDay(); // Default to TODAY
         };
     }
-
-    private int calculateAverageTimeToOffer(List<Offer> offers) {
-        List<Offer> submittedOffers = offers.stream()
-            .filter(o -> o.getOfferSubmittedAt() != null)
-            .toList();
-
-        if (submittedOffers.isEmpty()) {
-            return 0;
-        }
-
-        long totalDays = submittedOffers.stream()
-            .mapToLong(o -> ChronoUnit.DAYS.between(o.getCreatedAt(), o.getOfferSubmittedAt()))
-            .sum();
-
-        return (int) (totalDays / submittedOffers.size());
-    }
-}
\ No newline at end of file
+}
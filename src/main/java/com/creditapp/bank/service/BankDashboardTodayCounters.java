@@ -0,0 +1,305 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.ApplicationOfferCount;
+import com.creditapp.bank.dto.DashboardAggregate;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.shared.model.EntityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Today's dashboard figures of each bank, kept in Redis as running counters so every node serves the TODAY
+ * period without a query.
+ * <p>
+ * Offer changes adjust the counters by the difference between the offer's previous and new state once the
+ * transaction commits (accumulated per transaction, one script call per bank). Distinct applications are
+ * counted through a per-application offer count, so an application leaves the figure only with its last offer.
+ * Counters are only adjusted while an entry exists; a missing entry is seeded from the aggregate query, and
+ * entries expire after the reconcile interval so the aggregate periodically corrects any drift (a change that
+ * committed while an entry was being seeded, a failed Redis call). Entries are keyed by date so the day rollover
+ * needs no cleanup. Redis failures fall back to the database, like the rate limiters.
+ */
+@Component
+@Slf4j
+public class BankDashboardTodayCounters {
+
+    public static final Set<OfferStatus> SUBMITTED_STATUSES = EnumSet.of(OfferStatus.SUBMITTED, OfferStatus.ACCEPTED,
+        OfferStatus.REJECTED, OfferStatus.EXPIRED, OfferStatus.EXPIRED_WITH_SELECTION);
+    public static final Set<OfferStatus> ACCEPTED_STATUSES = EnumSet.of(OfferStatus.ACCEPTED,
+        OfferStatus.EXPIRED_WITH_SELECTION);
+
+    private static final String KEY_PREFIX = "dashboard:today:";
+    private static final List<String> FIELDS = List.of("offersSubmitted", "offersAccepted", "timeToOfferDaysSum",
+            "timeToOfferCount");
+
+    /**
+     * KEYS: counters hash, application hash. ARGV: the four counter deltas, then application id / delta pairs.
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            redis.call('HINCRBY', KEYS[1], 'offersSubmitted', ARGV[1])
+            redis.call('HINCRBY', KEYS[1], 'offersAccepted', ARGV[2])
+            redis.call('HINCRBY', KEYS[1], 'timeToOfferDaysSum', ARGV[3])
+            redis.call('HINCRBY', KEYS[1], 'timeToOfferCount', ARGV[4])
+            for i = 5, #ARGV, 2 do
+                if redis.call('HINCRBY', KEYS[2], ARGV[i], ARGV[i + 1]) <= 0 then
+                    redis.call('HDEL', KEYS[2], ARGV[i])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: counters hash, application hash. ARGV: expiry seconds, the four counters, then application id / count pairs.
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1], KEYS[2])
+            redis.call('HSET', KEYS[1], 'offersSubmitted', ARGV[2], 'offersAccepted', ARGV[3],
+                'timeToOfferDaysSum', ARGV[4], 'timeToOfferCount', ARGV[5])
+            for i = 6, #ARGV, 2 do
+                redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * An offer's contribution to the counters; {@link #NONE} for an offer that does not exist (before insert,
+     * after delete).
+     */
+    public record OfferState(UUID applicationId, OfferStatus status, LocalDateTime createdAt, LocalDateTime submittedAt) {
+        public static final OfferState NONE = new OfferState(null, null, null, null);
+
+        long submitted() {
+            return status != null && SUBMITTED_STATUSES.contains(status) ? 1 : 0;
+        }
+
+        long accepted() {
+            return status != null && ACCEPTED_STATUSES.contains(status) ? 1 : 0;
+        }
+
+        long timeToOfferDays() {
+            return submittedAt != null && createdAt != null ? Duration.between(createdAt, submittedAt).getSeconds() / 86400 : 0;
+        }
+
+        long timed() {
+            return submittedAt != null ? 1 : 0;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.dashboard.today-counters.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dashboard.today-counters.reconcile-interval-seconds:300}")
+    private long reconcileIntervalSeconds;
+
+    public BankDashboardTodayCounters(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public Optional<DashboardAggregate> get(UUID bankId, LocalDate day) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            List<Object> values = redisTemplate.opsForHash().multiGet(key(bankId, day), List.copyOf(FIELDS));
+            if (values == null || values.contains(null)) {
+                return Optional.empty();
+            }
+            Long applications = redisTemplate.opsForHash().size(applicationsKey(bankId, day));
+            return Optional.of(new DashboardAggregate(applications, applications, parse(values.get(0)),
+                    parse(values.get(1)), parse(values.get(2)), parse(values.get(3))));
+        } catch (RuntimeException e) {
+            log.debug("Dashboard counters unavailable for bank {}: {}", bankId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replace the bank's counters for {@code day} with figures computed from the database.
+     */
+    public void seed(UUID bankId, LocalDate day, DashboardAggregate aggregate, List<ApplicationOfferCount> applications) {
+        if (!enabled) {
+            return;
+        }
+        List<String> args = new ArrayList<>(5 + 2 * applications.size());
+        args.add(String.valueOf(reconcileIntervalSeconds));
+        args.add(format(aggregate.offersSubmitted()));
+        args.add(format(aggregate.offersAccepted()));
+        args.add(format(aggregate.timeToOfferDaysSum()));
+        args.add(format(aggregate.timeToOfferCount()));
+        for (ApplicationOfferCount application : applications) {
+            args.add(application.applicationId().toString());
+            args.add(format(application.offers()));
+        }
+        try {
+            redisTemplate.execute(SEED_SCRIPT, List.of(key(bankId, day), applicationsKey(bankId, day)), args.toArray());
+        } catch (RuntimeException e) {
+            log.debug("Could not store dashboard counters for bank {}: {}", bankId, e.getMessage());
+        }
+    }
+
+    /**
+     * Record the change of a flushed offer created today. Runs before Offer#rememberPersistedState, so the
+     * persisted fields still hold the previous values.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.getEntity() instanceof Offer offer) || offer.getCreatedAt() == null) {
+            return;
+        }
+        LocalDate day = offer.getCreatedAt().toLocalDate();
+        if (!day.equals(LocalDate.now())) {
+            return;
+        }
+        OfferState previous = new OfferState(offer.getApplicationId(), offer.getPersistedOfferStatus(),
+                offer.getCreatedAt(), offer.getPersistedOfferSubmittedAt());
+        OfferState current = new OfferState(offer.getApplicationId(), offer.getOfferStatus(), offer.getCreatedAt(),
+                offer.getOfferSubmittedAt());
+        switch (event.getChangeType()) {
+            case PERSISTED -> recordChange(offer.getBankId(), day, OfferState.NONE, current);
+            case UPDATED -> recordChange(offer.getBankId(), day, previous, current);
+            case REMOVED -> recordChange(offer.getBankId(), day, previous, OfferState.NONE);
+        }
+    }
+
+    /**
+     * Adjust the bank's counters for {@code day} by the change of one offer, after the current transaction
+     * commits (or now without one).
+     */
+    public void recordChange(UUID bankId, LocalDate day, OfferState before, OfferState after) {
+        if (!enabled || bankId == null) {
+            return;
+        }
+        Map<BankDay, Delta> deltas;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            deltas = pendingDeltas();
+        } else {
+            deltas = new HashMap<>();
+        }
+        Delta delta = deltas.computeIfAbsent(new BankDay(bankId, day), key -> new Delta());
+        delta.add(before, -1);
+        delta.add(after, 1);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(deltas);
+        }
+    }
+
+    private Map<BankDay, Delta> pendingDeltas() {
+        @SuppressWarnings("unchecked")
+        Map<BankDay, Delta> pending = (Map<BankDay, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<BankDay, Delta> deltas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BankDashboardTodayCounters.this);
+                }
+            });
+            pending = deltas;
+        }
+        return pending;
+    }
+
+    private void apply(Map<BankDay, Delta> deltas) {
+        deltas.forEach((bankDay, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            List<String> args = new ArrayList<>(4 + 2 * delta.applications.size());
+            args.add(String.valueOf(delta.submitted));
+            args.add(String.valueOf(delta.accepted));
+            args.add(String.valueOf(delta.timeToOfferDays));
+            args.add(String.valueOf(delta.timed));
+            delta.applications.forEach((applicationId, offers) -> {
+                if (offers != 0) {
+                    args.add(applicationId.toString());
+                    args.add(String.valueOf(offers));
+                }
+            });
+            try {
+                redisTemplate.execute(APPLY_SCRIPT,
+                        List.of(key(bankDay.bankId(), bankDay.day()), applicationsKey(bankDay.bankId(), bankDay.day())),
+                        args.toArray());
+            } catch (RuntimeException e) {
+                // Reconciliation corrects the figure once the entry expires
+                log.debug("Could not update dashboard counters for bank {}: {}", bankDay.bankId(), e.getMessage());
+            }
+        });
+    }
+
+    // Both keys share a hash tag so the scripts can address them on a cluster
+    private static String key(UUID bankId, LocalDate day) {
+        return KEY_PREFIX + "{" + bankId + ":" + day + "}";
+    }
+
+    private static String applicationsKey(UUID bankId, LocalDate day) {
+        return key(bankId, day) + ":applications";
+    }
+
+    private static Long parse(Object value) {
+        return Long.valueOf(value.toString());
+    }
+
+    private static String format(Long value) {
+        return String.valueOf(value != null ? value : 0L);
+    }
+
+    private record BankDay(UUID bankId, LocalDate day) {
+    }
+
+    private static final class Delta {
+        private long submitted;
+        private long accepted;
+        private long timeToOfferDays;
+        private long timed;
+        private final Map<UUID, Long> applications = new HashMap<>();
+
+        void add(OfferState state, int sign) {
+            if (state == null || state.applicationId() == null) {
+                return;
+            }
+            submitted += sign * state.submitted();
+            accepted += sign * state.accepted();
+            timeToOfferDays += sign * state.timeToOfferDays();
+            timed += sign * state.timed();
+            applications.merge(state.applicationId(), (long) sign, Long::sum);
+        }
+
+        boolean isEmpty() {
+            return submitted == 0 && accepted == 0 && timeToOfferDays == 0 && timed == 0
+                    && applications.values().stream().allMatch(offers -> offers == 0);
+        }
+    }
+}
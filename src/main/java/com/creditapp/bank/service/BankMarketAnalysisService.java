@@ -3,7 +3,6 @@ package com.creditapp.bank.service;
 import com.creditapp.bank.dto.*;
 import com.creditapp.bank.exception.InsufficientMarketDataException;
 import com.creditapp.bank.model.BankRateCard;
-import com.creditapp.bank.repository.BankRateCardRepository;
 import com.creditapp.borrower.model.Currency;
 import com.creditapp.borrower.model.LoanType;
 import org.springframework.stereotype.Service;
@@ -15,21 +14,28 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Competitive position of a bank's rate cards against their markets, read from the current {@link MarketSnapshot}.
+ * Cache keys include the snapshot version, so results computed before a rate card change are simply no longer
+ * looked up.
+ */
 @Service
 public class BankMarketAnalysisService {
 
     private static final int MINIMUM_BANKS_FOR_ANALYSIS = 3;
     
-    private final BankRateCardRepository rateCardRepository;
+    private final MarketSnapshotService marketSnapshotService;
 
-    public BankMarketAnalysisService(BankRateCardRepository rateCardRepository) {
-        this.rateCardRepository = rateCardRepository;
+    public BankMarketAnalysisService(MarketSnapshotService marketSnapshotService) {
+        this.marketSnapshotService = marketSnapshotService;
     }
 
-    @Cacheable(value = "bankMarketAnalysis", key = "#bankId.toString()")
+    @Cacheable(value = "bankMarketAnalysis", key = "#bankId.toString() + ':' + @marketSnapshotService.version()")
     public MarketAnalysisDTO analyzeMarket(UUID bankId) {
-        // Fetch all active rate cards for this bank (valid_to IS NULL)
-        List<BankRateCard> myRateCards = rateCardRepository.findByBankIdAndValidToIsNull(bankId);
+        MarketSnapshot snapshot = marketSnapshotService.current();
+        
+        // Active rate cards of this bank (valid_to IS NULL)
+        List<BankRateCard> myRateCards = snapshot.cardsOf(bankId);
         
         if (myRateCards.isEmpty()) {
             throw new IllegalArgumentException("No active rate cards found for bank");
@@ -41,32 +47,19 @@ public class BankMarketAnalysisService {
 
         // Analyze each rate card
         for (BankRateCard myCard : myRateCards) {
-            // Get market data for this loan type and currency
-            MarketAverageDTO marketAvg = calculateMarketAverage(myCard.getLoanType(), myCard.getCurrency());
-            marketAverages.add(marketAvg);
+            MarketSnapshot.Market market = snapshot.market(myCard.getLoanType(), myCard.getCurrency());
+            marketAverages.add(market.average());
             
-                // Calculate percentile ranking using currently active cards filtered by loanType + currency
-                List<BankRateCard> activeCards = rateCardRepository.findByValidToIsNull();
-                List<BankRateCard> competitorCards = activeCards.stream()
-                    .filter(c -> c.getLoanType() == myCard.getLoanType() && c.getCurrency() == myCard.getCurrency())
-                    .collect(Collectors.toList());
-                // Collect bank IDs for privacy check (for this market subset)
-                Set<UUID> marketBankIds = competitorCards.stream()
-                    .map(BankRateCard::getBankId)
-                    .collect(Collectors.toSet());
-                if (marketBankIds.size() < MINIMUM_BANKS_FOR_ANALYSIS) {
+            // Privacy check: enough distinct banks in this market
+            if (market.bankIds().size() < MINIMUM_BANKS_FOR_ANALYSIS) {
                 throw new InsufficientMarketDataException(
                     String.format("Insufficient market data: only %d banks found, minimum %d required",
-                        marketBankIds.size(), MINIMUM_BANKS_FOR_ANALYSIS));
-                }
-                // Track all unique bank IDs encountered (for response metadata)
-                allBankIds.addAll(marketBankIds);
-            
-            List<BigDecimal> allAprs = competitorCards.stream()
-                    .map(BankRateCard::getBaseApr)
-                    .collect(Collectors.toList());
+                        market.bankIds().size(), MINIMUM_BANKS_FOR_ANALYSIS));
+            }
+            // Track all unique bank IDs encountered (for response metadata)
+            allBankIds.addAll(market.bankIds());
             
-            Integer percentile = calculatePercentileRanking(myCard.getBaseApr(), allAprs);
+            Integer percentile = percentileRanking(market.countBelow(myCard.getBaseApr()), market.size());
             CompetitivePosition position = determineCompetitivePosition(percentile);
             
             MyBankRateCardDTO myBankRate = new MyBankRateCardDTO(
@@ -101,66 +94,14 @@ public class BankMarketAnalysisService {
         );
     }
 
-    @Cacheable(value = "marketAverage", key = "#loanType.name() + ':' + #currency.name()")
+    @Cacheable(value = "marketAverage", key = "#loanType.name() + ':' + #currency.name() + ':' + @marketSnapshotService.version()")
     public MarketAverageDTO calculateMarketAverage(LoanType loanType, Currency currency) {
-        // Use active rate cards (valid_to IS NULL) and filter by loanType + currency
-        List<BankRateCard> marketCards = rateCardRepository
-                .findByValidToIsNull()
-                .stream()
-                .filter(c -> c.getLoanType() == loanType && c.getCurrency() == currency)
-                .collect(Collectors.toList());
-
-        if (marketCards.isEmpty()) {
+        MarketSnapshot.Market market = marketSnapshotService.current().market(loanType, currency);
+        if (market == null) {
             return new MarketAverageDTO(loanType, currency, BigDecimal.ZERO, BigDecimal.ZERO,
                     BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0);
         }
-
-        // Calculate statistics
-        List<BigDecimal> aprs = marketCards.stream()
-                .map(BankRateCard::getBaseApr)
-                .sorted()
-                .collect(Collectors.toList());
-
-        BigDecimal avgApr = aprs.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(aprs.size()), 2, RoundingMode.HALF_UP);
-
-        BigDecimal medianApr = calculateMedian(aprs);
-        BigDecimal minApr = aprs.get(0);
-        BigDecimal maxApr = aprs.get(aprs.size() - 1);
-
-        BigDecimal avgOriginationFee = marketCards.stream()
-                .map(BankRateCard::getOriginationFeePercent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(marketCards.size()), 2, RoundingMode.HALF_UP);
-
-        BigDecimal avgInsurance = marketCards.stream()
-                .map(BankRateCard::getInsurancePercent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(marketCards.size()), 2, RoundingMode.HALF_UP);
-
-        int avgProcessingTime = (int) marketCards.stream()
-                .mapToInt(BankRateCard::getProcessingTimeDays)
-                .average()
-                .orElse(0);
-
-        // Get unique bank count for privacy
-        Set<UUID> uniqueBanks = marketCards.stream()
-                .map(BankRateCard::getBankId)
-                .collect(Collectors.toSet());
-
-        return new MarketAverageDTO(
-                loanType,
-                currency,
-                avgApr,
-                medianApr,
-                minApr,
-                maxApr,
-                avgOriginationFee,
-                avgInsurance,
-                avgProcessingTime,
-                uniqueBanks.size()
-        );
+        return market.average();
     }
 
     public Integer calculatePercentileRanking(BigDecimal myApr, List<BigDecimal> allAprs) {
@@ -181,9 +122,16 @@ public class BankMarketAnalysisService {
                 break;
             }
         }
-        int position = lessCount + 1;
+        return percentileRanking(lessCount, total);
+    }
 
-        // Lower APR = better = higher percentile (invert ranking)
+    /**
+     * Percentile of an APR given how many of the market's {@code total} APRs are strictly lower.
+     * Lower APR = better = higher percentile (inverted ranking).
+     */
+    private static Integer percentileRanking(int lessCount, int total) {
+        if (total == 0) return 0;
+        int position = lessCount + 1;
         return Math.round(((float) (total - position + 1) / total) * 100);
     }
 
@@ -197,21 +145,6 @@ public class BankMarketAnalysisService {
         }
     }
 
-    private BigDecimal calculateMedian(List<BigDecimal> sortedValues) {
-        int size = sortedValues.size();
-        if (size == 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        if (size % 2 == 1) {
-            return sortedValues.get(size / 2);
-        } else {
-            BigDecimal mid1 = sortedValues.get(size / 2 - 1);
-            BigDecimal mid2 = sortedValues.get(size / 2);
-            return mid1.add(mid2).divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
-        }
-    }
-
         private MarketVisualizationDTO buildVisualizationData(List<MyBankRateCardDTO> myBankRates,
                                   List<MarketAverageDTO> marketAverages) {
         Map<String, MarketAverageDTO> avgByKey = marketAverages.stream()
@@ -0,0 +1,242 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.OfferColumnRow;
+import com.creditapp.bank.dto.OfferWatermark;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.shared.model.EntityChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-bank cache of {@link BankOfferColumns} snapshots, bounded by bank count and total rows with LRU eviction.
+ * <p>
+ * Offer changes on this node are recorded from {@link EntityChangedEvent} as soon as they are flushed
+ * and again when the transaction completes; the next read reloads just those offers. Changes made on other
+ * nodes are picked up by comparing the bank's offer count and latest {@code updated_at} with the snapshot at
+ * most every {@code validation-interval-ms}: newer rows are merged in, and a count mismatch (a delete) forces a
+ * full reload. Every snapshot is fully reloaded after {@code max-age-ms} to bound anything the watermark
+ * misses, such as a long transaction committing rows older than the watermark. Application attributes
+ * (loan type, amount) are captured when their offer row is loaded.
+ */
+@Service
+@Slf4j
+public class BankOfferColumnCache {
+
+    private static final class Entry {
+        private final Set<UUID> changedOfferIds = ConcurrentHashMap.newKeySet();
+        private BankOfferColumns columns;
+        private long loadedAtMillis;
+        private long validatedAtMillis;
+        private volatile long lastAccess;
+        private long accountedRows;
+    }
+
+    private final OfferRepository offerRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final AtomicLong cachedRows = new AtomicLong();
+
+    @Value("${app.offer.column-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.offer.column-cache.max-banks:500}")
+    private int maxBanks;
+
+    @Value("${app.offer.column-cache.max-rows:2000000}")
+    private long maxRows;
+
+    @Value("${app.offer.column-cache.validation-interval-ms:5000}")
+    private long validationIntervalMs;
+
+    @Value("${app.offer.column-cache.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    public BankOfferColumnCache(OfferRepository offerRepository, MeterRegistry meterRegistry) {
+        this.offerRepository = offerRepository;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("creditapp.offers.column-cache.banks", entries, Map::size)
+            .description("Banks with a cached offer snapshot")
+            .register(meterRegistry);
+        Gauge.builder("creditapp.offers.column-cache.rows", cachedRows, AtomicLong::get)
+            .description("Offer rows held across all cached snapshots")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Current offer snapshot of a bank, loading or refreshing it as needed.
+     */
+    public BankOfferColumns snapshot(UUID bankId) {
+        if (!enabled) {
+            return BankOfferColumns.of(offerRepository.findOfferColumnRows(bankId));
+        }
+        Entry entry = entries.computeIfAbsent(bankId, id -> new Entry());
+        entry.lastAccess = accessClock.incrementAndGet();
+
+        BankOfferColumns columns;
+        synchronized (entry) {
+            columns = refresh(bankId, entry, System.currentTimeMillis());
+            if (entries.get(bankId) == entry) {
+                cachedRows.addAndGet(columns.size() - entry.accountedRows);
+                entry.accountedRows = columns.size();
+            }
+        }
+        evictIfNeeded(bankId);
+        return columns;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof Offer offer) {
+            markChanged(offer.getBankId(), offer.getId());
+        }
+    }
+
+    /**
+     * Record that an offer of the bank was inserted, updated or deleted. No-op for banks without a snapshot.
+     */
+    public void markChanged(UUID bankId, UUID offerId) {
+        if (bankId == null || offerId == null) {
+            return;
+        }
+        record(bankId, offerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    record(bankId, offerId);
+                }
+            });
+        }
+    }
+
+    public void evict(UUID bankId) {
+        Entry entry = entries.remove(bankId);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    private void record(UUID bankId, UUID offerId) {
+        Entry entry = entries.get(bankId);
+        if (entry != null) {
+            entry.changedOfferIds.add(offerId);
+        }
+    }
+
+    private BankOfferColumns refresh(UUID bankId, Entry entry, long now) {
+        if (entry.columns == null || now - entry.loadedAtMillis >= maxAgeMs) {
+            entry.changedOfferIds.clear();
+            return fullLoad(bankId, entry, now);
+        }
+
+        BankOfferColumns columns = entry.columns;
+        if (!entry.changedOfferIds.isEmpty()) {
+            Set<UUID> changed = drain(entry.changedOfferIds);
+            try {
+                List<OfferColumnRow> rows = offerRepository.findOfferColumnRowsByIds(bankId, changed);
+                Set<UUID> removed = new HashSet<>(changed);
+                for (OfferColumnRow row : rows) {
+                    removed.remove(row.offerId());
+                }
+                columns = columns.withChanges(rows, removed);
+                loaded("changed");
+            } catch (RuntimeException e) {
+                entry.changedOfferIds.addAll(changed);
+                throw e;
+            }
+        }
+
+        if (now - entry.validatedAtMillis >= validationIntervalMs) {
+            OfferWatermark watermark = offerRepository.findOfferWatermark(bankId);
+            if (!matches(watermark, columns)) {
+                LocalDateTime since = columns.maxUpdatedAt();
+                if (since != null) {
+                    columns = columns.withChanges(offerRepository.findOfferColumnRowsUpdatedSince(bankId, since), List.of());
+                    loaded("watermark");
+                }
+                if (since == null || !matches(watermark, columns)) {
+                    log.debug("Offer snapshot of bank {} diverged from watermark, reloading", bankId);
+                    return fullLoad(bankId, entry, now);
+                }
+            }
+            entry.validatedAtMillis = now;
+        }
+        entry.columns = columns;
+        return columns;
+    }
+
+    private BankOfferColumns fullLoad(UUID bankId, Entry entry, long now) {
+        BankOfferColumns columns = BankOfferColumns.of(offerRepository.findOfferColumnRows(bankId));
+        entry.columns = columns;
+        entry.loadedAtMillis = now;
+        entry.validatedAtMillis = now;
+        loaded("full");
+        return columns;
+    }
+
+    private static boolean matches(OfferWatermark watermark, BankOfferColumns columns) {
+        long count = watermark.count() != null ? watermark.count() : 0;
+        return count == columns.size() && Objects.equals(watermark.maxUpdatedAt(), columns.maxUpdatedAt());
+    }
+
+    /**
+     * Evict least recently used snapshots, never the one just read, until both bounds hold.
+     */
+    private void evictIfNeeded(UUID justRead) {
+        while (entries.size() > maxBanks || cachedRows.get() > maxRows) {
+            UUID eldest = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<UUID, Entry> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(justRead) && candidate.getValue().lastAccess < eldestAccess) {
+                    eldest = candidate.getKey();
+                    eldestAccess = candidate.getValue().lastAccess;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            evict(eldest);
+            meterRegistry.counter("creditapp.offers.column-cache.evictions").increment();
+        }
+    }
+
+    private void release(Entry entry) {
+        synchronized (entry) {
+            cachedRows.addAndGet(-entry.accountedRows);
+            entry.accountedRows = 0;
+        }
+    }
+
+    private void loaded(String type) {
+        meterRegistry.counter("creditapp.offers.column-cache.loads", "type", type).increment();
+    }
+
+    private static Set<UUID> drain(Set<UUID> source) {
+        Set<UUID> drained = new HashSet<>();
+        for (UUID id : source) {
+            if (source.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+}
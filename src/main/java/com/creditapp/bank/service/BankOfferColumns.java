@@ -0,0 +1,244 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.OfferColumnRow;
+import com.creditapp.bank.model.OfferStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable columnar snapshot of one bank's offers.
+ * <p>
+ * Each offer is a row index into primitive arrays: timestamps as epoch seconds of the stored local date-time,
+ * APR in basis points, monthly payment in cents, the status ordinal and a dictionary code for the application's
+ * loan type. History and analytics scans walk these arrays without touching entities. Changes produce a new
+ * snapshot through {@link #withChanges}; readers holding the old one are unaffected.
+ */
+public final class BankOfferColumns {
+
+    public static final long NULL_TIME = Long.MIN_VALUE;
+    public static final int NULL_APR = Integer.MIN_VALUE;
+    public static final long NULL_CENTS = Long.MIN_VALUE;
+
+    private static final OfferStatus[] STATUSES = OfferStatus.values();
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long SECONDS_PER_HOUR = 3_600;
+
+    private final int size;
+    private final UUID[] offerIds;
+    private final byte[] status;
+    private final int[] aprBasisPoints;
+    private final long[] paymentCents;
+    private final long[] createdAt;
+    private final long[] submittedAt;
+    private final long[] selectedAt;
+    private final long[] applicationCreatedAt;
+    private final short[] loanTypeCode;
+    private final String[] loanTypes;
+    private final byte[] amountRange;
+    private final LocalDateTime maxUpdatedAt;
+
+    private BankOfferColumns(Builder builder) {
+        this.size = builder.size;
+        this.offerIds = Arrays.copyOf(builder.offerIds, size);
+        this.status = Arrays.copyOf(builder.status, size);
+        this.aprBasisPoints = Arrays.copyOf(builder.aprBasisPoints, size);
+        this.paymentCents = Arrays.copyOf(builder.paymentCents, size);
+        this.createdAt = Arrays.copyOf(builder.createdAt, size);
+        this.submittedAt = Arrays.copyOf(builder.submittedAt, size);
+        this.selectedAt = Arrays.copyOf(builder.selectedAt, size);
+        this.applicationCreatedAt = Arrays.copyOf(builder.applicationCreatedAt, size);
+        this.loanTypeCode = Arrays.copyOf(builder.loanTypeCode, size);
+        this.loanTypes = builder.loanTypes.toArray(new String[0]);
+        this.amountRange = Arrays.copyOf(builder.amountRange, size);
+        this.maxUpdatedAt = builder.maxUpdatedAt;
+    }
+
+    public static BankOfferColumns of(Collection<OfferColumnRow> rows) {
+        Builder builder = new Builder(rows.size());
+        for (OfferColumnRow row : rows) {
+            builder.add(row);
+        }
+        return new BankOfferColumns(builder);
+    }
+
+    /**
+     * New snapshot with the given rows inserted or replaced and the given offers removed.
+     */
+    public BankOfferColumns withChanges(Collection<OfferColumnRow> upserts, Collection<UUID> removedOfferIds) {
+        if (upserts.isEmpty() && removedOfferIds.isEmpty()) {
+            return this;
+        }
+        Set<UUID> replaced = new HashSet<>(removedOfferIds);
+        for (OfferColumnRow row : upserts) {
+            replaced.add(row.offerId());
+        }
+        Builder builder = new Builder(size + upserts.size());
+        builder.maxUpdatedAt = maxUpdatedAt;
+        for (int i = 0; i < size; i++) {
+            if (!replaced.contains(offerIds[i])) {
+                builder.copy(this, i);
+            }
+        }
+        for (OfferColumnRow row : upserts) {
+            builder.add(row);
+        }
+        return new BankOfferColumns(builder);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LocalDateTime maxUpdatedAt() {
+        return maxUpdatedAt;
+    }
+
+    public UUID offerId(int row) {
+        return offerIds[row];
+    }
+
+    OfferStatus status(int row) {
+        return STATUSES[status[row]];
+    }
+
+    int aprBasisPoints(int row) {
+        return aprBasisPoints[row];
+    }
+
+    long paymentCents(int row) {
+        return paymentCents[row];
+    }
+
+    long createdAtSecond(int row) {
+        return createdAt[row];
+    }
+
+    long submittedAtSecond(int row) {
+        return submittedAt[row];
+    }
+
+    /**
+     * Add every offer submitted within [{@code fromSecond}, {@code toSecond}] whose application still exists.
+     */
+    public void accumulate(AnalyticsAccumulator analytics, long fromSecond, long toSecond) {
+        long[][] loanTypeSlots = new long[loanTypes.length][];
+        for (int code = 0; code < loanTypes.length; code++) {
+            loanTypeSlots[code] = analytics.loanTypeSlot(loanTypes[code]);
+        }
+        long[] unknownLoanTypeSlot = analytics.loanTypeSlot(null);
+        for (int i = 0; i < size; i++) {
+            long submitted = submittedAt[i];
+            if (submitted == NULL_TIME || submitted < fromSecond || submitted > toSecond
+                    || applicationCreatedAt[i] == NULL_TIME) {
+                continue;
+            }
+            analytics.addOffer(Math.floorDiv(submitted, SECONDS_PER_DAY),
+                    loanTypeCode[i] < 0 ? unknownLoanTypeSlot : loanTypeSlots[loanTypeCode[i]],
+                    amountRange[i],
+                    selectedAt[i] != NULL_TIME,
+                    aprBasisPoints[i],
+                    (submitted - applicationCreatedAt[i]) / SECONDS_PER_HOUR);
+        }
+    }
+
+    public static long toSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NULL_TIME : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static long toEpochDay(long second) {
+        return Math.floorDiv(second, SECONDS_PER_DAY);
+    }
+
+    static int toBasisPoints(BigDecimal value) {
+        return value == null ? NULL_APR : value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    static long toCents(BigDecimal value) {
+        return value == null ? NULL_CENTS : value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static final class Builder {
+
+        private int size;
+        private UUID[] offerIds;
+        private byte[] status;
+        private int[] aprBasisPoints;
+        private long[] paymentCents;
+        private long[] createdAt;
+        private long[] submittedAt;
+        private long[] selectedAt;
+        private long[] applicationCreatedAt;
+        private short[] loanTypeCode;
+        private byte[] amountRange;
+        private final List<String> loanTypes = new ArrayList<>();
+        private final Map<String, Short> loanTypeCodes = new HashMap<>();
+        private LocalDateTime maxUpdatedAt;
+
+        private Builder(int capacity) {
+            offerIds = new UUID[capacity];
+            status = new byte[capacity];
+            aprBasisPoints = new int[capacity];
+            paymentCents = new long[capacity];
+            createdAt = new long[capacity];
+            submittedAt = new long[capacity];
+            selectedAt = new long[capacity];
+            applicationCreatedAt = new long[capacity];
+            loanTypeCode = new short[capacity];
+            amountRange = new byte[capacity];
+        }
+
+        private void add(OfferColumnRow row) {
+            int i = size++;
+            offerIds[i] = row.offerId();
+            status[i] = (byte) row.offerStatus().ordinal();
+            aprBasisPoints[i] = toBasisPoints(row.apr());
+            paymentCents[i] = toCents(row.monthlyPayment());
+            createdAt[i] = toSecond(row.createdAt());
+            submittedAt[i] = toSecond(row.offerSubmittedAt());
+            selectedAt[i] = toSecond(row.borrowerSelectedAt());
+            applicationCreatedAt[i] = toSecond(row.applicationCreatedAt());
+            loanTypeCode[i] = loanTypeCode(row.loanType());
+            amountRange[i] = (byte) (row.loanAmount() == null ? -1 : BankDailyMetricsService.amountRangeIndex(row.loanAmount()));
+            if (row.updatedAt() != null && (maxUpdatedAt == null || row.updatedAt().isAfter(maxUpdatedAt))) {
+                maxUpdatedAt = row.updatedAt();
+            }
+        }
+
+        private void copy(BankOfferColumns source, int row) {
+            int i = size++;
+            offerIds[i] = source.offerIds[row];
+            status[i] = source.status[row];
+            aprBasisPoints[i] = source.aprBasisPoints[row];
+            paymentCents[i] = source.paymentCents[row];
+            createdAt[i] = source.createdAt[row];
+            submittedAt[i] = source.submittedAt[row];
+            selectedAt[i] = source.selectedAt[row];
+            applicationCreatedAt[i] = source.applicationCreatedAt[row];
+            short code = source.loanTypeCode[row];
+            loanTypeCode[i] = loanTypeCode(code < 0 ? null : source.loanTypes[code]);
+            amountRange[i] = source.amountRange[row];
+        }
+
+        private short loanTypeCode(String loanType) {
+            if (loanType == null) {
+                return -1;
+            }
+            return loanTypeCodes.computeIfAbsent(loanType, type -> {
+                loanTypes.add(type);
+                return (short) (loanTypes.size() - 1);
+            });
+        }
+    }
+}
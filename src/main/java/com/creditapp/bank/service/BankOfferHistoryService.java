@@ -11,16 +11,17 @@ import com.creditapp.borrower.model.ApplicationStatus;
 import com.creditapp.borrower.repository.ApplicationRepository;
 import com.creditapp.shared.model.User;
 import com.creditapp.auth.repository.UserRepository;
+import com.creditapp.shared.util.BatchLoader;
+import com.creditapp.shared.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.math.RoundingMode;
 import java.util.*;
+import java.util.function.IntToLongFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +32,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BankOfferHistoryService {
 
+    private final BankOfferColumnCache offerColumnCache;
     private final OfferRepository offerRepository;
     private final ApplicationRepository applicationRepository;
     private final UserRepository userRepository;
@@ -45,42 +47,90 @@ public class BankOfferHistoryService {
             OfferHistoryFilter filter,
             int page,
             int pageSize) {
+        return getOfferHistory(bankId, filter, page, pageSize, null);
+    }
+    
+    /**
+     * Offer history page by number, or the page after {@code cursor} when one is given (an empty cursor starts at
+     * the first row). Cursor pages start strictly after the previous page's last offer in sort order, so offers
+     * added meanwhile do not shift or repeat rows.
+     */
+    @Transactional(readOnly = true)
+    public OfferHistoryResponse getOfferHistory(
+            UUID bankId,
+            OfferHistoryFilter filter,
+            int page,
+            int pageSize,
+            String cursor) {
         
         long startTime = System.currentTimeMillis();
         
         try {
-            // Fetch all offers for this bank (use Pageable with large size to get all)
-            Pageable largePage = PageRequest.of(0, 10000);
-            List<Offer> offers = offerRepository.findByBankId(bankId, largePage)
-                    .stream()
-                    .toList();
+            BankOfferColumns columns = offerColumnCache.snapshot(bankId);
+            HistorySort sort = HistorySort.of(columns, filter.getSortBy());
             
-            // Apply filters
-            List<Offer> filtered = applyFilters(offers, filter);
-            
-            // Sort
-            List<Offer> sorted = sortOffers(filtered, filter.getSortBy());
-            
-            // Convert to DTOs
-            List<OfferHistoryItem> items = sorted.stream()
-                    .map(this::convertToHistoryItem)
-                    .collect(Collectors.toList());
+            // Filter and sort row indexes of the bank's offer snapshot
+            Integer[] rows = applyFilters(columns, filter);
+            int totalCount = rows.length;
+            if (cursor != null && !cursor.isEmpty()) {
+                rows = rowsAfter(columns, rows, sort, cursor);
+            }
+            Arrays.sort(rows, sort.comparator(columns));
             
-            // Apply pagination
-            int totalCount = items.size();
-            int startIdx = page * pageSize;
-            int endIdx = Math.min(startIdx + pageSize, totalCount);
+            // Apply pagination, loading only the offers on the requested page
+            int startIdx = cursor != null ? 0 : page * pageSize;
+            int endIdx = Math.min(startIdx + pageSize, rows.length);
             
-            List<OfferHistoryItem> pageItems = items.isEmpty() || startIdx >= totalCount ? 
-                    new ArrayList<>() : items.subList(startIdx, endIdx);
+            List<OfferHistoryItem> pageItems = new ArrayList<>();
+            if (startIdx < rows.length) {
+                List<UUID> pageIds = new ArrayList<>(endIdx - startIdx);
+                for (int i = startIdx; i < endIdx; i++) {
+                    pageIds.add(columns.offerId(rows[i]));
+                }
+                Map<UUID, Offer> offersById = offerRepository.findAllById(pageIds).stream()
+                        .collect(Collectors.toMap(Offer::getId, offer -> offer));
+                // Applications and borrowers of the page with one query each; without them rows show
+                // an unknown borrower instead of failing the page
+                Map<UUID, Application> applications = Map.of();
+                Map<UUID, User> borrowers = Map.of();
+                try {
+                    applications = BatchLoader.of(applicationRepository::findByIdIn, Application::getId)
+                            .addAll(offersById.values(), Offer::getApplicationId)
+                            .load();
+                    borrowers = BatchLoader.of(userRepository::findAllById, User::getId)
+                            .addAll(applications.values(), Application::getBorrowerId)
+                            .load();
+                } catch (Exception e) {
+                    log.debug("Could not retrieve applications or borrowers for offer history of bankId={}", bankId, e);
+                }
+                for (UUID offerId : pageIds) {
+                    Offer offer = offersById.get(offerId);
+                    if (offer == null) {
+                        continue;
+                    }
+                    // One bad row is skipped rather than failing the whole page
+                    try {
+                        Application application = applications.get(offer.getApplicationId());
+                        User borrower = application != null ? borrowers.get(application.getBorrowerId()) : null;
+                        pageItems.add(convertToHistoryItem(offer, application, borrower));
+                    } catch (Exception e) {
+                        log.error("Error converting offer {} to history item, skipping it", offerId, e);
+                    }
+                }
+            }
+            String nextCursor = startIdx < endIdx && endIdx < rows.length
+                    ? sort.cursorAfter(columns, rows[endIdx - 1])
+                    : null;
             
             long responseTime = System.currentTimeMillis() - startTime;
             if (responseTime > 200) {
                 log.warn("Slow offer history query: {}ms for bankId={}", responseTime, bankId);
             }
             
-            return new OfferHistoryResponse(pageItems, (long) totalCount, page, pageSize);
+            return new OfferHistoryResponse(pageItems, (long) totalCount, page, pageSize, nextCursor);
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error retrieving offer history for bankId={}", bankId, e);
             throw new RuntimeException("Failed to retrieve offer history", e);
@@ -95,8 +145,10 @@ public class BankOfferHistoryService {
             return "SUBMITTED";
         }
         
-        OfferStatus offerStatus = offer.getOfferStatus();
-        
+        return determineOfferStatus(offer.getOfferStatus());
+    }
+    
+    private static String determineOfferStatus(OfferStatus offerStatus) {
         if (offerStatus == OfferStatus.WITHDRAWN) {
             return "WITHDRAWN";
         }
@@ -113,9 +165,9 @@ public class BankOfferHistoryService {
     }
     
     /**
-     * Determine the borrower's interaction status with the offer.
+     * Determine the borrower's interaction status with the offer from its application (null when missing).
      */
-    private String determineBorrowerStatus(Offer offer) {
+    private static String determineBorrowerStatus(Offer offer, Application application) {
         if (offer == null) {
             return "NOT_VIEWED";
         }
@@ -125,243 +177,207 @@ public class BankOfferHistoryService {
             return "ACCEPTED_OTHER";
         }
         
-        // Try to get the associated application
-        try {
-            UUID applicationId = offer.getApplicationId();
-            if (applicationId != null) {
-                Optional<Application> appOpt = applicationRepository.findById(applicationId);
-                if (appOpt.isPresent()) {
-                    Application app = appOpt.get();
-                    ApplicationStatus appStatus = app.getStatus();
-                    
-                    // If application status indicates borrower has viewed offers
-                    if (appStatus == ApplicationStatus.OFFERS_AVAILABLE || 
-                        appStatus == ApplicationStatus.ACCEPTED ||
-                        appStatus == ApplicationStatus.UNDER_REVIEW) {
-                        return "VIEWED";
-                    }
-                }
+        if (application != null) {
+            ApplicationStatus appStatus = application.getStatus();
+            
+            // If application status indicates borrower has viewed offers
+            if (appStatus == ApplicationStatus.OFFERS_AVAILABLE || 
+                appStatus == ApplicationStatus.ACCEPTED ||
+                appStatus == ApplicationStatus.UNDER_REVIEW) {
+                return "VIEWED";
             }
-        } catch (Exception e) {
-            log.debug("Could not determine borrower status for offerId={}", offer.getId(), e);
         }
         
         return "NOT_VIEWED";
     }
     
     /**
-     * Apply all active filters to the offer list.
+     * Apply all active filters to the bank's offer snapshot, returning matching row indexes.
      */
-    private List<Offer> applyFilters(List<Offer> offers, OfferHistoryFilter filter) {
-        return offers.stream()
-                .filter(offer -> passesStatusFilter(offer, filter.getStatuses()))
-                .filter(offer -> passesDateFilter(offer, filter.getDateFrom(), filter.getDateTo()))
-                .filter(offer -> passesAprFilter(offer, filter.getAprFrom(), filter.getAprTo()))
-                .filter(offer -> passesPaymentFilter(offer, filter.getPaymentFrom(), filter.getPaymentTo()))
-                .collect(Collectors.toList());
+    private Integer[] applyFilters(BankOfferColumns columns, OfferHistoryFilter filter) {
+        boolean[] statusAllowed = statusMask(filter.getStatuses());
+        long dayFrom = filter.getDateFrom() != null ? filter.getDateFrom().toEpochDay() : Long.MIN_VALUE;
+        long dayTo = filter.getDateTo() != null ? filter.getDateTo().toEpochDay() : Long.MAX_VALUE;
+        long aprFrom = lowerBound(filter.getAprFrom());
+        long aprTo = upperBound(filter.getAprTo());
+        long paymentFrom = lowerBound(filter.getPaymentFrom());
+        long paymentTo = upperBound(filter.getPaymentTo());
+        
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (statusAllowed[columns.status(row).ordinal()]
+                    && passesDateFilter(columns.submittedAtSecond(row), dayFrom, dayTo)
+                    && passesRangeFilter(columns.aprBasisPoints(row), BankOfferColumns.NULL_APR, aprFrom, aprTo)
+                    && passesRangeFilter(columns.paymentCents(row), BankOfferColumns.NULL_CENTS, paymentFrom, paymentTo)) {
+                rows.add(row);
+            }
+        }
+        return rows.toArray(new Integer[0]);
     }
     
     /**
-     * Check if offer passes status filter.
+     * Offer statuses (by ordinal) whose history status is in the filter; all statuses when no filter is given.
      */
-    private boolean passesStatusFilter(Offer offer, List<String> statuses) {
-        if (statuses == null || statuses.isEmpty()) {
-            return true;
+    private static boolean[] statusMask(List<String> statuses) {
+        OfferStatus[] values = OfferStatus.values();
+        boolean[] mask = new boolean[values.length];
+        for (OfferStatus offerStatus : values) {
+            mask[offerStatus.ordinal()] = statuses == null || statuses.isEmpty()
+                    || statuses.contains(determineOfferStatus(offerStatus));
         }
-        
-        String offerStatus = determineOfferStatus(offer);
-        return statuses.contains(offerStatus);
+        return mask;
     }
     
     /**
-     * Check if offer passes date range filter.
+     * Check if offer passes date range filter; offers never submitted always pass.
      */
-    private boolean passesDateFilter(Offer offer, LocalDate dateFrom, LocalDate dateTo) {
-        if (offer == null || offer.getOfferSubmittedAt() == null) {
+    private static boolean passesDateFilter(long submittedSecond, long dayFrom, long dayTo) {
+        if (submittedSecond == BankOfferColumns.NULL_TIME) {
             return true;
         }
-        
-        LocalDate offerDate = offer.getOfferSubmittedAt().toLocalDate();
-        
-        if (dateFrom != null && offerDate.isBefore(dateFrom)) {
-            return false;
-        }
-        
-        if (dateTo != null && offerDate.isAfter(dateTo)) {
-            return false;
-        }
-        
-        return true;
+        long day = BankOfferColumns.toEpochDay(submittedSecond);
+        return day >= dayFrom && day <= dayTo;
     }
     
     /**
-     * Check if offer passes APR range filter.
+     * Check if a scaled APR or payment value is within bounds; unknown values always pass.
      */
-    private boolean passesAprFilter(Offer offer, BigDecimal aprFrom, BigDecimal aprTo) {
-        if (offer == null || offer.getApr() == null) {
-            return true;
-        }
-        
-        BigDecimal apr = offer.getApr();
-        
-        if (aprFrom != null && apr.compareTo(aprFrom) < 0) {
-            return false;
+    private static boolean passesRangeFilter(long value, long nullValue, long from, long to) {
+        return value == nullValue || (value >= from && value <= to);
+    }
+    
+    /**
+     * Smallest value in hundredths that is not below the bound.
+     */
+    private static long lowerBound(BigDecimal bound) {
+        return bound == null ? Long.MIN_VALUE : bound.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+    
+    /**
+     * Largest value in hundredths that is not above the bound.
+     */
+    private static long upperBound(BigDecimal bound) {
+        return bound == null ? Long.MAX_VALUE : bound.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+    
+    /**
+     * Rows that come strictly after the cursor position in the sort's order.
+     */
+    private static Integer[] rowsAfter(BankOfferColumns columns, Integer[] rows, HistorySort sort, String cursor) {
+        List<String> keys = KeysetCursor.decode(cursor, sort.name(), 3);
+        long cursorKey;
+        long cursorCreated;
+        UUID cursorId;
+        try {
+            cursorKey = Long.parseLong(keys.get(0));
+            cursorCreated = Long.parseLong(keys.get(1));
+            cursorId = UUID.fromString(keys.get(2));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor for sort " + sort.name());
         }
-        
-        if (aprTo != null && apr.compareTo(aprTo) > 0) {
-            return false;
+        List<Integer> after = new ArrayList<>();
+        for (Integer row : rows) {
+            if (sort.compare(sort.key().applyAsLong(row), columns.createdAtSecond(row), columns.offerId(row),
+                    cursorKey, cursorCreated, cursorId) > 0) {
+                after.add(row);
+            }
         }
-        
-        return true;
+        return after.toArray(new Integer[0]);
     }
     
     /**
-     * Check if offer passes monthly payment range filter.
+     * Sort criteria parsed from "fieldName_DIRECTION" (e.g., "offerSubmittedAt_DESC", "apr_ASC").
+     * Rows are ordered by the scaled key (nulls last), then newest offer first, then offer id, which is also the
+     * position a keyset cursor records.
      */
-    private boolean passesPaymentFilter(Offer offer, BigDecimal paymentFrom, BigDecimal paymentTo) {
-        if (offer == null || offer.getMonthlyPayment() == null) {
-            return true;
+    private record HistorySort(String name, IntToLongFunction key, long nullValue, boolean ascending) {
+        
+        static HistorySort of(BankOfferColumns columns, String sortBy) {
+            if (sortBy == null || sortBy.isEmpty()) {
+                sortBy = "offerSubmittedAt_DESC";
+            }
+            
+            String[] parts = sortBy.split("_");
+            String field = parts[0];
+            boolean ascending = parts.length > 1 && "ASC".equals(parts[1]);
+            
+            if ("apr".equals(field)) {
+                return new HistorySort("apr_" + direction(ascending), columns::aprBasisPoints,
+                        BankOfferColumns.NULL_APR, ascending);
+            }
+            if ("monthlyPayment".equals(field)) {
+                return new HistorySort("monthlyPayment_" + direction(ascending), columns::paymentCents,
+                        BankOfferColumns.NULL_CENTS, ascending);
+            }
+            if (!"offerSubmittedAt".equals(field)) {
+                // Default to submission date (fallback to createdAt), descending
+                ascending = false;
+            }
+            return new HistorySort("offerSubmittedAt_" + direction(ascending), row -> submittedOrCreated(columns, row),
+                    BankOfferColumns.NULL_TIME, ascending);
         }
         
-        BigDecimal payment = offer.getMonthlyPayment();
+        private static String direction(boolean ascending) {
+            return ascending ? "ASC" : "DESC";
+        }
         
-        if (paymentFrom != null && payment.compareTo(paymentFrom) < 0) {
-            return false;
+        Comparator<Integer> comparator(BankOfferColumns columns) {
+            return (r1, r2) -> compare(key.applyAsLong(r1), columns.createdAtSecond(r1), columns.offerId(r1),
+                    key.applyAsLong(r2), columns.createdAtSecond(r2), columns.offerId(r2));
         }
         
-        if (paymentTo != null && payment.compareTo(paymentTo) > 0) {
-            return false;
+        int compare(long key1, long created1, UUID id1, long key2, long created2, UUID id2) {
+            int result = compareNullsLast(key1, key2, nullValue, ascending);
+            if (result == 0) {
+                // Ties keep the newest offer first
+                result = compareNullsLast(created1, created2, BankOfferColumns.NULL_TIME, false);
+            }
+            return result != 0 ? result : id1.compareTo(id2);
         }
         
-        return true;
+        String cursorAfter(BankOfferColumns columns, int row) {
+            return KeysetCursor.encode(name, key.applyAsLong(row), columns.createdAtSecond(row), columns.offerId(row));
+        }
     }
     
-    /**
-     * Sort offers based on sort criteria.
-     * Format: "fieldName_DIRECTION" (e.g., "offerSubmittedAt_DESC", "apr_ASC")
-     */
-    private List<Offer> sortOffers(List<Offer> offers, String sortBy) {
-        if (sortBy == null || sortBy.isEmpty()) {
-            sortBy = "offerSubmittedAt_DESC";
-        }
-        
-        final String finalSortBy = sortBy;
-        
-        return offers.stream()
-                .sorted((o1, o2) -> compareOffers(o1, o2, finalSortBy))
-                .collect(Collectors.toList());
+    private static long submittedOrCreated(BankOfferColumns columns, int row) {
+        long submitted = columns.submittedAtSecond(row);
+        return submitted != BankOfferColumns.NULL_TIME ? submitted : columns.createdAtSecond(row);
     }
     
     /**
-     * Compare two offers for sorting.
+     * Compare scaled column values, nulls last in either direction.
      */
-    private int compareOffers(Offer o1, Offer o2, String sortCriteria) {
-        String[] parts = sortCriteria.split("_");
-        String field = parts[0];
-        boolean ascending = parts.length > 1 && "ASC".equals(parts[1]);
-
-        int result;
-
-        if ("offerSubmittedAt".equals(field)) {
-            // Use offerSubmittedAt, falling back to createdAt; nulls last
-            java.time.LocalDateTime a1 = o1.getOfferSubmittedAt() != null ? o1.getOfferSubmittedAt() : o1.getCreatedAt();
-            java.time.LocalDateTime a2 = o2.getOfferSubmittedAt() != null ? o2.getOfferSubmittedAt() : o2.getCreatedAt();
-            if (a1 == null && a2 == null) {
-                result = 0;
-            } else if (a1 == null) {
-                result = 1; // nulls last
-            } else if (a2 == null) {
-                result = -1;
-            } else {
-                result = a1.compareTo(a2);
-            }
-        } else if ("apr".equals(field)) {
-            java.math.BigDecimal b1 = o1.getApr();
-            java.math.BigDecimal b2 = o2.getApr();
-            if (b1 == null && b2 == null) {
-                result = 0;
-            } else if (b1 == null) {
-                result = 1; // nulls last
-            } else if (b2 == null) {
-                result = -1;
-            } else {
-                result = b1.compareTo(b2);
-            }
-        } else if ("monthlyPayment".equals(field)) {
-            java.math.BigDecimal p1 = o1.getMonthlyPayment();
-            java.math.BigDecimal p2 = o2.getMonthlyPayment();
-            if (p1 == null && p2 == null) {
-                result = 0;
-            } else if (p1 == null) {
-                result = 1; // nulls last
-            } else if (p2 == null) {
-                result = -1;
-            } else {
-                result = p1.compareTo(p2);
-            }
-        } else {
-            // Default to submission date (fallback to createdAt), descending
-            java.time.LocalDateTime d1 = o1.getOfferSubmittedAt() != null ? o1.getOfferSubmittedAt() : o1.getCreatedAt();
-            java.time.LocalDateTime d2 = o2.getOfferSubmittedAt() != null ? o2.getOfferSubmittedAt() : o2.getCreatedAt();
-            if (d1 == null && d2 == null) {
-                result = 0;
-            } else if (d1 == null) {
-                result = 1;
-            } else if (d2 == null) {
-                result = -1;
-            } else {
-                result = d2.compareTo(d1); // default DESC
-            }
-            return result;
+    private static int compareNullsLast(long v1, long v2, long nullValue, boolean ascending) {
+        if (v1 == nullValue || v2 == nullValue) {
+            return Boolean.compare(v1 == nullValue, v2 == nullValue);
         }
-
-        return ascending ? result : -result;
+        return ascending ? Long.compare(v1, v2) : Long.compare(v2, v1);
     }
     
     /**
-     * Convert Offer entity to OfferHistoryItem DTO.
+     * Convert Offer entity to OfferHistoryItem DTO with its preloaded application and borrower.
      */
-    private OfferHistoryItem convertToHistoryItem(Offer offer) {
-        try {
-            String borrowerName = "Unknown";
-            
-            if (offer.getApplicationId() != null) {
-                try {
-                    Optional<Application> appOpt = applicationRepository.findById(offer.getApplicationId());
-                    if (appOpt.isPresent()) {
-                        Application app = appOpt.get();
-                        if (app.getBorrowerId() != null) {
-                            Optional<User> userOpt = userRepository.findById(app.getBorrowerId());
-                            if (userOpt.isPresent()) {
-                                User user = userOpt.get();
-                                borrowerName = (user.getFirstName() != null ? user.getFirstName() : "") +
-                                             " " +
-                                             (user.getLastName() != null ? user.getLastName() : "");
-                                borrowerName = borrowerName.trim();
-                                if (borrowerName.isEmpty()) {
-                                    borrowerName = "Unknown";
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    log.debug("Could not retrieve borrower name for applicationId={}", offer.getApplicationId(), e);
-                }
+    private OfferHistoryItem convertToHistoryItem(Offer offer, Application application, User borrower) {
+        String borrowerName = "Unknown";
+        if (borrower != null) {
+            borrowerName = ((borrower.getFirstName() != null ? borrower.getFirstName() : "") +
+                         " " +
+                         (borrower.getLastName() != null ? borrower.getLastName() : "")).trim();
+            if (borrowerName.isEmpty()) {
+                borrowerName = "Unknown";
             }
-            
-            return new OfferHistoryItem(
-                    offer.getId(),
-                    borrowerName,
-                    offer.getApr(),
-                    offer.getMonthlyPayment(),
-                    offer.getProcessingTimeDays(),
-                    offer.getOfferSubmittedAt(),
-                    determineOfferStatus(offer),
-                    determineBorrowerStatus(offer)
-            );
-        } catch (Exception e) {
-            log.error("Error converting offer {} to history item", offer.getId(), e);
-            throw new RuntimeException("Failed to convert offer to history item", e);
         }
+        
+        return new OfferHistoryItem(
+                offer.getId(),
+                borrowerName,
+                offer.getApr(),
+                offer.getMonthlyPayment(),
+                offer.getProcessingTimeDays(),
+                offer.getOfferSubmittedAt(),
+                determineOfferStatus(offer),
+                determineBorrowerStatus(offer, application)
+        );
     }
 }
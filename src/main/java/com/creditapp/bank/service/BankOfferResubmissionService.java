@@ -3,6 +3,7 @@ package com.creditapp.bank.service;
 import com.creditapp.bank.dto.ResubmitOfferFormResponse;
 import com.creditapp.bank.dto.ResubmitOfferRequest;
 import com.creditapp.bank.dto.ResubmitOfferResponse;
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
@@ -14,6 +15,7 @@ import com.creditapp.shared.service.EmailService;
 import com.creditapp.shared.util.CalculationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +36,7 @@ public class BankOfferResubmissionService {
     private final ApplicationRepository applicationRepository;
     private final EmailService emailService;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get resubmit form with previous offer details pre-filled
@@ -146,11 +149,14 @@ public class BankOfferResubmissionService {
 
         // Save new offer
         offerRepository.save(newOffer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, newOffer, null));
         log.info("Created new offer {} for resubmission", newOffer.getId());
 
         // Mark old offer as EXPIRED
+        OfferStatus previousStatus = oldOffer.getOfferStatus();
         oldOffer.setOfferStatus(OfferStatus.EXPIRED);
         offerRepository.save(oldOffer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, oldOffer, previousStatus));
         log.info("Marked old offer {} as EXPIRED", oldOffer.getId());
 
         // Send email to borrower
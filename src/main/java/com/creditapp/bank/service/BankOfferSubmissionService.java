@@ -2,6 +2,7 @@ package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.OfferSubmissionRequest;
 import com.creditapp.bank.dto.OfferSubmissionResponse;
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
@@ -12,6 +13,7 @@ import com.creditapp.shared.service.AuditService;
 import com.creditapp.shared.util.CalculationUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,7 @@ public class BankOfferSubmissionService {
     private final OfferRepository offerRepository;
     private final ApplicationRepository applicationRepository;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Submit offer for application with optional overrides
@@ -119,6 +122,7 @@ public class BankOfferSubmissionService {
 
         // Save offer
         offer = offerRepository.save(offer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, offer, null));
         log.info("Created new offer {} for app {} from bank {} with APR={}", 
                 offer.getId(), applicationId, bankId, apr);
 
@@ -1,6 +1,7 @@
 package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.WithdrawOfferResponse;
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
@@ -9,6 +10,7 @@ import com.creditapp.shared.service.AuditService;
 import com.creditapp.shared.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class BankOfferWithdrawalService {
     private final OfferRepository offerRepository;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WithdrawOfferResponse withdrawOffer(UUID bankId, UUID offerId) {
         log.info("Withdrawing offer {} for bank {}", offerId, bankId);
@@ -44,8 +47,10 @@ public class BankOfferWithdrawalService {
         }
 
         // Update offer status
+        OfferStatus previousStatus = offer.getOfferStatus();
         offer.setOfferStatus(OfferStatus.WITHDRAWN);
         Offer updatedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, offer, previousStatus));
 
         // Create audit log
         auditService.logAction(
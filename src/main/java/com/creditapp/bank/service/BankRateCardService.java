@@ -2,6 +2,7 @@ package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.BankRateCardRequest;
 import com.creditapp.bank.dto.BankRateCardResponse;
+import com.creditapp.bank.event.RateCardChangedEvent;
 import com.creditapp.bank.exception.DuplicateRateCardException;
 import com.creditapp.bank.exception.InvalidRateCardException;
 import com.creditapp.bank.exception.RateCardNotFoundException;
@@ -16,10 +17,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 
 @Service
 @Transactional
@@ -27,20 +28,20 @@ public class BankRateCardService {
     
     private final BankRateCardRepository bankRateCardRepository;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public BankRateCardService(BankRateCardRepository bankRateCardRepository, AuditService auditService) {
+    public BankRateCardService(BankRateCardRepository bankRateCardRepository, AuditService auditService,
+                               ApplicationEventPublisher eventPublisher) {
         this.bankRateCardRepository = bankRateCardRepository;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
      * Creates a new rate card. If an active card exists for the same loan type and currency,
      * marks it as inactive (versioning).
      */
-    @Caching(evict = {
-        @CacheEvict(value = {"bankMarketAnalysis", "rateCards"}, key = "#bankId.toString()", allEntries = false),
-        @CacheEvict(value = "marketAverage", key = "#request.loanType.name() + ':' + #request.currency.name()", allEntries = false)
-    })
+    @CacheEvict(value = "rateCards", key = "#bankId.toString()")
     public BankRateCardResponse createRateCard(UUID bankId, BankRateCardRequest request) {
         validateRateCardRequest(request);
         
@@ -73,6 +74,8 @@ public class BankRateCardService {
         
         BankRateCard savedCard = bankRateCardRepository.save(newCard);
         auditService.logAction("RateCard", savedCard.getId(), AuditAction.RATE_CARD_CREATED);
+        eventPublisher.publishEvent(new RateCardChangedEvent(this, savedCard,
+            existingCard.map(BankRateCard::getId).orElse(null)));
         
         return mapToResponse(savedCard);
     }
@@ -81,10 +84,7 @@ public class BankRateCardService {
      * Updates a rate card by creating a new version. Marks the old card as inactive.
      * This implements an immutable history pattern for audit trail.
      */
-    @Caching(evict = {
-        @CacheEvict(value = {"bankMarketAnalysis", "rateCards"}, key = "#bankId.toString()", allEntries = false),
-        @CacheEvict(value = "marketAverage", key = "#request.loanType.name() + ':' + #request.currency.name()", allEntries = false)
-    })
+    @CacheEvict(value = "rateCards", key = "#bankId.toString()")
     public BankRateCardResponse updateRateCard(UUID bankId, UUID rateCardId, BankRateCardRequest request) {
         validateRateCardRequest(request);
         
@@ -120,6 +120,7 @@ public class BankRateCardService {
         
         BankRateCard savedCard = bankRateCardRepository.save(newCard);
         auditService.logAction("RateCard", savedCard.getId(), AuditAction.RATE_CARD_UPDATED);
+        eventPublisher.publishEvent(new RateCardChangedEvent(this, savedCard, existingCard.getId()));
         
         return mapToResponse(savedCard);
     }
@@ -0,0 +1,195 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.dto.MarketAverageDTO;
+import com.creditapp.bank.model.BankRateCard;
+import com.creditapp.borrower.model.Currency;
+import com.creditapp.borrower.model.LoanType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable statistics of every (loanType, currency) market, computed in one pass over the active rate cards
+ * of a {@link RateCardIndex}.
+ * <p>
+ * Each market keeps its APRs as a sorted basis-point array, so a percentile ranking is a binary search, and
+ * a precomputed {@link MarketAverageDTO}. The {@link #version()} is derived from the ids of the active cards;
+ * cards are versioned rows that are never edited in place, so two nodes holding the same active cards report
+ * the same version and it can be used as a shared cache key.
+ */
+public final class MarketSnapshot {
+
+    public static final class Market {
+
+        private final int[] sortedAprBasisPoints;
+        private final Set<UUID> bankIds;
+        private final MarketAverageDTO average;
+
+        private Market(int[] sortedAprBasisPoints, Set<UUID> bankIds, MarketAverageDTO average) {
+            this.sortedAprBasisPoints = sortedAprBasisPoints;
+            this.bankIds = bankIds;
+            this.average = average;
+        }
+
+        public MarketAverageDTO average() {
+            return average;
+        }
+
+        public Set<UUID> bankIds() {
+            return bankIds;
+        }
+
+        public int size() {
+            return sortedAprBasisPoints.length;
+        }
+
+        /**
+         * Number of cards in the market with an APR strictly below {@code apr}.
+         */
+        public int countBelow(BigDecimal apr) {
+            int key = toBasisPoints(apr);
+            int low = 0;
+            int high = sortedAprBasisPoints.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedAprBasisPoints[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final Comparator<BankRateCard> CARD_ORDER = Comparator
+        .comparing(BankRateCard::getLoanType)
+        .thenComparing(BankRateCard::getCurrency);
+
+    private final RateCardIndex source;
+    private final long version;
+    private final Map<RateCardIndex.MarketKey, Market> markets;
+    private final Map<UUID, List<BankRateCard>> cardsByBank;
+
+    private MarketSnapshot(RateCardIndex source, long version, Map<RateCardIndex.MarketKey, Market> markets,
+                           Map<UUID, List<BankRateCard>> cardsByBank) {
+        this.source = source;
+        this.version = version;
+        this.markets = markets;
+        this.cardsByBank = cardsByBank;
+    }
+
+    public static MarketSnapshot build(RateCardIndex index) {
+        long version = 0;
+        Map<RateCardIndex.MarketKey, Market> markets = new HashMap<>();
+        Map<UUID, List<BankRateCard>> cardsByBank = new HashMap<>();
+
+        for (Map.Entry<RateCardIndex.MarketKey, Map<UUID, BankRateCard>> entry : index.markets().entrySet()) {
+            Map<UUID, BankRateCard> cards = entry.getValue();
+            if (cards.isEmpty()) {
+                continue;
+            }
+            int[] aprs = new int[cards.size()];
+            long aprSum = 0;
+            long originationFeeSum = 0;
+            long insuranceSum = 0;
+            long processingDaysSum = 0;
+            int i = 0;
+            for (BankRateCard card : cards.values()) {
+                aprs[i++] = toBasisPoints(card.getBaseApr());
+                aprSum += toBasisPoints(card.getBaseApr());
+                originationFeeSum += toBasisPoints(card.getOriginationFeePercent());
+                if (card.getInsurancePercent() != null) {
+                    insuranceSum += toBasisPoints(card.getInsurancePercent());
+                }
+                if (card.getProcessingTimeDays() != null) {
+                    processingDaysSum += card.getProcessingTimeDays();
+                }
+                cardsByBank.computeIfAbsent(card.getBankId(), id -> new ArrayList<>()).add(card);
+                version += mix(card.getId());
+            }
+            Arrays.sort(aprs);
+
+            RateCardIndex.MarketKey key = entry.getKey();
+            int count = aprs.length;
+            MarketAverageDTO average = new MarketAverageDTO(
+                key.loanType(),
+                key.currency(),
+                average(aprSum, count),
+                median(aprs),
+                BigDecimal.valueOf(aprs[0], 2),
+                BigDecimal.valueOf(aprs[count - 1], 2),
+                average(originationFeeSum, count),
+                average(insuranceSum, count),
+                (int) (processingDaysSum / count),
+                cards.size()
+            );
+            markets.put(key, new Market(aprs, Set.copyOf(cards.keySet()), average));
+        }
+
+        cardsByBank.replaceAll((bankId, cards) -> {
+            cards.sort(CARD_ORDER);
+            return List.copyOf(cards);
+        });
+        return new MarketSnapshot(index, version, Map.copyOf(markets), Map.copyOf(cardsByBank));
+    }
+
+    /**
+     * The rate card index this snapshot was computed from.
+     */
+    public RateCardIndex source() {
+        return source;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Market market(LoanType loanType, Currency currency) {
+        return markets.get(new RateCardIndex.MarketKey(loanType, currency));
+    }
+
+    /**
+     * Active cards of a bank ordered by loan type then currency.
+     */
+    public List<BankRateCard> cardsOf(UUID bankId) {
+        return cardsByBank.getOrDefault(bankId, List.of());
+    }
+
+    static int toBasisPoints(BigDecimal value) {
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    private static BigDecimal average(long basisPointsSum, int count) {
+        return BigDecimal.valueOf(basisPointsSum, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal median(int[] sorted) {
+        int size = sorted.length;
+        if (size % 2 == 1) {
+            return BigDecimal.valueOf(sorted[size / 2], 2);
+        }
+        return BigDecimal.valueOf((long) sorted[size / 2 - 1] + sorted[size / 2], 2)
+            .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Well-spread 64-bit hash of a card id; summed over cards so the version does not depend on iteration order.
+     */
+    private static long mix(UUID id) {
+        long h = id.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
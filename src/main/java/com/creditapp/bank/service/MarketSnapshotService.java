@@ -0,0 +1,46 @@
+package com.creditapp.bank.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link MarketSnapshot} of the current {@link RateCardIndex}.
+ * <p>
+ * The snapshot is recomputed on first read after the index changes, whether through a local rate card
+ * change or the index's periodic rebuild, so market statistics are never older than the offer engine's view.
+ */
+@Service
+@Slf4j
+public class MarketSnapshotService {
+
+    private final RateCardIndexService rateCardIndexService;
+    private final AtomicReference<MarketSnapshot> snapshot = new AtomicReference<>();
+
+    public MarketSnapshotService(RateCardIndexService rateCardIndexService) {
+        this.rateCardIndexService = rateCardIndexService;
+    }
+
+    public MarketSnapshot current() {
+        RateCardIndex index = rateCardIndexService.current();
+        MarketSnapshot current = snapshot.get();
+        if (current != null && current.source() == index) {
+            return current;
+        }
+        MarketSnapshot built = MarketSnapshot.build(index);
+        if (current == null || current.version() != built.version()) {
+            log.debug("Market snapshot rebuilt: version {}", Long.toHexString(built.version()));
+        }
+        snapshot.compareAndSet(current, built);
+        return built;
+    }
+
+    /**
+     * Version of the current snapshot, used in the keys of the market analysis caches so a rate card change
+     * on any node moves readers to fresh entries without evicting by key.
+     */
+    public long version() {
+        return current().version();
+    }
+}
@@ -0,0 +1,219 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.model.OfferCalculationLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers {@link OfferCalculationLog} rows in memory and writes them with JDBC batch inserts
+ * off the offer-creation path.
+ * <p>
+ * Logs are queued after the calculating transaction commits and flushed on a fixed delay.
+ * When the backlog grows past {@code compaction-threshold} new logs keep only the fields needed
+ * to reproduce an offer; past {@code sample-threshold} only one in {@code sample-every} is kept.
+ * A full queue drops logs rather than blocking calculation.
+ */
+@Service
+@Slf4j
+public class OfferCalculationLogWriter {
+
+    private static final String INSERT_SQL_TEMPLATE =
+        "INSERT INTO offer_calculation_log (application_id, bank_id, calculation_method, input_parameters, "
+            + "calculated_values, calculation_type, timestamp, created_at) VALUES (?, ?, ?, %s, %s, ?, ?, ?)";
+
+    /**
+     * How much of a calculation log to keep under the current write backlog.
+     */
+    public enum Admission {
+        FULL,
+        COMPACT,
+        SKIP
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<OfferCalculationLog> queue;
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private volatile String insertSql;
+
+    @Value("${app.offer.calculation-log.async-enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${app.offer.calculation-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.offer.calculation-log.compaction-threshold:5000}")
+    private int compactionThreshold;
+
+    @Value("${app.offer.calculation-log.sample-threshold:8000}")
+    private int sampleThreshold;
+
+    @Value("${app.offer.calculation-log.sample-every:10}")
+    private int sampleEvery;
+
+    public OfferCalculationLogWriter(JdbcTemplate jdbcTemplate,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.offer.calculation-log.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("creditapp.offers.calculation-log.queue.size", queue, BlockingQueue::size)
+            .description("Calculation logs waiting to be written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Decide how much of the next calculation log to keep, based on the current backlog.
+     */
+    public Admission admit() {
+        int depth = queue.size();
+        if (depth >= sampleThreshold) {
+            if (sampleSequence.incrementAndGet() % sampleEvery != 0) {
+                meterRegistry.counter("creditapp.offers.calculation-log.sampled-out").increment();
+                return Admission.SKIP;
+            }
+            return Admission.COMPACT;
+        }
+        return depth >= compactionThreshold ? Admission.COMPACT : Admission.FULL;
+    }
+
+    /**
+     * Serialize a payload to JSON once, on the calculating thread.
+     */
+    public String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Calculation log payload is not serializable", e);
+        }
+    }
+
+    /**
+     * Queue logs for writing once the surrounding transaction commits (immediately if there is none).
+     * Logs from a rolled-back transaction are discarded.
+     */
+    public void submit(List<OfferCalculationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(logs);
+                }
+            });
+        } else {
+            enqueue(logs);
+        }
+    }
+
+    private void enqueue(List<OfferCalculationLog> logs) {
+        if (!asyncEnabled) {
+            write(logs);
+            return;
+        }
+        int dropped = 0;
+        for (OfferCalculationLog calculationLog : logs) {
+            if (!queue.offer(calculationLog)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            meterRegistry.counter("creditapp.offers.calculation-log.dropped").increment(dropped);
+            log.warn("Calculation log queue full; dropped {} logs", dropped);
+        }
+    }
+
+    /**
+     * Drain the queue in batches. Runs on the scheduler and once more on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${app.offer.calculation-log.flush-interval-ms:500}")
+    public synchronized void flush() {
+        List<OfferCalculationLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private void write(List<OfferCalculationLog> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(insertSql(), batch, batch.size(), (ps, calculationLog) -> {
+                ps.setObject(1, calculationLog.getApplicationId());
+                ps.setObject(2, calculationLog.getBankId());
+                ps.setString(3, calculationLog.getCalculationMethod());
+                setJson(ps, 4, calculationLog.getInputParameters());
+                setJson(ps, 5, calculationLog.getCalculatedValues());
+                ps.setString(6, calculationLog.getCalculationType().name());
+                ps.setTimestamp(7, Timestamp.valueOf(calculationLog.getTimestamp()));
+                ps.setTimestamp(8, now);
+            });
+            meterRegistry.counter("creditapp.offers.calculation-log.written").increment(batch.size());
+        } catch (Exception e) {
+            meterRegistry.counter("creditapp.offers.calculation-log.failed").increment(batch.size());
+            log.error("Failed to write batch of {} calculation logs", batch.size(), e);
+        }
+    }
+
+    private static void setJson(PreparedStatement ps, int index, String json) throws SQLException {
+        if (json == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, json);
+        }
+    }
+
+    /**
+     * PostgreSQL needs an explicit jsonb cast for a text parameter; H2 (tests) parses it with FORMAT JSON.
+     */
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            String jsonParameter = "PostgreSQL".equalsIgnoreCase(product) ? "CAST(? AS jsonb)" : "? FORMAT JSON";
+            sql = String.format(INSERT_SQL_TEMPLATE, jsonParameter, jsonParameter);
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
@@ -1,6 +1,7 @@
 package com.creditapp.bank.service;
 
 import com.creditapp.bank.dto.OfferDTO;
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.exception.OfferCalculationException;
 import com.creditapp.bank.exception.RateCardNotFoundException;
 import com.creditapp.bank.model.BankRateCard;
@@ -8,20 +9,19 @@ import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferCalculationLog;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.model.CalculationType;
-import com.creditapp.bank.repository.BankRateCardRepository;
-import com.creditapp.bank.repository.OfferCalculationLogRepository;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.model.Currency;
 import com.creditapp.borrower.model.LoanType;
 import com.creditapp.borrower.repository.ApplicationRepository;
 import com.creditapp.shared.model.AuditAction;
-import com.creditapp.shared.model.BankStatus;
-import com.creditapp.shared.model.Organization;
-import com.creditapp.shared.repository.OrganizationRepository;
 import com.creditapp.shared.service.AuditService;
+import com.creditapp.shared.util.CalculationUtils;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,9 +31,18 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
@@ -41,27 +50,39 @@ import java.util.UUID;
 public class OfferCalculationService {
 
     private final OfferRepository offerRepository;
-    private final BankRateCardRepository bankRateCardRepository;
-    private final OrganizationRepository organizationRepository;
+    private final RateCardIndexService rateCardIndexService;
     private final ApplicationRepository applicationRepository;
-    private final OfferCalculationLogRepository calculationLogRepository;
+    private final OfferCalculationLogWriter calculationLogWriter;
     private final AuditService auditService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor offerCalculationExecutor;
 
     @Value("${app.offer.validity.period.hours:24}")
     private int validityPeriodHours;
 
+    @Value("${app.offer.calculation.parallel.enabled:true}")
+    private boolean parallelCalculationEnabled;
+
+    @Value("${app.offer.calculation.per-bank-timeout-ms:5000}")
+    private long perBankTimeoutMs;
+
     public OfferCalculationService(OfferRepository offerRepository,
-                                   BankRateCardRepository bankRateCardRepository,
-                                   OrganizationRepository organizationRepository,
+                                   RateCardIndexService rateCardIndexService,
                                    ApplicationRepository applicationRepository,
-                                   OfferCalculationLogRepository calculationLogRepository,
-                                   AuditService auditService) {
+                                   OfferCalculationLogWriter calculationLogWriter,
+                                   AuditService auditService,
+                                   EntityManager entityManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Qualifier("offerCalculationExecutor") Executor offerCalculationExecutor) {
         this.offerRepository = offerRepository;
-        this.bankRateCardRepository = bankRateCardRepository;
-        this.organizationRepository = organizationRepository;
+        this.rateCardIndexService = rateCardIndexService;
         this.applicationRepository = applicationRepository;
-        this.calculationLogRepository = calculationLogRepository;
+        this.calculationLogWriter = calculationLogWriter;
         this.auditService = auditService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.offerCalculationExecutor = offerCalculationExecutor;
     }
 
     @Async
@@ -74,24 +95,18 @@ public class OfferCalculationService {
             Application application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found: " + applicationId));
             
-            List<Organization> activeBanks = organizationRepository.findAll().stream()
-                .filter(org -> org.getStatus() == BankStatus.ACTIVE)
-                .toList();
+            // One snapshot per run: every bank is priced against the same consistent view of rate cards
+            RateCardIndex rateCardIndex = rateCardIndexService.current();
+            List<RateCardIndex.ActiveBank> activeBanks = List.copyOf(rateCardIndex.activeBanks());
             
-            log.info("Found {} active banks for offer calculation", activeBanks.size());
+            log.info("Found {} active banks for offer calculation (parallel: {})",
+                activeBanks.size(), parallelCalculationEnabled);
             
-            for (Organization bank : activeBanks) {
-                try {
-                    Offer offer = calculateOfferForBank(application, bank);
-                    if (offer != null) {
-                        offerIds.add(offer.getId());
-                        log.info("Created offer {} for bank {} on application {}", 
-                            offer.getId(), bank.getName(), applicationId);
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to calculate offer for bank {}: {}", bank.getName(), e.getMessage(), e);
-                }
-            }
+            List<BankOfferCalculation> calculations = parallelCalculationEnabled
+                ? calculateInParallel(application, rateCardIndex, activeBanks)
+                : calculateSequentially(application, rateCardIndex, activeBanks);
+            
+            offerIds.addAll(persistCalculations(calculations));
             
             log.info("Completed offer calculation for application: {}. Created {} offers", 
                 applicationId, offerIds.size());
@@ -119,9 +134,11 @@ public class OfferCalculationService {
         List<Offer> existingOffers = offerRepository.findByApplicationId(applicationId);
         for (Offer offer : existingOffers) {
             if (offer.getOfferStatus() != OfferStatus.EXPIRED && offer.getOfferStatus() != OfferStatus.EXPIRED_WITH_SELECTION) {
+                OfferStatus previousStatus = offer.getOfferStatus();
                 offer.setOfferStatus(OfferStatus.CALCULATED);
                 offer.setBorrowerSelectedAt(null);
                 offerRepository.save(offer);
+                eventPublisher.publishEvent(new OfferChangedEvent(this, offer, previousStatus));
                 log.info("Marked existing offer as CALCULATED for recalculation. OfferId: {}", offer.getId());
             }
         }
@@ -130,58 +147,243 @@ public class OfferCalculationService {
         return calculateOffers(applicationId);
     }
 
-    private Offer calculateOfferForBank(Application application, Organization bank) {
-        UUID bankId = bank.getId();
+    /**
+     * Fan out per-bank calculations on the dedicated executor. All banks share one deadline counted from
+     * dispatch; a bank still running at the deadline is cancelled (interrupted, or never started if it is
+     * still queued) and a failing, slow or rejected bank only drops its own offer.
+     */
+    private List<BankOfferCalculation> calculateInParallel(Application application, RateCardIndex rateCardIndex,
+                                                           List<RateCardIndex.ActiveBank> activeBanks) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(perBankTimeoutMs);
+        Map<RateCardIndex.ActiveBank, FutureTask<BankOfferCalculation>> tasks = new LinkedHashMap<>();
+        for (RateCardIndex.ActiveBank bank : activeBanks) {
+            FutureTask<BankOfferCalculation> task =
+                new FutureTask<>(() -> calculateOfferForBank(application, rateCardIndex, bank, deadline));
+            try {
+                offerCalculationExecutor.execute(task);
+                tasks.put(bank, task);
+            } catch (RejectedExecutionException e) {
+                log.error("Offer calculation for bank {} rejected on application {}: executor saturated",
+                    bank.name(), application.getId());
+            }
+        }
+        
+        List<BankOfferCalculation> calculations = new ArrayList<>(tasks.size());
+        for (Map.Entry<RateCardIndex.ActiveBank, FutureTask<BankOfferCalculation>> entry : tasks.entrySet()) {
+            RateCardIndex.ActiveBank bank = entry.getKey();
+            FutureTask<BankOfferCalculation> task = entry.getValue();
+            try {
+                BankOfferCalculation calculation = task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (calculation != null) {
+                    calculations.add(calculation);
+                }
+            } catch (TimeoutException | CancellationException e) {
+                task.cancel(true);
+                log.error("Offer calculation for bank {} timed out after {} ms on application {}",
+                    bank.name(), perBankTimeoutMs, application.getId());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof TimeoutException) {
+                    log.error("Offer calculation for bank {} timed out after {} ms on application {}",
+                        bank.name(), perBankTimeoutMs, application.getId());
+                } else {
+                    log.error("Failed to calculate offer for bank {}: {}", bank.name(), cause.getMessage(), cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tasks.values().forEach(pending -> pending.cancel(true));
+                throw new OfferCalculationException("Offer calculation interrupted", e);
+            }
+        }
+        return calculations;
+    }
+
+    private List<BankOfferCalculation> calculateSequentially(Application application, RateCardIndex rateCardIndex,
+                                                             List<RateCardIndex.ActiveBank> activeBanks) {
+        List<BankOfferCalculation> calculations = new ArrayList<>();
+        for (RateCardIndex.ActiveBank bank : activeBanks) {
+            try {
+                BankOfferCalculation calculation = calculateOfferForBank(application, rateCardIndex, bank, Long.MAX_VALUE);
+                if (calculation != null) {
+                    calculations.add(calculation);
+                }
+            } catch (Exception e) {
+                log.error("Failed to calculate offer for bank {}: {}", bank.name(), e.getMessage(), e);
+            }
+        }
+        return calculations;
+    }
+
+    /**
+     * Persist calculated offers, hand their calculation logs to the log writer, then audit each offer.
+     * The offers are new rows with assigned ids, so they are persisted rather than merged: no SELECT per
+     * offer, and the inserts go out as one JDBC batch at flush.
+     */
+    private List<UUID> persistCalculations(List<BankOfferCalculation> calculations) {
+        if (calculations.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Offer> savedOffers = calculations.stream().map(BankOfferCalculation::offer).toList();
+        savedOffers.forEach(entityManager::persist);
+        
+        List<OfferCalculationLog> calculationLogs = calculations.stream()
+            .map(BankOfferCalculation::calculationLog)
+            .filter(Objects::nonNull)
+            .toList();
+        calculationLogWriter.submit(calculationLogs);
+        
+        List<UUID> offerIds = new ArrayList<>(savedOffers.size());
+        for (Offer savedOffer : savedOffers) {
+            offerIds.add(savedOffer.getId());
+            log.info("Created offer {} for bank {} on application {}",
+                savedOffer.getId(), savedOffer.getBankId(), savedOffer.getApplicationId());
+            auditOfferCreated(savedOffer);
+            eventPublisher.publishEvent(new OfferChangedEvent(this, savedOffer, null));
+        }
+        return offerIds;
+    }
+
+    private void auditOfferCreated(Offer offer) {
+        try {
+            auditService.logAction("Offer", offer.getId(), AuditAction.OFFER_CREATED);
+        } catch (Exception e) {
+            log.error("Failed to audit offer calculation", e);
+        }
+    }
+
+    /**
+     * Calculate (but do not persist) the offer of a single bank. Safe to run off the calling thread:
+     * the rate card comes from the in-memory snapshot, so no database access happens here.
+     * Gives up with a {@link TimeoutException} once {@code deadline} ({@link System#nanoTime()}) has passed
+     * or the task was cancelled, so a cancelled calculation does not keep a pool thread busy.
+     */
+    private BankOfferCalculation calculateOfferForBank(Application application, RateCardIndex rateCardIndex,
+                                                       RateCardIndex.ActiveBank bank, long deadline)
+            throws TimeoutException {
+        checkDeadline(deadline);
+        UUID bankId = bank.id();
         UUID applicationId = application.getId();
         
         LoanType loanType = LoanType.valueOf(application.getLoanType());
         Currency currency = Currency.valueOf(application.getCurrency());
         
-        BankRateCard rateCard = bankRateCardRepository
-            .findByBankIdAndLoanTypeAndCurrencyAndValidToIsNull(bankId, loanType, currency)
-            .orElse(null);
+        BankRateCard rateCard = rateCardIndex.findRateCard(bankId, loanType, currency).orElse(null);
         
         if (rateCard == null) {
             log.warn("No active rate card found for bank {} (loan type: {}, currency: {}). Skipping.", 
-                bank.getName(), loanType, currency);
+                bank.name(), loanType, currency);
             return null;
         }
         
-        OfferCalculationResult result = calculateAmortization(
-            application.getLoanAmount(),
-            application.getLoanTermMonths(),
-            rateCard.getBaseApr(),
-            rateCard.getAprAdjustmentRange(),
-            rateCard.getOriginationFeePercent(),
-            rateCard.getInsurancePercent()
-        );
+        OfferCalculationResult result = calculateAmortization(application, rateCard);
+        checkDeadline(deadline);
+        Offer offer = newCalculatedOffer(applicationId, bankId);
+        applyResult(offer, rateCard, result);
         
+        OfferCalculationLog calculationLog = buildCalculationLog(applicationId, bankId, application, rateCard, result);
+        
+        return new BankOfferCalculation(offer, calculationLog);
+    }
+
+    private static void checkDeadline(long deadline) throws TimeoutException {
+        if (Thread.currentThread().isInterrupted() || deadline - System.nanoTime() < 0) {
+            throw new TimeoutException("Offer calculation deadline exceeded");
+        }
+    }
+
+    /**
+     * Reprice one bank's offers for a chunk of applications after that bank's rate card changed.
+     * Offers still in CALCULATED state are updated in place, applications without an offer from the bank
+     * get a new one, and offers the bank or borrower already acted on are left untouched.
+     * Updated offers are managed entities and are written by dirty checking at flush; new offers are persisted
+     * (not merged) so they batch without a SELECT each and are audited as OFFER_CREATED like offers from a
+     * full calculation. Calculation logs go to the asynchronous log writer.
+     *
+     * @param rateCard the newly active card; every application must match its loan type and currency
+     * @param applications chunk of open applications to reprice
+     * @return counts of updated, created and skipped offers
+     */
+    public BankRecalculationResult recalculateBankOffers(BankRateCard rateCard, List<Application> applications) {
+        if (applications.isEmpty()) {
+            return new BankRecalculationResult(0, 0, 0);
+        }
+        UUID bankId = rateCard.getBankId();
+        Map<UUID, Offer> existingOffers = new HashMap<>();
+        for (Offer offer : offerRepository.findByBankIdAndApplicationIdIn(bankId,
+                applications.stream().map(Application::getId).toList())) {
+            existingOffers.put(offer.getApplicationId(), offer);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Offer> createdOffers = new ArrayList<>();
+        List<OfferCalculationLog> calculationLogs = new ArrayList<>(applications.size());
+        int updated = 0;
+        int created = 0;
+        int skipped = 0;
+        for (Application application : applications) {
+            Offer offer = existingOffers.get(application.getId());
+            boolean isNew = offer == null;
+            OfferStatus previousStatus = isNew ? null : offer.getOfferStatus();
+            if (isNew) {
+                offer = newCalculatedOffer(application.getId(), bankId);
+                created++;
+            } else if (offer.getOfferStatus() == OfferStatus.CALCULATED && offer.getExpiresAt().isAfter(now)) {
+                updated++;
+            } else {
+                skipped++;
+                continue;
+            }
+            OfferCalculationResult result = calculateAmortization(application, rateCard);
+            applyResult(offer, rateCard, result);
+            if (isNew) {
+                entityManager.persist(offer);
+                createdOffers.add(offer);
+            }
+            eventPublisher.publishEvent(new OfferChangedEvent(this, offer, previousStatus));
+            OfferCalculationLog calculationLog = buildCalculationLog(application.getId(), bankId, application, rateCard, result);
+            if (calculationLog != null) {
+                calculationLogs.add(calculationLog);
+            }
+        }
+        
+        calculationLogWriter.submit(calculationLogs);
+        for (Offer offer : createdOffers) {
+            auditOfferCreated(offer);
+        }
+        return new BankRecalculationResult(updated, created, skipped);
+    }
+
+    private Offer newCalculatedOffer(UUID applicationId, UUID bankId) {
         Offer offer = new Offer();
         offer.setId(UUID.randomUUID());
         offer.setApplicationId(applicationId);
         offer.setBankId(bankId);
         offer.setOfferStatus(OfferStatus.CALCULATED);
+        offer.setValidityPeriodDays(validityPeriodHours / 24);
+        offer.setRequiredDocuments("Standard documents required");
+        offer.setExpiresAt(LocalDateTime.now().plusHours(validityPeriodHours));
+        return offer;
+    }
+
+    private void applyResult(Offer offer, BankRateCard rateCard, OfferCalculationResult result) {
         offer.setApr(result.finalApr);
         offer.setMonthlyPayment(result.monthlyPayment);
         offer.setTotalCost(result.totalCost);
         offer.setOriginationFee(result.originationFee);
         offer.setInsuranceCost(result.insuranceCost);
         offer.setProcessingTimeDays(rateCard.getProcessingTimeDays());
-        offer.setValidityPeriodDays(validityPeriodHours / 24);
-        offer.setRequiredDocuments("Standard documents required");
-        offer.setExpiresAt(LocalDateTime.now().plusHours(validityPeriodHours));
-        
-        Offer savedOffer = offerRepository.save(offer);
-        
-        logCalculation(applicationId, bankId, application, rateCard, result);
-        
-        try {
-            auditService.logAction("Offer", savedOffer.getId(), AuditAction.OFFER_CREATED);
-        } catch (Exception e) {
-            log.error("Failed to audit offer calculation", e);
-        }
-        
-        return savedOffer;
+    }
+
+    private OfferCalculationResult calculateAmortization(Application application, BankRateCard rateCard) {
+        return calculateAmortization(
+            application.getLoanAmount(),
+            application.getLoanTermMonths(),
+            rateCard.getBaseApr(),
+            rateCard.getAprAdjustmentRange(),
+            rateCard.getOriginationFeePercent(),
+            rateCard.getInsurancePercent()
+        );
     }
 
     private OfferCalculationResult calculateAmortization(
@@ -200,11 +402,7 @@ public class OfferCalculationService {
             .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP)
             .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP);
         
-        BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
-        BigDecimal onePlusRatePowN = onePlusRate.pow(months);
-        BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusRatePowN);
-        BigDecimal denominator = onePlusRatePowN.subtract(BigDecimal.ONE);
-        BigDecimal monthlyPayment = numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+        BigDecimal monthlyPayment = CalculationUtils.annuityPayment(principal, monthlyRate, months);
         
         BigDecimal totalPayments = monthlyPayment.multiply(BigDecimal.valueOf(months));
         BigDecimal totalCost = totalPayments.subtract(principal);
@@ -227,8 +425,17 @@ public class OfferCalculationService {
         return result;
     }
 
-    private void logCalculation(UUID applicationId, UUID bankId, Application application,
-                               BankRateCard rateCard, OfferCalculationResult result) {
+    /**
+     * Build the calculation log for an offer, or null if the log writer is shedding load.
+     * Under backlog the compact form keeps only what is needed to reproduce the offer.
+     */
+    private OfferCalculationLog buildCalculationLog(UUID applicationId, UUID bankId, Application application,
+                                                   BankRateCard rateCard, OfferCalculationResult result) {
+        OfferCalculationLogWriter.Admission admission = calculationLogWriter.admit();
+        if (admission == OfferCalculationLogWriter.Admission.SKIP) {
+            return null;
+        }
+        boolean full = admission == OfferCalculationLogWriter.Admission.FULL;
         try {
             OfferCalculationLog log = new OfferCalculationLog();
             log.setApplicationId(applicationId);
@@ -237,39 +444,39 @@ public class OfferCalculationService {
             log.setCalculationType(CalculationType.MOCK_CALCULATION);
             log.setTimestamp(LocalDateTime.now());
             
-            Map<String, Object> inputParams = new HashMap<>();
+            Map<String, Object> inputParams = new LinkedHashMap<>();
+            inputParams.put("rateCardId", rateCard.getId());
             inputParams.put("loanAmount", application.getLoanAmount());
             inputParams.put("loanTermMonths", application.getLoanTermMonths());
-            inputParams.put("loanType", application.getLoanType());
-            inputParams.put("currency", application.getCurrency());
-            inputParams.put("rateCardId", rateCard.getId());
-            inputParams.put("baseApr", rateCard.getBaseApr());
-            inputParams.put("aprAdjustmentRange", rateCard.getAprAdjustmentRange());
-            log.setInputParameters(convertMapToJson(inputParams));
+            if (full) {
+                inputParams.put("loanType", application.getLoanType());
+                inputParams.put("currency", application.getCurrency());
+                inputParams.put("baseApr", rateCard.getBaseApr());
+                inputParams.put("aprAdjustmentRange", rateCard.getAprAdjustmentRange());
+            }
+            log.setInputParameters(calculationLogWriter.toJson(inputParams));
             
-            Map<String, Object> calculatedValues = new HashMap<>();
+            Map<String, Object> calculatedValues = new LinkedHashMap<>();
             calculatedValues.put("finalApr", result.finalApr);
             calculatedValues.put("monthlyPayment", result.monthlyPayment);
-            calculatedValues.put("totalCost", result.totalCost);
-            calculatedValues.put("originationFee", result.originationFee);
-            calculatedValues.put("insuranceCost", result.insuranceCost);
-            log.setCalculatedValues(convertMapToJson(calculatedValues));
+            if (full) {
+                calculatedValues.put("totalCost", result.totalCost);
+                calculatedValues.put("originationFee", result.originationFee);
+                calculatedValues.put("insuranceCost", result.insuranceCost);
+            }
+            log.setCalculatedValues(calculationLogWriter.toJson(calculatedValues));
             
-            calculationLogRepository.save(log);
+            return log;
         } catch (Exception e) {
-            log.error("Failed to log calculation", e);
+            log.error("Failed to build calculation log", e);
+            return null;
         }
     }
 
-    private String convertMapToJson(Map<String, Object> map) {
-        StringBuilder json = new StringBuilder("{");
-        int i = 0;
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            if (i++ > 0) json.append(",");
-            json.append(String.format("\"%s\": \"%s\"", entry.getKey(), entry.getValue()));
-        }
-        json.append("}");
-        return json.toString();
+    private record BankOfferCalculation(Offer offer, OfferCalculationLog calculationLog) {
+    }
+
+    public record BankRecalculationResult(int updated, int created, int skipped) {
     }
 
     private static class OfferCalculationResult {
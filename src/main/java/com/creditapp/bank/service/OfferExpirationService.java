@@ -1,8 +1,10 @@
 package com.creditapp.bank.service;
 
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.model.ApplicationStatus;
 import com.creditapp.borrower.repository.ApplicationRepository;
@@ -10,6 +12,7 @@ import com.creditapp.shared.service.AuditService;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,15 +29,18 @@ public class OfferExpirationService {
     private final ApplicationRepository applicationRepository;
     private final AuditService auditService;
     private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
     
     public OfferExpirationService(OfferRepository offerRepository,
                                   ApplicationRepository applicationRepository,
                                   AuditService auditService,
-                                  MeterRegistry meterRegistry) {
+                                  MeterRegistry meterRegistry,
+                                  ApplicationEventPublisher eventPublisher) {
         this.offerRepository = offerRepository;
         this.applicationRepository = applicationRepository;
         this.auditService = auditService;
         this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
     }
     
     @Transactional
@@ -95,6 +101,7 @@ public class OfferExpirationService {
         }
         
         offerRepository.save(offer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, offer, originalStatus));
     }
     
     private void revertApplicationStatus(UUID applicationId) {
@@ -107,6 +114,8 @@ public class OfferExpirationService {
             
             application.setStatus(ApplicationStatus.SUBMITTED);
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId,
+                    ApplicationStatus.ACCEPTED, ApplicationStatus.SUBMITTED));
             
             auditService.logAction(
                     "Application",
@@ -0,0 +1,178 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.event.RateCardChangedEvent;
+import com.creditapp.bank.model.BankRateCard;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.borrower.model.Currency;
+import com.creditapp.borrower.model.LoanType;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incrementally reprices open applications when a bank changes a rate card.
+ * <p>
+ * Only applications in the card's market (loan type + currency) are scanned, in id-ordered keyset
+ * chunks, and only the changed bank's offer is recomputed for each. Runs are executed one at a time
+ * on a dedicated executor; a run stops early if a newer card for the same slot arrives meanwhile.
+ */
+@Service
+@Slf4j
+public class OfferRecalculationEngine {
+
+    static final List<ApplicationStatus> OPEN_STATUSES = List.of(
+        ApplicationStatus.SUBMITTED, ApplicationStatus.UNDER_REVIEW, ApplicationStatus.OFFERS_AVAILABLE);
+
+    private static final UUID SCAN_START = new UUID(0L, 0L);
+
+    private final ApplicationRepository applicationRepository;
+    private final OfferCalculationService offerCalculationService;
+    private final RateCardIndexService rateCardIndexService;
+    private final Executor recalculationExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<CardSlot, UUID> latestCardBySlot = new ConcurrentHashMap<>();
+    private final AtomicLong remaining = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+
+    @Value("${app.offer.recalculation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.offer.recalculation.chunk-size:500}")
+    private int chunkSize;
+
+    public OfferRecalculationEngine(ApplicationRepository applicationRepository,
+                                    OfferCalculationService offerCalculationService,
+                                    RateCardIndexService rateCardIndexService,
+                                    @Qualifier("offerRecalculationExecutor") Executor recalculationExecutor,
+                                    MeterRegistry meterRegistry) {
+        this.applicationRepository = applicationRepository;
+        this.offerCalculationService = offerCalculationService;
+        this.rateCardIndexService = rateCardIndexService;
+        this.recalculationExecutor = recalculationExecutor;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("creditapp.offers.recalculation.remaining", remaining, AtomicLong::get)
+            .description("Applications left to scan in the current recalculation run")
+            .register(meterRegistry);
+        Gauge.builder("creditapp.offers.recalculation.progress", this, OfferRecalculationEngine::progress)
+            .description("Fraction of the current recalculation run completed (1.0 when idle)")
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRateCardChanged(RateCardChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        BankRateCard card = event.getActiveCard();
+        latestCardBySlot.put(CardSlot.of(card), card.getId());
+        try {
+            recalculationExecutor.execute(() -> recalculateMarket(card, event.getTimestamp()));
+        } catch (TaskRejectedException e) {
+            meterRegistry.counter("creditapp.offers.recalculation.runs", "result", "rejected").increment();
+            log.error("Offer recalculation queue full; dropped recalculation for rate card {}", card.getId());
+        }
+    }
+
+    /**
+     * Reprice the card's bank offer for every open application in the card's market.
+     *
+     * @param card the newly active rate card
+     * @param changedAtMillis when the card changed (used for the lag metric)
+     */
+    public void recalculateMarket(BankRateCard card, long changedAtMillis) {
+        CardSlot slot = CardSlot.of(card);
+        if (!rateCardIndexService.current().isActiveBank(card.getBankId())) {
+            log.info("Skipping offer recalculation for rate card {}: bank {} is not active", card.getId(), card.getBankId());
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        String loanType = card.getLoanType().name();
+        String currency = card.getCurrency().name();
+        long marketSize = applicationRepository.countMarket(loanType, currency, OPEN_STATUSES);
+        total.set(marketSize);
+        remaining.set(marketSize);
+        log.info("Recalculating bank {} offers for {} open {}/{} applications after rate card {} changed",
+            card.getBankId(), marketSize, loanType, currency, card.getId());
+
+        String result = "completed";
+        long processed = 0;
+        try {
+            UUID afterId = SCAN_START;
+            while (true) {
+                if (!card.getId().equals(latestCardBySlot.get(slot))) {
+                    result = "superseded";
+                    log.info("Rate card {} superseded; stopping recalculation after {} applications", card.getId(), processed);
+                    break;
+                }
+                List<Application> chunk = applicationRepository.findMarketChunk(
+                    loanType, currency, OPEN_STATUSES, afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                OfferCalculationService.BankRecalculationResult chunkResult =
+                    offerCalculationService.recalculateBankOffers(card, chunk);
+                recordChunk(chunkResult);
+
+                processed += chunk.size();
+                remaining.set(Math.max(0, marketSize - processed));
+                afterId = chunk.get(chunk.size() - 1).getId();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            result = "failed";
+            log.error("Offer recalculation for rate card {} failed after {} applications", card.getId(), processed, e);
+        } finally {
+            remaining.set(0);
+            total.set(0);
+            latestCardBySlot.remove(slot, card.getId());
+        }
+
+        meterRegistry.counter("creditapp.offers.recalculation.runs", "result", result).increment();
+        meterRegistry.timer("creditapp.offers.recalculation.duration")
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.timer("creditapp.offers.recalculation.lag")
+            .record(Math.max(0, System.currentTimeMillis() - changedAtMillis), TimeUnit.MILLISECONDS);
+        log.info("Offer recalculation for rate card {} {}: {} applications scanned", card.getId(), result, processed);
+    }
+
+    private void recordChunk(OfferCalculationService.BankRecalculationResult chunkResult) {
+        meterRegistry.counter("creditapp.offers.recalculation.applications", "outcome", "updated")
+            .increment(chunkResult.updated());
+        meterRegistry.counter("creditapp.offers.recalculation.applications", "outcome", "created")
+            .increment(chunkResult.created());
+        meterRegistry.counter("creditapp.offers.recalculation.applications", "outcome", "skipped")
+            .increment(chunkResult.skipped());
+    }
+
+    private double progress() {
+        long runTotal = total.get();
+        return runTotal == 0 ? 1.0 : (double) (runTotal - remaining.get()) / runTotal;
+    }
+
+    private record CardSlot(UUID bankId, LoanType loanType, Currency currency) {
+        static CardSlot of(BankRateCard card) {
+            return new CardSlot(card.getBankId(), card.getLoanType(), card.getCurrency());
+        }
+    }
+}
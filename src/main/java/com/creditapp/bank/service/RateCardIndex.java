@@ -0,0 +1,138 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.model.BankRateCard;
+import com.creditapp.borrower.model.Currency;
+import com.creditapp.borrower.model.LoanType;
+import com.creditapp.shared.model.BankStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of every active rate card, keyed by (loanType, currency) then bankId,
+ * together with the set of ACTIVE banks. Instances are never modified; changes produce a
+ * new snapshot via {@link #withRateCard} / {@link #withBankStatus}.
+ * <p>
+ * The contained {@link BankRateCard} instances are detached and must be treated as read-only.
+ */
+public final class RateCardIndex {
+
+    public record MarketKey(LoanType loanType, Currency currency) {
+    }
+
+    public record ActiveBank(UUID id, String name) {
+    }
+
+    private final Map<MarketKey, Map<UUID, BankRateCard>> cardsByMarket;
+    private final Map<UUID, ActiveBank> activeBanks;
+    private final LocalDateTime builtAt;
+
+    private RateCardIndex(Map<MarketKey, Map<UUID, BankRateCard>> cardsByMarket,
+                          Map<UUID, ActiveBank> activeBanks) {
+        this.cardsByMarket = cardsByMarket;
+        this.activeBanks = activeBanks;
+        this.builtAt = LocalDateTime.now();
+    }
+
+    /**
+     * Build a snapshot from the currently active (valid_to IS NULL) cards and ACTIVE banks.
+     */
+    public static RateCardIndex build(Collection<BankRateCard> activeCards, Collection<ActiveBank> banks) {
+        Map<MarketKey, Map<UUID, BankRateCard>> markets = new HashMap<>();
+        for (BankRateCard card : activeCards) {
+            if (card.isActive()) {
+                markets.computeIfAbsent(new MarketKey(card.getLoanType(), card.getCurrency()), k -> new HashMap<>())
+                    .put(card.getBankId(), card);
+            }
+        }
+        Map<UUID, ActiveBank> bankMap = new HashMap<>();
+        for (ActiveBank bank : banks) {
+            bankMap.put(bank.id(), bank);
+        }
+        return new RateCardIndex(freeze(markets), Map.copyOf(bankMap));
+    }
+
+    public Optional<BankRateCard> findRateCard(UUID bankId, LoanType loanType, Currency currency) {
+        return Optional.ofNullable(rateCardsFor(loanType, currency).get(bankId));
+    }
+
+    /**
+     * All active cards for a market, keyed by bank id (includes cards of banks that are not ACTIVE).
+     */
+    public Map<UUID, BankRateCard> rateCardsFor(LoanType loanType, Currency currency) {
+        return cardsByMarket.getOrDefault(new MarketKey(loanType, currency), Map.of());
+    }
+
+    /**
+     * Every market with its active cards keyed by bank id.
+     */
+    public Map<MarketKey, Map<UUID, BankRateCard>> markets() {
+        return cardsByMarket;
+    }
+
+    public Collection<ActiveBank> activeBanks() {
+        return activeBanks.values();
+    }
+
+    public boolean isActiveBank(UUID bankId) {
+        return activeBanks.containsKey(bankId);
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public int rateCardCount() {
+        return cardsByMarket.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Copy of this snapshot with {@code card} as the active card of its (bank, loanType, currency) slot.
+     * The card it replaced is removed even when the update moved it to a different market.
+     */
+    public RateCardIndex withRateCard(BankRateCard card, UUID replacedCardId) {
+        Map<MarketKey, Map<UUID, BankRateCard>> markets = new HashMap<>(cardsByMarket);
+        if (replacedCardId != null) {
+            markets.replaceAll((key, cards) -> {
+                BankRateCard current = cards.get(card.getBankId());
+                if (current == null || !replacedCardId.equals(current.getId())) {
+                    return cards;
+                }
+                Map<UUID, BankRateCard> copy = new HashMap<>(cards);
+                copy.remove(card.getBankId());
+                return Map.copyOf(copy);
+            });
+        }
+        if (card.isActive()) {
+            MarketKey key = new MarketKey(card.getLoanType(), card.getCurrency());
+            Map<UUID, BankRateCard> copy = new HashMap<>(markets.getOrDefault(key, Map.of()));
+            copy.put(card.getBankId(), card);
+            markets.put(key, Map.copyOf(copy));
+        }
+        markets.values().removeIf(Map::isEmpty);
+        return new RateCardIndex(Map.copyOf(markets), activeBanks);
+    }
+
+    /**
+     * Copy of this snapshot with the bank added to (ACTIVE) or removed from (any other status) the active set.
+     */
+    public RateCardIndex withBankStatus(UUID bankId, String bankName, BankStatus status) {
+        Map<UUID, ActiveBank> banks = new HashMap<>(activeBanks);
+        if (status == BankStatus.ACTIVE) {
+            banks.put(bankId, new ActiveBank(bankId, bankName));
+        } else {
+            banks.remove(bankId);
+        }
+        return new RateCardIndex(cardsByMarket, Map.copyOf(banks));
+    }
+
+    private static Map<MarketKey, Map<UUID, BankRateCard>> freeze(Map<MarketKey, Map<UUID, BankRateCard>> markets) {
+        Map<MarketKey, Map<UUID, BankRateCard>> frozen = new HashMap<>();
+        markets.forEach((key, cards) -> frozen.put(key, Map.copyOf(cards)));
+        return Map.copyOf(frozen);
+    }
+}
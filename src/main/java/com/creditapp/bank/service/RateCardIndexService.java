@@ -0,0 +1,104 @@
+package com.creditapp.bank.service;
+
+import com.creditapp.bank.event.RateCardChangedEvent;
+import com.creditapp.bank.repository.BankRateCardRepository;
+import com.creditapp.shared.model.BankStatus;
+import com.creditapp.shared.model.EntityChangedEvent;
+import com.creditapp.shared.model.Organization;
+import com.creditapp.shared.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link RateCardIndex} used by the offer engine.
+ * <p>
+ * Local rate card and bank status changes are applied copy-on-write after their transaction commits.
+ * A periodic full rebuild picks up changes made on other nodes.
+ */
+@Service
+@Slf4j
+public class RateCardIndexService {
+
+    private final BankRateCardRepository bankRateCardRepository;
+    private final OrganizationRepository organizationRepository;
+    private final AtomicReference<RateCardIndex> index = new AtomicReference<>();
+
+    public RateCardIndexService(BankRateCardRepository bankRateCardRepository,
+                                OrganizationRepository organizationRepository) {
+        this.bankRateCardRepository = bankRateCardRepository;
+        this.organizationRepository = organizationRepository;
+    }
+
+    /**
+     * Current snapshot. Built from the database on first access.
+     */
+    public RateCardIndex current() {
+        RateCardIndex snapshot = index.get();
+        return snapshot != null ? snapshot : initialize();
+    }
+
+    private synchronized RateCardIndex initialize() {
+        RateCardIndex snapshot = index.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    /**
+     * Reload the full snapshot from the database and swap it in. Rebuilds are serialized; change events are
+     * not, so if one was applied while loading the swap fails and the snapshot is loaded again rather than
+     * overwriting that change.
+     */
+    @Scheduled(fixedDelayString = "${app.offer.rate-card-index.refresh-interval-ms:60000}")
+    public synchronized RateCardIndex rebuild() {
+        int attempts = 0;
+        while (true) {
+            RateCardIndex before = index.get();
+            RateCardIndex built = load();
+            attempts++;
+            if (index.compareAndSet(before, built)) {
+                log.debug("Rate card index rebuilt in {} attempt(s): {} active cards, {} active banks",
+                    attempts, built.rateCardCount(), built.activeBanks().size());
+                return built;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRateCardChanged(RateCardChangedEvent event) {
+        index.updateAndGet(current -> current == null
+            ? null
+            : current.withRateCard(event.getActiveCard(), event.getReplacedCardId()));
+        log.debug("Rate card index updated for bank {} ({} {})", event.getActiveCard().getBankId(),
+            event.getActiveCard().getLoanType(), event.getActiveCard().getCurrency());
+    }
+
+    /**
+     * Apply a bank's status once the transaction that wrote the organization commits, whichever code path wrote it.
+     * Writes that leave the bank's membership unchanged leave the snapshot as it is.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.getEntity() instanceof Organization bank)) {
+            return;
+        }
+        BankStatus status = event.getChangeType() == EntityChangedEvent.ChangeType.REMOVED
+            ? BankStatus.INACTIVE
+            : bank.getStatus();
+        boolean active = status == BankStatus.ACTIVE;
+        index.updateAndGet(current -> current == null || current.isActiveBank(bank.getId()) == active
+            ? current
+            : current.withBankStatus(bank.getId(), bank.getName(), status));
+        log.debug("Rate card index updated for bank {} status {}", bank.getId(), status);
+    }
+
+    private RateCardIndex load() {
+        List<RateCardIndex.ActiveBank> activeBanks = organizationRepository.findByStatus(BankStatus.ACTIVE).stream()
+            .map(org -> new RateCardIndex.ActiveBank(org.getId(), org.getName()))
+            .toList();
+        return RateCardIndex.build(bankRateCardRepository.findByValidToIsNull(), activeBanks);
+    }
+}
@@ -0,0 +1,58 @@
+package com.creditapp.bank.websocket;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Carries serialized bank queue events to every node that hosts WebSocket sessions of the bank. The node that
+ * produces an event publishes it once; each receiving node hands it to its local sessions through the delivery
+ * callback registered by {@link ApplicationQueueWebSocketHandler}. Queue versions and the bounded log of recent
+ * deltas live in the same shared store, so a dashboard can resume from its last version on any node.
+ */
+public interface ApplicationQueueFanout {
+
+    /**
+     * Register the callback that writes a received payload to this node's sessions of a bank.
+     */
+    void setLocalDelivery(BiConsumer<String, String> localDelivery);
+
+    /**
+     * Send an event payload (already serialized JSON) to the bank's sessions on all nodes.
+     */
+    void publish(String bankId, String payload);
+
+    /**
+     * Next version of the bank's queue, increasing across all nodes that share the fan-out.
+     */
+    long nextVersion(String bankId);
+
+    /**
+     * Latest version assigned to the bank's queue, or 0 when none.
+     */
+    long currentVersion(String bankId);
+
+    /**
+     * Keep a delta under its version for dashboards that reconnect with {@code sinceVersion}. Bounded per bank;
+     * older deltas are evicted first.
+     */
+    void appendDelta(String bankId, long version, String payload);
+
+    /**
+     * Deltas after {@code sinceVersion} in version order.
+     *
+     * @return empty when the log does not hold every version after {@code sinceVersion}, in which case the
+     * client has to refetch the queue
+     */
+    Optional<List<String>> deltasSince(String bankId, long sinceVersion);
+
+    /**
+     * A session of the bank connected to this node.
+     */
+    void sessionOpened(String bankId);
+
+    /**
+     * A session of the bank disconnected from or was dropped by this node.
+     */
+    void sessionClosed(String bankId);
+}
@@ -1,41 +1,98 @@
 package com.creditapp.bank.websocket;
 
 import com.creditapp.bank.dto.ApplicationQueueItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * Bank application queue updates over WebSocket. Changes are coalesced into versioned {@code queue_delta}
+ * messages by the {@link QueueDeltaCoalescer}, serialized once and published through the
+ * {@link ApplicationQueueFanout}, which brings them to every node hosting sessions of the bank. There each is
+ * wrapped in one shared {@link TextMessage} and handed to each local session's {@link OutboundSession} queue, so
+ * broadcasting never blocks the calling service. Sessions that cannot keep up are closed and counted in
+ * {@code creditapp.websocket.sessions.dropped}.
+ * <p>
+ * Deltas are kept in the fan-out's bounded delta log, shared by all nodes. A dashboard reconnecting with
+ * {@code ?sinceVersion=N} receives the deltas after version N, or a {@code resync} message when they are no
+ * longer all available.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ApplicationQueueWebSocketHandler extends TextWebSocketHandler {
 
     private final ObjectMapper objectMapper;
-    
-    // Map: bankId -> Set of WebSocketSessions
-    private static final Map<String, Set<WebSocketSession>> BANK_CONNECTIONS = 
-        new ConcurrentHashMap<>();
+    private final ApplicationQueueFanout fanout;
+    private final QueueDeltaCoalescer deltaCoalescer;
+    private final Executor broadcastExecutor;
+    private final TaskScheduler retryScheduler;
+    private final MeterRegistry meterRegistry;
+    private final long sendTimeLimitMillis;
+    private final int bufferSizeLimit;
+
+    // Map: bankId -> (sessionId -> outbound queue)
+    private final Map<String, Map<String, OutboundSession>> bankConnections = new ConcurrentHashMap<>();
+
+    public ApplicationQueueWebSocketHandler(ObjectMapper objectMapper,
+                                            ApplicationQueueFanout fanout,
+                                            QueueDeltaCoalescer deltaCoalescer,
+                                            @Qualifier("webSocketBroadcastExecutor") Executor broadcastExecutor,
+                                            @Qualifier("webSocketScheduler") TaskScheduler retryScheduler,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${app.websocket.send-time-limit-ms:5000}") long sendTimeLimitMillis,
+                                            @Value("${app.websocket.buffer-size-limit-bytes:524288}") int bufferSizeLimit) {
+        this.objectMapper = objectMapper;
+        this.fanout = fanout;
+        this.deltaCoalescer = deltaCoalescer;
+        this.broadcastExecutor = broadcastExecutor;
+        this.retryScheduler = retryScheduler;
+        this.meterRegistry = meterRegistry;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.bufferSizeLimit = bufferSizeLimit;
+
+        Gauge.builder("creditapp.websocket.sessions", this, ApplicationQueueWebSocketHandler::connectionCount)
+            .description("Open bank application queue WebSocket sessions")
+            .register(meterRegistry);
+        fanout.setLocalDelivery(this::deliverLocal);
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String bankId = extractBankId(session);
         if (bankId != null) {
-            BANK_CONNECTIONS.computeIfAbsent(bankId, k -> ConcurrentHashMap.newKeySet())
-                .add(session);
+            OutboundSession outbound = new OutboundSession(session, broadcastExecutor, retryScheduler, sendTimeLimitMillis,
+                bufferSizeLimit);
+            Map<String, OutboundSession> connections =
+                bankConnections.computeIfAbsent(bankId, k -> new ConcurrentHashMap<>());
+            connections.put(session.getId(), outbound);
+            fanout.sessionOpened(bankId);
             log.info("[WEBSOCKET] Client connected for bank {}. Active connections: {}",
-                bankId, BANK_CONNECTIONS.get(bankId).size());
-            
-            // Send connection confirmation
-            sendMessage(session, createMessage("connected", "Connected to application queue"));
+                bankId, connections.size());
+
+            // Send connection confirmation with the bank's current version, then whatever the client missed since
+            // its last version
+            Map<String, Object> connected = new LinkedHashMap<>();
+            connected.put("message", "Connected to application queue");
+            currentVersion(bankId).ifPresent(version -> connected.put("version", version));
+            outbound.enqueue(createMessage("connected", connected));
+            Object sinceVersion = session.getAttributes().get("sinceVersion");
+            if (sinceVersion instanceof Long since) {
+                replay(bankId, since, outbound);
+            }
         } else {
             session.close(CloseStatus.BAD_DATA.withReason("Bank ID not found in URL"));
         }
@@ -46,10 +103,13 @@ public class ApplicationQueueWebSocketHandler extends TextWebSocketHandler {
         String bankId = extractBankId(session);
         String payload = message.getPayload();
         log.debug("[WEBSOCKET] Message from bank {}: {}", bankId, payload);
-        
+
         // Handle ping/pong for keep-alive
         if ("ping".equals(payload)) {
-            sendMessage(session, createMessage("pong", "pong"));
+            OutboundSession outbound = findSession(bankId, session.getId());
+            if (outbound != null) {
+                outbound.enqueue(createMessage("pong", Map.of("message", "pong")));
+            }
         }
     }
 
@@ -57,119 +117,129 @@ public class ApplicationQueueWebSocketHandler extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String bankId = extractBankId(session);
         if (bankId != null) {
-            Set<WebSocketSession> connections = BANK_CONNECTIONS.get(bankId);
-            if (connections != null) {
-                connections.remove(session);
+            Map<String, OutboundSession> connections = bankConnections.get(bankId);
+            if (connections != null && connections.remove(session.getId()) != null) {
+                fanout.sessionClosed(bankId);
                 log.info("[WEBSOCKET] Client disconnected from bank {}. Active connections: {}",
                     bankId, connections.size());
-                if (connections.isEmpty()) {
-                    BANK_CONNECTIONS.remove(bankId);
-                }
+                bankConnections.computeIfPresent(bankId, (id, current) -> current.isEmpty() ? null : current);
             }
         }
     }
 
     /**
-     * Broadcast new/updated application to all connected officers for a bank
+     * Broadcast new/updated application to all connected officers for a bank, in the bank's next queue delta
      */
     public void broadcastApplicationUpdate(String bankId, ApplicationQueueItem item) {
-        Set<WebSocketSession> connections = BANK_CONNECTIONS.get(bankId);
-        if (connections != null && !connections.isEmpty()) {
-            String message = createUpdateMessage("application_update", item);
-            connections.forEach(session -> {
-                try {
-                    if (session.isOpen()) {
-                        sendMessage(session, message);
-                    }
-                } catch (IOException e) {
-                    log.error("[WEBSOCKET] Failed to send update to session", e);
-                    connections.remove(session);
-                }
-            });
-            log.info("[WEBSOCKET] Broadcasted application update for bank {} to {} clients",
-                bankId, connections.size());
-        }
+        deltaCoalescer.record(bankId, item.getApplicationId().toString(), item.getStatus());
     }
 
     /**
-     * Broadcast status change to all connected officers for a bank
+     * Broadcast status change to all connected officers for a bank, in the bank's next queue delta
      */
     public void broadcastStatusChange(String bankId, String applicationId, String oldStatus, String newStatus) {
-        Set<WebSocketSession> connections = BANK_CONNECTIONS.get(bankId);
-        if (connections != null && !connections.isEmpty()) {
-            Map<String, Object> data = new HashMap<>();
-            data.put("applicationId", applicationId);
-            data.put("oldStatus", oldStatus);
-            data.put("newStatus", newStatus);
-            String message = createCustomMessage("status_changed", data);
-            
-            connections.forEach(session -> {
-                try {
-                    if (session.isOpen()) {
-                        sendMessage(session, message);
-                    }
-                } catch (IOException e) {
-                    log.error("[WEBSOCKET] Failed to send status change to session", e);
-                    connections.remove(session);
-                }
-            });
-            log.info("[WEBSOCKET] Broadcasted status change for app {} to {} clients",
-                applicationId, connections.size());
+        deltaCoalescer.record(bankId, applicationId, newStatus);
+    }
+
+    /**
+     * Queue an event received from the fan-out for every session of the bank on this node.
+     *
+     * @return the number of sessions the message was queued for
+     */
+    public int deliverLocal(String bankId, String payload) {
+        Map<String, OutboundSession> connections = bankConnections.get(bankId);
+        if (connections == null || connections.isEmpty()) {
+            return 0;
+        }
+        TextMessage message = new TextMessage(payload);
+        int queued = 0;
+        for (OutboundSession outbound : connections.values()) {
+            if (outbound.enqueue(message)) {
+                queued++;
+            } else {
+                drop(bankId, outbound);
+            }
         }
+        return queued;
     }
 
-    private String extractBankId(WebSocketSession session) {
+    private void replay(String bankId, long sinceVersion, OutboundSession outbound) {
+        Optional<List<String>> missed;
         try {
-            Map<String, Object> attributes = session.getAttributes();
-            return (String) attributes.get("bankId");
-        } catch (Exception e) {
-            log.error("[WEBSOCKET] Failed to extract bankId from session", e);
-            return null;
+            missed = fanout.deltasSince(bankId, sinceVersion);
+        } catch (RuntimeException e) {
+            log.warn("[WEBSOCKET] Could not read queue deltas of bank {}: {}", bankId, e.getMessage());
+            missed = Optional.empty();
+        }
+        if (missed.isPresent()) {
+            missed.get().forEach(delta -> outbound.enqueue(new TextMessage(delta)));
+            log.debug("[WEBSOCKET] Replayed {} queue deltas after version {} for bank {}",
+                missed.get().size(), sinceVersion, bankId);
+        } else {
+            Map<String, Object> resync = new LinkedHashMap<>();
+            currentVersion(bankId).ifPresent(version -> resync.put("version", version));
+            outbound.enqueue(createMessage("resync", resync));
         }
     }
 
-    private String createMessage(String type, String message) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("type", type);
-        data.put("message", message);
-        data.put("timestamp", System.currentTimeMillis());
+    private Optional<Long> currentVersion(String bankId) {
         try {
-            return objectMapper.writeValueAsString(data);
-        } catch (Exception e) {
-            log.error("[WEBSOCKET] Failed to serialize message", e);
-            return "{}";
+            return Optional.of(fanout.currentVersion(bankId));
+        } catch (RuntimeException e) {
+            log.warn("[WEBSOCKET] Could not read queue version of bank {}: {}", bankId, e.getMessage());
+            return Optional.empty();
         }
     }
 
-    private String createUpdateMessage(String type, ApplicationQueueItem item) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("type", type);
-        data.put("data", item);
-        data.put("timestamp", System.currentTimeMillis());
+    private void drop(String bankId, OutboundSession outbound) {
+        WebSocketSession session = outbound.getSession();
+        Map<String, OutboundSession> connections = bankConnections.get(bankId);
+        if (connections == null || connections.remove(session.getId()) == null) {
+            return;
+        }
+        fanout.sessionClosed(bankId);
+        boolean open = session.isOpen();
+        meterRegistry.counter("creditapp.websocket.sessions.dropped",
+            "reason", open ? "slow_consumer" : "closed").increment();
+        if (open) {
+            log.warn("[WEBSOCKET] Dropping slow session {} for bank {}", session.getId(), bankId);
+            outbound.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Client too slow"));
+        }
+    }
+
+    private OutboundSession findSession(String bankId, String sessionId) {
+        Map<String, OutboundSession> connections = bankId == null ? null : bankConnections.get(bankId);
+        return connections == null ? null : connections.get(sessionId);
+    }
+
+    private double connectionCount() {
+        return bankConnections.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private String extractBankId(WebSocketSession session) {
         try {
-            return objectMapper.writeValueAsString(data);
+            Map<String, Object> attributes = session.getAttributes();
+            return (String) attributes.get("bankId");
         } catch (Exception e) {
-            log.error("[WEBSOCKET] Failed to serialize update message", e);
-            return "{}";
+            log.error("[WEBSOCKET] Failed to extract bankId from session", e);
+            return null;
         }
     }
 
-    private String createCustomMessage(String type, Map<String, Object> customData) {
-        Map<String, Object> data = new HashMap<>();
+    private TextMessage createMessage(String type, Map<String, Object> customData) {
+        return new TextMessage(serialize(type, customData));
+    }
+
+    private String serialize(String type, Map<String, Object> customData) {
+        Map<String, Object> data = new LinkedHashMap<>();
         data.put("type", type);
         data.putAll(customData);
         data.put("timestamp", System.currentTimeMillis());
         try {
             return objectMapper.writeValueAsString(data);
-        } catch (Exception e) {
-            log.error("[WEBSOCKET] Failed to serialize custom message", e);
+        } catch (JsonProcessingException e) {
+            log.error("[WEBSOCKET] Failed to serialize {} message", type, e);
             return "{}";
         }
     }
-
-    private void sendMessage(WebSocketSession session, String message) throws IOException {
-        if (session.isOpen()) {
-            session.sendMessage(new TextMessage(message));
-        }
-    }
 }
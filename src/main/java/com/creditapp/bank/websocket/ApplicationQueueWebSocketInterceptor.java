@@ -21,6 +21,10 @@ public class ApplicationQueueWebSocketInterceptor implements HandshakeIntercepto
             if (pathParts.length >= 4 && "ws".equals(pathParts[1]) && "bank".equals(pathParts[2])) {
                 String bankId = pathParts[3];
                 attributes.put("bankId", bankId);
+                Long sinceVersion = extractSinceVersion(request.getURI().getQuery());
+                if (sinceVersion != null) {
+                    attributes.put("sinceVersion", sinceVersion);
+                }
                 log.debug("[WEBSOCKET_HANDSHAKE] Extracted bankId: {} from path: {}", bankId, path);
                 return true;
             } else {
@@ -33,6 +37,25 @@ public class ApplicationQueueWebSocketInterceptor implements HandshakeIntercepto
         }
     }
 
+    /**
+     * Queue version the client last applied, from {@code ?sinceVersion=N} on reconnect
+     */
+    private Long extractSinceVersion(String query) {
+        if (query == null) {
+            return null;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith("sinceVersion=")) {
+                try {
+                    return Long.parseLong(param.substring("sinceVersion=".length()));
+                } catch (NumberFormatException e) {
+                    log.warn("[WEBSOCKET_HANDSHAKE] Ignoring invalid sinceVersion: {}", param);
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                WebSocketHandler wsHandler, Exception exception) {
@@ -0,0 +1,68 @@
+package com.creditapp.bank.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Single-node fan-out: events are delivered straight to this node's sessions. Used by tests and
+ * single-instance deployments without Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.fanout", havingValue = "local")
+public class LocalApplicationQueueFanout implements ApplicationQueueFanout {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final QueueDeltaLog deltaLog;
+    private volatile BiConsumer<String, String> localDelivery = (bankId, payload) -> { };
+
+    public LocalApplicationQueueFanout(@Value("${app.websocket.delta.log-size:256}") int deltaLogSize) {
+        this.deltaLog = new QueueDeltaLog(deltaLogSize);
+    }
+
+    @Override
+    public void setLocalDelivery(BiConsumer<String, String> localDelivery) {
+        this.localDelivery = localDelivery;
+    }
+
+    @Override
+    public void publish(String bankId, String payload) {
+        localDelivery.accept(bankId, payload);
+    }
+
+    @Override
+    public long nextVersion(String bankId) {
+        return versions.computeIfAbsent(bankId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long currentVersion(String bankId) {
+        AtomicLong version = versions.get(bankId);
+        return version == null ? 0 : version.get();
+    }
+
+    @Override
+    public void appendDelta(String bankId, long version, String payload) {
+        deltaLog.append(bankId, version, payload);
+    }
+
+    @Override
+    public Optional<List<String>> deltasSince(String bankId, long sinceVersion) {
+        return deltaLog.since(bankId, sinceVersion);
+    }
+
+    @Override
+    public void sessionOpened(String bankId) {
+    }
+
+    @Override
+    public void sessionClosed(String bankId) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.creditapp.bank.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded outbound queue in front of one WebSocket session. Callers only enqueue; messages are written by a
+ * drain task on the broadcast executor, one at a time and in order, so a slow browser never holds up the
+ * thread that produced the event or the other sessions it is fanned out to.
+ * <p>
+ * A session is considered unable to keep up when its queued payload exceeds the buffer limit, or when the
+ * write in progress has taken longer than the send time limit. {@link #enqueue} then refuses the message and
+ * the caller drops the session.
+ * <p>
+ * When the broadcast executor rejects a drain, a retry is scheduled after {@link #DRAIN_RETRY_DELAY}, so queued
+ * messages go out even if nothing else is enqueued for the session.
+ */
+@Slf4j
+public final class OutboundSession {
+
+    static final Duration DRAIN_RETRY_DELAY = Duration.ofMillis(100);
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final TaskScheduler retryScheduler;
+    private final long sendTimeLimitNanos;
+    private final int bufferSizeLimit;
+
+    private final Queue<TextMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long sendStartedNanos;
+    private volatile boolean sending;
+
+    public OutboundSession(WebSocketSession session, Executor executor, TaskScheduler retryScheduler,
+                           long sendTimeLimitMillis, int bufferSizeLimit) {
+        this.session = session;
+        this.executor = executor;
+        this.retryScheduler = retryScheduler;
+        this.sendTimeLimitNanos = sendTimeLimitMillis * 1_000_000L;
+        this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    /**
+     * Queue a message for delivery without blocking.
+     *
+     * @return false when the session is closed or too slow to take another message
+     */
+    public boolean enqueue(TextMessage message) {
+        if (closed.get() || !session.isOpen()) {
+            return false;
+        }
+        if (sending && System.nanoTime() - sendStartedNanos > sendTimeLimitNanos) {
+            return false;
+        }
+        int size = message.getPayloadLength();
+        if (bufferedBytes.addAndGet(size) > bufferSizeLimit) {
+            bufferedBytes.addAndGet(-size);
+            return false;
+        }
+        pending.add(message);
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Discard anything still queued and close the session from the broadcast executor, since closing writes a
+     * close frame to the same possibly stalled connection.
+     */
+    public void close(CloseStatus status) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        pending.clear();
+        bufferedBytes.set(0);
+        Runnable close = () -> {
+            try {
+                session.close(status);
+            } catch (IOException e) {
+                log.debug("[WEBSOCKET] Failed to close session {}", session.getId(), e);
+            }
+        };
+        try {
+            executor.execute(close);
+        } catch (RejectedExecutionException e) {
+            close.run();
+        }
+    }
+
+    int queuedMessages() {
+        return pending.size();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Messages stay queued until the retry (or an earlier enqueue) gets a drain through
+            draining.set(false);
+            log.warn("[WEBSOCKET] Broadcast executor saturated; delivery to session {} deferred", session.getId());
+            scheduleRetry();
+        }
+    }
+
+    private void scheduleRetry() {
+        try {
+            retryScheduler.schedule(() -> {
+                if (!closed.get() && !pending.isEmpty()) {
+                    scheduleDrain();
+                }
+            }, Instant.now().plus(DRAIN_RETRY_DELAY));
+        } catch (RejectedExecutionException e) {
+            log.warn("[WEBSOCKET] Could not schedule delivery retry for session {}; waiting for the next message",
+                session.getId());
+        }
+    }
+
+    private void drain() {
+        try {
+            TextMessage message;
+            while (!closed.get() && (message = pending.poll()) != null) {
+                bufferedBytes.addAndGet(-message.getPayloadLength());
+                if (!session.isOpen()) {
+                    return;
+                }
+                sendStartedNanos = System.nanoTime();
+                sending = true;
+                try {
+                    session.sendMessage(message);
+                } finally {
+                    sending = false;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("[WEBSOCKET] Failed to send to session {}: {}", session.getId(), e.getMessage());
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } finally {
+            draining.set(false);
+            if (!closed.get() && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.creditapp.bank.websocket;
+
+import com.creditapp.bank.event.BankQueueChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Coalesces bank queue changes into versioned delta messages. The first change of a bank opens a window
+ * ({@code app.websocket.delta.window-ms}); every change in it is folded into one {@code queue_delta} message
+ * listing the changed applications with their latest status, numbered with the bank's next queue version.
+ * <pre>
+ * {"type":"queue_delta","version":42,"applications":[{"applicationId":"...","status":"UNDER_REVIEW"}],"timestamp":...}
+ * </pre>
+ * Clients apply deltas in version order; a gap means a delta was missed and the queue has to be refetched (or
+ * the socket reopened with {@code sinceVersion}). Each delta is kept in the fan-out's delta log, next to the
+ * version counter, before it is published. When no version can be assigned a {@code resync} message is sent
+ * instead.
+ * <p>
+ * Windows are timed on the shared {@code webSocketScheduler}, whose lifecycle the application context owns.
+ */
+@Component
+@Slf4j
+public class QueueDeltaCoalescer {
+
+    private final ApplicationQueueFanout fanout;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long windowMillis;
+    private final TaskScheduler scheduler;
+
+    // bankId -> (applicationId -> latest status) collected in the open window
+    private final Map<String, Map<String, String>> pending = new ConcurrentHashMap<>();
+
+    public QueueDeltaCoalescer(ApplicationQueueFanout fanout, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Qualifier("webSocketScheduler") TaskScheduler scheduler,
+                               @Value("${app.websocket.delta.window-ms:250}") long windowMillis) {
+        this.fanout = fanout;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+    }
+
+    @EventListener
+    public void onQueueChanged(BankQueueChangedEvent event) {
+        for (BankQueueChangedEvent.Change change : event.getChanges()) {
+            record(change.bankId().toString(), change.applicationId().toString(), change.status());
+        }
+    }
+
+    /**
+     * Add an application's new status to the bank's next delta. Never blocks on delivery.
+     */
+    public void record(String bankId, String applicationId, String status) {
+        boolean[] opened = {false};
+        pending.compute(bankId, (id, changes) -> {
+            if (changes == null) {
+                changes = new LinkedHashMap<>();
+                opened[0] = true;
+            }
+            changes.put(applicationId, status);
+            return changes;
+        });
+        if (opened[0]) {
+            try {
+                scheduler.schedule(() -> flush(bankId), Instant.now().plusMillis(windowMillis));
+            } catch (RejectedExecutionException e) {
+                flush(bankId);
+            }
+        }
+    }
+
+    private void flush(String bankId) {
+        Map<String, String> changes = pending.remove(bankId);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("type", "queue_delta");
+            long version;
+            try {
+                version = fanout.nextVersion(bankId);
+                message.put("version", version);
+            } catch (RuntimeException e) {
+                log.warn("[WEBSOCKET] No queue version for bank {}; asking clients to resync: {}", bankId,
+                    e.getMessage());
+                meterRegistry.counter("creditapp.websocket.queue.deltas", "result", "resync").increment();
+                fanout.publish(bankId, serialize(Map.of("type", "resync", "timestamp", System.currentTimeMillis())));
+                return;
+            }
+            List<Map<String, String>> applications = new ArrayList<>(changes.size());
+            changes.forEach((applicationId, status) -> {
+                Map<String, String> entry = new LinkedHashMap<>();
+                entry.put("applicationId", applicationId);
+                entry.put("status", status);
+                applications.add(entry);
+            });
+            message.put("applications", applications);
+            message.put("timestamp", System.currentTimeMillis());
+            String payload = serialize(message);
+            try {
+                fanout.appendDelta(bankId, version, payload);
+            } catch (RuntimeException e) {
+                // Live sessions still get the delta; a dashboard resuming across this version is sent a resync
+                log.warn("[WEBSOCKET] Could not log queue delta {} of bank {}: {}", version, bankId, e.getMessage());
+            }
+            fanout.publish(bankId, payload);
+            meterRegistry.counter("creditapp.websocket.queue.deltas", "result", "published").increment();
+            meterRegistry.counter("creditapp.websocket.queue.delta.changes").increment(changes.size());
+        } catch (RuntimeException e) {
+            log.error("[WEBSOCKET] Failed to publish queue delta for bank {}", bankId, e);
+        }
+    }
+
+    private String serialize(Map<String, Object> message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize queue delta", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.creditapp.bank.websocket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory log of the most recent queue deltas of each bank, kept by the single-node
+ * {@link LocalApplicationQueueFanout}. Bounded per bank; older deltas are evicted first.
+ */
+public final class QueueDeltaLog {
+
+    private record Entry(long version, String payload) {
+    }
+
+    private final int capacity;
+    private final Map<String, Deque<Entry>> deltas = new ConcurrentHashMap<>();
+
+    public QueueDeltaLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void append(String bankId, long version, String payload) {
+        Deque<Entry> log = deltas.computeIfAbsent(bankId, id -> new ArrayDeque<>());
+        synchronized (log) {
+            // Deltas from different producers can arrive slightly out of order; keep the log sorted
+            List<Entry> later = new ArrayList<>();
+            while (!log.isEmpty() && log.peekLast().version() >= version) {
+                Entry last = log.pollLast();
+                if (last.version() != version) {
+                    later.add(0, last);
+                }
+            }
+            log.addLast(new Entry(version, payload));
+            later.forEach(log::addLast);
+            while (log.size() > capacity) {
+                log.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Deltas after {@code sinceVersion} in version order.
+     *
+     * @return empty when the log does not hold every version after {@code sinceVersion}, in which case the
+     * client has to refetch the queue
+     */
+    public Optional<List<String>> since(String bankId, long sinceVersion) {
+        Deque<Entry> log = deltas.get(bankId);
+        if (log == null) {
+            return Optional.empty();
+        }
+        synchronized (log) {
+            if (log.isEmpty() || sinceVersion > log.peekLast().version()) {
+                return Optional.empty();
+            }
+            List<String> missed = new ArrayList<>();
+            long expected = sinceVersion + 1;
+            for (Entry entry : log) {
+                if (entry.version() <= sinceVersion) {
+                    continue;
+                }
+                if (entry.version() != expected) {
+                    return Optional.empty();
+                }
+                missed.add(entry.payload());
+                expected++;
+            }
+            return Optional.of(missed);
+        }
+    }
+
+    /**
+     * Latest version seen for the bank, or 0 when none.
+     */
+    public long latestVersion(String bankId) {
+        Deque<Entry> log = deltas.get(bankId);
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.isEmpty() ? 0 : log.peekLast().version();
+        }
+    }
+}
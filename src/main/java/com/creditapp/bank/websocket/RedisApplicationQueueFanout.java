@@ -0,0 +1,181 @@
+package com.creditapp.bank.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Cluster fan-out over Redis pub/sub with one channel per bank. A node subscribes to a bank's channel while it
+ * holds at least one session of that bank, so nodes without such sessions never receive the bank's events.
+ * <p>
+ * Queue versions are per-bank Redis counters, so every node numbers the bank's deltas from the same sequence.
+ * Next to each counter a sorted set scored by version holds the bank's most recent deltas
+ * ({@code app.websocket.delta.log-size}), so a dashboard reconnecting to any node, including one that held no
+ * session of the bank, can replay what it missed. When Redis cannot be reached the event is still delivered to
+ * this node's sessions; sessions on other nodes miss it and catch up on their next queue fetch.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.fanout", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisApplicationQueueFanout implements ApplicationQueueFanout, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "ws:bank-queue:";
+    private static final String VERSION_KEY_PREFIX = "ws:bank-queue-version:";
+    private static final String DELTAS_KEY_PREFIX = "ws:bank-queue-deltas:";
+
+    /**
+     * KEYS: deltas sorted set. ARGV: version, payload, log size. Adds the delta and trims the oldest beyond the size.
+     */
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1))
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final int deltaLogSize;
+
+    // bankId -> sessions of the bank on this node
+    private final Map<String, Integer> localSessions = new ConcurrentHashMap<>();
+    // banks whose channel this node is subscribed to; guarded by itself
+    private final Set<String> subscribedBanks = new HashSet<>();
+    private volatile BiConsumer<String, String> localDelivery = (bankId, payload) -> { };
+
+    public RedisApplicationQueueFanout(StringRedisTemplate redisTemplate,
+                                       @Qualifier("applicationQueueListenerContainer")
+                                       RedisMessageListenerContainer listenerContainer,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.websocket.delta.log-size:256}") int deltaLogSize) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.deltaLogSize = deltaLogSize;
+    }
+
+    @Override
+    public void setLocalDelivery(BiConsumer<String, String> localDelivery) {
+        this.localDelivery = localDelivery;
+    }
+
+    @Override
+    public void publish(String bankId, String payload) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + bankId, payload);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("creditapp.websocket.fanout.publish.failures").increment();
+            log.warn("[WEBSOCKET] Redis publish failed for bank {}; delivering to local sessions only: {}",
+                bankId, e.getMessage());
+            localDelivery.accept(bankId, payload);
+        }
+    }
+
+    @Override
+    public long nextVersion(String bankId) {
+        Long version = redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + bankId);
+        if (version == null) {
+            throw new IllegalStateException("Redis returned no queue version for bank " + bankId);
+        }
+        return version;
+    }
+
+    @Override
+    public long currentVersion(String bankId) {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY_PREFIX + bankId);
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    @Override
+    public void appendDelta(String bankId, long version, String payload) {
+        redisTemplate.execute(APPEND_SCRIPT, List.of(DELTAS_KEY_PREFIX + bankId), String.valueOf(version), payload,
+            String.valueOf(deltaLogSize));
+    }
+
+    @Override
+    public Optional<List<String>> deltasSince(String bankId, long sinceVersion) {
+        Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+            .rangeByScoreWithScores(DELTAS_KEY_PREFIX + bankId, sinceVersion + 1, Double.POSITIVE_INFINITY);
+        if (entries == null || entries.isEmpty()) {
+            // Nothing logged after the version: the client is current only if no later version was assigned
+            return sinceVersion == currentVersion(bankId) ? Optional.of(List.of()) : Optional.empty();
+        }
+        List<String> missed = new ArrayList<>(entries.size());
+        long expected = sinceVersion + 1;
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            if (entry.getScore() == null || entry.getScore().longValue() != expected) {
+                return Optional.empty();
+            }
+            missed.add(entry.getValue());
+            expected++;
+        }
+        return Optional.of(missed);
+    }
+
+    @Override
+    public void sessionOpened(String bankId) {
+        localSessions.merge(bankId, 1, Integer::sum);
+        syncSubscription(bankId);
+    }
+
+    @Override
+    public void sessionClosed(String bankId) {
+        localSessions.computeIfPresent(bankId, (id, count) -> count > 1 ? count - 1 : null);
+        syncSubscription(bankId);
+    }
+
+    /**
+     * Brings the bank's channel subscription in line with its local session count. The count map only records
+     * the decision; the listener container calls run here, outside the map's bin lock, and are serialized so an
+     * interleaved open and close always settle on the subscription state of the latest count.
+     */
+    private void syncSubscription(String bankId) {
+        synchronized (subscribedBanks) {
+            boolean wanted = localSessions.containsKey(bankId);
+            if (wanted == subscribedBanks.contains(bankId)) {
+                return;
+            }
+            ChannelTopic topic = new ChannelTopic(CHANNEL_PREFIX + bankId);
+            if (wanted) {
+                listenerContainer.addMessageListener(this, topic);
+                subscribedBanks.add(bankId);
+                log.debug("[WEBSOCKET] Subscribed to queue events of bank {}", bankId);
+            } else {
+                listenerContainer.removeMessageListener(this, topic);
+                subscribedBanks.remove(bankId);
+                log.debug("[WEBSOCKET] Unsubscribed from queue events of bank {}", bankId);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        if (!channel.startsWith(CHANNEL_PREFIX)) {
+            return;
+        }
+        localDelivery.accept(channel.substring(CHANNEL_PREFIX.length()),
+            new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
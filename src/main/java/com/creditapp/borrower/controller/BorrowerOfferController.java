@@ -1,6 +1,7 @@
 package com.creditapp.borrower.controller;
 
 import com.creditapp.borrower.dto.*;
+import com.creditapp.borrower.service.BorrowerOfferStreamService;
 import com.creditapp.borrower.service.OfferComparisonTableService;
 import com.creditapp.borrower.service.OfferInsightsService;
 import com.creditapp.borrower.service.OfferSelectionService;
@@ -8,9 +9,11 @@ import com.creditapp.shared.security.AuthorizationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -23,6 +26,7 @@ public class BorrowerOfferController {
     private final OfferComparisonTableService offerComparisonTableService;
     private final OfferSelectionService offerSelectionService;
     private final OfferInsightsService offerInsightsService;
+    private final BorrowerOfferStreamService borrowerOfferStreamService;
     private final AuthorizationService authorizationService;
     
     @GetMapping("/{applicationId}/offers")
@@ -94,4 +98,19 @@ public class BorrowerOfferController {
         
         return ResponseEntity.ok(insights);
     }
+    
+    /**
+     * SSE stream of offer-calculated, offer-updated, offer-expired and status-transition events for the
+     * application. Reconnecting clients send Last-Event-ID to receive the events they missed.
+     */
+    @GetMapping(value = "/{applicationId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('BORROWER')")
+    public SseEmitter streamOfferEvents(
+            @PathVariable UUID applicationId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        UUID borrowerId = authorizationService.getCurrentUserId();
+        log.info("GET /api/borrower/applications/{}/events by borrower {}", applicationId, borrowerId);
+        
+        return borrowerOfferStreamService.subscribe(borrowerId, applicationId, lastEventId);
+    }
 }
@@ -0,0 +1,36 @@
+package com.creditapp.borrower.event;
+
+import com.creditapp.borrower.model.ApplicationStatus;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.UUID;
+
+/**
+ * Published by the service that moves an application to a new status, in the transaction that writes it.
+ * Only raised when the status actually changes.
+ */
+public class ApplicationStatusChangedEvent extends ApplicationEvent {
+    private final UUID applicationId;
+    private final ApplicationStatus previousStatus;
+    private final ApplicationStatus status;
+
+    public ApplicationStatusChangedEvent(Object source, UUID applicationId, ApplicationStatus previousStatus,
+                                         ApplicationStatus status) {
+        super(source);
+        this.applicationId = applicationId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public UUID getApplicationId() {
+        return applicationId;
+    }
+
+    public ApplicationStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public ApplicationStatus getStatus() {
+        return status;
+    }
+}
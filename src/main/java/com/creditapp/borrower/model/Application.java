@@ -1,5 +1,6 @@
 package com.creditapp.borrower.model;
 
+import com.creditapp.shared.model.EntityChangeListener;
 import com.creditapp.shared.model.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -16,6 +17,7 @@ import java.util.UUID;
  * Application entity representing a borrower's loan application.
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "applications", indexes = {
         @Index(name = "idx_applications_borrower_id", columnList = "borrower_id"),
         @Index(name = "idx_applications_status", columnList = "status"),
@@ -1,5 +1,6 @@
 package com.creditapp.borrower.model;
 
+import com.creditapp.shared.model.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import java.util.UUID;
  * Supports soft delete via deleted_at timestamp.
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "application_documents", indexes = {
         @Index(name = "idx_documents_application_id", columnList = "application_id"),
         @Index(name = "idx_documents_upload_date", columnList = "upload_date"),
@@ -2,14 +2,18 @@ package com.creditapp.borrower.repository;
 
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.shared.util.IdPage;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,12 +25,23 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>
 
     /**
      * Find applications by borrower ID with pagination.
+     * Details are fetched in the same query: the inverse one-to-one cannot be lazy, so it would otherwise cost
+     * one select per application.
      * @param borrowerId the borrower ID
      * @param pageable pagination info
      * @return page of applications
      */
+    @EntityGraph(attributePaths = "details")
     Page<Application> findByBorrowerId(UUID borrowerId, Pageable pageable);
 
+    /**
+     * Find applications by ID with their details in one query, for batched page assembly.
+     * @param ids the application IDs
+     * @return the applications found
+     */
+    @EntityGraph(attributePaths = "details")
+    List<Application> findByIdIn(Collection<UUID> ids);
+
     /**
      * Find applications by borrower ID and status with pagination.
      * @param borrowerId the borrower ID
@@ -44,17 +59,42 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>
     List<Application> findByBorrowerId(UUID borrowerId);
 
     /**
-     * Find applications with eager-loaded relationships.
+     * Find applications with eager-loaded relationships, newest first.
+     * Paged in two phases (see {@link IdPage}): the page of ids is read from idx_applications_borrower_created_id,
+     * then details and history are fetched for just those applications, so the page is never sliced in memory.
      * @param borrowerId the borrower ID
-     * @param pageable pagination info
+     * @param pageable pagination info; its sort is dropped, the order is always newest first
      * @return page of applications
      */
-    @Query("SELECT a FROM Application a " +
+    default Page<Application> findByBorrowerIdWithRelations(UUID borrowerId, Pageable pageable) {
+        Pageable unsorted = pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : Pageable.unpaged();
+        return IdPage.fetch(findIdsByBorrowerId(borrowerId, unsorted), this::findWithRelationsByIdIn, Application::getId);
+    }
+
+    /**
+     * Page of a borrower's application IDs, newest first, with the ID as tiebreaker.
+     * @param borrowerId the borrower ID
+     * @param pageable pagination info; must be unsorted, since Spring Data appends a pageable's sort to the
+     *                 ORDER BY, which would break the index order and the tiebreaker
+     * @return page of application IDs
+     */
+    @Query(value = "SELECT a.id FROM Application a WHERE a.borrowerId = :borrowerId ORDER BY a.createdAt DESC, a.id DESC",
+           countQuery = "SELECT COUNT(a) FROM Application a WHERE a.borrowerId = :borrowerId")
+    Page<UUID> findIdsByBorrowerId(@Param("borrowerId") UUID borrowerId, Pageable pageable);
+
+    /**
+     * Find applications by ID with details and history fetched in one query, for the second phase of
+     * {@link IdPage} pagination. Unordered.
+     * @param ids the application IDs
+     * @return the applications found
+     */
+    @Query("SELECT DISTINCT a FROM Application a " +
            "LEFT JOIN FETCH a.details " +
            "LEFT JOIN FETCH a.history " +
-           "WHERE a.borrowerId = :borrowerId " +
-           "ORDER BY a.createdAt DESC")
-    Page<Application> findByBorrowerIdWithRelations(@Param("borrowerId") UUID borrowerId, Pageable pageable);
+           "WHERE a.id IN :ids")
+    List<Application> findWithRelationsByIdIn(@Param("ids") Collection<UUID> ids);
     
     /**
      * Find applications by borrower ID with optimized ordering for history retrieval.
@@ -92,4 +132,49 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>
      * @return list of applications
      */
     List<Application> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Count applications created between two dates (market-wide analytics rollup).
+     */
+    long countByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Creation times of applications created between two dates (single-pass analytics without rollups).
+     */
+    @Query("SELECT a.createdAt FROM Application a WHERE a.createdAt BETWEEN :startDate AND :endDate")
+    List<LocalDateTime> findCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Keyset-paginated scan of applications in a market (loan type + currency) and status set,
+     * ordered by id. Pass the last id of the previous chunk (or the nil UUID for the first chunk).
+     * Backed by idx_applications_market_id_status, which delivers the id order directly.
+     *
+     * @param loanType loan type name
+     * @param currency currency code
+     * @param statuses statuses to include
+     * @param afterId exclusive lower bound on id
+     * @param pageable chunk size (page number is ignored by callers; always 0)
+     * @return next chunk of applications
+     */
+    @Query("SELECT a FROM Application a WHERE a.loanType = :loanType AND a.currency = :currency " +
+           "AND a.status IN :statuses AND a.id > :afterId ORDER BY a.id")
+    List<Application> findMarketChunk(
+        @Param("loanType") String loanType,
+        @Param("currency") String currency,
+        @Param("statuses") Collection<ApplicationStatus> statuses,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Count applications in a market and status set (progress denominator for market scans).
+     */
+    @Query("SELECT COUNT(a) FROM Application a WHERE a.loanType = :loanType AND a.currency = :currency " +
+           "AND a.status IN :statuses")
+    long countMarket(
+        @Param("loanType") String loanType,
+        @Param("currency") String currency,
+        @Param("statuses") Collection<ApplicationStatus> statuses
+    );
 }
@@ -7,6 +7,7 @@ import com.creditapp.borrower.model.Application;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.shared.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -21,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -74,11 +76,20 @@ public class ApplicationHistoryService {
             log.warn("[HISTORY] Large application history detected for borrower {}: {} total applications", borrowerId, totalCount);
         }
         
-        List<ApplicationHistoryRecord> records = applications.getContent().stream()
+        List<Application> pageApplications = applications.getContent().stream()
             .filter(app -> applyStatusFilter(app, request.getStatus()))
             .filter(app -> applyDateRangeFilter(app, request.getDateRangeStart(), request.getDateRangeEnd()))
             .filter(app -> applyLoanAmountFilter(app, request.getLoanAmountMin(), request.getLoanAmountMax()))
-            .map(this::mapToRecord)
+            .collect(Collectors.toList());
+
+        // Offers of every application on the page in one query
+        Map<UUID, List<Offer>> offersByApplication = BatchLoader
+            .of(offerRepository::findByApplicationIdIn, Offer::getApplicationId)
+            .addAll(pageApplications, Application::getId)
+            .loadGrouped();
+
+        List<ApplicationHistoryRecord> records = pageApplications.stream()
+            .map(app -> mapToRecord(app, offersByApplication.getOrDefault(app.getId(), List.of())))
             .collect(Collectors.toList());
 
         boolean hasMore = (offset + limit) < totalCount;
@@ -132,9 +143,7 @@ public class ApplicationHistoryService {
         return true;
     }
 
-    private ApplicationHistoryRecord mapToRecord(Application app) {
-        List<Offer> offers = offerRepository.findByApplicationId(app.getId());
-        
+    private ApplicationHistoryRecord mapToRecord(Application app, List<Offer> offers) {
         int offerCount = offers.size();
         BigDecimal bestAPR = offers.stream()
             .map(Offer::getApr)
@@ -6,6 +6,7 @@ import com.creditapp.borrower.dto.CreateApplicationRequest;
 import com.creditapp.borrower.dto.SubmitApplicationResponse;
 import com.creditapp.borrower.dto.UpdateApplicationRequest;
 import com.creditapp.borrower.dto.UpdateApplicationResponse;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.event.ApplicationSubmittedEvent;
 import com.creditapp.borrower.exception.ApplicationAlreadySubmittedException;
 import com.creditapp.borrower.exception.ApplicationCreationException;
@@ -234,6 +235,8 @@ public class ApplicationService {
         
         try {
             application = applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId,
+                    ApplicationStatus.DRAFT, ApplicationStatus.SUBMITTED));
 
             // Record history entry
             ApplicationHistory history = ApplicationHistory.builder()
@@ -0,0 +1,457 @@
+package com.creditapp.borrower.service;
+
+import com.creditapp.bank.event.OfferChangedEvent;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
+import com.creditapp.borrower.exception.ApplicationNotFoundException;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.shared.exception.RateLimitExceededException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events stream of offer and status changes of a borrower's application, replacing polling of the
+ * offers table while offers are being calculated. Events:
+ * <ul>
+ *   <li>{@code offer-calculated}, {@code offer-updated}, {@code offer-expired}: the offer's id, bank, status,
+ *   APR, monthly payment, total cost and expiry</li>
+ *   <li>{@code status-transition}: the application's new and previous status</li>
+ *   <li>{@code resync}: the events after the client's Last-Event-ID are no longer held; refetch the offers
+ *   table</li>
+ * </ul>
+ * Events are built from the {@link OfferChangedEvent}s and {@link ApplicationStatusChangedEvent}s the domain
+ * services publish, once their transaction has committed; {@code offer-expired} is only sent for the change that
+ * moves an offer into an expired status. They are published through the {@link OfferStreamFanout}, which brings
+ * them to every node holding a stream of the application.
+ * <p>
+ * Every event carries an id from the application's shared event sequence. The fan-out keeps the last events of
+ * each application so a client reconnecting with {@code Last-Event-ID}, to any node, receives what it missed. A
+ * comment is sent every heartbeat interval to keep proxies from closing idle streams, and each borrower may hold
+ * a limited number of open streams on a node.
+ * <p>
+ * Each stream has a bounded outbound queue ({@code max-buffered-events}, {@code max-buffered-bytes}). A client
+ * that falls that far behind is disconnected and counted in {@code creditapp.borrower.offer-stream.dropped}; it
+ * resumes with {@code Last-Event-ID} when it reconnects.
+ */
+@Service
+@Slf4j
+public class BorrowerOfferStreamService {
+
+    private static final String RESYNC_EVENT = "resync";
+    static final Duration DRAIN_RETRY_DELAY = Duration.ofMillis(100);
+    // Queued size of a comment or of the id/name framing around an event's data
+    private static final int FRAME_BYTES = 64;
+
+    private final ApplicationRepository applicationRepository;
+    private final OfferStreamFanout fanout;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final TaskScheduler retryScheduler;
+    private final MeterRegistry meterRegistry;
+    private final int maxConnectionsPerUser;
+    private final long timeoutMillis;
+    private final int maxBufferedEvents;
+    private final long maxBufferedBytes;
+
+    private final Map<UUID, Integer> connectionsPerUser = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Applications with at least one open stream on this node
+    private final Map<UUID, ApplicationStream> streams = new ConcurrentHashMap<>();
+
+    public BorrowerOfferStreamService(
+            ApplicationRepository applicationRepository,
+            OfferStreamFanout fanout,
+            ObjectMapper objectMapper,
+            @Qualifier("borrowerStreamExecutor") Executor executor,
+            @Qualifier("webSocketScheduler") TaskScheduler retryScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${app.borrower.offer-stream.max-connections-per-user:3}") int maxConnectionsPerUser,
+            @Value("${app.borrower.offer-stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${app.borrower.offer-stream.max-buffered-events:256}") int maxBufferedEvents,
+            @Value("${app.borrower.offer-stream.max-buffered-bytes:262144}") long maxBufferedBytes) {
+        this.applicationRepository = applicationRepository;
+        this.fanout = fanout;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.retryScheduler = retryScheduler;
+        this.meterRegistry = meterRegistry;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeoutMillis = timeoutMillis;
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.maxBufferedBytes = maxBufferedBytes;
+        fanout.setLocalDelivery(this::deliverLocal);
+        meterRegistry.gauge("creditapp.borrower.offer-stream.connections", subscribers, Set::size);
+    }
+
+    /**
+     * Open a stream for the borrower's application.
+     *
+     * @param lastEventId id of the last event the client received, to resume after a dropped connection
+     * @throws ApplicationNotFoundException if the application does not exist
+     * @throws AccessDeniedException if the application belongs to another borrower
+     * @throws RateLimitExceededException if the borrower already holds the maximum number of streams
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(UUID borrowerId, UUID applicationId, Long lastEventId) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new ApplicationNotFoundException("Application not found: " + applicationId));
+        if (!application.getBorrowerId().equals(borrowerId)) {
+            log.warn("Borrower {} attempted to stream application {} owned by {}",
+                    borrowerId, applicationId, application.getBorrowerId());
+            throw new AccessDeniedException("You do not have permission to access this application");
+        }
+
+        boolean[] admitted = {false};
+        connectionsPerUser.compute(borrowerId, (id, open) -> {
+            int current = open == null ? 0 : open;
+            if (current >= maxConnectionsPerUser) {
+                return open;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        if (!admitted[0]) {
+            meterRegistry.counter("creditapp.borrower.offer-stream.rejected").increment();
+            throw new RateLimitExceededException(
+                    "Too many open offer streams; close another tab or try again later", 30);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(borrowerId, applicationId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+
+        // Subscribe first, so every event published from here on either arrives live or is in the replay
+        fanout.streamOpened(applicationId);
+        ApplicationStream stream = streams.compute(applicationId, (id, current) -> {
+            ApplicationStream joined = current != null ? current : new ApplicationStream();
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        synchronized (stream) {
+            subscriber.enqueue(SseEmitter.event().comment("connected"), FRAME_BYTES);
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscriber.ready = true;
+        }
+        drain(subscriber);
+        log.debug("Borrower {} opened offer stream for application {} (Last-Event-ID {})",
+                borrowerId, applicationId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Stream an offer change once its transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOfferChanged(OfferChangedEvent event) {
+        String name = event.isCreated() ? "offer-calculated" : event.isExpiry() ? "offer-expired" : "offer-updated";
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("offerId", event.getOfferId());
+        data.put("applicationId", event.getApplicationId());
+        data.put("bankId", event.getBankId());
+        data.put("offerStatus", event.getStatus() != null ? event.getStatus().name() : null);
+        data.put("apr", event.getApr());
+        data.put("monthlyPayment", event.getMonthlyPayment());
+        data.put("totalCost", event.getTotalCost());
+        data.put("expiresAt", event.getExpiresAt());
+        stream(event.getApplicationId(), name, data);
+    }
+
+    /**
+     * Stream an application status transition once its transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        if (event.getStatus() == null || event.getStatus() == event.getPreviousStatus()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("applicationId", event.getApplicationId());
+        data.put("status", event.getStatus().name());
+        data.put("previousStatus", event.getPreviousStatus() != null ? event.getPreviousStatus().name() : null);
+        stream(event.getApplicationId(), "status-transition", data);
+    }
+
+    @Scheduled(fixedDelayString = "${app.borrower.offer-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.enqueue(SseEmitter.event().comment("heartbeat"), FRAME_BYTES)) {
+                drain(subscriber);
+            } else {
+                dropSlow(subscriber);
+            }
+        }
+    }
+
+    private void stream(UUID applicationId, String name, Map<String, Object> data) {
+        if (applicationId == null) {
+            return;
+        }
+        try {
+            fanout.publish(applicationId, name, objectMapper.writeValueAsString(data));
+            meterRegistry.counter("creditapp.borrower.offer-stream.events", "type", name).increment();
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} for application {}", name, applicationId, e);
+        }
+    }
+
+    /**
+     * Queue an event received from the fan-out for this node's streams of the application. A stream skips events
+     * it was already sent by its replay.
+     */
+    private void deliverLocal(UUID applicationId, OfferStreamEvent event) {
+        ApplicationStream stream = streams.get(applicationId);
+        if (stream == null) {
+            return;
+        }
+        List<Subscriber> slow = new ArrayList<>();
+        synchronized (stream) {
+            for (Subscriber subscriber : stream.subscribers) {
+                if (!subscriber.ready || (event.id() != 0 && event.id() <= subscriber.lastEventId)) {
+                    continue;
+                }
+                if (subscriber.enqueue(toSse(event), size(event))) {
+                    subscriber.lastEventId = Math.max(subscriber.lastEventId, event.id());
+                    drain(subscriber);
+                } else {
+                    slow.add(subscriber);
+                }
+            }
+        }
+        slow.forEach(this::dropSlow);
+    }
+
+    /**
+     * Disconnect a stream whose outbound queue is full. Completing writes to the same possibly stalled
+     * connection, so it happens on the stream executor.
+     */
+    private void dropSlow(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        unsubscribe(subscriber);
+        subscriber.clear();
+        meterRegistry.counter("creditapp.borrower.offer-stream.dropped").increment();
+        log.warn("Dropping offer stream of borrower {} for application {}: client is not keeping up",
+                subscriber.borrowerId, subscriber.applicationId);
+        Runnable complete = subscriber.emitter::complete;
+        try {
+            executor.execute(complete);
+        } catch (RejectedExecutionException e) {
+            complete.run();
+        }
+    }
+
+    /**
+     * Start a drain of the subscriber's queue unless one is running. When the stream executor rejects it, a retry
+     * is scheduled after {@link #DRAIN_RETRY_DELAY}, so queued events go out even if nothing else is enqueued.
+     */
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drainNow(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            log.warn("Offer stream executor saturated; delivery to borrower {} deferred", subscriber.borrowerId);
+            try {
+                retryScheduler.schedule(() -> {
+                    if (!subscriber.closed.get() && subscriber.hasQueued()) {
+                        drain(subscriber);
+                    }
+                }, Instant.now().plus(DRAIN_RETRY_DELAY));
+            } catch (RejectedExecutionException retryRejected) {
+                log.warn("Could not schedule offer stream retry for borrower {}; waiting for the next event",
+                        subscriber.borrowerId);
+            }
+        }
+    }
+
+    private void drainNow(Subscriber subscriber) {
+        try {
+            Outbound next;
+            while (!subscriber.closed.get() && (next = subscriber.poll()) != null) {
+                subscriber.emitter.send(next.event());
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscriber.closed.set(true);
+            subscriber.clear();
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.closed.get() && subscriber.hasQueued()) {
+            drain(subscriber);
+        }
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        Optional<List<OfferStreamEvent>> missed;
+        try {
+            missed = fanout.eventsSince(subscriber.applicationId, lastEventId);
+        } catch (RuntimeException e) {
+            log.warn("Could not read offer stream events of application {}: {}", subscriber.applicationId,
+                    e.getMessage());
+            missed = Optional.empty();
+        }
+        if (missed.isEmpty()) {
+            // Missed events are gone, or the id is ahead of the application's sequence
+            long currentId = currentEventId(subscriber.applicationId);
+            subscriber.enqueue(SseEmitter.event()
+                    .id(String.valueOf(currentId))
+                    .name(RESYNC_EVENT)
+                    .data("{}", MediaType.APPLICATION_JSON), FRAME_BYTES);
+            subscriber.lastEventId = currentId;
+            return;
+        }
+        subscriber.lastEventId = lastEventId;
+        for (OfferStreamEvent event : missed.get()) {
+            subscriber.enqueue(toSse(event), size(event));
+            subscriber.lastEventId = event.id();
+        }
+    }
+
+    private long currentEventId(UUID applicationId) {
+        try {
+            return fanout.currentEventId(applicationId);
+        } catch (RuntimeException e) {
+            log.warn("Could not read offer stream event id of application {}: {}", applicationId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        streams.computeIfPresent(subscriber.applicationId, (id, stream) -> {
+            stream.subscribers.remove(subscriber);
+            return stream.subscribers.isEmpty() ? null : stream;
+        });
+        fanout.streamClosed(subscriber.applicationId);
+        connectionsPerUser.computeIfPresent(subscriber.borrowerId, (id, open) -> open <= 1 ? null : open - 1);
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(OfferStreamEvent event) {
+        SseEmitter.SseEventBuilder sse = SseEmitter.event();
+        if (event.id() != 0) {
+            sse.id(String.valueOf(event.id()));
+        }
+        return sse.name(event.name()).data(event.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private static int size(OfferStreamEvent event) {
+        return event.json().length() + FRAME_BYTES;
+    }
+
+    private record Outbound(SseEmitter.SseEventBuilder event, int bytes) {
+    }
+
+    /**
+     * Streams of one application on this node. Events are queued under its monitor, so a stream's replay and the
+     * live events after it are queued in order.
+     */
+    private static final class ApplicationStream {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * One open stream. Events are queued and written by a single drain at a time on the stream executor, so the
+     * committing thread never blocks on a slow client and events keep their order. The queue is bounded by
+     * event count and approximate size; {@link #enqueue} refuses events beyond either limit.
+     */
+    private final class Subscriber {
+
+        private final UUID borrowerId;
+        private final UUID applicationId;
+        private final SseEmitter emitter;
+        private final Queue<Outbound> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queuedEvents = new AtomicInteger();
+        private final AtomicLong queuedBytes = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Guarded by the application stream's monitor: set once the replay is queued, and the last event id queued
+        private boolean ready;
+        private long lastEventId;
+
+        Subscriber(UUID borrowerId, UUID applicationId, SseEmitter emitter) {
+            this.borrowerId = borrowerId;
+            this.applicationId = applicationId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return false when the stream is closed or already holds as many events or bytes as allowed
+         */
+        boolean enqueue(SseEmitter.SseEventBuilder event, int bytes) {
+            if (closed.get()) {
+                return false;
+            }
+            int events = queuedEvents.incrementAndGet();
+            long queued = queuedBytes.addAndGet(bytes);
+            if (events > maxBufferedEvents || queued > maxBufferedBytes) {
+                queuedEvents.decrementAndGet();
+                queuedBytes.addAndGet(-bytes);
+                return false;
+            }
+            outbound.add(new Outbound(event, bytes));
+            return true;
+        }
+
+        Outbound poll() {
+            Outbound next = outbound.poll();
+            if (next != null) {
+                queuedEvents.decrementAndGet();
+                queuedBytes.addAndGet(-next.bytes());
+            }
+            return next;
+        }
+
+        boolean hasQueued() {
+            return !outbound.isEmpty();
+        }
+
+        void clear() {
+            outbound.clear();
+            queuedEvents.set(0);
+            queuedBytes.set(0);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.creditapp.borrower.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Single-node fan-out: events are numbered, kept and delivered in memory. The most recently streamed applications
+ * are kept, least recently used evicted first. Used by tests and single-instance deployments without Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "app.borrower.offer-stream.fanout", havingValue = "local")
+public class LocalOfferStreamFanout implements OfferStreamFanout {
+
+    private final int replayBufferSize;
+    private final Map<UUID, EventLog> logs;
+    private volatile BiConsumer<UUID, OfferStreamEvent> localDelivery = (applicationId, event) -> { };
+
+    public LocalOfferStreamFanout(
+            @Value("${app.borrower.offer-stream.replay-buffer-size:100}") int replayBufferSize,
+            @Value("${app.borrower.offer-stream.max-applications:10000}") int maxApplications) {
+        this.replayBufferSize = replayBufferSize;
+        this.logs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, EventLog> eldest) {
+                return size() > maxApplications;
+            }
+        });
+    }
+
+    @Override
+    public void setLocalDelivery(BiConsumer<UUID, OfferStreamEvent> localDelivery) {
+        this.localDelivery = localDelivery;
+    }
+
+    @Override
+    public void publish(UUID applicationId, String name, String json) {
+        EventLog log = logs.computeIfAbsent(applicationId, id -> new EventLog());
+        OfferStreamEvent event;
+        synchronized (log) {
+            event = new OfferStreamEvent(++log.lastId, name, json);
+            log.events.addLast(event);
+            while (log.events.size() > replayBufferSize) {
+                log.evictedUpTo = log.events.pollFirst().id();
+            }
+        }
+        localDelivery.accept(applicationId, event);
+    }
+
+    @Override
+    public long currentEventId(UUID applicationId) {
+        EventLog log = logs.get(applicationId);
+        if (log == null) {
+            return 0;
+        }
+        synchronized (log) {
+            return log.lastId;
+        }
+    }
+
+    @Override
+    public Optional<List<OfferStreamEvent>> eventsSince(UUID applicationId, long lastEventId) {
+        EventLog log = logs.get(applicationId);
+        if (log == null) {
+            return lastEventId == 0 ? Optional.of(List.of()) : Optional.empty();
+        }
+        synchronized (log) {
+            if (lastEventId < log.evictedUpTo || lastEventId > log.lastId) {
+                return Optional.empty();
+            }
+            List<OfferStreamEvent> missed = new ArrayList<>();
+            for (OfferStreamEvent event : log.events) {
+                if (event.id() > lastEventId) {
+                    missed.add(event);
+                }
+            }
+            return Optional.of(missed);
+        }
+    }
+
+    @Override
+    public void streamOpened(UUID applicationId) {
+    }
+
+    @Override
+    public void streamClosed(UUID applicationId) {
+    }
+
+    /**
+     * Ids and replay buffer of one application. Guarded by its own monitor.
+     */
+    private static final class EventLog {
+        private final Deque<OfferStreamEvent> events = new ArrayDeque<>();
+        private long lastId;
+        private long evictedUpTo;
+    }
+}
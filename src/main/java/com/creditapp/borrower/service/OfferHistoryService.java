@@ -8,6 +8,7 @@ import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.repository.ApplicationRepository;
 import com.creditapp.shared.model.Organization;
 import com.creditapp.shared.repository.OrganizationRepository;
+import com.creditapp.shared.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -20,7 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -80,12 +80,17 @@ public class OfferHistoryService {
             log.warn("[HISTORY] Large offer history detected for borrower {}: {} total offers", borrowerId, totalCount);
         }
         
-        // Pre-load all related applications and organizations to avoid N+1 queries
-        Map<UUID, Application> applicationCache = new HashMap<>();
-        Map<UUID, Organization> organizationCache = new HashMap<>();
+        // Load the applications and banks of the whole page with one query each
+        List<Offer> offers = offerPage.getContent();
+        Map<UUID, Application> applications = BatchLoader.of(applicationRepository::findByIdIn, Application::getId)
+            .addAll(offers, Offer::getApplicationId)
+            .load();
+        Map<UUID, Organization> organizations = BatchLoader.of(organizationRepository::findAllById, Organization::getId)
+            .addAll(offers, Offer::getBankId)
+            .load();
         
-        List<OfferHistoryRecord> records = offerPage.getContent().stream()
-            .map(offer -> mapToRecord(offer, applicationCache, organizationCache))
+        List<OfferHistoryRecord> records = offers.stream()
+            .map(offer -> mapToRecord(offer, applications.get(offer.getApplicationId()), organizations.get(offer.getBankId())))
             .collect(Collectors.toList());
 
         boolean hasMore = (offset + limit) < totalCount;
@@ -105,20 +110,9 @@ public class OfferHistoryService {
     }
 
     /**
-     * Map Offer entity to OfferHistoryRecord DTO.
-     * Uses caches to avoid N+1 queries on related entities.
+     * Map Offer entity to OfferHistoryRecord DTO with its preloaded application and bank (null when missing).
      */
-    private OfferHistoryRecord mapToRecord(Offer offer, Map<UUID, Application> appCache, Map<UUID, Organization> orgCache) {
-        // Get application details from cache or database
-        Application app = appCache.computeIfAbsent(offer.getApplicationId(), id -> 
-            applicationRepository.findById(id).orElse(null)
-        );
-
-        // Get organization (bank) details from cache or database
-        Organization org = orgCache.computeIfAbsent(offer.getBankId(), id -> 
-            organizationRepository.findById(id).orElse(null)
-        );
-
+    private OfferHistoryRecord mapToRecord(Offer offer, Application app, Organization org) {
         String bankName = org != null ? org.getName() : "Unknown Bank";
         Integer termMonths = app != null ? app.getLoanTermMonths() : null;
 
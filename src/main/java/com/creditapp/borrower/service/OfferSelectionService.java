@@ -1,9 +1,11 @@
 package com.creditapp.borrower.service;
 
+import com.creditapp.bank.event.OfferChangedEvent;
 import com.creditapp.bank.model.Offer;
 import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.borrower.dto.SelectOfferResponse;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.exception.InvalidOfferException;
 import com.creditapp.borrower.exception.OfferExpiredException;
 import com.creditapp.borrower.model.Application;
@@ -15,6 +17,7 @@ import com.creditapp.shared.repository.OrganizationRepository;
 import com.creditapp.shared.service.AuditService;
 import com.creditapp.shared.service.OfferSelectionEmailService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,19 +39,22 @@ public class OfferSelectionService {
     private final OfferSelectionEmailService emailService;
     private final AuditService auditService;
     private final NextStepsService nextStepsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OfferSelectionService(OfferRepository offerRepository,
                                 ApplicationRepository applicationRepository,
                                 OrganizationRepository organizationRepository,
                                 OfferSelectionEmailService emailService,
                                 AuditService auditService,
-                                NextStepsService nextStepsService) {
+                                NextStepsService nextStepsService,
+                                ApplicationEventPublisher eventPublisher) {
         this.offerRepository = offerRepository;
         this.applicationRepository = applicationRepository;
         this.organizationRepository = organizationRepository;
         this.emailService = emailService;
         this.auditService = auditService;
         this.nextStepsService = nextStepsService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -88,6 +94,7 @@ public class OfferSelectionService {
             prevOffer.setOfferStatus(OfferStatus.CALCULATED);
             prevOffer.setBorrowerSelectedAt(null);
             offerRepository.save(prevOffer);
+            eventPublisher.publishEvent(new OfferChangedEvent(this, prevOffer, OfferStatus.ACCEPTED));
             log.info("Previous offer deselected. OfferId: {}, Status: CALCULATED", prevOffer.getId());
             
             // Log audit event for deselection
@@ -101,14 +108,21 @@ public class OfferSelectionService {
                     new HashMap<>(), deselectionDetails);
         }
 
+        OfferStatus previousOfferStatus = offer.getOfferStatus();
         offer.setOfferStatus(OfferStatus.ACCEPTED);
         offer.setBorrowerSelectedAt(LocalDateTime.now());
         Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(new OfferChangedEvent(this, offer, previousOfferStatus));
         log.info("Offer selected by borrower. OfferId: {}, Status: ACCEPTED, SelectedAt: {}", 
                 offerId, savedOffer.getBorrowerSelectedAt());
 
+        ApplicationStatus previousStatus = application.getStatus();
         application.setStatus(ApplicationStatus.ACCEPTED);
         applicationRepository.save(application);
+        if (previousStatus != ApplicationStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId, previousStatus,
+                    ApplicationStatus.ACCEPTED));
+        }
         log.info("Application status updated to ACCEPTED. ApplicationId: {}", applicationId);
 
         // Log comprehensive audit event for offer selection
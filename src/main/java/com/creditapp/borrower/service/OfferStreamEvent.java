@@ -0,0 +1,8 @@
+package com.creditapp.borrower.service;
+
+/**
+ * One event of an application's offer stream: its id in the application's event sequence (0 when none could be
+ * assigned), its SSE event name and its JSON data.
+ */
+public record OfferStreamEvent(long id, String name, String json) {
+}
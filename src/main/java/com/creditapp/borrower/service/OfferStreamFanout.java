@@ -0,0 +1,49 @@
+package com.creditapp.borrower.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Carries borrower offer stream events to every node that holds an open stream of the application. The node
+ * whose transaction produced an event publishes it once; each receiving node hands it to its local streams through
+ * the delivery callback registered by {@link BorrowerOfferStreamService}. Event ids and the bounded log of recent
+ * events live in the same shared store, so a client can resume with {@code Last-Event-ID} on any node.
+ */
+public interface OfferStreamFanout {
+
+    /**
+     * Register the callback that writes a received event to this node's streams of an application.
+     */
+    void setLocalDelivery(BiConsumer<UUID, OfferStreamEvent> localDelivery);
+
+    /**
+     * Number the event with the application's next event id, keep it for replay and send it to the application's
+     * streams on all nodes.
+     */
+    void publish(UUID applicationId, String name, String json);
+
+    /**
+     * Latest event id assigned for the application, or 0 when none.
+     */
+    long currentEventId(UUID applicationId);
+
+    /**
+     * Events after {@code lastEventId} in id order.
+     *
+     * @return empty when the log does not hold every event after {@code lastEventId}, in which case the client
+     * has to refetch the offers
+     */
+    Optional<List<OfferStreamEvent>> eventsSince(UUID applicationId, long lastEventId);
+
+    /**
+     * A stream of the application opened on this node.
+     */
+    void streamOpened(UUID applicationId);
+
+    /**
+     * A stream of the application closed on this node.
+     */
+    void streamClosed(UUID applicationId);
+}
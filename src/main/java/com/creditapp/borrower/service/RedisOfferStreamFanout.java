@@ -0,0 +1,196 @@
+package com.creditapp.borrower.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Cluster fan-out over Redis pub/sub with one channel per application. A node subscribes to an application's
+ * channel while it holds at least one stream of that application.
+ * <p>
+ * Event ids are per-application Redis counters. One script takes the next id, adds the event to the application's
+ * sorted set of recent events ({@code replay-buffer-size}, scored by id) and publishes it, so every event a node
+ * receives is already available for replay on every other node. Both keys expire {@code replay-ttl-seconds}
+ * after the application's last event. When Redis cannot be reached the event is still delivered, without an id,
+ * to this node's streams; streams on other nodes miss it and catch up when the borrower refetches the offers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.borrower.offer-stream.fanout", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisOfferStreamFanout implements OfferStreamFanout, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "sse:application-offers:";
+    private static final String EVENT_ID_KEY_PREFIX = "sse:application-offers-id:";
+    private static final String EVENTS_KEY_PREFIX = "sse:application-offers-events:";
+
+    /**
+     * KEYS: id counter, events sorted set. ARGV: event name, JSON data, buffer size, TTL seconds, channel.
+     * Returns the event's id.
+     */
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>("""
+            local id = redis.call('INCR', KEYS[1])
+            local event = id .. '\\n' .. ARGV[1] .. '\\n' .. ARGV[2]
+            redis.call('ZADD', KEYS[2], id, event)
+            redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[3]) + 1))
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            redis.call('EXPIRE', KEYS[2], ARGV[4])
+            redis.call('PUBLISH', ARGV[5], event)
+            return id
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final int replayBufferSize;
+    private final long replayTtlSeconds;
+
+    // applicationId -> streams of the application on this node
+    private final Map<UUID, Integer> localStreams = new ConcurrentHashMap<>();
+    // applications whose channel this node is subscribed to; guarded by itself
+    private final Set<UUID> subscribedApplications = new HashSet<>();
+    private volatile BiConsumer<UUID, OfferStreamEvent> localDelivery = (applicationId, event) -> { };
+
+    public RedisOfferStreamFanout(StringRedisTemplate redisTemplate,
+                                  @Qualifier("offerStreamListenerContainer")
+                                  RedisMessageListenerContainer listenerContainer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.borrower.offer-stream.replay-buffer-size:100}") int replayBufferSize,
+                                  @Value("${app.borrower.offer-stream.replay-ttl-seconds:86400}") long replayTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.replayBufferSize = replayBufferSize;
+        this.replayTtlSeconds = replayTtlSeconds;
+    }
+
+    @Override
+    public void setLocalDelivery(BiConsumer<UUID, OfferStreamEvent> localDelivery) {
+        this.localDelivery = localDelivery;
+    }
+
+    @Override
+    public void publish(UUID applicationId, String name, String json) {
+        try {
+            redisTemplate.execute(PUBLISH_SCRIPT,
+                    List.of(EVENT_ID_KEY_PREFIX + applicationId, EVENTS_KEY_PREFIX + applicationId), name, json,
+                    String.valueOf(replayBufferSize), String.valueOf(replayTtlSeconds), CHANNEL_PREFIX + applicationId);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("creditapp.borrower.offer-stream.fanout.publish.failures").increment();
+            log.warn("Redis publish failed for offer stream of application {}; delivering to local streams only: {}",
+                    applicationId, e.getMessage());
+            localDelivery.accept(applicationId, new OfferStreamEvent(0, name, json));
+        }
+    }
+
+    @Override
+    public long currentEventId(UUID applicationId) {
+        String id = redisTemplate.opsForValue().get(EVENT_ID_KEY_PREFIX + applicationId);
+        return id == null ? 0 : Long.parseLong(id);
+    }
+
+    @Override
+    public Optional<List<OfferStreamEvent>> eventsSince(UUID applicationId, long lastEventId) {
+        Set<String> entries = redisTemplate.opsForZSet()
+                .rangeByScore(EVENTS_KEY_PREFIX + applicationId, lastEventId + 1, Double.POSITIVE_INFINITY);
+        if (entries == null || entries.isEmpty()) {
+            // Nothing kept after the id: the client is current only if no later id was assigned
+            return lastEventId == currentEventId(applicationId) ? Optional.of(List.of()) : Optional.empty();
+        }
+        List<OfferStreamEvent> missed = new ArrayList<>(entries.size());
+        long expected = lastEventId + 1;
+        for (String entry : entries) {
+            OfferStreamEvent event = parse(entry);
+            if (event == null || event.id() != expected) {
+                return Optional.empty();
+            }
+            missed.add(event);
+            expected++;
+        }
+        return Optional.of(missed);
+    }
+
+    @Override
+    public void streamOpened(UUID applicationId) {
+        localStreams.merge(applicationId, 1, Integer::sum);
+        syncSubscription(applicationId);
+    }
+
+    @Override
+    public void streamClosed(UUID applicationId) {
+        localStreams.computeIfPresent(applicationId, (id, count) -> count > 1 ? count - 1 : null);
+        syncSubscription(applicationId);
+    }
+
+    /**
+     * Brings the application's channel subscription in line with its local stream count, serialized so an
+     * interleaved open and close always settle on the subscription state of the latest count.
+     */
+    private void syncSubscription(UUID applicationId) {
+        synchronized (subscribedApplications) {
+            boolean wanted = localStreams.containsKey(applicationId);
+            if (wanted == subscribedApplications.contains(applicationId)) {
+                return;
+            }
+            ChannelTopic topic = new ChannelTopic(CHANNEL_PREFIX + applicationId);
+            if (wanted) {
+                listenerContainer.addMessageListener(this, topic);
+                subscribedApplications.add(applicationId);
+            } else {
+                listenerContainer.removeMessageListener(this, topic);
+                subscribedApplications.remove(applicationId);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        if (!channel.startsWith(CHANNEL_PREFIX)) {
+            return;
+        }
+        OfferStreamEvent event = parse(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (event == null) {
+            log.warn("Ignoring malformed offer stream event on {}", channel);
+            return;
+        }
+        localDelivery.accept(UUID.fromString(channel.substring(CHANNEL_PREFIX.length())), event);
+    }
+
+    /**
+     * Reads the {@code id\nname\njson} layout the publish script writes.
+     */
+    private static OfferStreamEvent parse(String entry) {
+        int idEnd = entry.indexOf('\n');
+        int nameEnd = idEnd < 0 ? -1 : entry.indexOf('\n', idEnd + 1);
+        if (nameEnd < 0) {
+            return null;
+        }
+        try {
+            return new OfferStreamEvent(Long.parseLong(entry, 0, idEnd, 10), entry.substring(idEnd + 1, nameEnd),
+                    entry.substring(nameEnd + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.creditapp.borrower.service;
 
 import com.creditapp.borrower.dto.WithdrawApplicationRequest;
 import com.creditapp.borrower.dto.WithdrawApplicationResponse;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
 import com.creditapp.borrower.exception.ApplicationNotWithdrawableException;
 import com.creditapp.borrower.exception.ApplicationNotFoundException;
 import com.creditapp.borrower.model.Application;
@@ -10,6 +11,7 @@ import com.creditapp.borrower.repository.ApplicationRepository;
 import com.creditapp.shared.model.AuditAction;
 import com.creditapp.shared.service.AuditService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class WithdrawApplicationService {
     private final ApplicationRepository applicationRepository;
     private final ApplicationStatusTransitionService statusTransitionService;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Withdraw an application.
@@ -78,6 +81,8 @@ public class WithdrawApplicationService {
         application.setUpdatedAt(LocalDateTime.now());
 
         applicationRepository.save(application);
+        eventPublisher.publishEvent(new ApplicationStatusChangedEvent(this, applicationId, currentStatus,
+                ApplicationStatus.WITHDRAWN));
 
         // Log audit event
         auditService.logAction("Application", applicationId, AuditAction.APPLICATION_WITHDRAWN, borrowerId, "BORROWER");
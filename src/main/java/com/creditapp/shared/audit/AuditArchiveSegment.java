@@ -0,0 +1,30 @@
+package com.creditapp.shared.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Manifest of one exported audit log segment, stored next to the segment as {@code <key>.manifest.json}.
+ * <p>
+ * The segment holds the {@code rowCount} rows of {@code sourceTable} with ids in {@code [firstId, lastId]} and
+ * {@code created_at} before {@code cutoff}, in id order, as gzip-compressed NDJSON. {@code sha256} covers the
+ * compressed object as stored, {@code contentSha256} the uncompressed NDJSON; both are Base64.
+ */
+public record AuditArchiveSegment(
+    String key,
+    String sourceTable,
+    LocalDateTime cutoff,
+    long rowCount,
+    long firstId,
+    long lastId,
+    LocalDateTime firstCreatedAt,
+    LocalDateTime lastCreatedAt,
+    long compressedBytes,
+    String sha256,
+    String contentSha256,
+    LocalDateTime exportedAt
+) {
+
+    public String manifestKey() {
+        return key + ".manifest.json";
+    }
+}
@@ -0,0 +1,18 @@
+package com.creditapp.shared.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Long-term store for exported audit log segments and their manifests. Selected with
+ * {@code app.audit.export.storage}: {@code s3} (object storage) or {@code local} (filesystem, tests and
+ * single-node installs).
+ */
+public interface AuditArchiveStorage {
+
+    /**
+     * Store the file's content under the key, replacing an earlier object with the same key. Returns only once
+     * the object is durable; {@code sha256} is the Base64 SHA-256 of the content for backends that verify it.
+     */
+    void put(String key, Path source, String sha256) throws IOException;
+}
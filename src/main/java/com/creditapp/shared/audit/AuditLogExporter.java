@@ -0,0 +1,333 @@
+package com.creditapp.shared.audit;
+
+import com.creditapp.shared.service.AuditLogPartitionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports audit logs past the retention cutoff to {@link AuditArchiveStorage} and purges them afterwards.
+ * <p>
+ * Rows are read in id order through a server-side cursor ({@code fetch-size} rows per round trip) and streamed
+ * straight into a gzip-compressed NDJSON segment file of at most {@code segment-rows} rows, so memory use does
+ * not depend on the backlog. Each segment is stored with a manifest ({@link AuditArchiveSegment}) carrying its
+ * id and time range and checksums. Only once both are durable are the segment's rows deleted, in transactions
+ * of at most {@code delete-chunk-size} rows. A crash between storing and purging re-exports the same range
+ * under the same key on the next run.
+ * <p>
+ * Each purged chunk is recorded in audit_log_purges in the transaction that deletes it (V47). Chunks are split
+ * at the checkpoint boundaries of the hash chain, so {@link com.creditapp.shared.service.AuditLogIntegrityService}
+ * can account for every sealed row as either still present or purged after export.
+ * <p>
+ * On the partitioned PostgreSQL schema the source is audit_logs_archive, where {@link AuditLogPartitionService}
+ * attaches partitions past retention. The archive's immutability trigger rejects deletes from the application
+ * role, so the purge goes through purge_exported_audit_logs(), which runs as the dedicated purger role (V46).
+ * Elsewhere (H2 in tests) rows are exported from and deleted in audit_logs directly.
+ */
+@Service
+@Slf4j
+public class AuditLogExporter {
+
+    private static final String SELECT_SQL_TEMPLATE =
+        "SELECT id, entity_type, entity_id, action, actor_id, actor_role, old_values, new_values, ip_address, "
+            + "user_agent, result, created_at FROM %s WHERE created_at < ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String COUNT_SQL_TEMPLATE =
+        "SELECT COUNT(*) FROM %s WHERE id BETWEEN ? AND ? AND created_at < ?";
+    private static final String DELETE_SQL_TEMPLATE =
+        "DELETE FROM %1$s WHERE id IN (SELECT id FROM %1$s WHERE id BETWEEN ? AND ? AND created_at < ? ORDER BY id LIMIT ?)";
+    private static final String PURGE_FUNCTION_SQL = "SELECT purge_exported_audit_logs(?, ?, ?, ?)";
+    private static final String CHECKPOINTS_SQL = "SELECT seq, last_id FROM audit_log_checkpoints "
+        + "WHERE last_id >= ? AND first_id <= ? ORDER BY seq";
+    private static final String RECORD_PURGE_SQL = "INSERT INTO audit_log_purges "
+        + "(checkpoint_seq, segment_key, first_id, last_id, row_count, purged_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final AuditArchiveStorage storage;
+    private final AuditLogPartitionService auditLogPartitionService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int segmentRows;
+    private final int deleteChunkSize;
+    private final String prefix;
+
+    private final Counter exportedRows;
+    private final Counter exportedSegments;
+    private final Counter purgedRows;
+
+    /**
+     * Totals of one export run.
+     */
+    public record ExportResult(int segments, long rows) {
+    }
+
+    public AuditLogExporter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            AuditArchiveStorage storage,
+                            AuditLogPartitionService auditLogPartitionService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.audit.export.fetch-size:1000}") int fetchSize,
+                            @Value("${app.audit.export.segment-rows:100000}") int segmentRows,
+                            @Value("${app.audit.export.delete-chunk-size:5000}") int deleteChunkSize,
+                            @Value("${app.audit.export.prefix:audit-logs}") String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.storage = storage;
+        this.auditLogPartitionService = auditLogPartitionService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.segmentRows = segmentRows;
+        this.deleteChunkSize = deleteChunkSize;
+        this.prefix = prefix;
+        this.exportedRows = meterRegistry.counter("creditapp.audit.export.rows");
+        this.exportedSegments = meterRegistry.counter("creditapp.audit.export.segments");
+        this.purgedRows = meterRegistry.counter("creditapp.audit.export.purged");
+    }
+
+    /**
+     * Export and purge every row created before the cutoff, segment by segment. Stops at the first segment that
+     * cannot be stored; rows of that and later segments stay in the database for the next run.
+     */
+    public ExportResult exportOlderThan(LocalDateTime cutoff) throws IOException {
+        boolean partitioned = auditLogPartitionService.isPartitioned();
+        String table = partitioned ? "audit_logs_archive" : "audit_logs";
+        long afterId = Long.MIN_VALUE;
+        int segments = 0;
+        long rows = 0;
+        while (true) {
+            AuditArchiveSegment segment = exportSegment(table, cutoff, afterId);
+            if (segment == null) {
+                break;
+            }
+            segments++;
+            rows += segment.rowCount();
+            purge(segment, partitioned);
+            afterId = segment.lastId();
+        }
+        return new ExportResult(segments, rows);
+    }
+
+    private AuditArchiveSegment exportSegment(String table, LocalDateTime cutoff, long afterId) throws IOException {
+        Path file = Files.createTempFile("audit-segment-", ".ndjson.gz");
+        Path manifestFile = null;
+        try {
+            SegmentWriter writer = new SegmentWriter(file);
+            try (writer) {
+                readTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(String.format(SELECT_SQL_TEMPLATE, table));
+                    statement.setFetchSize(fetchSize);
+                    statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                    statement.setLong(2, afterId);
+                    statement.setInt(3, segmentRows);
+                    return statement;
+                }, (RowCallbackHandler) writer::write));
+            }
+            if (writer.rowCount == 0) {
+                return null;
+            }
+
+            String key = String.format("%s/%s/%020d-%020d.ndjson.gz", prefix, table, writer.firstId, writer.lastId);
+            AuditArchiveSegment segment = new AuditArchiveSegment(key, table, cutoff, writer.rowCount,
+                writer.firstId, writer.lastId, writer.firstCreatedAt, writer.lastCreatedAt, Files.size(file),
+                writer.sha256(), writer.contentSha256(), LocalDateTime.now());
+
+            storage.put(key, file, segment.sha256());
+            manifestFile = Files.createTempFile("audit-segment-", ".manifest.json");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(manifestFile.toFile(), segment);
+            storage.put(segment.manifestKey(), manifestFile, base64Sha256(Files.readAllBytes(manifestFile)));
+
+            exportedRows.increment(segment.rowCount());
+            exportedSegments.increment();
+            log.info("Exported audit log segment {} ({} rows, ids {}..{})", key, segment.rowCount(),
+                segment.firstId(), segment.lastId());
+            return segment;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(file);
+            if (manifestFile != null) {
+                Files.deleteIfExists(manifestFile);
+            }
+        }
+    }
+
+    /**
+     * Delete the rows of a stored segment in bounded chunks, one checkpoint range after another. Skipped when the
+     * range no longer holds exactly the exported rows (e.g. a partition was attached to the archive meanwhile),
+     * so nothing unexported is removed.
+     */
+    private void purge(AuditArchiveSegment segment, boolean partitioned) {
+        String table = segment.sourceTable();
+        Timestamp cutoff = Timestamp.valueOf(segment.cutoff());
+        Long present = jdbcTemplate.queryForObject(String.format(COUNT_SQL_TEMPLATE, table), Long.class,
+            segment.firstId(), segment.lastId(), cutoff);
+        if (present == null || present != segment.rowCount()) {
+            log.warn("Not purging audit log segment {}: {} rows in range, {} exported", segment.key(), present,
+                segment.rowCount());
+            return;
+        }
+        List<SealedRange> sealedRanges = jdbcTemplate.query(CHECKPOINTS_SQL,
+            (rs, rowNum) -> new SealedRange(rs.getLong("seq"), rs.getLong("last_id")), segment.firstId(),
+            segment.lastId());
+        long fromId = segment.firstId();
+        for (SealedRange sealedRange : sealedRanges) {
+            long throughId = Math.min(sealedRange.lastId(), segment.lastId());
+            purgeRange(segment, sealedRange.checkpointSeq(), fromId, throughId, partitioned);
+            fromId = throughId + 1;
+        }
+        if (fromId <= segment.lastId()) {
+            // Not sealed yet
+            purgeRange(segment, null, fromId, segment.lastId(), partitioned);
+        }
+    }
+
+    private void purgeRange(AuditArchiveSegment segment, Long checkpointSeq, long fromId, long throughId,
+                            boolean partitioned) {
+        String deleteSql = String.format(DELETE_SQL_TEMPLATE, segment.sourceTable());
+        Timestamp cutoff = Timestamp.valueOf(segment.cutoff());
+        int deleted;
+        do {
+            deleted = writeTransaction.execute(status -> {
+                int rows = partitioned
+                    ? jdbcTemplate.queryForObject(PURGE_FUNCTION_SQL, Integer.class, fromId, throughId, cutoff,
+                        deleteChunkSize)
+                    : jdbcTemplate.update(deleteSql, fromId, throughId, cutoff, deleteChunkSize);
+                if (rows > 0) {
+                    jdbcTemplate.update(RECORD_PURGE_SQL, checkpointSeq, segment.key(), fromId, throughId, rows,
+                        Timestamp.valueOf(LocalDateTime.now()));
+                }
+                return rows;
+            });
+            purgedRows.increment(deleted);
+        } while (deleted > 0);
+    }
+
+    /**
+     * The checkpoint sealing the rows up to {@code lastId}.
+     */
+    private record SealedRange(long checkpointSeq, long lastId) {
+    }
+
+    private static String base64Sha256(byte[] content) {
+        return Base64.getEncoder().encodeToString(sha256Digest().digest(content));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Streams rows into a gzip NDJSON file, digesting the compressed and the uncompressed bytes on the way.
+     */
+    private final class SegmentWriter implements AutoCloseable {
+        private final MessageDigest fileDigest = sha256Digest();
+        private final MessageDigest contentDigest = sha256Digest();
+        private final OutputStream out;
+        private final JsonGenerator generator;
+
+        private long rowCount;
+        private long firstId;
+        private long lastId;
+        private LocalDateTime firstCreatedAt;
+        private LocalDateTime lastCreatedAt;
+
+        private SegmentWriter(Path file) throws IOException {
+            OutputStream fileOut = new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)), fileDigest);
+            this.out = new DigestOutputStream(new GZIPOutputStream(fileOut, 64 * 1024), contentDigest);
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        private void write(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", id);
+                generator.writeStringField("entity_type", rs.getString("entity_type"));
+                generator.writeStringField("entity_id", rs.getString("entity_id"));
+                generator.writeStringField("action", rs.getString("action"));
+                generator.writeStringField("actor_id", rs.getString("actor_id"));
+                generator.writeStringField("actor_role", rs.getString("actor_role"));
+                writeJsonField("old_values", rs.getString("old_values"));
+                writeJsonField("new_values", rs.getString("new_values"));
+                generator.writeStringField("ip_address", rs.getString("ip_address"));
+                generator.writeStringField("user_agent", rs.getString("user_agent"));
+                generator.writeStringField("result", rs.getString("result"));
+                generator.writeStringField("created_at", createdAt.toString());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (rowCount == 0) {
+                firstId = id;
+                firstCreatedAt = createdAt;
+            }
+            lastId = id;
+            lastCreatedAt = createdAt;
+            rowCount++;
+        }
+
+        private void writeJsonField(String name, String json) throws IOException {
+            generator.writeFieldName(name);
+            if (json == null) {
+                generator.writeNull();
+            } else {
+                generator.writeRawValue(json);
+            }
+        }
+
+        private String sha256() {
+            return Base64.getEncoder().encodeToString(fileDigest.digest());
+        }
+
+        private String contentSha256() {
+            return Base64.getEncoder().encodeToString(contentDigest.digest());
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package com.creditapp.shared.audit;
+
+import com.creditapp.shared.model.AuditLog;
+import com.creditapp.shared.service.AuditLogPartitionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers {@link AuditLog} rows in memory and writes them with JDBC batch inserts from a single flusher thread,
+ * so recording an audit event costs the caller one queue append.
+ * <p>
+ * The flusher runs every {@code flush-interval-ms}, and as soon as {@code batch-size} rows are waiting. Ids come
+ * from the table's sequence default, so inserts batch without reading keys back. Rows that do not fit in the
+ * buffer ({@code capacity}), or whose batch fails to insert, are appended to NDJSON segment files in
+ * {@code spill-dir} and replayed once the buffer has room again, including after a restart. On shutdown the
+ * buffer is drained, and spilled if the database is unavailable, so no accepted row is dropped.
+ * <p>
+ * Every row gets an idempotency key when it is submitted, and inserts skip keys that are already present, so a
+ * segment that was partly written before a crash can be replayed in full. A batch rejected because no audit_logs
+ * partition covers a row's month has that month's partition created (see {@link AuditLogPartitionService}); rows
+ * of a month whose partition was already moved to the archive cannot be written any more and are set aside in
+ * {@code spill-dir/rejected} instead of being retried forever.
+ */
+@Service
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL_TEMPLATE =
+        "INSERT INTO audit_logs (entity_type, entity_id, action, actor_id, actor_role, old_values, new_values, "
+            + "ip_address, user_agent, result, created_at, idempotency_key) "
+            + "VALUES (?, ?, ?, ?, ?, %s, %s, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SPILL_SUFFIX = ".ndjson";
+    private static final String REJECTED_DIR = "rejected";
+    // check_violation, raised by PostgreSQL for a row outside every partition's bounds
+    private static final String NO_PARTITION_STATE = "23514";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AuditLogPartitionService partitionService;
+    private final TaskScheduler flusher;
+    private final boolean asyncEnabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Path spillDir;
+
+    private final Queue<AuditLog> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong spillSequence = new AtomicLong();
+    private final ScheduledFuture<?> flushSchedule;
+
+    private final Object spillLock = new Object();
+    private BufferedWriter spillWriter;
+    private Path spillSegment;
+
+    private volatile String insertSql;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          AuditLogPartitionService partitionService,
+                          @Qualifier("auditFlushScheduler") TaskScheduler flusher,
+                          @Value("${app.audit.writer.async-enabled:true}") boolean asyncEnabled,
+                          @Value("${app.audit.writer.capacity:100000}") int capacity,
+                          @Value("${app.audit.writer.batch-size:500}") int batchSize,
+                          @Value("${app.audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+                          @Value("${app.audit.writer.spill-dir:data/audit-spill}") String spillDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.partitionService = partitionService;
+        this.flusher = flusher;
+        this.asyncEnabled = asyncEnabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.spillDir = Paths.get(spillDir);
+
+        Gauge.builder("creditapp.audit.buffer.size", buffered, AtomicInteger::get)
+            .description("Audit rows waiting to be written")
+            .register(meterRegistry);
+        flushSchedule = asyncEnabled
+            ? flusher.scheduleWithFixedDelay(this::flushQuietly, Instant.now().plusMillis(flushIntervalMillis),
+                Duration.ofMillis(flushIntervalMillis))
+            : null;
+    }
+
+    /**
+     * Accept a row for writing. Never blocks on the database; with async writes disabled (tests) the row is
+     * inserted immediately, in the caller's transaction if there is one.
+     */
+    public void submit(AuditLog auditLog) {
+        if (auditLog.getCreatedAt() == null) {
+            auditLog.setCreatedAt(LocalDateTime.now());
+        }
+        if (auditLog.getIdempotencyKey() == null) {
+            auditLog.setIdempotencyKey(UUID.randomUUID());
+        }
+        if (!asyncEnabled) {
+            insert(List.of(auditLog));
+            return;
+        }
+        if (buffered.incrementAndGet() > capacity) {
+            buffered.decrementAndGet();
+            spill(List.of(auditLog));
+            return;
+        }
+        buffer.add(auditLog);
+        if (buffered.get() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(this::flushQuietly, Instant.now());
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final drain picks the row up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Write everything buffered in batches, then replay spilled segments while the buffer has room.
+     * Runs on the flusher thread, and once more on shutdown.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (true) {
+            AuditLog auditLog;
+            while (batch.size() < batchSize && (auditLog = buffer.poll()) != null) {
+                batch.add(auditLog);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            buffered.addAndGet(-batch.size());
+            if (!write(batch)) {
+                // Keep the rest for the next cycle; the database is likely unavailable
+                return;
+            }
+            batch.clear();
+        }
+        if (buffered.get() < capacity / 2) {
+            replaySpilled();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushSchedule != null) {
+            flushSchedule.cancel(false);
+        }
+        // Waits for a flush in progress on the flusher thread
+        flush();
+        // Anything still buffered could not be written; keep it for the next start
+        List<AuditLog> remaining = new ArrayList<>();
+        AuditLog auditLog;
+        while ((auditLog = buffer.poll()) != null) {
+            remaining.add(auditLog);
+        }
+        buffered.set(0);
+        spill(remaining);
+        synchronized (spillLock) {
+            closeSpillSegment();
+        }
+    }
+
+    public int pendingCount() {
+        return buffered.get();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Audit flush failed", e);
+        }
+    }
+
+    /**
+     * Insert a batch, spilling it to disk if the insert fails.
+     *
+     * @return whether the batch reached the database
+     */
+    private boolean write(List<AuditLog> batch) {
+        try {
+            insertRouted(batch);
+            meterRegistry.counter("creditapp.audit.written").increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("creditapp.audit.failed").increment(batch.size());
+            log.error("Failed to write batch of {} audit logs; spilling to {}", batch.size(), spillDir, e);
+            spill(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Insert a batch from the flusher or a replay. When rows fall outside every audit_logs partition, their
+     * months' partitions are created and the rows inserted again; rows of archived months are rejected.
+     */
+    private void insertRouted(List<AuditLog> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            if (!isMissingPartition(e)) {
+                throw e;
+            }
+            Map<YearMonth, List<AuditLog>> byMonth = new TreeMap<>();
+            for (AuditLog auditLog : batch) {
+                byMonth.computeIfAbsent(YearMonth.from(auditLog.getCreatedAt()), month -> new ArrayList<>())
+                    .add(auditLog);
+            }
+            List<AuditLog> unwritable = new ArrayList<>();
+            for (List<AuditLog> rows : byMonth.values()) {
+                if (partitionService.ensurePartitionFor(rows.get(0).getCreatedAt())) {
+                    insert(rows);
+                } else {
+                    unwritable.addAll(rows);
+                }
+            }
+            reject(unwritable);
+        }
+    }
+
+    private static boolean isMissingPartition(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    if (NO_PARTITION_STATE.equals(next.getSQLState())
+                            && String.valueOf(next.getMessage()).contains("no partition")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set aside rows that can no longer be written to audit_logs. They are kept for review in their own segment
+     * under {@code spill-dir/rejected}, which is never replayed.
+     *
+     * @throws IllegalStateException if the rows could not be written to disk, so the caller spills them again
+     */
+    private void reject(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        Path segment = spillDir.resolve(REJECTED_DIR).resolve(
+            "audit-" + System.currentTimeMillis() + "-" + spillSequence.incrementAndGet() + SPILL_SUFFIX);
+        try {
+            Files.createDirectories(segment.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8)) {
+                for (AuditLog auditLog : auditLogs) {
+                    writer.write(objectMapper.writeValueAsString(auditLog));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to set aside " + auditLogs.size() + " unwritable audit logs", e);
+        }
+        meterRegistry.counter("creditapp.audit.rejected").increment(auditLogs.size());
+        log.error("{} audit logs belong to months whose partition was moved to audit_logs_archive; set aside in {}",
+            auditLogs.size(), segment);
+    }
+
+    private void insert(List<AuditLog> batch) {
+        jdbcTemplate.batchUpdate(insertSql(), batch, batch.size(), (ps, auditLog) -> {
+            ps.setString(1, auditLog.getEntityType());
+            ps.setObject(2, auditLog.getEntityId());
+            ps.setString(3, auditLog.getAction().name());
+            ps.setObject(4, auditLog.getActorId());
+            ps.setString(5, auditLog.getActorRole());
+            setJson(ps, 6, auditLog.getOldValues());
+            setJson(ps, 7, auditLog.getNewValues());
+            ps.setString(8, auditLog.getIpAddress());
+            ps.setString(9, auditLog.getUserAgent());
+            ps.setString(10, auditLog.getResult());
+            ps.setTimestamp(11, Timestamp.valueOf(auditLog.getCreatedAt()));
+            ps.setObject(12, auditLog.getIdempotencyKey());
+        });
+    }
+
+    private void setJson(PreparedStatement ps, int index, Map<String, Object> values) throws SQLException {
+        if (values == null) {
+            ps.setNull(index, Types.VARCHAR);
+            return;
+        }
+        try {
+            ps.setString(index, objectMapper.writeValueAsString(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit values are not serializable", e);
+        }
+    }
+
+    /**
+     * Append rows to the current spill segment. Segments are only read back after they are closed.
+     */
+    private boolean spill(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return true;
+        }
+        synchronized (spillLock) {
+            try {
+                if (spillWriter == null) {
+                    Files.createDirectories(spillDir);
+                    spillSegment = spillDir.resolve(
+                        "audit-" + System.currentTimeMillis() + "-" + spillSequence.incrementAndGet() + SPILL_SUFFIX);
+                    spillWriter = Files.newBufferedWriter(spillSegment, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (AuditLog auditLog : auditLogs) {
+                    spillWriter.write(objectMapper.writeValueAsString(auditLog));
+                    spillWriter.newLine();
+                }
+                spillWriter.flush();
+                meterRegistry.counter("creditapp.audit.spilled").increment(auditLogs.size());
+                return true;
+            } catch (IOException e) {
+                meterRegistry.counter("creditapp.audit.dropped").increment(auditLogs.size());
+                log.error("Failed to spill {} audit logs to {}; they are lost", auditLogs.size(), spillDir, e);
+                return false;
+            }
+        }
+    }
+
+    private void closeSpillSegment() {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit spill segment {}", spillSegment, e);
+        }
+        spillWriter = null;
+        spillSegment = null;
+    }
+
+    /**
+     * Write spilled segments back in batches, oldest first. A segment is deleted once all of its rows are
+     * written; if a batch fails, the unwritten rows move to a new segment. Rows already inserted before a crash
+     * are skipped by their idempotency key.
+     */
+    private void replaySpilled() {
+        if (!Files.isDirectory(spillDir)) {
+            return;
+        }
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spillDir, "*" + SPILL_SUFFIX)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            log.warn("Failed to list audit spill segments in {}", spillDir, e);
+            return;
+        }
+        if (segments.isEmpty()) {
+            return;
+        }
+        // Close the open segment so every listed one is complete; later spills start a new segment
+        synchronized (spillLock) {
+            closeSpillSegment();
+        }
+        segments.sort(null);
+        for (Path segment : segments) {
+            if (!replaySegment(segment)) {
+                return;
+            }
+        }
+    }
+
+    private boolean replaySegment(Path segment) {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        boolean written = true;
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while (written && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, AuditLog.class));
+                if (batch.size() == batchSize) {
+                    written = replayBatch(batch, reader);
+                }
+            }
+            if (written && !batch.isEmpty()) {
+                written = replayBatch(batch, reader);
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay audit spill segment {}", segment, e);
+            return false;
+        }
+        try {
+            Files.delete(segment);
+        } catch (IOException e) {
+            log.error("Failed to delete replayed audit spill segment {}", segment, e);
+            return false;
+        }
+        return written;
+    }
+
+    /**
+     * Insert a replayed batch. On failure the batch and the segment's unread rows move to a new segment.
+     *
+     * @return whether the batch reached the database
+     * @throws IOException if the unwritten rows could not be spilled again, so the segment must be kept
+     */
+    private boolean replayBatch(List<AuditLog> batch, BufferedReader rest) throws IOException {
+        try {
+            insertRouted(batch);
+            meterRegistry.counter("creditapp.audit.replayed").increment(batch.size());
+            batch.clear();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Database still unavailable for spilled audit logs: {}", e.getMessage());
+            List<AuditLog> unwritten = new ArrayList<>(batch);
+            String line;
+            while ((line = rest.readLine()) != null) {
+                if (!line.isBlank()) {
+                    unwritten.add(objectMapper.readValue(line, AuditLog.class));
+                }
+            }
+            synchronized (spillLock) {
+                closeSpillSegment();
+                if (!spill(unwritten)) {
+                    throw new IOException("Failed to move unwritten audit logs to a new spill segment");
+                }
+                closeSpillSegment();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * PostgreSQL needs an explicit jsonb cast for a text parameter; H2 (tests) parses it with FORMAT JSON.
+     */
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            String jsonParameter = "PostgreSQL".equalsIgnoreCase(product) ? "CAST(? AS jsonb)" : "? FORMAT JSON";
+            sql = String.format(INSERT_SQL_TEMPLATE, jsonParameter, jsonParameter);
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
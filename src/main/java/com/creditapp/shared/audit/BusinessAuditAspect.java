@@ -1,19 +1,26 @@
 package com.creditapp.shared.audit;
 
+import com.creditapp.shared.model.AuditAction;
 import com.creditapp.shared.service.AuditService;
+import com.creditapp.shared.util.IdAccessor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AOP Aspect that intercepts methods annotated with @BusinessAudit
- * and logs audit events via AuditService
+ * and logs audit events via AuditService.
+ * Entity IDs are read through {@link IdAccessor}, so no reflection runs on the advised call.
  */
 @Aspect
 @Component
@@ -23,19 +30,28 @@ public class BusinessAuditAspect {
 
     private final AuditService auditService;
 
+    // Descriptor per advised method, built on its first call
+    private final Map<Method, AuditDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * What to record for an advised method: taken from its annotation and signature once.
+     */
+    private record AuditDescriptor(String entityType, AuditAction action, String methodName) {
+    }
+
     /**
      * Log successful business operations
      */
     @AfterReturning(pointcut = "@annotation(businessAudit)", returning = "result")
     public void logBusinessAction(JoinPoint joinPoint, BusinessAudit businessAudit, Object result) {
         try {
-            UUID entityId = extractEntityId(result);
-            String entityType = businessAudit.entityType();
+            AuditDescriptor descriptor = descriptor(joinPoint, businessAudit);
+            UUID entityId = IdAccessor.idOf(result);
             
             if (entityId != null) {
-                auditService.logAction(entityType, entityId, businessAudit.action());
+                auditService.logAction(descriptor.entityType(), entityId, descriptor.action());
             } else {
-                log.warn("Could not extract entity ID from result of method: {}", joinPoint.getSignature().getName());
+                log.warn("Could not extract entity ID from result of method: {}", descriptor.methodName());
             }
         } catch (Exception e) {
             log.error("Error in BusinessAuditAspect: {}", e.getMessage(), e);
@@ -51,11 +67,11 @@ public class BusinessAuditAspect {
         try {
             // For failed operations, try to extract entity ID from method parameters
             UUID entityId = extractEntityIdFromParams(joinPoint);
-            String entityType = businessAudit.entityType();
             
             if (entityId != null) {
+                AuditDescriptor descriptor = descriptor(joinPoint, businessAudit);
                 log.warn("Business action failed - entityType: {}, action: {}, error: {}",
-                        entityType, businessAudit.action(), ex.getMessage());
+                        descriptor.entityType(), descriptor.action(), ex.getMessage());
                 // Optionally log the failure
             }
         } catch (Exception e) {
@@ -63,44 +79,15 @@ public class BusinessAuditAspect {
         }
     }
 
-    /**
-     * Try to extract entity ID from method return value
-     * Looks for getId() or id field
-     */
-    private UUID extractEntityId(Object result) {
-        if (result == null) {
-            return null;
-        }
-
-        try {
-            // Try getId() method first
-            var getIdMethod = result.getClass().getMethod("getId");
-            Object id = getIdMethod.invoke(result);
-            if (id instanceof UUID) {
-                return (UUID) id;
-            }
-        } catch (Exception e) {
-            // Method doesn't exist, try next approach
-        }
-
-        try {
-            // Try id field
-            var idField = result.getClass().getDeclaredField("id");
-            idField.setAccessible(true);
-            Object id = idField.get(result);
-            if (id instanceof UUID) {
-                return (UUID) id;
-            }
-        } catch (Exception e) {
-            // Field doesn't exist, log and return null
-        }
-
-        return null;
+    private AuditDescriptor descriptor(JoinPoint joinPoint, BusinessAudit businessAudit) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return descriptors.computeIfAbsent(method, key ->
+                new AuditDescriptor(businessAudit.entityType(), businessAudit.action(), key.getName()));
     }
 
     /**
      * Extract entity ID from method parameters
-     * Looks for first parameter with getId() method
+     * Uses the first parameter with a UUID id accessor
      */
     private UUID extractEntityIdFromParams(JoinPoint joinPoint) {
         Object[] args = joinPoint.getArgs();
@@ -109,10 +96,7 @@ public class BusinessAuditAspect {
         }
 
         for (Object arg : args) {
-            if (arg == null) {
-                continue;
-            }
-            UUID id = extractEntityId(arg);
+            UUID id = IdAccessor.idOf(arg);
             if (id != null) {
                 return id;
             }
@@ -0,0 +1,50 @@
+package com.creditapp.shared.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Filesystem archive: each object is copied next to its target, forced to disk and moved into place atomically,
+ * so a key either holds a complete object or none.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.audit.export.storage", havingValue = "local")
+public class LocalAuditArchiveStorage implements AuditArchiveStorage {
+
+    private final Path baseDir;
+
+    public LocalAuditArchiveStorage(@Value("${app.audit.export.local-dir:data/audit-archive}") String baseDir) {
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, Path source, String sha256) throws IOException {
+        Path target = baseDir.resolve(key).normalize();
+        if (!target.startsWith(baseDir)) {
+            throw new IOException("Invalid archive key: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Archived {} to {}", key, target);
+    }
+
+    public Path getBaseDir() {
+        return baseDir;
+    }
+}
@@ -0,0 +1,51 @@
+package com.creditapp.shared.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Object storage archive. S3 acknowledges a PUT only once the object is durably stored, and rejects it when the
+ * content does not match the SHA-256 sent along, so a successful put is safe to purge against.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.audit.export.storage", havingValue = "s3", matchIfMissing = true)
+public class S3AuditArchiveStorage implements AuditArchiveStorage {
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    public S3AuditArchiveStorage(S3Client s3Client,
+                                 @Value("${app.audit.export.bucket:credit-app-audit-archive}") String bucket) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void put(String key, Path source, String sha256) throws IOException {
+        PutObjectRequest request = PutObjectRequest.builder()
+            .bucket(bucket)
+            .key(key)
+            .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+            .checksumSHA256(sha256)
+            .serverSideEncryption(ServerSideEncryption.AES256)
+            .build();
+        try {
+            s3Client.putObject(request, RequestBody.fromFile(source));
+        } catch (SdkException e) {
+            throw new IOException("Failed to archive " + key + " to bucket " + bucket, e);
+        }
+        log.debug("Archived {} to bucket {}", key, bucket);
+    }
+}
@@ -0,0 +1,31 @@
+package com.creditapp.shared.config;
+
+import com.creditapp.shared.util.AmortizationKernel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the amortization kernel's strict verification setting and exposes its counters.
+ */
+@Configuration
+public class AmortizationKernelConfig {
+
+    public AmortizationKernelConfig(@Value("${app.calculation.kernel.strict-verification:false}") boolean strictVerification,
+                                    MeterRegistry meterRegistry) {
+        AmortizationKernel.setStrictMode(strictVerification);
+
+        FunctionCounter.builder("creditapp.calculation.kernel.verifications", AmortizationKernel.class,
+                k -> AmortizationKernel.verificationCount())
+            .description("Kernel results cross-checked against the BigDecimal path")
+            .register(meterRegistry);
+        FunctionCounter.builder("creditapp.calculation.kernel.divergences", AmortizationKernel.class,
+                k -> AmortizationKernel.divergenceCount())
+            .description("Kernel results that differed from the BigDecimal path after rounding")
+            .register(meterRegistry);
+        Gauge.builder("creditapp.calculation.kernel.cached-rates", AmortizationKernel::cachedRateCount)
+            .register(meterRegistry);
+    }
+}
@@ -1,10 +1,14 @@
 package com.creditapp.shared.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -33,4 +37,111 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Bounded pool used by OfferCalculationService to fan out per-bank calculations.
+     * When saturated, submissions are rejected (AbortPolicy) and the caller drops that bank's offer; running
+     * it on the caller would bypass the per-bank deadline.
+     */
+    @Bean(name = "offerCalculationExecutor")
+    public Executor offerCalculationExecutor(
+            @Value("${app.offer.calculation.pool-size:8}") int poolSize,
+            @Value("${app.offer.calculation.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("offer-calc-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single worker for market-wide offer recalculation after rate card changes, so runs never overlap.
+     */
+    @Bean(name = "offerRecalculationExecutor")
+    public Executor offerRecalculationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("offer-recalc-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes queued WebSocket messages to bank sessions. Callers never wait on it: a full queue leaves the
+     * messages buffered per session until a retry on the WebSocket scheduler gets another drain through.
+     */
+    @Bean(name = "webSocketBroadcastExecutor")
+    public Executor webSocketBroadcastExecutor(
+            @Value("${app.websocket.broadcast.pool-size:8}") int poolSize,
+            @Value("${app.websocket.broadcast.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ws-broadcast-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Scheduler of the {@code @Scheduled} jobs, declared here because the WebSocket scheduler below would otherwise
+     * replace Spring Boot's default one for them.
+     */
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Short timers of the push channels, such as retrying a WebSocket session or borrower offer stream drain its
+     * executor rejected, and closing queue delta windows. Only schedules; the writes run on those executors.
+     */
+    @Bean(name = "webSocketScheduler")
+    public TaskScheduler webSocketScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-scheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Runs the audit log flusher on a single thread, so batches are written one at a time and in order. The
+     * writer drains its buffer itself when it is destroyed, which happens before this scheduler shuts down.
+     */
+    @Bean(name = "auditFlushScheduler")
+    public TaskScheduler auditFlushScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("audit-flush-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Writes queued offer stream events to borrower SSE connections, off the thread that committed the change.
+     */
+    @Bean(name = "borrowerStreamExecutor")
+    public Executor borrowerStreamExecutor(
+            @Value("${app.borrower.offer-stream.pool-size:4}") int poolSize,
+            @Value("${app.borrower.offer-stream.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("borrower-sse-");
+        executor.initialize();
+        return executor;
+    }
+}
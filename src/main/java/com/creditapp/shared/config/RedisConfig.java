@@ -1,9 +1,11 @@
 package com.creditapp.shared.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -26,4 +28,28 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Pub/sub listener for cross-node bank queue WebSocket events; channels are added and removed as bank
+     * sessions come and go (see RedisApplicationQueueFanout).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.websocket.fanout", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer applicationQueueListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Pub/sub listener for cross-node borrower offer stream events; channels are added and removed as application
+     * streams come and go (see RedisOfferStreamFanout).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.borrower.offer-stream.fanout", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer offerStreamListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
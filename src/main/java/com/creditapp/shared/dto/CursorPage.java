@@ -0,0 +1,13 @@
+package com.creditapp.shared.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result; {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -1,7 +1,6 @@
 package com.creditapp.shared.job;
 
-import com.creditapp.shared.model.AuditLog;
-import com.creditapp.shared.repository.AuditLogRepository;
+import com.creditapp.shared.audit.AuditLogExporter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,13 +8,12 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuditLogArchivalJob {
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogExporter auditLogExporter;
 
     @Value("${app.audit.retention.days:1095}")
     private Integer retentionDays;
@@ -24,11 +22,12 @@ public class AuditLogArchivalJob {
     public void archiveOldAuditLogs() {
         log.info("Starting audit log archival job. Retention: {} days", retentionDays);
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-        List<AuditLog> oldLogs = auditLogRepository.findByCreatedAtBetween(
-                LocalDateTime.of(2000, 1, 1, 0, 0), cutoffDate
-        );
-        log.info("Found {} audit logs older than retention period for archival", oldLogs.size());
-        // In production: export to S3 Glacier or data warehouse
-        // For now: just log count (deletion prevented by DB trigger)
+        try {
+            AuditLogExporter.ExportResult result = auditLogExporter.exportOlderThan(cutoffDate);
+            log.info("Exported and purged {} audit logs older than {} in {} segments",
+                    result.rows(), cutoffDate, result.segments());
+        } catch (Exception e) {
+            log.error("Audit log archival job failed; remaining logs are exported on the next run", e);
+        }
     }
-}
\ No newline at end of file
+}
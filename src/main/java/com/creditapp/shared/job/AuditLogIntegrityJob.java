@@ -0,0 +1,37 @@
+package com.creditapp.shared.job;
+
+import com.creditapp.shared.service.AuditLogIntegrityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogIntegrityJob {
+    private final AuditLogIntegrityService auditLogIntegrityService;
+
+    @Scheduled(fixedDelayString = "${app.audit.integrity.seal-interval-ms:300000}",
+            initialDelayString = "${app.audit.integrity.seal-interval-ms:300000}")
+    public void sealAndVerifyRecent() {
+        try {
+            auditLogIntegrityService.seal();
+            AuditLogIntegrityService.VerificationReport report = auditLogIntegrityService.verifyRecent();
+            log.debug("Verified {} recent audit log checkpoints ({} rows)", report.segmentsVerified(), report.rowsVerified());
+        } catch (Exception e) {
+            log.error("Audit log sealing failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.audit.integrity.full-verification-cron:0 0 4 * * SUN}") // Weekly on Sunday at 4 AM
+    public void verifyAll() {
+        try {
+            AuditLogIntegrityService.VerificationReport report = auditLogIntegrityService.verifyAll();
+            log.info("Full audit log verification: {} checkpoints, {} rows, {} exported, {} violations",
+                    report.segmentsVerified(), report.rowsVerified(), report.segmentsSkipped(), report.failures().size());
+        } catch (Exception e) {
+            log.error("Full audit log verification failed", e);
+        }
+    }
+}
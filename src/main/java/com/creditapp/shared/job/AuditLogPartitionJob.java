@@ -0,0 +1,44 @@
+package com.creditapp.shared.job;
+
+import com.creditapp.shared.service.AuditLogArchivalService;
+import com.creditapp.shared.service.AuditLogPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogPartitionJob {
+    private final AuditLogPartitionService auditLogPartitionService;
+    private final AuditLogArchivalService auditLogArchivalService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.audit.partitions.maintenance-cron:0 30 1 * * ?}") // Daily at 1:30 AM
+    public void maintainPartitions() {
+        ensurePartitions();
+        if (auditLogPartitionService.isPartitioned()) {
+            auditLogArchivalService.archiveOldAuditLogs();
+        }
+    }
+
+    private void ensurePartitions() {
+        try {
+            List<String> partitions = auditLogPartitionService.ensureUpcomingPartitions();
+            if (!partitions.isEmpty()) {
+                log.info("Audit log partitions in place: {}", partitions);
+            }
+        } catch (Exception e) {
+            log.error("Failed to create upcoming audit log partitions", e);
+        }
+    }
+}
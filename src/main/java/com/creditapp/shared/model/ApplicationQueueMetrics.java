@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ApplicationQueueMetrics {
-    private int totalApplications;
+    private Integer totalApplications; // null on cursor pages that skipped the count
     private int documentsAwaitingReview;
     private int approvedCount;
     private int rejectedCount;
@@ -17,6 +17,8 @@ import java.util.UUID;
         @Index(name = "idx_entity_type_id", columnList = "entity_type,entity_id"),
         @Index(name = "idx_actor_id", columnList = "actor_id"),
         @Index(name = "idx_created_at", columnList = "created_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_logs_idempotency_key", columnNames = {"idempotency_key", "created_at"})
 })
 @Data
 @NoArgsConstructor
@@ -63,6 +65,10 @@ public class AuditLog {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /** Assigned when the row is submitted to AuditLogWriter, so a replayed row is inserted at most once. */
+    @Column(name = "idempotency_key", updatable = false)
+    private UUID idempotencyKey;
+
     public AuditLog(String entityType, UUID entityId, AuditAction action,
                    UUID actorId, String actorRole,
                    Map<String, Object> oldValues, Map<String, Object> newValues,
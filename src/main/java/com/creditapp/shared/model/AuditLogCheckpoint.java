@@ -0,0 +1,39 @@
+package com.creditapp.shared.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running hash of the audit log chain after the row with id {@code lastId}. Checkpoint {@code seq} seals the
+ * {@code rowCount} rows with ids after the previous checkpoint's {@code lastId} up to {@code lastId}.
+ */
+@Entity
+@Table(name = "audit_log_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogCheckpoint {
+    @Id
+    private Long seq;
+
+    @Column(name = "first_id", nullable = false)
+    private Long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @Column(name = "chain_hash", nullable = false, length = 64)
+    private String chainHash;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
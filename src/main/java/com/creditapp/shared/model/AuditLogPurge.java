@@ -0,0 +1,44 @@
+package com.creditapp.shared.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code rowCount} exported rows with ids in {@code [firstId, lastId]} purged from the database after being
+ * stored in segment {@code segmentKey}. {@code checkpointSeq} is the checkpoint whose range holds those ids,
+ * or null when the rows had not been sealed yet.
+ */
+@Entity
+@Table(name = "audit_log_purges")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPurge {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "checkpoint_seq")
+    private Long checkpointSeq;
+
+    @Column(name = "segment_key", nullable = false, length = 500)
+    private String segmentKey;
+
+    @Column(name = "first_id", nullable = false)
+    private Long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @CreationTimestamp
+    @Column(name = "purged_at", nullable = false, updatable = false)
+    private LocalDateTime purgedAt;
+}
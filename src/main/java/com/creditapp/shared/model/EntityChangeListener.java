@@ -0,0 +1,47 @@
+package com.creditapp.shared.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes an {@link EntityChangedEvent} for every insert, update and delete of the
+ * entities it is registered on. Read models and caches subscribe to the event rather than registering listeners
+ * of their own on the entities.
+ * Instantiated by Hibernate through Spring's bean container; in JPA slice contexts without a publisher it is
+ * created reflectively and does nothing.
+ */
+@Component
+public class EntityChangeListener {
+
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.PERSISTED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.REMOVED);
+    }
+
+    private void publish(Object entity, EntityChangedEvent.ChangeType changeType) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new EntityChangedEvent(this, entity, changeType));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.creditapp.shared.model;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link EntityChangeListener} when Hibernate has inserted, updated or deleted an entity, during the
+ * flush and in the writing transaction. Listeners receive the managed entity itself and run before the entity's own
+ * lifecycle callbacks, so state the entity remembers from its last load or write (such as
+ * {@code Offer#getPersistedOfferStatus()}) still holds the previous values.
+ */
+public class EntityChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        PERSISTED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final Object entity;
+    private final ChangeType changeType;
+
+    public EntityChangedEvent(Object source, Object entity, ChangeType changeType) {
+        super(source);
+        this.entity = entity;
+        this.changeType = changeType;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "organizations")
 @Data
 @Builder
@@ -4,10 +4,13 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(EntityChangeListener.class)
 public class User {
 
     @Id
@@ -56,6 +59,10 @@ public class User {
     @Column(name = "enabled", nullable = false)
     private Boolean enabled = true;
 
+    /** Name, email and phones as last loaded from or written to the database; null for a new entity. */
+    @Transient
+    private List<String> persistedContact;
+
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
     public String getEmail() { return email; }
@@ -84,4 +91,24 @@ public class User {
     public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
     public Boolean getEnabled() { return enabled; }
     public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+
+    /**
+     * Whether the name, email or phones differ from the values last loaded from or written to the database;
+     * false for a new entity.
+     */
+    public boolean isContactChanged() {
+        return persistedContact != null && !persistedContact.equals(contact());
+    }
+
+    private List<String> contact() {
+        return Arrays.asList(firstName, lastName, email, phone, phoneNumber);
+    }
+
+    // Entity listener callbacks run before this one, so they still see the previous contact details
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedContact() {
+        this.persistedContact = contact();
+    }
 }
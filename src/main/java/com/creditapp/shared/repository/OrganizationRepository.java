@@ -1,9 +1,11 @@
 package com.creditapp.shared.repository;
 
+import com.creditapp.shared.model.BankStatus;
 import com.creditapp.shared.model.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +14,5 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
     Optional<Organization> findByRegistrationNumber(String registrationNumber);
     Optional<Organization> findByActivationToken(String activationToken);
     Optional<Organization> findByName(String name);
+    List<Organization> findByStatus(BankStatus status);
 }
\ No newline at end of file
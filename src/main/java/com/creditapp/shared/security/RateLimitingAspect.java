@@ -1,6 +1,7 @@
 package com.creditapp.shared.security;
 
 import com.creditapp.shared.exception.RateLimitExceededException;
+import com.creditapp.shared.util.IdAccessor;
 import com.creditapp.shared.util.RateLimiter;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
@@ -83,15 +84,7 @@ public class RateLimitingAspect {
             }
         }
         
-        // If principal is a UserDetails-like object with getId() method
-        try {
-            if (principal.getClass().getMethod("getId").getReturnType() == UUID.class) {
-                return (UUID) principal.getClass().getMethod("getId").invoke(principal);
-            }
-        } catch (Exception e) {
-            // Method doesn't exist or invocation failed
-        }
-
-        return null;
+        // If principal is a UserDetails-like object with a UUID id (accessor cached per class)
+        return IdAccessor.idOf(principal);
     }
 }
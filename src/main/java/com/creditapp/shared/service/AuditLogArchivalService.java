@@ -8,28 +8,41 @@ import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * Moves audit logs past the retention period to audit_logs_archive. On the partitioned PostgreSQL table whole
+ * monthly partitions are detached and attached to the archive; elsewhere rows are copied and deleted.
+ */
 @Slf4j
 @Service
 @Transactional
 public class AuditLogArchivalService {
     private final EntityManager entityManager;
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogPartitionService auditLogPartitionService;
 
-    @Value("${audit.retention.years:3}")
-    private int retentionYears;
+    @Value("${app.audit.retention.days:1095}")
+    private int retentionDays;
 
     public AuditLogArchivalService(EntityManager entityManager,
-                                   AuditLogRepository auditLogRepository) {
+                                   AuditLogRepository auditLogRepository,
+                                   AuditLogPartitionService auditLogPartitionService) {
         this.entityManager = entityManager;
         this.auditLogRepository = auditLogRepository;
+        this.auditLogPartitionService = auditLogPartitionService;
     }
 
     public void archiveOldAuditLogs() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusYears(retentionYears);
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
             log.info("Starting audit log archival for logs older than {}", cutoffDate);
 
+            if (auditLogPartitionService.isPartitioned()) {
+                List<String> partitions = auditLogPartitionService.archivePartitionsOlderThan(cutoffDate);
+                log.info("Archived {} audit log partitions to audit_logs_archive: {}", partitions.size(), partitions);
+                return;
+            }
             long rowsAffected = archiveLogsOlderThan(cutoffDate);
             log.info("Archived {} audit log entries to audit_logs_archive table", rowsAffected);
         } catch (Exception e) {
@@ -37,6 +50,9 @@ public class AuditLogArchivalService {
         }
     }
 
+    /**
+     * Row-by-row fallback for an unpartitioned audit_logs table.
+     */
     private long archiveLogsOlderThan(LocalDateTime cutoffDate) {
         String sql = "INSERT INTO audit_logs_archive (id, entity_type, entity_id, action, actor_id, actor_role, " +
                      "old_values, new_values, ip_address, user_agent, created_at) " +
@@ -1,33 +1,467 @@
 package com.creditapp.shared.service;
 
 import com.creditapp.shared.model.AuditLog;
+import com.creditapp.shared.model.AuditLogCheckpoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Tamper evidence for the audit trail through a hash chain over the rows in id order.
+ * <p>
+ * The chain hash of a row is {@code SHA-256(previous chain hash || row)}, starting from 32 zero bytes, so changing,
+ * removing, inserting or reordering any row changes every chain hash after it. {@link #seal()} extends the chain
+ * over newly committed rows and stores a {@link AuditLogCheckpoint} every {@code checkpoint-rows} rows, and at the
+ * end of each run. Rows are chained after commit rather than when written: ids and commit order are only final
+ * then, and every node runs its own writer. The chain only ever extends below ids that no open transaction can
+ * still commit.
+ * <p>
+ * Each range between two checkpoints can be verified on its own from the previous checkpoint's hash.
+ * {@link #verifyRecent()} checks only the ranges sealed since its last run, so it costs O(new rows).
+ * {@link #verifyAll()} checks every range in parallel. Rows exported and purged by AuditLogExporter are
+ * recorded per checkpoint in audit_log_purges (V47); a range with purged rows can no longer be rehashed, but the
+ * rows left plus the recorded purges must still add up to its row count. Rows missing without a purge record,
+ * such as a deleted prefix of the oldest rows, are reported as violations.
+ */
+@Slf4j
 @Service
 public class AuditLogIntegrityService {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte[] GENESIS = new byte[32];
+    private static final String ROW_COLUMNS = "id, entity_type, entity_id, action, actor_id, actor_role, "
+        + "old_values, new_values, ip_address, user_agent, result, created_at";
+    private static final String CHECKPOINT_COLUMNS = "seq, first_id, last_id, row_count, chain_hash, created_at";
+    private static final RowMapper<AuditLogCheckpoint> CHECKPOINT_MAPPER = (rs, rowNum) -> new AuditLogCheckpoint(
+        rs.getLong("seq"), rs.getLong("first_id"), rs.getLong("last_id"), rs.getInt("row_count"),
+        rs.getString("chain_hash"), rs.getTimestamp("created_at").toLocalDateTime());
+
+    /**
+     * Outcome of a verification run. Failures name the checkpoint ranges whose rows no longer match; skipped
+     * segments are ranges with exported rows, of which only the row count could be checked.
+     */
+    public record VerificationReport(int segmentsVerified, long rowsVerified, int segmentsSkipped,
+                                     List<String> failures) {
+        public boolean isValid() {
+            return failures.isEmpty();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final AuditLogPartitionService auditLogPartitionService;
+    private final int checkpointRows;
+    private final int fetchSize;
+    private final int verifyParallelism;
+    private final Duration sealBlockedWarning;
+    private final AtomicLong sealBlockedSince = new AtomicLong();
+
+    private volatile Horizon pendingHorizon;
+    private volatile long verifiedThroughSeq = -1;
+
+    public AuditLogIntegrityService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    AuditLogPartitionService auditLogPartitionService,
+                                    @Value("${app.audit.integrity.checkpoint-rows:10000}") int checkpointRows,
+                                    @Value("${app.audit.integrity.fetch-size:1000}") int fetchSize,
+                                    @Value("${app.audit.integrity.verify-parallelism:0}") int verifyParallelism,
+                                    @Value("${app.audit.integrity.seal-blocked-warning-ms:3600000}") long sealBlockedWarningMillis,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.auditLogPartitionService = auditLogPartitionService;
+        this.checkpointRows = checkpointRows;
+        this.fetchSize = fetchSize;
+        this.verifyParallelism = verifyParallelism > 0 ? verifyParallelism : Runtime.getRuntime().availableProcessors();
+        this.sealBlockedWarning = Duration.ofMillis(sealBlockedWarningMillis);
+        Gauge.builder("creditapp.audit.seal.blocked.seconds", this, service -> service.sealBlockedFor().toSeconds())
+            .description("How long sealing has been held back by a transaction open since the previous run")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Standalone hash of a single entry's identifying fields, without the chain.
+     */
     public String calculateHash(AuditLog entry) {
+        String payload = String.join("|",
+                String.valueOf(entry.getActorId()),
+                String.valueOf(entry.getAction()),
+                String.valueOf(entry.getCreatedAt()),
+                String.valueOf(entry.getEntityId())
+        );
+        return HEX.formatHex(sha256().digest(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public boolean verifyIntegrity(AuditLog entry, String expectedHash) {
+        return calculateHash(entry).equals(expectedHash);
+    }
+
+    /**
+     * Seal the rows that existed at the previous call, once no transaction that was open then is still open.
+     * A transaction that drew a lower id than the newest row seen then could still commit it behind a checkpoint;
+     * on PostgreSQL the open transactions are read from pg_stat_activity, elsewhere waiting one interval has to
+     * do. While an old transaction stays open the previous horizon is kept and nothing is sealed; how long that
+     * has lasted is exported as {@code creditapp.audit.seal.blocked.seconds} and logged as a warning once it
+     * exceeds {@code seal-blocked-warning-ms}.
+     *
+     * @return the number of checkpoints written
+     */
+    public int seal() {
+        Horizon horizon = pendingHorizon;
+        if (horizon != null && !isSettled(horizon)) {
+            sealBlockedSince.compareAndSet(0, System.currentTimeMillis());
+            Duration blocked = sealBlockedFor();
+            if (blocked.compareTo(sealBlockedWarning) > 0) {
+                log.warn("Audit log sealing has been blocked for {} minutes: a transaction open since {} is still "
+                    + "in flight", blocked.toMinutes(), horizon.capturedAt());
+            } else {
+                log.debug("Not sealing audit logs through id {}: a transaction open since {} is still in flight",
+                    horizon.maxId(), horizon.capturedAt());
+            }
+            return 0;
+        }
+        sealBlockedSince.set(0);
+        long maxId = maxId();
+        pendingHorizon = new Horizon(maxId, jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP",
+            OffsetDateTime.class));
+        return horizon == null || horizon.maxId() == Long.MIN_VALUE ? 0 : sealThrough(horizon.maxId());
+    }
+
+    /**
+     * How long {@link #seal()} has been waiting on an open transaction; zero while it is not blocked.
+     */
+    public Duration sealBlockedFor() {
+        long since = sealBlockedSince.get();
+        return since == 0 ? Duration.ZERO : Duration.ofMillis(System.currentTimeMillis() - since);
+    }
+
+    /**
+     * Whether every transaction open when the horizon was captured has ended. Any transaction that drew an id up
+     * to the horizon started before it was captured, and inserted a row, so it holds a transaction id; read-only
+     * sessions and background workers such as autovacuum cannot commit audit rows and are not waited for.
+     */
+    private boolean isSettled(Horizon horizon) {
+        if (!auditLogPartitionService.isPartitioned()) {
+            return true;
+        }
+        Long open = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_stat_activity "
+            + "WHERE datname = current_database() AND backend_type = 'client backend' AND backend_xid IS NOT NULL "
+            + "AND xact_start <= ?", Long.class, horizon.capturedAt());
+        return open != null && open == 0;
+    }
+
+    /**
+     * Extend the chain from the last checkpoint over all rows with ids up to {@code horizonId}.
+     *
+     * @return the number of checkpoints written
+     */
+    public synchronized int sealThrough(long horizonId) {
+        AuditLogCheckpoint last = lastCheckpoint();
+        long seq = last == null ? 0 : last.getSeq();
+        long afterId = last == null ? Long.MIN_VALUE : last.getLastId();
+        byte[] hash = last == null ? GENESIS : HEX.parseHex(last.getChainHash());
+        int written = 0;
+        while (afterId < horizonId) {
+            Chain chain = new Chain(hash);
+            long fromId = afterId;
+            readTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + ROW_COLUMNS + " FROM (" + sourceSql() + ") chained ORDER BY id LIMIT ?");
+                statement.setFetchSize(fetchSize);
+                bindRange(statement, fromId, horizonId);
+                statement.setInt(sourceParameterCount() + 1, checkpointRows);
+                return statement;
+            }, chain));
+            if (chain.rowCount == 0) {
+                break;
+            }
+            seq++;
+            try {
+                jdbcTemplate.update("INSERT INTO audit_log_checkpoints (" + CHECKPOINT_COLUMNS
+                        + ") VALUES (?, ?, ?, ?, ?, ?)", seq, chain.firstId, chain.lastId, (int) chain.rowCount,
+                    HEX.formatHex(chain.hash), Timestamp.valueOf(LocalDateTime.now()));
+            } catch (DuplicateKeyException e) {
+                log.info("Audit log checkpoint {} was written concurrently; sealing again on the next run", seq);
+                return written;
+            }
+            written++;
+            afterId = chain.lastId;
+            hash = chain.hash;
+        }
+        if (written > 0) {
+            log.debug("Sealed audit logs through id {} in {} checkpoints", afterId, written);
+        }
+        return written;
+    }
+
+    /**
+     * Verify the ranges sealed since the previous call; the first call after start verifies the latest range.
+     */
+    public VerificationReport verifyRecent() {
+        long from = verifiedThroughSeq;
+        if (from < 0) {
+            AuditLogCheckpoint last = lastCheckpoint();
+            if (last == null) {
+                return new VerificationReport(0, 0, 0, List.of());
+            }
+            from = last.getSeq() - 1;
+        }
+        List<AuditLogCheckpoint> checkpoints = jdbcTemplate.query("SELECT " + CHECKPOINT_COLUMNS
+            + " FROM audit_log_checkpoints WHERE seq >= ? ORDER BY seq", CHECKPOINT_MAPPER, from);
+        VerificationReport report = verify(checkpoints, from > 0);
+        if (!checkpoints.isEmpty()) {
+            verifiedThroughSeq = checkpoints.get(checkpoints.size() - 1).getSeq();
+        }
+        return report;
+    }
+
+    /**
+     * Verify every sealed range, {@code verify-parallelism} ranges at a time.
+     */
+    public VerificationReport verifyAll() {
+        List<AuditLogCheckpoint> checkpoints = jdbcTemplate.query("SELECT " + CHECKPOINT_COLUMNS
+            + " FROM audit_log_checkpoints ORDER BY seq", CHECKPOINT_MAPPER);
+        return verify(checkpoints, false);
+    }
+
+    /**
+     * @param startsAfterAnchor whether the first checkpoint only anchors the chain for the ones after it
+     */
+    private VerificationReport verify(List<AuditLogCheckpoint> checkpoints, boolean startsAfterAnchor) {
+        Map<Long, Long> purged = new HashMap<>();
+        jdbcTemplate.query("SELECT checkpoint_seq, SUM(row_count) AS purged FROM audit_log_purges "
+                + "WHERE checkpoint_seq IS NOT NULL GROUP BY checkpoint_seq",
+            (RowCallbackHandler) rs -> purged.put(rs.getLong("checkpoint_seq"), rs.getLong("purged")));
+        List<String> failures = new ArrayList<>();
+        List<Segment> segments = new ArrayList<>();
+        int skipped = 0;
+        for (int i = startsAfterAnchor ? 1 : 0; i < checkpoints.size(); i++) {
+            AuditLogCheckpoint checkpoint = checkpoints.get(i);
+            AuditLogCheckpoint previous = i == 0 ? null : checkpoints.get(i - 1);
+            if (previous != null && checkpoint.getSeq() != previous.getSeq() + 1) {
+                failures.add("Checkpoints " + (previous.getSeq() + 1) + ".." + (checkpoint.getSeq() - 1) + " are missing");
+            }
+            if (previous == null && checkpoint.getSeq() != 1) {
+                failures.add("Checkpoints 1.." + (checkpoint.getSeq() - 1) + " are missing");
+            }
+            segments.add(new Segment(checkpoint, previous == null ? Long.MIN_VALUE : previous.getLastId(),
+                previous == null ? GENESIS : HEX.parseHex(previous.getChainHash())));
+        }
+
+        long rows = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(verifyParallelism, Math.max(1, segments.size())),
+            new VerifierThreadFactory());
+        try {
+            List<Future<Chain>> results = new ArrayList<>(segments.size());
+            for (Segment segment : segments) {
+                results.add(executor.submit(() -> rehash(segment)));
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                AuditLogCheckpoint checkpoint = segments.get(i).checkpoint();
+                Chain chain = results.get(i).get();
+                long exported = purged.getOrDefault(checkpoint.getSeq(), 0L);
+                if (exported > 0) {
+                    // Partly or entirely exported: the hash cannot be recomputed, the rows must still add up
+                    skipped++;
+                    if (chain.rowCount + exported != checkpoint.getRowCount()) {
+                        failures.add("Checkpoint " + checkpoint.getSeq() + " (ids " + checkpoint.getFirstId() + ".."
+                            + checkpoint.getLastId() + "): expected " + checkpoint.getRowCount() + " rows, found "
+                            + chain.rowCount + " and " + exported + " purged after export");
+                    }
+                    continue;
+                }
+                rows += chain.rowCount;
+                if (chain.rowCount != checkpoint.getRowCount() || !HEX.formatHex(chain.hash).equals(checkpoint.getChainHash())) {
+                    failures.add("Checkpoint " + checkpoint.getSeq() + " (ids " + checkpoint.getFirstId() + ".."
+                        + checkpoint.getLastId() + "): expected " + checkpoint.getRowCount() + " rows, found "
+                        + chain.rowCount + (chain.rowCount == checkpoint.getRowCount() ? " with a different hash" : ""));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Audit log verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Audit log verification failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!failures.isEmpty()) {
+            log.error("Audit log integrity violations: {}", failures);
+        }
+        return new VerificationReport(segments.size() - skipped, rows, skipped, List.copyOf(failures));
+    }
+
+    /**
+     * Rehash every row after the previous checkpoint up to the checkpoint's last id, including rows that were
+     * inserted into the range after sealing.
+     */
+    private Chain rehash(Segment segment) {
+        Chain chain = new Chain(segment.previousHash());
+        readTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + ROW_COLUMNS + " FROM (" + sourceSql() + ") chained ORDER BY id");
+            statement.setFetchSize(fetchSize);
+            bindRange(statement, segment.afterId(), segment.checkpoint().getLastId());
+            return statement;
+        }, chain));
+        return chain;
+    }
+
+    private AuditLogCheckpoint lastCheckpoint() {
+        List<AuditLogCheckpoint> last = jdbcTemplate.query("SELECT " + CHECKPOINT_COLUMNS
+            + " FROM audit_log_checkpoints ORDER BY seq DESC LIMIT 1", CHECKPOINT_MAPPER);
+        return last.isEmpty() ? null : last.get(0);
+    }
+
+    private long maxId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM (" + unboundedSourceSql("MAX(id)") + ") ids",
+            Long.class);
+        return max == null ? Long.MIN_VALUE : max;
+    }
+
+    /**
+     * Rows with {@code afterId < id <= throughId}. Rows moved to audit_logs_archive stay part of the chain.
+     */
+    private String sourceSql() {
+        String range = "SELECT " + ROW_COLUMNS + " FROM %s WHERE id > ? AND id <= ?";
+        return auditLogPartitionService.isPartitioned()
+            ? String.format(range, "audit_logs") + " UNION ALL " + String.format(range, "audit_logs_archive")
+            : String.format(range, "audit_logs");
+    }
+
+    private String unboundedSourceSql(String aggregate) {
+        return auditLogPartitionService.isPartitioned()
+            ? "SELECT " + aggregate + " AS id FROM audit_logs UNION ALL SELECT " + aggregate + " AS id FROM audit_logs_archive"
+            : "SELECT " + aggregate + " AS id FROM audit_logs";
+    }
+
+    private int sourceParameterCount() {
+        return auditLogPartitionService.isPartitioned() ? 4 : 2;
+    }
+
+    private void bindRange(PreparedStatement statement, long afterId, long throughId) throws SQLException {
+        for (int i = 1; i <= sourceParameterCount(); i += 2) {
+            statement.setLong(i, afterId);
+            statement.setLong(i + 1, throughId);
+        }
+    }
+
+    private static MessageDigest sha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            String payload = String.join("|",
-                    String.valueOf(entry.getActorId()),
-                    String.valueOf(entry.getAction()),
-                    String.valueOf(entry.getCreatedAt()),
-                    String.valueOf(entry.getEntityId())
-            );
-            byte[] hash = digest.digest(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) sb.append(String.format("%02x", b));
-            return sb.toString();
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Hash algorithm not available", e);
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    public boolean verifyIntegrity(AuditLog entry, String expectedHash) {
-        return calculateHash(entry).equals(expectedHash);
+    private record Segment(AuditLogCheckpoint checkpoint, long afterId, byte[] previousHash) {
+    }
+
+    /**
+     * Newest row id seen by {@link #seal()}, and when it was read.
+     */
+    private record Horizon(long maxId, OffsetDateTime capturedAt) {
+    }
+
+    /**
+     * Running chain over rows streamed in id order. Each field is written with a presence marker and a length
+     * prefix, so no two different rows encode to the same bytes.
+     */
+    private static final class Chain implements RowCallbackHandler {
+        private final MessageDigest digest = sha256();
+        private final byte[] lengthPrefix = new byte[4];
+        private byte[] hash;
+        private long rowCount;
+        private long firstId;
+        private long lastId;
+
+        private Chain(byte[] previousHash) {
+            this.hash = previousHash;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            digest.update(hash);
+            update(Long.toString(id));
+            update(rs.getString("entity_type"));
+            update(rs.getString("entity_id"));
+            update(rs.getString("action"));
+            update(rs.getString("actor_id"));
+            update(rs.getString("actor_role"));
+            update(rs.getString("old_values"));
+            update(rs.getString("new_values"));
+            update(rs.getString("ip_address"));
+            update(rs.getString("user_agent"));
+            update(rs.getString("result"));
+            update(rs.getTimestamp("created_at").toLocalDateTime().toString());
+            hash = digest.digest();
+            if (rowCount == 0) {
+                firstId = id;
+            }
+            lastId = id;
+            rowCount++;
+        }
+
+        private void update(String value) {
+            if (value == null) {
+                digest.update((byte) 0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            lengthPrefix[0] = (byte) (bytes.length >>> 24);
+            lengthPrefix[1] = (byte) (bytes.length >>> 16);
+            lengthPrefix[2] = (byte) (bytes.length >>> 8);
+            lengthPrefix[3] = (byte) bytes.length;
+            digest.update(lengthPrefix);
+            digest.update(bytes);
+        }
+    }
+
+    private static final class VerifierThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "audit-verify-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -0,0 +1,192 @@
+package com.creditapp.shared.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of audit_logs (see V40 migration): creates partitions ahead of time
+ * and moves partitions past retention to audit_logs_archive by detach/attach.
+ * <p>
+ * Only PostgreSQL with the partitioned table is managed; on other databases (H2 in tests) every operation is a
+ * no-op and {@link #isPartitioned()} is false.
+ */
+@Slf4j
+@Service
+public class AuditLogPartitionService {
+
+    private static final String PARTITIONS_SQL =
+        "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "WHERE i.inhparent = 'audit_logs'::regclass ORDER BY c.relname";
+
+    private static final Pattern LOWER_BOUND = Pattern.compile("FROM \\('([^']+)'\\)");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    /**
+     * An audit_logs partition and its bound expression as reported by pg_get_expr, e.g.
+     * {@code FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')}.
+     */
+    public record AuditLogPartition(String name, String bound) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate boundTransaction;
+    private final int monthsAhead;
+    private volatile Boolean partitioned;
+
+    public AuditLogPartitionService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.audit.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.boundTransaction = new TransactionTemplate(transactionManager);
+        this.boundTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Whether audit_logs is a partitioned PostgreSQL table.
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product) && "p".equals(jdbcTemplate.queryForObject(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass('audit_logs')", String.class));
+            partitioned = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates the partitions for the current month and the configured number of months ahead that do not
+     * exist yet. Returns the partitions that exist for those months afterwards.
+     */
+    public List<String> ensureUpcomingPartitions() {
+        if (!isPartitioned()) {
+            return List.of();
+        }
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        List<String> partitions = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            String partition = jdbcTemplate.queryForObject("SELECT create_audit_log_partition(?)", String.class,
+                Date.valueOf(month.plusMonths(i)));
+            if (partition != null) {
+                partitions.add(partition);
+            }
+        }
+        log.debug("Audit log partitions through {} months ahead: {}", monthsAhead, partitions);
+        return partitions;
+    }
+
+    /**
+     * Makes sure audit_logs can take a row created at the given time, creating the month's partition if it was
+     * never created. Returns false when the month cannot be written any more because its partition has been
+     * moved to audit_logs_archive, or when audit_logs is not partitioned.
+     */
+    public boolean ensurePartitionFor(LocalDateTime createdAt) {
+        if (!isPartitioned()) {
+            return false;
+        }
+        if (hasPartitionFor(createdAt)) {
+            return true;
+        }
+        String partition = jdbcTemplate.queryForObject("SELECT create_audit_log_partition(?)", String.class,
+            Date.valueOf(createdAt.toLocalDate().withDayOfMonth(1)));
+        boolean covered = hasPartitionFor(createdAt);
+        if (covered) {
+            log.info("Created missing audit log partition {} for rows of {}", partition, createdAt.toLocalDate());
+        }
+        return covered;
+    }
+
+    /**
+     * Whether an audit_logs partition covers the given time.
+     */
+    public boolean hasPartitionFor(LocalDateTime createdAt) {
+        if (!isPartitioned()) {
+            return false;
+        }
+        List<AuditLogPartition> partitions = jdbcTemplate.query(PARTITIONS_SQL,
+            (rs, rowNum) -> new AuditLogPartition(rs.getString(1), rs.getString(2)));
+        for (AuditLogPartition partition : partitions) {
+            LocalDateTime lowerBound = bound(LOWER_BOUND, partition.bound());
+            LocalDateTime upperBound = upperBound(partition.bound());
+            if (lowerBound != null && upperBound != null
+                    && !createdAt.isBefore(lowerBound) && createdAt.isBefore(upperBound)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves every audit_logs partition whose upper bound is at or before the cutoff to audit_logs_archive.
+     * A partition is archived only once all of its rows are past the cutoff, so rows are kept for up to a
+     * month longer than the retention period. Returns the archived partitions.
+     * <p>
+     * Before a partition is moved, a CHECK constraint matching its bound is added NOT VALID and validated, each
+     * in its own transaction (see V45 migration): the validating scan then runs without blocking writes, and
+     * the attach to audit_logs_archive that follows does not scan the partition again.
+     */
+    public List<String> archivePartitionsOlderThan(LocalDateTime cutoff) {
+        if (!isPartitioned()) {
+            return List.of();
+        }
+        List<AuditLogPartition> partitions = jdbcTemplate.query(PARTITIONS_SQL,
+            (rs, rowNum) -> new AuditLogPartition(rs.getString(1), rs.getString(2)));
+        List<String> archived = new ArrayList<>();
+        for (AuditLogPartition partition : partitions) {
+            LocalDateTime upperBound = upperBound(partition.bound());
+            if (upperBound != null && !upperBound.isAfter(cutoff)) {
+                boundTransaction.executeWithoutResult(status -> jdbcTemplate.queryForObject(
+                    "SELECT prepare_audit_log_partition_bound(?)::text", String.class, partition.name()));
+                boundTransaction.executeWithoutResult(status -> jdbcTemplate.queryForObject(
+                    "SELECT validate_audit_log_partition_bound(?)::text", String.class, partition.name()));
+                jdbcTemplate.queryForObject("SELECT archive_audit_log_partition(?)::text", String.class,
+                    partition.name());
+                archived.add(partition.name());
+                log.info("Moved audit log partition {} ({}) to audit_logs_archive", partition.name(), partition.bound());
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Exclusive upper bound of a range partition bound expression, or null for MAXVALUE, DEFAULT or an
+     * expression that cannot be parsed.
+     */
+    public static LocalDateTime upperBound(String bound) {
+        return bound(UPPER_BOUND, bound);
+    }
+
+    private static LocalDateTime bound(Pattern pattern, String bound) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(bound);
+        if (!matcher.find()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(matcher.group(1).replace(' ', 'T'));
+        } catch (RuntimeException e) {
+            log.warn("Unrecognised audit log partition bound: {}", bound);
+            return null;
+        }
+    }
+}
@@ -1,23 +1,23 @@
 package com.creditapp.shared.service;
 
+import com.creditapp.shared.audit.AuditLogWriter;
 import com.creditapp.shared.model.AuditAction;
 import com.creditapp.shared.model.AuditLog;
 import com.creditapp.shared.repository.AuditLogRepository;
 import com.creditapp.shared.security.DataRedactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
 /**
  * Core service for audit logging
- * Provides methods to log actions with full context
+ * Provides methods to log actions with full context. Actor and request context are captured on the calling
+ * thread; rows are written in batches by {@link AuditLogWriter}.
  */
 @Service
 @Slf4j
@@ -25,6 +25,7 @@ import java.util.*;
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final RequestContextService requestContextService;
     private final DataRedactionService dataRedactionService;
 
@@ -37,8 +38,6 @@ public class AuditService {
     /**
      * Log a simple action without old/new values
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(String entityType, UUID entityId, AuditAction action) {
         logActionWithValues(entityType, entityId, action, null, null);
     }
@@ -46,8 +45,6 @@ public class AuditService {
     /**
      * Log an action with explicit actor context (for non-HTTP contexts)
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(String entityType, UUID entityId, AuditAction action,
                          UUID actorId, String actorRole) {
         logActionWithValues(entityType, entityId, action, actorId, actorRole, null, null, null, null);
@@ -56,8 +53,6 @@ public class AuditService {
     /**
      * Log an action with old and new values for field-level tracking
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logActionWithValues(String entityType, UUID entityId, AuditAction action,
                                    Map<String, Object> oldValues, Map<String, Object> newValues) {
         // Extract current user context from Spring Security
@@ -93,8 +88,6 @@ public class AuditService {
     /**
      * Log an action with full context (all parameters)
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logActionWithValues(String entityType, UUID entityId, AuditAction action,
                                    UUID actorId, String actorRole,
                                    Map<String, Object> oldValues, Map<String, Object> newValues,
@@ -117,8 +110,8 @@ public class AuditService {
                 "SUCCESS"
             );
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: entityType={}, entityId={}, action={}, actor={}, role={}",
+            auditLogWriter.submit(auditLog);
+            log.debug("Audit log queued: entityType={}, entityId={}, action={}, actor={}, role={}",
                     entityType, entityId, action, actorId, actorRole);
         } catch (Exception e) {
             // Never fail business operations due to audit logging failures
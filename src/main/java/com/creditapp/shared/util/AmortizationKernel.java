@@ -0,0 +1,163 @@
+package com.creditapp.shared.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primitive annuity kernel: amounts in minor units (cents) as {@code long}, rates as {@code double}.
+ * <p>
+ * Annuity factors r(1+r)^n / ((1+r)^n - 1) are cached per monthly rate for every term up to
+ * {@link #MAX_CACHED_TERM_MONTHS}, so a payment is one map lookup, one multiply and one rounding
+ * instead of a 360-step {@code BigDecimal.pow}. Values that land on a half-cent within double
+ * error are flagged by {@link #isRoundingAmbiguous} so callers can settle them exactly.
+ * <p>
+ * In strict mode callers also run the exact BigDecimal path and report any rounding divergence
+ * through {@link #reportDivergence}; the exact result is then used.
+ */
+@Slf4j
+public final class AmortizationKernel {
+
+    public static final int MAX_CACHED_TERM_MONTHS = 480;
+    private static final int MAX_CACHED_RATES = 4096;
+
+    private static final ConcurrentHashMap<Long, double[]> FACTORS_BY_RATE = new ConcurrentHashMap<>();
+    private static final AtomicLong DIVERGENCE_COUNT = new AtomicLong();
+    private static final AtomicLong VERIFICATION_COUNT = new AtomicLong();
+
+    private static volatile boolean strictMode = false;
+
+    private AmortizationKernel() {
+    }
+
+    /**
+     * Annuity factor for the given monthly rate and term. A zero rate yields straight-line 1/n.
+     */
+    public static double annuityFactor(double monthlyRate, int months) {
+        if (months <= 0) {
+            throw new IllegalArgumentException("Term must be positive: " + months);
+        }
+        if (months > MAX_CACHED_TERM_MONTHS) {
+            return computeFactor(monthlyRate, months);
+        }
+        double[] factors = FACTORS_BY_RATE.get(Double.doubleToLongBits(monthlyRate));
+        if (factors == null) {
+            if (FACTORS_BY_RATE.size() >= MAX_CACHED_RATES) {
+                FACTORS_BY_RATE.clear();
+            }
+            factors = FACTORS_BY_RATE.computeIfAbsent(Double.doubleToLongBits(monthlyRate),
+                key -> buildFactorTable(monthlyRate));
+        }
+        return factors[months];
+    }
+
+    /**
+     * Monthly payment in minor units, rounded HALF_UP like the BigDecimal path.
+     */
+    public static long monthlyPaymentMinor(long principalMinor, double monthlyRate, int months) {
+        return roundHalfUp(rawPaymentMinor(principalMinor, monthlyRate, months));
+    }
+
+    /**
+     * Unrounded monthly payment in minor units.
+     */
+    public static double rawPaymentMinor(long principalMinor, double monthlyRate, int months) {
+        return principalMinor * annuityFactor(monthlyRate, months);
+    }
+
+    /**
+     * True if the unrounded value is so close to a half-cent that double error could flip the
+     * HALF_UP result (e.g. 1000.00 at 0.0725% for one month is exactly 100072.5 cents).
+     * Callers should use the exact path for these.
+     */
+    public static boolean isRoundingAmbiguous(double rawMinor) {
+        double fraction = Math.abs(rawMinor) - Math.floor(Math.abs(rawMinor));
+        double tolerance = Math.max(1e-7, Math.abs(rawMinor) * 1e-13);
+        return Math.abs(fraction - 0.5) < tolerance;
+    }
+
+    /**
+     * Round an unrounded minor-unit value HALF_UP (away from zero on ties).
+     */
+    public static long roundHalfUp(double value) {
+        long rounded = (long) Math.floor(Math.abs(value) + 0.5);
+        return value < 0 ? -rounded : rounded;
+    }
+
+    /**
+     * Convert an amount with at most two fraction digits to minor units.
+     *
+     * @throws ArithmeticException if the amount has sub-cent precision or does not fit a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    /**
+     * True if the amount can go through the kernel without changing the result:
+     * at most cent precision and small enough for exact double arithmetic.
+     */
+    public static boolean supports(BigDecimal principal) {
+        return principal.stripTrailingZeros().scale() <= 2
+            && principal.abs().compareTo(BigDecimal.valueOf(1L << 40)) < 0;
+    }
+
+    public static boolean isStrictMode() {
+        return strictMode;
+    }
+
+    public static void setStrictMode(boolean enabled) {
+        strictMode = enabled;
+    }
+
+    /**
+     * Record a strict-mode comparison between the kernel and the exact BigDecimal result.
+     *
+     * @return the exact result, which is authoritative in strict mode
+     */
+    public static BigDecimal reportDivergence(BigDecimal fast, BigDecimal exact,
+                                              BigDecimal principal, BigDecimal monthlyRate, int months) {
+        VERIFICATION_COUNT.incrementAndGet();
+        if (fast.compareTo(exact) != 0) {
+            DIVERGENCE_COUNT.incrementAndGet();
+            log.warn("Amortization kernel divergence: principal={}, monthlyRate={}, months={}, kernel={}, exact={}",
+                principal, monthlyRate, months, fast, exact);
+        }
+        return exact;
+    }
+
+    public static long divergenceCount() {
+        return DIVERGENCE_COUNT.get();
+    }
+
+    public static long verificationCount() {
+        return VERIFICATION_COUNT.get();
+    }
+
+    public static int cachedRateCount() {
+        return FACTORS_BY_RATE.size();
+    }
+
+    private static double[] buildFactorTable(double monthlyRate) {
+        double[] factors = new double[MAX_CACHED_TERM_MONTHS + 1];
+        for (int n = 1; n <= MAX_CACHED_TERM_MONTHS; n++) {
+            factors[n] = computeFactor(monthlyRate, n);
+        }
+        return factors;
+    }
+
+    private static double computeFactor(double monthlyRate, int months) {
+        if (monthlyRate == 0.0) {
+            return 1.0 / months;
+        }
+        double growth = Math.pow(1.0 + monthlyRate, months);
+        return monthlyRate * growth / (growth - 1.0);
+    }
+}
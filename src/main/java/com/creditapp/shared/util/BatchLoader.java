@@ -0,0 +1,93 @@
+package com.creditapp.shared.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Batched lookup of related entities for page assembly. Collect the keys every row of a page needs, then
+ * resolve them with one {@code IN (...)} query per entity type instead of one lookup per row.
+ * <pre>
+ * Map&lt;UUID, Application&gt; applications = BatchLoader.of(applicationRepository::findAllById, Application::getId)
+ *     .addAll(offers, Offer::getApplicationId)
+ *     .load();
+ * </pre>
+ * Null and duplicate keys are ignored. Key sets larger than {@link #MAX_KEYS_PER_QUERY} are split so a single
+ * statement stays within database bind parameter limits.
+ */
+public final class BatchLoader<K, V> {
+
+    public static final int MAX_KEYS_PER_QUERY = 1000;
+
+    private final Function<Collection<K>, ? extends Iterable<V>> fetch;
+    private final Function<? super V, K> keyOf;
+    private final Set<K> keys = new LinkedHashSet<>();
+
+    private BatchLoader(Function<Collection<K>, ? extends Iterable<V>> fetch, Function<? super V, K> keyOf) {
+        this.fetch = fetch;
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Loader that fetches values for a batch of keys with {@code fetch} and indexes them by {@code keyOf}.
+     */
+    public static <K, V> BatchLoader<K, V> of(Function<Collection<K>, ? extends Iterable<V>> fetch,
+                                              Function<? super V, K> keyOf) {
+        return new BatchLoader<>(fetch, keyOf);
+    }
+
+    public BatchLoader<K, V> add(K key) {
+        if (key != null) {
+            keys.add(key);
+        }
+        return this;
+    }
+
+    /**
+     * Add the key each row refers to.
+     */
+    public <T> BatchLoader<K, V> addAll(Collection<? extends T> rows, Function<? super T, K> key) {
+        for (T row : rows) {
+            add(key.apply(row));
+        }
+        return this;
+    }
+
+    /**
+     * Value per key, for to-one relations. Keys without a value are absent from the map.
+     */
+    public Map<K, V> load() {
+        Map<K, V> values = new HashMap<>();
+        fetchAll(value -> values.put(keyOf.apply(value), value));
+        return values;
+    }
+
+    /**
+     * All values per key in fetch order, for to-many relations such as an application's offers. Keys without
+     * values are absent from the map.
+     */
+    public Map<K, List<V>> loadGrouped() {
+        Map<K, List<V>> values = new HashMap<>();
+        fetchAll(value -> values.computeIfAbsent(keyOf.apply(value), key -> new ArrayList<>()).add(value));
+        return values;
+    }
+
+    private void fetchAll(Consumer<V> sink) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<K> pending = new ArrayList<>(keys);
+        for (int from = 0; from < pending.size(); from += MAX_KEYS_PER_QUERY) {
+            List<K> chunk = pending.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, pending.size()));
+            for (V value : fetch.apply(chunk)) {
+                sink.accept(value);
+            }
+        }
+    }
+}
@@ -19,18 +19,46 @@ public class CalculationUtils {
         BigDecimal monthlyRate = apr.divide(HUNDRED, 10, RoundingMode.HALF_UP)
             .divide(TWELVE, 10, RoundingMode.HALF_UP);
         
+        return annuityPayment(principal, monthlyRate, months);
+    }
+    
+    /**
+     * Level monthly payment for an already rounded monthly rate, rounded HALF_UP to cents.
+     * Runs on {@link AmortizationKernel}; in strict mode the result is cross-checked against
+     * {@link #annuityPaymentExact} and the exact value is returned.
+     */
+    public static BigDecimal annuityPayment(BigDecimal principal, BigDecimal monthlyRate, int months) {
+        if (!AmortizationKernel.supports(principal) || months > AmortizationKernel.MAX_CACHED_TERM_MONTHS) {
+            return annuityPaymentExact(principal, monthlyRate, months);
+        }
+        
+        double rawPayment = AmortizationKernel.rawPaymentMinor(
+            AmortizationKernel.toMinorUnits(principal), monthlyRate.doubleValue(), months);
+        if (AmortizationKernel.isRoundingAmbiguous(rawPayment)) {
+            return annuityPaymentExact(principal, monthlyRate, months);
+        }
+        BigDecimal payment = AmortizationKernel.fromMinorUnits(AmortizationKernel.roundHalfUp(rawPayment));
+        
+        if (AmortizationKernel.isStrictMode()) {
+            return AmortizationKernel.reportDivergence(payment, annuityPaymentExact(principal, monthlyRate, months),
+                principal, monthlyRate, months);
+        }
+        return payment;
+    }
+    
+    /**
+     * Reference BigDecimal implementation of {@link #annuityPayment}.
+     */
+    public static BigDecimal annuityPaymentExact(BigDecimal principal, BigDecimal monthlyRate, int months) {
         if (monthlyRate.compareTo(BigDecimal.ZERO) == 0) {
             return principal.divide(BigDecimal.valueOf(months), SCALE, RoundingMode.HALF_UP);
         }
         
-        BigDecimal one = BigDecimal.ONE;
-        BigDecimal numerator = monthlyRate.multiply(
-            one.add(monthlyRate).pow(months)
-        );
-        BigDecimal denominator = one.add(monthlyRate).pow(months).subtract(one);
+        BigDecimal onePlusRatePowN = BigDecimal.ONE.add(monthlyRate).pow(months);
+        BigDecimal numerator = principal.multiply(monthlyRate).multiply(onePlusRatePowN);
+        BigDecimal denominator = onePlusRatePowN.subtract(BigDecimal.ONE);
         
-        return principal.multiply(numerator)
-            .divide(denominator, SCALE, RoundingMode.HALF_UP);
+        return numerator.divide(denominator, SCALE, RoundingMode.HALF_UP);
     }
     
     public static BigDecimal calculateOriginationFee(BigDecimal loanAmount, BigDecimal feePercent) {
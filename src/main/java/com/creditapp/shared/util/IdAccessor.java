@@ -0,0 +1,73 @@
+package com.creditapp.shared.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * UUID id of an arbitrary object (entity, DTO or security principal) without per-call reflection.
+ * <p>
+ * The accessor is resolved once per class, the public {@code getId()} method first and a declared {@code id}
+ * field second, and cached as a {@link MethodHandle}. Later calls for the class cost a class-value lookup and a
+ * direct invoke. Classes with neither accessor cache a miss.
+ */
+public final class IdAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<MethodHandle> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private IdAccessor() {
+    }
+
+    /**
+     * The object's id, or null if it is null, has no id accessor or its id is not a UUID.
+     */
+    public static UUID idOf(Object target) {
+        if (target == null) {
+            return null;
+        }
+        MethodHandle accessor = ACCESSORS.get(target.getClass());
+        if (accessor == null) {
+            return null;
+        }
+        try {
+            Object id = (Object) accessor.invokeExact(target);
+            return id instanceof UUID uuid ? uuid : null;
+        } catch (Throwable e) {
+            // The getter itself failed; treat like a missing id
+            return null;
+        }
+    }
+
+    /**
+     * Whether objects of the class have an id accessor.
+     */
+    public static boolean hasAccessor(Class<?> type) {
+        return ACCESSORS.get(type) != null;
+    }
+
+    private static MethodHandle resolve(Class<?> type) {
+        try {
+            Method getter = type.getMethod("getId");
+            return MethodHandles.publicLookup().unreflect(getter).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            // No accessible instance getter, try the field
+        }
+        try {
+            Field field = type.getDeclaredField("id");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.creditapp.shared.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Two-phase pagination for entity graphs with fetched collections. Paging a query that {@code JOIN FETCH}es a
+ * collection makes Hibernate read every matching row and slice the page in memory (HHH90003004); instead page
+ * over ids only, then fetch the graphs of just those ids with one {@code IN (...)} query:
+ * <pre>
+ * Page&lt;UUID&gt; ids = repository.findIdsByBorrowerId(borrowerId, pageable);
+ * Page&lt;Application&gt; page = IdPage.fetch(ids, repository::findWithRelationsByIdIn, Application::getId);
+ * </pre>
+ * The id query carries the sort (with a unique tiebreaker) and the count; the graph query needs no order.
+ */
+public final class IdPage {
+
+    private IdPage() {
+    }
+
+    /**
+     * The entities of an id page, in the id page's order, with its pageable and total. Ids whose entity was
+     * deleted between the two queries are skipped.
+     *
+     * @param ids page of ids in display order
+     * @param fetch loads the entities with their relations for a batch of ids
+     * @param idOf id of a loaded entity
+     */
+    public static <K, V> Page<V> fetch(Page<K> ids, Function<Collection<K>, ? extends Iterable<V>> fetch,
+                                       Function<? super V, K> idOf) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        BatchLoader<K, V> loader = BatchLoader.of(fetch, idOf);
+        ids.forEach(loader::add);
+        Map<K, V> loaded = loader.load();
+        List<V> content = new ArrayList<>(ids.getNumberOfElements());
+        for (K id : ids) {
+            V value = loaded.get(id);
+            if (value != null) {
+                content.add(value);
+            }
+        }
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+}
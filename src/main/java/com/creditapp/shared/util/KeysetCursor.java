@@ -0,0 +1,57 @@
+package com.creditapp.shared.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ * <p>
+ * A cursor records the sort it was issued for and the sort key values of the last row returned, ending with the
+ * row id. The next page starts strictly after that tuple, so it costs the same at any depth and rows inserted
+ * concurrently do not shift the pages. A cursor used with a different sort is rejected.
+ */
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+
+    /**
+     * Encode the sort and the key values of the last row on a page; keys are rendered with toString.
+     */
+    public static String encode(String sort, Object... keys) {
+        StringJoiner payload = new StringJoiner(SEPARATOR);
+        payload.add(sort);
+        for (Object key : keys) {
+            String value = key == null ? NULL_VALUE : key.toString();
+            if (value.contains(SEPARATOR)) {
+                throw new IllegalArgumentException("Cursor key must not contain '" + SEPARATOR + "': " + value);
+            }
+            payload.add(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Key values of a cursor issued for {@code sort}, with null for null keys.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed, has another key count or was issued for another sort
+     */
+    public static List<String> decode(String cursor, String sort, int keyCount) {
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+        String[] parts = payload.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(sort)) {
+            throw new IllegalArgumentException("Invalid pagination cursor for sort " + sort);
+        }
+        List<String> keys = new ArrayList<>(Arrays.asList(parts).subList(1, parts.length));
+        keys.replaceAll(value -> NULL_VALUE.equals(value) ? null : value);
+        return keys;
+    }
+}
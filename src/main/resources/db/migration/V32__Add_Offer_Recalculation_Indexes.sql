@@ -0,0 +1,6 @@
+-- Keyset scan of open applications per market (loan type + currency) for incremental
+-- offer recalculation after a rate card change
+CREATE INDEX IF NOT EXISTS idx_applications_market_status_id ON applications(loan_type, currency, status, id);
+
+-- Lookup of one bank's offers for a chunk of applications
+CREATE INDEX IF NOT EXISTS idx_offers_bank_application ON offers(bank_id, application_id);
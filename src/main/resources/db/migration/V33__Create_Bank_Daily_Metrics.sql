@@ -0,0 +1,28 @@
+-- Daily analytics rollups: one row per bank, submission day, loan type and amount range
+CREATE TABLE bank_daily_metrics (
+    id UUID PRIMARY KEY,
+    bank_id UUID NOT NULL,
+    metric_date DATE NOT NULL,
+    loan_type VARCHAR(50) NOT NULL,
+    amount_range VARCHAR(20) NOT NULL,
+    offers_count BIGINT NOT NULL DEFAULT 0,
+    accepted_count BIGINT NOT NULL DEFAULT 0,
+    apr_sum NUMERIC(19, 4) NOT NULL DEFAULT 0,
+    time_to_offer_hours_sum BIGINT NOT NULL DEFAULT 0,
+    time_to_offer_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_bank_daily_metrics_bucket UNIQUE (bank_id, metric_date, loan_type, amount_range)
+);
+
+CREATE INDEX idx_bank_daily_metrics_bank_date ON bank_daily_metrics(bank_id, metric_date);
+
+-- Market-wide applications per day (conversion-rate denominator)
+CREATE TABLE market_daily_applications (
+    metric_date DATE PRIMARY KEY,
+    applications_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Raw scans used to build the rollups
+CREATE INDEX IF NOT EXISTS idx_offers_submitted_at ON offers(offer_submitted_at);
+CREATE INDEX IF NOT EXISTS idx_offers_bank_submitted_at ON offers(bank_id, offer_submitted_at);
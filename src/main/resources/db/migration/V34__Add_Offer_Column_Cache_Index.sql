@@ -0,0 +1,2 @@
+-- Watermark probe (count, max updated_at) and incremental reload of a bank's cached offer snapshot
+CREATE INDEX IF NOT EXISTS idx_offers_bank_updated_at ON offers(bank_id, updated_at);
@@ -0,0 +1,3 @@
+-- Dashboard aggregate over a bank's offers created since the period start, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_offers_bank_created_dashboard ON offers(bank_id, created_at)
+    INCLUDE (application_id, offer_status, offer_submitted_at);
@@ -0,0 +1,10 @@
+-- Keyset pagination of a bank's offers, newest first: seek to (created_at, id) and read the next page in index order
+CREATE INDEX IF NOT EXISTS idx_offers_bank_created_id ON offers(bank_id, created_at DESC, id DESC);
+
+-- Latest offer of a bank per application (admin queue join and newer-offer probe)
+CREATE INDEX IF NOT EXISTS idx_offers_bank_application_created ON offers(bank_id, application_id, created_at, id);
+
+-- Admin queue sort keys with the id tiebreaker, so a cursor seek resumes inside the index
+CREATE INDEX IF NOT EXISTS idx_applications_submitted_id ON applications(submitted_at, id);
+CREATE INDEX IF NOT EXISTS idx_applications_amount_id ON applications(loan_amount, id);
+CREATE INDEX IF NOT EXISTS idx_applications_status_id ON applications(status, id);
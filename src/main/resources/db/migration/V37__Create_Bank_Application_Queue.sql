@@ -0,0 +1,30 @@
+-- Denormalized bank application queue: one row per bank and application the bank has offered on, holding the
+-- columns the queue renders. Maintained in the writing transaction by BankApplicationQueueProjection and
+-- populated by its rebuild.
+CREATE TABLE bank_application_queue (
+    bank_id UUID NOT NULL,
+    application_id UUID NOT NULL,
+    borrower_id UUID,
+    borrower_name VARCHAR(255),
+    borrower_email VARCHAR(255),
+    borrower_phone VARCHAR(50),
+    loan_amount DECIMAL(15, 2),
+    term_months INTEGER,
+    application_status VARCHAR(50),
+    approval_status VARCHAR(20) NOT NULL,
+    documents_status VARCHAR(20) NOT NULL,
+    selected_offer_apr DECIMAL(5, 2),
+    selected_offer_monthly_payment DECIMAL(15, 2),
+    received_at TIMESTAMP,
+    submitted_at TIMESTAMP,
+    application_updated_at TIMESTAMP,
+    latest_offer_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_bank_application_queue PRIMARY KEY (bank_id, application_id)
+);
+
+-- Queue page of a bank, most recent offer first, as one range scan
+CREATE INDEX idx_bank_application_queue_bank_latest
+    ON bank_application_queue(bank_id, latest_offer_at DESC, application_id DESC);
+
+-- Row refresh after an application or document change
+CREATE INDEX idx_bank_application_queue_application ON bank_application_queue(application_id);
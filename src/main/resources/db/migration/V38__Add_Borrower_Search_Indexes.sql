@@ -0,0 +1,14 @@
+-- Bank queue search: substring match on borrower email and full name through trigram indexes, so a search
+-- looks up matching borrowers instead of scanning every application the bank has offered on.
+-- The indexed expressions must stay identical to the ones in ApplicationQueueQueriesImpl.searchApplicationIds.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING gin (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+-- Prefix match on the application id as typed (e.g. the first 8 characters of the reference)
+CREATE INDEX IF NOT EXISTS idx_applications_id_prefix
+    ON applications ((CAST(id AS VARCHAR)) varchar_pattern_ops);
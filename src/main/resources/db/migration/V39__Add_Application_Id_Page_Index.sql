@@ -0,0 +1,2 @@
+-- First phase of two-phase pagination of a borrower's applications: the id page is read from the index alone
+CREATE INDEX IF NOT EXISTS idx_applications_borrower_created_id ON applications(borrower_id, created_at DESC, id DESC);
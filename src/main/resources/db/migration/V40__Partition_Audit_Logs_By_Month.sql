@@ -0,0 +1,145 @@
+-- Monthly range partitioning of audit_logs and audit_logs_archive by created_at.
+-- Archival detaches whole partitions from audit_logs and attaches them to audit_logs_archive
+-- (a metadata operation) instead of INSERT ... SELECT followed by DELETE.
+--
+-- Migration path: the existing tables are kept as single legacy partitions, so no rows are copied.
+--   audit_logs_legacy          [oldest active row, start of next month)
+--   audit_logs_archive_legacy  [MINVALUE, oldest active row)
+-- Monthly partitions audit_logs_pYYYYMM follow from the next month on. There is deliberately no
+-- default partition: a default partition holding rows for a month would block creating that month's
+-- partition later. Partitions are created months ahead by AuditLogPartitionJob; a row for a month
+-- without a partition fails its insert and is spilled and replayed by the audit writer.
+
+DO $$
+DECLARE
+    boundary TIMESTAMP;
+    next_month TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '1 month';
+BEGIN
+    SELECT COALESCE(MIN(created_at), date_trunc('month', CURRENT_TIMESTAMP)) INTO boundary FROM audit_logs;
+
+    ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+    ALTER TABLE audit_logs_archive RENAME TO audit_logs_archive_legacy;
+
+    -- Immutability triggers are recreated on the partitioned parents and cloned into every partition;
+    -- same-named triggers on the legacy tables would conflict with the clones on attach
+    DROP TRIGGER IF EXISTS audit_logs_no_update ON audit_logs_legacy;
+    DROP TRIGGER IF EXISTS audit_logs_no_delete ON audit_logs_legacy;
+    DROP TRIGGER IF EXISTS audit_log_immutability_check ON audit_logs_legacy;
+    DROP TRIGGER IF EXISTS audit_logs_prevent_update ON audit_logs_legacy;
+
+    -- The archive never had the result column; partitions must match the parent's columns
+    ALTER TABLE audit_logs_archive_legacy ADD COLUMN IF NOT EXISTS result VARCHAR(20) NOT NULL DEFAULT 'SUCCESS';
+
+    CREATE TABLE audit_logs (
+        id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+        entity_type VARCHAR(100) NOT NULL,
+        entity_id UUID NOT NULL,
+        action VARCHAR(100) NOT NULL,
+        actor_id UUID,
+        actor_role VARCHAR(50),
+        old_values JSONB,
+        new_values JSONB,
+        ip_address VARCHAR(45),
+        user_agent VARCHAR(500),
+        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+        result VARCHAR(20) NOT NULL DEFAULT 'SUCCESS',
+        PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+
+    CREATE TABLE audit_logs_archive (
+        id BIGINT NOT NULL,
+        entity_type VARCHAR(100) NOT NULL,
+        entity_id UUID NOT NULL,
+        action VARCHAR(100) NOT NULL,
+        actor_id UUID,
+        actor_role VARCHAR(50),
+        old_values JSONB,
+        new_values JSONB,
+        ip_address VARCHAR(45),
+        user_agent VARCHAR(500),
+        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+        result VARCHAR(20) NOT NULL DEFAULT 'SUCCESS',
+        PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    -- Indexes on the parents first so attaching reuses matching indexes of the legacy tables
+    CREATE INDEX idx_audit_logs_entity ON audit_logs(entity_type, entity_id, created_at DESC);
+    CREATE INDEX idx_audit_logs_actor ON audit_logs(actor_id, created_at DESC);
+    CREATE INDEX idx_audit_logs_created ON audit_logs(created_at DESC);
+    CREATE INDEX idx_audit_logs_archive_entity ON audit_logs_archive(entity_type, entity_id, created_at DESC);
+
+    EXECUTE format('ALTER TABLE audit_logs ATTACH PARTITION audit_logs_legacy FOR VALUES FROM (%L) TO (%L)',
+        boundary, next_month);
+    EXECUTE format('ALTER TABLE audit_logs_archive ATTACH PARTITION audit_logs_archive_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+        boundary);
+END
+$$;
+
+CREATE TRIGGER audit_logs_no_update
+BEFORE UPDATE ON audit_logs
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+CREATE TRIGGER audit_logs_no_delete
+BEFORE DELETE ON audit_logs
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+CREATE TRIGGER audit_logs_archive_no_update
+BEFORE UPDATE ON audit_logs_archive
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+CREATE TRIGGER audit_logs_archive_no_delete
+BEFORE DELETE ON audit_logs_archive
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+-- Creates the audit_logs partition for the month containing month_start if it does not exist yet.
+-- Returns the partition name, or NULL when the month is already covered by another partition
+-- (the legacy partition covers the month of the migration).
+CREATE OR REPLACE FUNCTION create_audit_log_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_ts TIMESTAMP := date_trunc('month', month_start);
+    partition_name TEXT := 'audit_logs_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+        partition_name, from_ts, from_ts + INTERVAL '1 month');
+    RETURN partition_name;
+EXCEPTION
+    WHEN invalid_object_definition THEN
+        -- Overlaps an existing partition
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moves one partition from audit_logs to audit_logs_archive with the same bounds. Both steps are
+-- catalog changes and run in the caller's transaction; no rows are copied or deleted, so the
+-- immutability triggers are not involved.
+CREATE OR REPLACE FUNCTION archive_audit_log_partition(partition_name TEXT)
+RETURNS VOID AS $$
+DECLARE
+    bound TEXT;
+BEGIN
+    SELECT pg_get_expr(c.relpartbound, c.oid) INTO bound
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'audit_logs'::regclass AND c.relname = partition_name;
+
+    IF bound IS NULL THEN
+        RAISE EXCEPTION 'audit log partition % is not attached to audit_logs', partition_name;
+    END IF;
+
+    EXECUTE format('ALTER TABLE audit_logs DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE audit_logs_archive ATTACH PARTITION %I %s', partition_name, bound);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for the coming months; the application keeps this horizon moving
+SELECT create_audit_log_partition((date_trunc('month', CURRENT_TIMESTAMP) + make_interval(months => m))::DATE)
+FROM generate_series(1, 3) AS m;
+
+COMMENT ON TABLE audit_logs IS 'Immutable audit trail for compliance (3-year minimum retention), partitioned by created_at month. No delete/update operations allowed.';
+COMMENT ON TABLE audit_logs_archive IS 'Archive for audit logs older than 3 years; whole monthly partitions are attached here from audit_logs. Immutable.';
@@ -0,0 +1,25 @@
+-- Exported audit log segments are purged from audit_logs_archive once they are durable in the archive store
+-- (AuditLogExporter). The archive stays immutable otherwise: UPDATE is always rejected, DELETE only in a
+-- transaction that set creditapp.audit_export_purge. audit_logs keeps the unconditional audit_logs_guard().
+CREATE OR REPLACE FUNCTION audit_logs_archive_guard()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' AND current_setting('creditapp.audit_export_purge', true) = 'on' THEN
+        RETURN OLD;
+    END IF;
+    RAISE EXCEPTION 'audit_logs_archive is immutable; % operations are not allowed', TG_OP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Replaces the triggers on the partitioned archive and their clones on every attached partition
+DROP TRIGGER IF EXISTS audit_logs_archive_no_update ON audit_logs_archive;
+DROP TRIGGER IF EXISTS audit_logs_archive_no_delete ON audit_logs_archive;
+
+CREATE TRIGGER audit_logs_archive_no_update
+BEFORE UPDATE ON audit_logs_archive
+FOR EACH ROW EXECUTE FUNCTION audit_logs_archive_guard();
+
+CREATE TRIGGER audit_logs_archive_no_delete
+BEFORE DELETE ON audit_logs_archive
+FOR EACH ROW EXECUTE FUNCTION audit_logs_archive_guard();
@@ -0,0 +1,24 @@
+-- Checkpoints of the audit log hash chain (AuditLogIntegrityService). Each row's chain hash covers the row and
+-- the previous row's chain hash, in id order; a checkpoint stores the running hash after its last row, so each
+-- range between two checkpoints can be verified on its own and in parallel.
+CREATE TABLE IF NOT EXISTS audit_log_checkpoints (
+    seq BIGINT PRIMARY KEY,
+    first_id BIGINT NOT NULL,
+    last_id BIGINT NOT NULL,
+    row_count INTEGER NOT NULL,
+    chain_hash VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_audit_log_checkpoints_last_id ON audit_log_checkpoints(last_id);
+
+-- Checkpoints are as immutable as the rows they seal
+CREATE TRIGGER audit_log_checkpoints_no_update
+BEFORE UPDATE ON audit_log_checkpoints
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+CREATE TRIGGER audit_log_checkpoints_no_delete
+BEFORE DELETE ON audit_log_checkpoints
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+COMMENT ON TABLE audit_log_checkpoints IS 'Hash chain checkpoints over audit_logs and audit_logs_archive. Immutable.';
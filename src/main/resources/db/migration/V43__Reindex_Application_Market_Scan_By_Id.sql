@@ -0,0 +1,8 @@
+-- The market keyset scan filters on status IN (...) and orders by id. With status ahead of id in
+-- idx_applications_market_status_id the index yields one id-ordered run per status, so the planner
+-- had to read every matching row and sort before applying the chunk limit.
+-- With id directly after the market columns the scan walks the market in id order and stops after
+-- one chunk; status stays in the key so it is checked on the index tuple.
+DROP INDEX IF EXISTS idx_applications_market_status_id;
+
+CREATE INDEX IF NOT EXISTS idx_applications_market_id_status ON applications(loan_type, currency, id, status);
@@ -0,0 +1,12 @@
+-- Idempotency key assigned by AuditLogWriter when a row is submitted. Batches are inserted with
+-- ON CONFLICT DO NOTHING, so replaying a spill segment that was partly written before a crash does not
+-- insert its rows twice. Rows written before this migration keep a NULL key.
+-- A unique index on a partitioned table must include the partition key; created_at is part of the row
+-- as submitted and spilled, so a replayed row carries the same pair.
+
+ALTER TABLE audit_logs ADD COLUMN idempotency_key UUID;
+
+-- Archive partitions are attached from audit_logs and must have the same columns
+ALTER TABLE audit_logs_archive ADD COLUMN idempotency_key UUID;
+
+CREATE UNIQUE INDEX uk_audit_logs_idempotency_key ON audit_logs (idempotency_key, created_at);
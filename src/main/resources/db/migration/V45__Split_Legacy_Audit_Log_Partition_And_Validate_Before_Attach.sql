@@ -0,0 +1,129 @@
+-- Follow-up to V40.
+--
+-- 1. audit_logs_legacy covered everything from the oldest row up to the month after V40 ran, so its upper
+--    bound stayed recent and it was never past retention: aged legacy rows stayed hot and were never
+--    archived or exported. Its rows are moved into monthly partitions, which are archived month by month like
+--    every other partition. The first one starts at the legacy lower bound rather than at the start of its
+--    month, because audit_logs_archive_legacy already covers everything before that bound.
+--    The rows are copied once, under the lock this migration holds on audit_logs; inserts for those months
+--    wait for the migration to commit. Dropping the legacy table afterwards does not fire the row triggers.
+--
+-- 2. Attaching a partition to audit_logs_archive is not a catalog-only change: ATTACH PARTITION scans the
+--    partition to prove its rows fit the bound, unless a valid CHECK constraint already implies the bound.
+--    Archival therefore adds a matching CHECK constraint NOT VALID and validates it in separate transactions
+--    (VALIDATE only takes a SHARE UPDATE EXCLUSIVE lock, so the partition stays readable and writable during
+--    the scan), after which DETACH and ATTACH are catalog changes. The constraint is dropped once attached.
+
+DO $$
+DECLARE
+    bound TEXT;
+    bounds TEXT[];
+    lower_ts TIMESTAMP;
+    upper_ts TIMESTAMP;
+    from_ts TIMESTAMP;
+    to_ts TIMESTAMP;
+BEGIN
+    SELECT pg_get_expr(c.relpartbound, c.oid) INTO bound
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'audit_logs'::regclass AND c.relname = 'audit_logs_legacy';
+
+    IF bound IS NULL THEN
+        -- Never created, or already archived
+        RETURN;
+    END IF;
+
+    bounds := regexp_match(bound, 'FROM \(''([^'']+)''\) TO \(''([^'']+)''\)');
+    lower_ts := bounds[1]::TIMESTAMP;
+    upper_ts := bounds[2]::TIMESTAMP;
+
+    ALTER TABLE audit_logs DETACH PARTITION audit_logs_legacy;
+
+    from_ts := lower_ts;
+    WHILE from_ts < upper_ts LOOP
+        to_ts := LEAST(date_trunc('month', from_ts) + INTERVAL '1 month', upper_ts);
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_p' || to_char(from_ts, 'YYYYMM'), from_ts, to_ts);
+        from_ts := to_ts;
+    END LOOP;
+
+    INSERT INTO audit_logs (id, entity_type, entity_id, action, actor_id, actor_role, old_values, new_values,
+                            ip_address, user_agent, created_at, result, idempotency_key)
+    SELECT id, entity_type, entity_id, action, actor_id, actor_role, old_values, new_values,
+           ip_address, user_agent, created_at, result, idempotency_key
+    FROM audit_logs_legacy;
+
+    DROP TABLE audit_logs_legacy;
+END
+$$;
+
+-- Adds the CHECK constraint matching the partition's bound, NOT VALID so that no rows are scanned. Run in its
+-- own transaction before validate_audit_log_partition_bound() and archive_audit_log_partition().
+CREATE OR REPLACE FUNCTION prepare_audit_log_partition_bound(partition_name TEXT)
+RETURNS VOID AS $$
+DECLARE
+    bound TEXT;
+    bounds TEXT[];
+    check_name TEXT := partition_name || '_bound';
+BEGIN
+    SELECT pg_get_expr(c.relpartbound, c.oid) INTO bound
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'audit_logs'::regclass AND c.relname = partition_name;
+
+    IF bound IS NULL THEN
+        RAISE EXCEPTION 'audit log partition % is not attached to audit_logs', partition_name;
+    END IF;
+
+    bounds := regexp_match(bound, 'FROM \(''([^'']+)''\) TO \(''([^'']+)''\)');
+    IF bounds IS NULL THEN
+        RAISE EXCEPTION 'audit log partition % has an unexpected bound: %', partition_name, bound;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = partition_name::regclass AND conname = check_name) THEN
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at >= %L AND created_at < %L) NOT VALID',
+            partition_name, check_name, bounds[1], bounds[2]);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Scans the partition to validate the constraint added by prepare_audit_log_partition_bound() while holding
+-- only a SHARE UPDATE EXCLUSIVE lock.
+CREATE OR REPLACE FUNCTION validate_audit_log_partition_bound(partition_name TEXT)
+RETURNS VOID AS $$
+BEGIN
+    EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT %I', partition_name, partition_name || '_bound');
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moves one partition from audit_logs to audit_logs_archive with the same bounds, in the caller's
+-- transaction. With the bound constraint already validated, DETACH and ATTACH only change the catalog; when
+-- it is missing it is added and validated here, and the scan happens under the ACCESS EXCLUSIVE lock of the
+-- detach. No rows are copied or deleted, so the immutability triggers are not involved.
+CREATE OR REPLACE FUNCTION archive_audit_log_partition(partition_name TEXT)
+RETURNS VOID AS $$
+DECLARE
+    bound TEXT;
+    check_name TEXT := partition_name || '_bound';
+BEGIN
+    SELECT pg_get_expr(c.relpartbound, c.oid) INTO bound
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'audit_logs'::regclass AND c.relname = partition_name;
+
+    IF bound IS NULL THEN
+        RAISE EXCEPTION 'audit log partition % is not attached to audit_logs', partition_name;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = partition_name::regclass AND conname = check_name AND convalidated) THEN
+        PERFORM prepare_audit_log_partition_bound(partition_name);
+        PERFORM validate_audit_log_partition_bound(partition_name);
+    END IF;
+
+    EXECUTE format('ALTER TABLE audit_logs DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE audit_logs_archive ATTACH PARTITION %I %s', partition_name, bound);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, check_name);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,64 @@
+-- Restricts purging audit_logs_archive to purge_exported_audit_logs(). Under V41 the archive guard allowed
+-- DELETE in any transaction that had set creditapp.audit_export_purge, which any session could do with a
+-- plain SET.
+--
+-- The guard now allows DELETE only when current_user is the dedicated NOLOGIN role creditapp_audit_purger.
+-- Nothing logs in as that role. It owns purge_exported_audit_logs(), a SECURITY DEFINER function, so the
+-- delete in that function runs as the role. EXECUTE on the function is granted to the application role only.
+-- The migration role needs CREATEROLE. Its temporary membership in the purger role, needed to hand over the
+-- function's ownership, is revoked again at the end of this migration.
+-- A superuser or the table owner can still disable the triggers; this guards against the application's SQL,
+-- not against its DBA.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_roles WHERE rolname = 'creditapp_audit_purger') THEN
+        CREATE ROLE creditapp_audit_purger NOLOGIN;
+    END IF;
+END
+$$;
+
+GRANT SELECT, DELETE ON audit_logs_archive TO creditapp_audit_purger;
+
+CREATE OR REPLACE FUNCTION audit_logs_archive_guard()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' AND current_user = 'creditapp_audit_purger' THEN
+        RETURN OLD;
+    END IF;
+    RAISE EXCEPTION 'audit_logs_archive is immutable; % operations are not allowed', TG_OP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Deletes at most max_rows archived rows in [first_id, last_id] created before the cutoff, in id order, and
+-- returns the number deleted. Called by AuditLogExporter once the segment holding those rows is durable.
+CREATE OR REPLACE FUNCTION purge_exported_audit_logs(first_id BIGINT, last_id BIGINT, cutoff TIMESTAMP,
+                                                     max_rows INTEGER)
+RETURNS INTEGER
+SECURITY DEFINER
+SET search_path = public, pg_temp
+AS $$
+DECLARE
+    deleted INTEGER;
+BEGIN
+    DELETE FROM audit_logs_archive
+    WHERE id IN (SELECT id FROM audit_logs_archive
+                 WHERE id BETWEEN first_id AND last_id AND created_at < cutoff
+                 ORDER BY id LIMIT max_rows);
+    GET DIAGNOSTICS deleted = ROW_COUNT;
+    RETURN deleted;
+END;
+$$ LANGUAGE plpgsql;
+
+REVOKE ALL ON FUNCTION purge_exported_audit_logs(BIGINT, BIGINT, TIMESTAMP, INTEGER) FROM PUBLIC;
+
+DO $$
+BEGIN
+    EXECUTE format('GRANT EXECUTE ON FUNCTION purge_exported_audit_logs(BIGINT, BIGINT, TIMESTAMP, INTEGER) TO %I',
+        current_user);
+    EXECUTE format('GRANT creditapp_audit_purger TO %I', current_user);
+    ALTER FUNCTION purge_exported_audit_logs(BIGINT, BIGINT, TIMESTAMP, INTEGER) OWNER TO creditapp_audit_purger;
+    EXECUTE format('REVOKE creditapp_audit_purger FROM %I', current_user);
+END
+$$;
@@ -0,0 +1,27 @@
+-- Purge records of exported audit logs (AuditLogExporter), so that AuditLogIntegrityService can tell exported
+-- rows from deleted ones. Every chunk of rows purged after export is recorded in the transaction that deletes
+-- it. A chunk never spans two checkpoint ranges: checkpoint_seq names the range it belongs to, or is NULL when
+-- the rows were purged before they were sealed. For each checkpoint, the rows still in the database plus the
+-- recorded purges must add up to the checkpoint's row count.
+CREATE TABLE IF NOT EXISTS audit_log_purges (
+    id BIGSERIAL PRIMARY KEY,
+    checkpoint_seq BIGINT,
+    segment_key VARCHAR(500) NOT NULL,
+    first_id BIGINT NOT NULL,
+    last_id BIGINT NOT NULL,
+    row_count INTEGER NOT NULL,
+    purged_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_log_purges_checkpoint ON audit_log_purges(checkpoint_seq);
+
+-- Purge records are as immutable as the checkpoints they account for
+CREATE TRIGGER audit_log_purges_no_update
+BEFORE UPDATE ON audit_log_purges
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+CREATE TRIGGER audit_log_purges_no_delete
+BEFORE DELETE ON audit_log_purges
+FOR EACH ROW EXECUTE FUNCTION audit_logs_guard();
+
+COMMENT ON TABLE audit_log_purges IS 'Exported audit log rows purged per checkpoint range. Immutable.';
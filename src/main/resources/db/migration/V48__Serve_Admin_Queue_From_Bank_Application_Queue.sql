@@ -0,0 +1,28 @@
+-- The bank admin queue is served from the bank_application_queue read model, so its keyset indexes can lead with
+-- the bank: applications has no bank column, and the V36 (key, id) indexes walked every bank's applications.
+ALTER TABLE bank_application_queue
+    ADD COLUMN borrower_first_name VARCHAR(100),
+    ADD COLUMN borrower_last_name VARCHAR(100),
+    ADD COLUMN loan_type VARCHAR(50),
+    ADD COLUMN latest_offer_apr DECIMAL(5, 2),
+    ADD COLUMN latest_offer_monthly_payment DECIMAL(15, 2);
+
+UPDATE bank_application_queue q SET
+    (borrower_first_name, borrower_last_name) = (SELECT u.first_name, u.last_name FROM applications a
+        JOIN users u ON u.id = a.borrower_id WHERE a.id = q.application_id),
+    loan_type = (SELECT a.loan_type FROM applications a WHERE a.id = q.application_id),
+    (latest_offer_apr, latest_offer_monthly_payment) = (SELECT o.apr, o.monthly_payment FROM offers o
+        WHERE o.bank_id = q.bank_id AND o.application_id = q.application_id
+        ORDER BY o.created_at DESC, o.id DESC LIMIT 1);
+
+-- Admin queue sort keys of one bank with the application id tiebreaker, so a cursor seek resumes inside the index
+CREATE INDEX IF NOT EXISTS idx_bank_application_queue_bank_submitted
+    ON bank_application_queue(bank_id, submitted_at, application_id);
+CREATE INDEX IF NOT EXISTS idx_bank_application_queue_bank_amount
+    ON bank_application_queue(bank_id, loan_amount, application_id);
+CREATE INDEX IF NOT EXISTS idx_bank_application_queue_bank_status
+    ON bank_application_queue(bank_id, application_status, application_id);
+
+DROP INDEX IF EXISTS idx_applications_submitted_id;
+DROP INDEX IF EXISTS idx_applications_amount_id;
+DROP INDEX IF EXISTS idx_applications_status_id;
@@ -0,0 +1,71 @@
+package com.creditapp.benchmark;
+
+import com.creditapp.shared.util.AmortizationKernel;
+import com.creditapp.shared.util.CalculationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly payment: BigDecimal reference vs primitive kernel.
+ * Run with {@code mvn test-compile} then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    @Param({"12", "60", "360"})
+    private int months;
+
+    private BigDecimal principal;
+    private BigDecimal monthlyRate;
+
+    @Setup
+    public void setUp() {
+        principal = new BigDecimal("250000.00");
+        monthlyRate = new BigDecimal("8.75")
+            .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP)
+            .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP);
+        AmortizationKernel.setStrictMode(false);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReference() {
+        return CalculationUtils.annuityPaymentExact(principal, monthlyRate, months);
+    }
+
+    @Benchmark
+    public BigDecimal kernel() {
+        return CalculationUtils.annuityPayment(principal, monthlyRate, months);
+    }
+
+    @Benchmark
+    public long kernelMinorUnits() {
+        return AmortizationKernel.monthlyPaymentMinor(25_000_000L, 0.007292, months);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AmortizationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
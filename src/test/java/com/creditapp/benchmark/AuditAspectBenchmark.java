@@ -0,0 +1,149 @@
+package com.creditapp.benchmark;
+
+import com.creditapp.shared.audit.BusinessAudit;
+import com.creditapp.shared.audit.BusinessAuditAspect;
+import com.creditapp.shared.model.AuditAction;
+import com.creditapp.shared.security.RateLimited;
+import com.creditapp.shared.security.RateLimitingAspect;
+import com.creditapp.shared.service.AuditService;
+import com.creditapp.shared.util.IdAccessor;
+import com.creditapp.shared.util.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advised call through BusinessAuditAspect and RateLimitingAspect (Spring AOP proxy, audit and rate limit
+ * backends stubbed) against the plain call, and the per-call id lookup: reflection as the aspects used to do it
+ * vs the cached {@link IdAccessor}.
+ * Run with {@code mvn test-compile} then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditAspectBenchmark {
+
+    public static class AuditedEntity {
+        private final UUID id = UUID.randomUUID();
+
+        public UUID getId() {
+            return id;
+        }
+    }
+
+    public static class Principal {
+        private final UUID id = UUID.randomUUID();
+
+        public UUID getId() {
+            return id;
+        }
+    }
+
+    public static class AuditedService {
+        private final AuditedEntity entity = new AuditedEntity();
+
+        @BusinessAudit(action = AuditAction.APPLICATION_CREATED, entityType = "Application")
+        public AuditedEntity create() {
+            return entity;
+        }
+
+        @RateLimited(action = "CREATE_APPLICATION", limitPerMinute = 60)
+        public AuditedEntity limited() {
+            return entity;
+        }
+    }
+
+    private AuditedService target;
+    private AuditedService advised;
+    private AuditedEntity entity;
+
+    @Setup
+    public void setUp() {
+        AuditService auditService = new AuditService(null, null, null, null) {
+            @Override
+            public void logAction(String entityType, UUID entityId, AuditAction action) {
+            }
+        };
+        RateLimiter rateLimiter = new RateLimiter(null) {
+            @Override
+            public boolean isAllowed(String key, int limitPerMinute) {
+                return true;
+            }
+        };
+        target = new AuditedService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BusinessAuditAspect(auditService));
+        factory.addAspect(new RateLimitingAspect(rateLimiter));
+        advised = factory.getProxy();
+        entity = target.create();
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            new Principal(), null, List.of(new SimpleGrantedAuthority("BORROWER"))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+    }
+
+    @Benchmark
+    public AuditedEntity plainCall() {
+        return target.create();
+    }
+
+    @Benchmark
+    public AuditedEntity businessAuditAdvised() {
+        return advised.create();
+    }
+
+    @Benchmark
+    public AuditedEntity rateLimitAdvised() {
+        return advised.limited();
+    }
+
+    @Benchmark
+    public UUID reflectiveIdLookup() {
+        try {
+            Object id = entity.getClass().getMethod("getId").invoke(entity);
+            return id instanceof UUID uuid ? uuid : null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public UUID cachedIdLookup() {
+        return IdAccessor.idOf(entity);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AuditAspectBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.creditapp.benchmark;
+
+import com.creditapp.bank.dto.AnalyticsResponseDTO;
+import com.creditapp.bank.dto.OfferColumnRow;
+import com.creditapp.bank.dto.SubmittedOfferFact;
+import com.creditapp.bank.model.BankDailyMetric;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.service.AnalyticsAccumulator;
+import com.creditapp.bank.service.BankDailyMetricsService;
+import com.creditapp.bank.service.BankOfferColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LAST_YEAR analytics for one bank: single pass over raw offer projections, over a columnar offer snapshot
+ * and over daily rollup rows.
+ * Run with {@code mvn test-compile} then {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankAnalyticsBenchmark {
+
+    private static final String[] LOAN_TYPES = {"PERSONAL", "HOME", "AUTO", "BUSINESS"};
+
+    @Param({"100000"})
+    private int offers;
+
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+    private List<SubmittedOfferFact> facts;
+    private List<BankDailyMetric> rollupRows;
+    private BankOfferColumns columns;
+    private long fromSecond;
+    private long toSecond;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UUID bankId = UUID.randomUUID();
+        dateTo = LocalDate.of(2025, 6, 30);
+        dateFrom = dateTo.minusYears(1);
+        facts = new ArrayList<>(offers);
+        for (int i = 0; i < offers; i++) {
+            LocalDateTime createdAt = dateFrom.plusDays(random.nextInt(365)).atTime(random.nextInt(24), random.nextInt(60));
+            LocalDateTime submittedAt = createdAt.plusMinutes(30 + random.nextInt(48 * 60));
+            facts.add(new SubmittedOfferFact(bankId, LOAN_TYPES[random.nextInt(LOAN_TYPES.length)],
+                BigDecimal.valueOf(1000 + random.nextInt(200_000)), createdAt,
+                BigDecimal.valueOf(300 + random.nextInt(1500), 2), submittedAt,
+                random.nextInt(4) == 0 ? submittedAt.plusDays(1) : null));
+        }
+        rollupRows = BankDailyMetricsService.aggregate(facts);
+
+        List<OfferColumnRow> rows = new ArrayList<>(offers);
+        for (SubmittedOfferFact fact : facts) {
+            rows.add(new OfferColumnRow(UUID.randomUUID(), UUID.randomUUID(),
+                fact.borrowerSelectedAt() != null ? OfferStatus.ACCEPTED : OfferStatus.SUBMITTED, fact.apr(),
+                BigDecimal.valueOf(10_000 + random.nextInt(500_000), 2), fact.applicationCreatedAt(),
+                fact.offerSubmittedAt(), fact.borrowerSelectedAt(), fact.offerSubmittedAt(), fact.loanType(),
+                fact.loanAmount(), fact.applicationCreatedAt()));
+        }
+        columns = BankOfferColumns.of(rows);
+        fromSecond = BankOfferColumns.toSecond(dateFrom.atStartOfDay());
+        toSecond = BankOfferColumns.toSecond(dateTo.plusDays(1).atStartOfDay()) - 1;
+    }
+
+    @Benchmark
+    public AnalyticsResponseDTO singlePassRawOffers() {
+        AnalyticsAccumulator analytics = new AnalyticsAccumulator(dateFrom, dateTo, "MONTHLY");
+        for (SubmittedOfferFact fact : facts) {
+            analytics.addOffer(fact);
+        }
+        return response(analytics);
+    }
+
+    @Benchmark
+    public AnalyticsResponseDTO singlePassOfferColumns() {
+        AnalyticsAccumulator analytics = new AnalyticsAccumulator(dateFrom, dateTo, "MONTHLY");
+        columns.accumulate(analytics, fromSecond, toSecond);
+        return response(analytics);
+    }
+
+    @Benchmark
+    public AnalyticsResponseDTO singlePassRollupRows() {
+        AnalyticsAccumulator analytics = new AnalyticsAccumulator(dateFrom, dateTo, "MONTHLY");
+        for (BankDailyMetric row : rollupRows) {
+            analytics.addDailyMetric(row);
+        }
+        return response(analytics);
+    }
+
+    @Benchmark
+    public List<BankDailyMetric> buildRollupRows() {
+        return BankDailyMetricsService.aggregate(facts);
+    }
+
+    private AnalyticsResponseDTO response(AnalyticsAccumulator analytics) {
+        return AnalyticsResponseDTO.builder()
+            .metrics(analytics.metrics())
+            .trends(analytics.trends())
+            .loanTypeBreakdown(analytics.loanTypeBreakdown())
+            .amountRangeBreakdown(analytics.amountRangeBreakdown())
+            .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(BankAnalyticsBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
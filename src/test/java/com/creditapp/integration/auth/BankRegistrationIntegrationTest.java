@@ -3,6 +3,9 @@ package com.creditapp.integration.auth;
 import com.creditapp.CreditApplicationApplication;
 import com.creditapp.auth.dto.BankRegistrationRequest;
 import com.creditapp.auth.dto.BankRegistrationResponse;
+import com.creditapp.bank.service.RateCardIndex;
+import com.creditapp.bank.service.RateCardIndexService;
+import com.creditapp.shared.model.BankStatus;
 import com.creditapp.shared.model.Organization;
 import com.creditapp.shared.model.User;
 import com.creditapp.shared.repository.OrganizationRepository;
@@ -34,6 +37,9 @@ public class BankRegistrationIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RateCardIndexService rateCardIndexService;
+
     @Test
     void registerBank_ValidRequest_ReturnsCreatedWithBankDetails() {
         BankRegistrationRequest request = new BankRegistrationRequest();
@@ -134,6 +140,39 @@ public class BankRegistrationIntegrationTest {
         assertNull(activatedBank.getActivationToken());
     }
 
+    @Test
+    void bankStatusChanges_AreAppliedToRateCardIndex() {
+        BankRegistrationRequest request = new BankRegistrationRequest();
+        request.setBankName("Index Test Bank");
+        request.setRegistrationNumber("IDX123456");
+        request.setContactEmail("index@bank.com");
+        request.setAdminFirstName("Test");
+        request.setAdminLastName("Admin");
+        request.setAdminPassword("SecurePass123!");
+        request.setAdminPasswordConfirm("SecurePass123!");
+        request.setAdminPhone("+373-012-345-70");
+        restTemplate.postForEntity("/api/auth/register-bank", request, BankRegistrationResponse.class);
+        rateCardIndexService.current();
+
+        Organization bank = organizationRepository.findByRegistrationNumber("IDX123456").orElseThrow();
+        restTemplate.getForEntity("/api/auth/activate?token=" + bank.getActivationToken(), String.class);
+
+        assertTrue(isIndexedAsActive(bank));
+
+        // Deactivation goes through no dedicated service; the entity change event still reaches the index
+        Organization activatedBank = organizationRepository.findByRegistrationNumber("IDX123456").orElseThrow();
+        activatedBank.setStatus(BankStatus.INACTIVE);
+        organizationRepository.save(activatedBank);
+
+        assertFalse(isIndexedAsActive(bank));
+    }
+
+    private boolean isIndexedAsActive(Organization bank) {
+        return rateCardIndexService.current().activeBanks().stream()
+                .map(RateCardIndex.ActiveBank::id)
+                .anyMatch(bank.getId()::equals);
+    }
+
     @Test
     void activateBank_InvalidToken_ReturnsNotFound() {
         ResponseEntity<String> response = restTemplate.getForEntity(
@@ -0,0 +1,317 @@
+package com.creditapp.integration.bank;
+
+import com.creditapp.auth.repository.UserRepository;
+import com.creditapp.bank.dto.ApplicationQueueFilter;
+import com.creditapp.bank.dto.ApplicationQueueResponse;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.BankAdminQueueService;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.shared.model.User;
+import com.creditapp.shared.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Queue filtering, search, sorting and paging as executed by the database query.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BankAdminQueueIntegrationTest {
+
+    @Autowired
+    private BankAdminQueueService bankAdminQueueService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID bankId;
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        bankId = UUID.randomUUID();
+        borrower = createBorrower("John", "Doe", "john.doe@example.com");
+    }
+
+    @Test
+    void testQueue_OneRowPerApplicationOfThisBank() {
+        Application personal = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, null);
+        Application home = createApplication(borrower, "HOME", "50000", ApplicationStatus.UNDER_REVIEW, null);
+        createOffer(personal, bankId, "5.5");
+        createOffer(personal, bankId, "5.25");
+        createOffer(home, bankId, "4.5");
+        createOffer(createApplication(borrower, "AUTO", "9000", ApplicationStatus.SUBMITTED, null),
+            UUID.randomUUID(), "6.0");
+
+        ApplicationQueueResponse response = queue(0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null);
+
+        assertEquals(2, response.getTotalCount());
+        assertEquals(2, response.getApplications().size());
+        assertFalse(response.isHasMore());
+        assertEquals(1, response.getQueueMetrics().getDocumentsAwaitingReview()); // Badge count (SUBMITTED)
+        assertEquals("John Doe", response.getApplications().get(0).getBorrowerName());
+        assertNotNull(response.getApplications().get(0).getSelectedOfferAPR());
+    }
+
+    @Test
+    void testQueue_FilterByStatusAndLoanType() {
+        createOffer(createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, null), bankId, "5.5");
+        createOffer(createApplication(borrower, "HOME", "50000", ApplicationStatus.UNDER_REVIEW, null), bankId, "4.5");
+
+        ApplicationQueueResponse byStatus = queue(0, List.of("SUBMITTED"), null, null, null, null, null,
+            "NEWEST_FIRST", null, null, null);
+        ApplicationQueueResponse byLoanType = queue(0, null, List.of("HOME"), null, null, null, null,
+            "NEWEST_FIRST", null, null, null);
+        ApplicationQueueResponse unknownStatus = queue(0, List.of("NOT_A_STATUS"), null, null, null, null, null,
+            "NEWEST_FIRST", null, null, null);
+
+        assertEquals(1, byStatus.getTotalCount());
+        assertEquals("SUBMITTED", byStatus.getApplications().get(0).getStatus());
+        assertEquals(1, byLoanType.getTotalCount());
+        assertEquals(0, new BigDecimal("50000").compareTo(byLoanType.getApplications().get(0).getLoanAmount()));
+        assertEquals(0, unknownStatus.getTotalCount());
+    }
+
+    @Test
+    void testQueue_FilterByAmountAndDateRange() {
+        LocalDateTime now = LocalDateTime.now();
+        Application small = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, now.minusDays(1));
+        Application large = createApplication(borrower, "HOME", "50000", ApplicationStatus.SUBMITTED, now);
+        Application draft = createApplication(borrower, "HOME", "45000", ApplicationStatus.DRAFT, null);
+        createOffer(small, bankId, "5.5");
+        createOffer(large, bankId, "4.5");
+        createOffer(draft, bankId, "4.75");
+
+        ApplicationQueueResponse byAmount = queue(0, null, null, null, null, new BigDecimal("40000"),
+            new BigDecimal("60000"), "AMOUNT_LOW_HIGH", null, null, null);
+        ApplicationQueueResponse byDate = queue(0, null, null, LocalDate.now(), LocalDate.now(), null, null,
+            "NEWEST_FIRST", null, null, null);
+
+        assertEquals(2, byAmount.getTotalCount());
+        assertEquals(draft.getId(), byAmount.getApplications().get(0).getApplicationId());
+        // Applications without a submission date are not excluded by the date range
+        assertEquals(2, byDate.getTotalCount());
+        assertEquals(draft.getId(), byDate.getApplications().get(0).getApplicationId());
+        assertEquals(large.getId(), byDate.getApplications().get(1).getApplicationId());
+    }
+
+    @Test
+    void testQueue_SearchByApplicationIdEmailOrName() {
+        User other = createBorrower("Mary", "Smith", "mary.smith@example.com");
+        Application johns = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, null);
+        Application marys = createApplication(other, "PERSONAL", "20000", ApplicationStatus.SUBMITTED, null);
+        createOffer(johns, bankId, "5.5");
+        createOffer(marys, bankId, "5.0");
+
+        String partialId = johns.getId().toString().substring(0, 8);
+        assertEquals(johns.getId(), queue(0, null, null, null, null, null, null, null, partialId, null, null)
+            .getApplications().get(0).getApplicationId());
+        assertEquals(List.of("mary.smith@example.com"), queue(0, null, null, null, null, null, null, null,
+            null, "MARY.S", null).getApplications().stream().map(item -> item.getBorrowerEmail()).toList());
+        assertEquals(1, queue(0, null, null, null, null, null, null, null, null, null, "john d").getTotalCount());
+        assertEquals(0, queue(0, null, null, null, null, null, null, null, null, null, "%").getTotalCount());
+        assertEquals(0, queue(0, null, null, null, null, null, null, null, " ", null, null).getTotalCount());
+    }
+
+    @Test
+    void testSearch_MatchesIdPrefixAndBorrowerSubstringsOfThisBankOnly() {
+        User other = createBorrower("Mary", "Smith", "mary.smith@example.com");
+        Application johns = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, null);
+        Application marys = createApplication(other, "PERSONAL", "20000", ApplicationStatus.SUBMITTED, null);
+        Application elsewhere = createApplication(other, "HOME", "30000", ApplicationStatus.SUBMITTED, null);
+        createOffer(johns, bankId, "5.5");
+        createOffer(marys, bankId, "5.0");
+        createOffer(elsewhere, UUID.randomUUID(), "4.5");
+
+        String id = johns.getId().toString();
+        assertEquals(List.of(johns.getId()), search(id.substring(0, 8).toUpperCase(), null, null, 10));
+        assertEquals(List.of(), search(id.substring(4, 12), null, null, 10)); // Ids match by prefix only
+        assertEquals(List.of(marys.getId()), search(null, "SMITH@", null, 10));
+        assertEquals(List.of(marys.getId()), search(null, null, "ry sm", 10));
+        assertEquals(2, search(null, "example.com", null, 10).size());
+        assertEquals(1, search(null, "example.com", null, 1).size());
+        assertEquals(List.of(), search(" ", " ", null, 10));
+    }
+
+    @Test
+    void testQueue_SearchCombinesWithFilters() {
+        Application submitted = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, null);
+        Application underReview = createApplication(borrower, "HOME", "50000", ApplicationStatus.UNDER_REVIEW, null);
+        createOffer(submitted, bankId, "5.5");
+        createOffer(underReview, bankId, "4.5");
+
+        ApplicationQueueResponse response = queue(0, List.of("UNDER_REVIEW"), null, null, null, null, null,
+            "NEWEST_FIRST", null, "john.doe", null);
+
+        assertEquals(1, response.getTotalCount());
+        assertEquals(underReview.getId(), response.getApplications().get(0).getApplicationId());
+    }
+
+    @Test
+    void testQueue_SortOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        Application older = createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.UNDER_REVIEW, now.minusDays(2));
+        Application newer = createApplication(borrower, "HOME", "50000", ApplicationStatus.SUBMITTED, now.minusDays(1));
+        createOffer(older, bankId, "5.5");
+        createOffer(newer, bankId, "4.5");
+
+        assertEquals(List.of(older.getId(), newer.getId()), ids(queue(0, null, null, null, null, null, null,
+            "OLDEST_FIRST", null, null, null)));
+        assertEquals(List.of(newer.getId(), older.getId()), ids(queue(0, null, null, null, null, null, null,
+            "NEWEST_FIRST", null, null, null)));
+        assertEquals(List.of(newer.getId(), older.getId()), ids(queue(0, null, null, null, null, null, null,
+            "AMOUNT_HIGH_LOW", null, null, null)));
+        assertEquals(List.of(newer.getId(), older.getId()), ids(queue(0, null, null, null, null, null, null,
+            "STATUS", null, null, null)));
+    }
+
+    @Test
+    void testQueue_Pagination() {
+        for (int i = 0; i < 25; i++) {
+            createOffer(createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED,
+                LocalDateTime.now().minusHours(i)), bankId, "5.5");
+        }
+
+        ApplicationQueueResponse page0 = queue(0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null);
+        ApplicationQueueResponse page1 = queue(1, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null);
+
+        assertEquals(25, page0.getTotalCount());
+        assertEquals(20, page0.getApplications().size()); // Page size is 20
+        assertTrue(page0.isHasMore());
+        assertEquals(25, page1.getTotalCount());
+        assertEquals(5, page1.getApplications().size()); // Remaining 5 items
+        assertEquals(20, page1.getOffset());
+        assertFalse(page1.isHasMore());
+        assertTrue(page0.getApplications().get(19).getSubmittedAt()
+            .isAfter(page1.getApplications().get(0).getSubmittedAt()));
+    }
+
+    @Test
+    void testQueue_CursorPagesMatchOffsetPages() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 25; i++) {
+            // Submission times repeat so pages break inside groups of equal sort keys
+            createOffer(createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED,
+                i % 5 == 0 ? null : now.minusHours(i / 3)), bankId, "5.5");
+        }
+
+        for (String sortBy : List.of("NEWEST_FIRST", "OLDEST_FIRST", "AMOUNT_HIGH_LOW", "STATUS")) {
+            ApplicationQueueResponse page0 = queue(0, null, null, null, null, null, null, sortBy, null, null, null);
+            ApplicationQueueResponse page1 = queue(1, null, null, null, null, null, null, sortBy, null, null, null);
+            ApplicationQueueResponse cursor0 = cursorQueue(sortBy, "");
+            ApplicationQueueResponse cursor1 = cursorQueue(sortBy, cursor0.getNextCursor());
+
+            assertEquals(ids(page0), ids(cursor0), sortBy);
+            assertEquals(ids(page1), ids(cursor1), sortBy);
+            assertEquals(page0.getNextCursor(), cursor0.getNextCursor(), sortBy);
+            assertTrue(cursor0.isHasMore());
+            assertFalse(cursor1.isHasMore());
+            assertNull(cursor1.getNextCursor());
+            assertEquals(25, cursor0.getTotalCount());
+            assertNull(cursor1.getTotalCount());
+        }
+    }
+
+    @Test
+    void testQueue_CursorPageUnaffectedByNewerApplications() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 25; i++) {
+            createOffer(createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED,
+                now.minusHours(i + 1)), bankId, "5.5");
+        }
+        ApplicationQueueResponse page0 = queue(0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null);
+        List<UUID> expected = ids(cursorQueue("NEWEST_FIRST", page0.getNextCursor()));
+
+        // Inserted ahead of the first page; an offset would now shift the second page by one row
+        createOffer(createApplication(borrower, "PERSONAL", "10000", ApplicationStatus.SUBMITTED, now),
+            bankId, "5.5");
+
+        assertEquals(expected, ids(cursorQueue("NEWEST_FIRST", page0.getNextCursor())));
+        assertThrows(IllegalArgumentException.class, () -> cursorQueue("AMOUNT_LOW_HIGH", page0.getNextCursor()));
+    }
+
+    private ApplicationQueueResponse cursorQueue(String sortBy, String cursor) {
+        return bankAdminQueueService.getApplicationQueue(bankId, 0, null, null, null, null, null, null, sortBy,
+            null, null, null, cursor, false);
+    }
+
+    private ApplicationQueueResponse queue(int page, List<String> statuses, List<String> loanTypes,
+                                           LocalDate dateFrom, LocalDate dateTo, BigDecimal amountFrom,
+                                           BigDecimal amountTo, String sortBy, String searchApplicationId,
+                                           String searchBorrowerEmail, String searchBorrowerName) {
+        return bankAdminQueueService.getApplicationQueue(bankId, page, statuses, loanTypes, dateFrom, dateTo,
+            amountFrom, amountTo, sortBy, searchApplicationId, searchBorrowerEmail, searchBorrowerName);
+    }
+
+    private List<UUID> search(String applicationId, String email, String name, int limit) {
+        return offerRepository.searchApplicationIds(bankId, new ApplicationQueueFilter(null, null, null, null, null,
+            null, null, applicationId, email, name), limit);
+    }
+
+    private static List<UUID> ids(ApplicationQueueResponse response) {
+        return response.getApplications().stream().map(item -> item.getApplicationId()).toList();
+    }
+
+    private User createBorrower(String firstName, String lastName, String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hashedpassword");
+        user.setRole(UserRole.BORROWER);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return userRepository.save(user);
+    }
+
+    private Application createApplication(User owner, String loanType, String amount, ApplicationStatus status,
+                                          LocalDateTime submittedAt) {
+        Application application = new Application();
+        application.setId(UUID.randomUUID());
+        application.setBorrowerId(owner.getId());
+        application.setLoanType(loanType);
+        application.setLoanAmount(new BigDecimal(amount));
+        application.setLoanTermMonths(12);
+        application.setCurrency("USD");
+        application.setStatus(status);
+        application.setSubmittedAt(submittedAt);
+        return applicationRepository.save(application);
+    }
+
+    private void createOffer(Application application, UUID offerBankId, String apr) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(application.getId());
+        offer.setBankId(offerBankId);
+        offer.setOfferStatus(OfferStatus.SUBMITTED);
+        offer.setApr(new BigDecimal(apr));
+        offer.setMonthlyPayment(new BigDecimal("850.00"));
+        offer.setTotalCost(new BigDecimal("10200"));
+        offer.setOriginationFee(new BigDecimal("100"));
+        offer.setProcessingTimeDays(5);
+        offer.setValidityPeriodDays(30);
+        offer.setExpiresAt(LocalDateTime.now().plusDays(30));
+        offerRepository.save(offer);
+    }
+}
@@ -0,0 +1,279 @@
+package com.creditapp.integration.bank;
+
+import com.creditapp.auth.repository.UserRepository;
+import com.creditapp.bank.event.BankQueueChangedEvent;
+import com.creditapp.bank.dto.ApplicationQueueItem;
+import com.creditapp.bank.dto.ApplicationQueueRequest;
+import com.creditapp.bank.dto.ApplicationQueueResponse;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.ApplicationQueueService;
+import com.creditapp.bank.service.BankApplicationQueueProjection;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationDocument;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.borrower.model.DocumentType;
+import com.creditapp.borrower.repository.ApplicationDocumentRepository;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.shared.model.User;
+import com.creditapp.shared.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bank application queue read model, kept current by offer, application and document changes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@RecordApplicationEvents
+class BankApplicationQueueReadModelIntegrationTest {
+
+    @Autowired
+    private ApplicationQueueService applicationQueueService;
+
+    @Autowired
+    private BankApplicationQueueProjection queueProjection;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationDocumentRepository applicationDocumentRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private UUID bankId;
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        bankId = UUID.randomUUID();
+        borrower = new User();
+        borrower.setEmail("jane.doe@example.com");
+        borrower.setPasswordHash("hashedpassword");
+        borrower.setRole(UserRole.BORROWER);
+        borrower.setFirstName("Jane");
+        borrower.setLastName("Doe");
+        borrower.setPhoneNumber("+1234567890");
+        borrower = userRepository.save(borrower);
+    }
+
+    @Test
+    void testQueue_RowBuiltFromOfferWithBorrowerAndLowestApr() {
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "6.5", OfferStatus.SUBMITTED);
+        createOffer(application, bankId, "5.25", OfferStatus.SUBMITTED);
+        createOffer(application, UUID.randomUUID(), "4.0", OfferStatus.SUBMITTED);
+
+        ApplicationQueueResponse response = queue();
+
+        assertEquals(1, response.getTotalCount());
+        ApplicationQueueItem item = response.getApplications().get(0);
+        assertEquals(application.getId(), item.getApplicationId());
+        assertEquals("Jane Doe", item.getBorrowerName());
+        assertEquals("jane.doe@example.com", item.getBorrowerEmail());
+        assertEquals("+1234567890", item.getBorrowerPhone());
+        assertEquals(0, new BigDecimal("5.25").compareTo(item.getSelectedOfferAPR()));
+        assertEquals("SUBMITTED", item.getStatus());
+        assertEquals("none", item.getDocumentsStatus());
+        assertEquals("pending", item.getApprovalStatus());
+    }
+
+    @Test
+    void testQueue_AcceptedOfferIsSelected() {
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "5.0", OfferStatus.SUBMITTED);
+        Offer accepted = createOffer(application, bankId, "7.0", OfferStatus.SUBMITTED);
+        queue();
+
+        accepted.setOfferStatus(OfferStatus.ACCEPTED);
+        offerRepository.save(accepted);
+
+        assertEquals(0, new BigDecimal("7.0").compareTo(queue().getApplications().get(0).getSelectedOfferAPR()));
+    }
+
+    @Test
+    void testQueue_ReflectsDocumentAndStatusChanges() {
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "5.0", OfferStatus.SUBMITTED);
+        assertEquals("none", queue().getApplications().get(0).getDocumentsStatus());
+
+        applicationDocumentRepository.save(ApplicationDocument.builder()
+            .id(UUID.randomUUID())
+            .applicationId(application.getId())
+            .documentType(DocumentType.IDENTIFICATION)
+            .originalFilename("passport.pdf")
+            .storedFilename(UUID.randomUUID() + ".pdf")
+            .fileSize(1024L)
+            .mimeType("application/pdf")
+            .uploadDate(LocalDateTime.now())
+            .build());
+        ApplicationQueueItem withDocument = queue().getApplications().get(0);
+        assertEquals("submitted", withDocument.getDocumentsStatus());
+        assertEquals(1, queue().getQueueMetrics().getDocumentsAwaitingReview());
+
+        application.setStatus(ApplicationStatus.ACCEPTED);
+        applicationRepository.save(application);
+        ApplicationQueueItem accepted = queue().getApplications().get(0);
+        assertEquals("ACCEPTED", accepted.getStatus());
+        assertEquals("approved", accepted.getApprovalStatus());
+    }
+
+    @Test
+    void testQueue_ReflectsBorrowerContactChanges() {
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "5.0", OfferStatus.SUBMITTED);
+        assertEquals("Jane Doe", queue().getApplications().get(0).getBorrowerName());
+
+        borrower.setLastName("Smith");
+        borrower.setEmail("jane.smith@example.com");
+        userRepository.save(borrower);
+
+        ApplicationQueueItem item = queue().getApplications().get(0);
+        assertEquals("Jane Smith", item.getBorrowerName());
+        assertEquals("jane.smith@example.com", item.getBorrowerEmail());
+    }
+
+    @Test
+    void testQueue_OfferChangeLeavesOtherBanksRows() {
+        UUID otherBankId = UUID.randomUUID();
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "5.0", OfferStatus.SUBMITTED);
+        createOffer(application, otherBankId, "6.0", OfferStatus.SUBMITTED);
+        queue();
+        jdbcTemplate.update("UPDATE bank_application_queue SET borrower_name = 'untouched' WHERE bank_id = ?",
+            otherBankId);
+
+        createOffer(application, bankId, "4.5", OfferStatus.SUBMITTED);
+        assertEquals(0, new BigDecimal("4.5").compareTo(queue().getApplications().get(0).getSelectedOfferAPR()));
+        assertEquals("untouched", jdbcTemplate.queryForObject(
+            "SELECT borrower_name FROM bank_application_queue WHERE bank_id = ?", String.class, otherBankId));
+
+        // The row goes with the bank's last offer
+        offerRepository.deleteAll(offerRepository.findByApplicationId(application.getId()).stream()
+            .filter(candidate -> bankId.equals(candidate.getBankId()))
+            .toList());
+        assertEquals(0, queue().getTotalCount());
+    }
+
+    @Test
+    void testRebuildBank_RestoresRowsFromSourceTables() {
+        Application first = createApplication(ApplicationStatus.SUBMITTED);
+        Application second = createApplication(ApplicationStatus.UNDER_REVIEW);
+        createOffer(first, bankId, "5.0", OfferStatus.SUBMITTED);
+        createOffer(second, bankId, "5.5", OfferStatus.SUBMITTED);
+        assertEquals(2, queue().getTotalCount());
+
+        jdbcTemplate.update("DELETE FROM bank_application_queue WHERE bank_id = ?", bankId);
+        assertEquals(0, queue().getTotalCount());
+
+        assertEquals(2, queueProjection.rebuildBank(bankId));
+        assertEquals(2, queue().getTotalCount());
+        assertTrue(queueProjection.findBankIds().contains(bankId));
+    }
+
+    @Test
+    void testQueue_CursorPagesCoverEveryApplicationOnce() {
+        for (int i = 0; i < 5; i++) {
+            createOffer(createApplication(ApplicationStatus.SUBMITTED), bankId, "5.0", OfferStatus.SUBMITTED);
+        }
+
+        List<UUID> seen = new java.util.ArrayList<>();
+        String cursor = "";
+        do {
+            ApplicationQueueResponse page = applicationQueueService.getApplicationQueue(bankId,
+                ApplicationQueueRequest.builder().limit(2).cursor(cursor).build());
+            page.getApplications().forEach(item -> seen.add(item.getApplicationId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+    }
+
+    @Test
+    void testCommit_PublishesRefreshedRows() {
+        Application application = createApplication(ApplicationStatus.SUBMITTED);
+        createOffer(application, bankId, "5.0", OfferStatus.SUBMITTED);
+        assertEquals(0, events.stream(BankQueueChangedEvent.class).count());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            // Merged by the writing transaction itself, after its final flush
+            assertEquals("SUBMITTED", jdbcTemplate.queryForObject("SELECT application_status FROM bank_application_queue "
+                + "WHERE bank_id = ? AND application_id = ?", String.class, bankId, application.getId()));
+            assertTrue(events.stream(BankQueueChangedEvent.class)
+                .flatMap(event -> event.getChanges().stream())
+                .anyMatch(new BankQueueChangedEvent.Change(bankId, application.getId(), "SUBMITTED")::equals));
+        } finally {
+            TestTransaction.start();
+            jdbcTemplate.update("DELETE FROM bank_application_queue WHERE bank_id = ?", bankId);
+            jdbcTemplate.update("DELETE FROM offers WHERE bank_id = ?", bankId);
+            jdbcTemplate.update("DELETE FROM applications WHERE id = ?", application.getId());
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", borrower.getId());
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    private ApplicationQueueResponse queue() {
+        return applicationQueueService.getApplicationQueue(bankId,
+            ApplicationQueueRequest.builder().limit(20).offset(0).build());
+    }
+
+    private Application createApplication(ApplicationStatus status) {
+        Application application = new Application();
+        application.setId(UUID.randomUUID());
+        application.setBorrowerId(borrower.getId());
+        application.setLoanType("PERSONAL");
+        application.setLoanAmount(new BigDecimal("10000"));
+        application.setLoanTermMonths(12);
+        application.setCurrency("USD");
+        application.setStatus(status);
+        return applicationRepository.save(application);
+    }
+
+    private Offer createOffer(Application application, UUID offerBankId, String apr, OfferStatus status) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(application.getId());
+        offer.setBankId(offerBankId);
+        offer.setOfferStatus(status);
+        offer.setApr(new BigDecimal(apr));
+        offer.setMonthlyPayment(new BigDecimal("850.00"));
+        offer.setTotalCost(new BigDecimal("10200"));
+        offer.setOriginationFee(new BigDecimal("100"));
+        offer.setProcessingTimeDays(5);
+        offer.setValidityPeriodDays(30);
+        offer.setExpiresAt(LocalDateTime.now().plusDays(30));
+        return offerRepository.save(offer);
+    }
+}
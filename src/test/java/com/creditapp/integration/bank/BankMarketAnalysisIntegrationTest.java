@@ -1,8 +1,10 @@
 package com.creditapp.integration.bank;
 
 import com.creditapp.bank.dto.MarketAnalysisDTO;
+import com.creditapp.bank.event.RateCardChangedEvent;
 import com.creditapp.bank.model.BankRateCard;
 import com.creditapp.bank.repository.BankRateCardRepository;
+import com.creditapp.bank.service.RateCardIndexService;
 import com.creditapp.borrower.model.Currency;
 import com.creditapp.borrower.model.LoanType;
 import com.creditapp.shared.model.Organization;
@@ -12,21 +14,26 @@ import com.creditapp.shared.model.BankStatus;
 import com.creditapp.shared.repository.OrganizationRepository;
 import com.creditapp.auth.repository.UserRepository;
 import com.creditapp.shared.service.JwtTokenService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,7 +43,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
-@Transactional
 public class BankMarketAnalysisIntegrationTest {
 
     @Autowired
@@ -57,6 +63,15 @@ public class BankMarketAnalysisIntegrationTest {
     @Autowired
     private BankRateCardRepository rateCardRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RateCardIndexService rateCardIndexService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -66,6 +81,7 @@ public class BankMarketAnalysisIntegrationTest {
     private UUID bank2Id;
     private UUID bank3Id;
     private UUID bank4Id;
+    private final List<UUID> createdBankIds = new ArrayList<>();
 
     @BeforeEach
     public void setUp() {
@@ -100,6 +116,7 @@ public class BankMarketAnalysisIntegrationTest {
         bank.setStatus(BankStatus.ACTIVE);
         bank.setCountryCode("US");
         organizationRepository.save(bank);
+        createdBankIds.add(bank.getId());
 
         User admin = new User();
         admin.setId(UUID.randomUUID());
@@ -122,6 +139,10 @@ public class BankMarketAnalysisIntegrationTest {
         return jwtTokenService.generateToken(admin);
     }
 
+    /**
+     * Saves an active card and publishes its change event in one committed transaction, as
+     * BankRateCardService does; the rate card index picks the card up from the event after commit.
+     */
     private void createRateCard(UUID bankId, LoanType loanType, Currency currency,
                                  double apr, double origFee, double insurance, int processingDays) {
         BankRateCard card = new BankRateCard();
@@ -138,7 +159,24 @@ public class BankMarketAnalysisIntegrationTest {
         card.setProcessingTimeDays(processingDays);
         card.setValidFrom(LocalDateTime.now().minusDays(1));
         card.setValidTo(null); // Active
-        rateCardRepository.save(card);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            BankRateCard saved = rateCardRepository.save(card);
+            eventPublisher.publishEvent(new RateCardChangedEvent(this, saved, null));
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        rateCardRepository.deleteAll(rateCardRepository.findAll().stream()
+                .filter(card -> createdBankIds.contains(card.getBankId()))
+                .toList());
+        userRepository.deleteAll(userRepository.findAll().stream()
+                .filter(user -> createdBankIds.contains(user.getOrganizationId()))
+                .toList());
+        organizationRepository.deleteAllById(createdBankIds);
+        // Rate cards have no delete operation in the domain, so nothing publishes their removal;
+        // reload the index once the test rows are gone
+        rateCardIndexService.rebuild();
     }
 
     @Test
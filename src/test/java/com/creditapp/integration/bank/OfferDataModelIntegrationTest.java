@@ -1,5 +1,6 @@
 package com.creditapp.integration.bank;
 
+import com.creditapp.bank.dto.DashboardAggregate;
 import com.creditapp.bank.model.*;
 import com.creditapp.bank.repository.*;
 import com.creditapp.borrower.model.Application;
@@ -21,6 +22,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
 import static org.assertj.core.api.Assertions.*;
@@ -336,4 +338,58 @@ class OfferDataModelIntegrationTest {
         long durationMs = (endTime - startTime) / 1_000_000;
         assertThat(durationMs).isLessThan(1000);
     }
-}
\ No newline at end of file
+
+    @Test
+    void test11_DashboardAggregate_SingleQueryFigures() {
+        Application second = new Application();
+        second.setId(UUID.randomUUID());
+        second.setBorrowerId(borrower.getId());
+        second.setLoanType("PERSONAL");
+        second.setLoanAmount(new BigDecimal("10000"));
+        second.setLoanTermMonths(24);
+        second.setCurrency("EUR");
+        second.setStatus(ApplicationStatus.DRAFT);
+        second = applicationRepository.save(second);
+
+        LocalDateTime now = LocalDateTime.now();
+        saveOffer(application.getId(), bank1.getId(), OfferStatus.ACCEPTED, now.plusDays(2).plusHours(3));
+        saveOffer(second.getId(), bank1.getId(), OfferStatus.SUBMITTED, now.plusHours(5));
+        saveOffer(second.getId(), bank1.getId(), OfferStatus.CALCULATED, null);
+        saveOffer(application.getId(), bank2.getId(), OfferStatus.SUBMITTED, now.plusDays(5));
+        offerRepository.flush();
+
+        LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
+        DashboardAggregate aggregate = offerRepository.aggregateDashboard(bank1.getId(), todayStart.minusDays(7),
+            todayStart, EnumSet.of(OfferStatus.SUBMITTED, OfferStatus.ACCEPTED),
+            EnumSet.of(OfferStatus.ACCEPTED));
+
+        assertThat(aggregate.applicationsToday()).isEqualTo(2);
+        assertThat(aggregate.applicationsAll()).isEqualTo(2);
+        assertThat(aggregate.offersSubmitted()).isEqualTo(2);
+        assertThat(aggregate.offersAccepted()).isEqualTo(1);
+        assertThat(aggregate.timeToOfferDaysSum()).isEqualTo(2);
+        assertThat(aggregate.timeToOfferCount()).isEqualTo(2);
+
+        DashboardAggregate empty = offerRepository.aggregateDashboard(bank1.getId(), now.plusDays(1),
+            todayStart, EnumSet.of(OfferStatus.SUBMITTED), EnumSet.of(OfferStatus.ACCEPTED));
+        assertThat(empty.applicationsAll()).isZero();
+        assertThat(empty.offersSubmitted()).isNull();
+    }
+
+    private void saveOffer(UUID applicationId, UUID bankId, OfferStatus status, LocalDateTime submittedAt) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(applicationId);
+        offer.setBankId(bankId);
+        offer.setOfferStatus(status);
+        offer.setApr(new BigDecimal("8.5"));
+        offer.setMonthlyPayment(new BigDecimal("850"));
+        offer.setTotalCost(new BigDecimal("25500"));
+        offer.setOriginationFee(new BigDecimal("2550"));
+        offer.setProcessingTimeDays(5);
+        offer.setValidityPeriodDays(30);
+        offer.setOfferSubmittedAt(submittedAt);
+        offer.setExpiresAt(LocalDateTime.now().plusDays(30));
+        offerRepository.save(offer);
+    }
+}
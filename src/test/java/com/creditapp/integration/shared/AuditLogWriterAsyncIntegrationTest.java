@@ -0,0 +1,94 @@
+package com.creditapp.integration.shared;
+
+import com.creditapp.shared.audit.AuditLogWriter;
+import com.creditapp.shared.model.AuditAction;
+import com.creditapp.shared.model.AuditLog;
+import com.creditapp.shared.repository.AuditLogRepository;
+import com.creditapp.shared.service.AuditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The audit writer with buffered writes as in production: rows are written by the flusher thread, and a row
+ * replayed with the same idempotency key is not inserted again.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.audit.writer.async-enabled=true",
+    "app.audit.writer.flush-interval-ms=50",
+    "app.audit.writer.spill-dir=target/audit-spill-async-it"
+})
+class AuditLogWriterAsyncIntegrationTest {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Test
+    void testLogAction_WrittenByFlusher() throws Exception {
+        UUID entityId = UUID.randomUUID();
+
+        auditService.logAction("Application", entityId, AuditAction.APPLICATION_SUBMITTED);
+
+        List<AuditLog> written = awaitRows(entityId, 1);
+        assertEquals(1, written.size());
+        assertEquals(AuditAction.APPLICATION_SUBMITTED, written.get(0).getAction());
+        assertNotNull(written.get(0).getIdempotencyKey());
+        assertEquals(0, auditLogWriter.pendingCount());
+    }
+
+    @Test
+    void testSubmit_RowReplayedWithSameKeyIsInsertedOnce() throws Exception {
+        UUID entityId = UUID.randomUUID();
+        UUID idempotencyKey = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        auditLogWriter.submit(auditLog(entityId, idempotencyKey, createdAt));
+        awaitRows(entityId, 1);
+        // As if a spill segment written before a crash were replayed
+        auditLogWriter.submit(auditLog(entityId, idempotencyKey, createdAt));
+        auditLogWriter.submit(auditLog(entityId, UUID.randomUUID(), createdAt));
+
+        assertEquals(2, awaitRows(entityId, 2).size());
+        auditLogWriter.flush();
+        assertEquals(2, auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDesc("Application", entityId)
+            .size());
+    }
+
+    private List<AuditLog> awaitRows(UUID entityId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<AuditLog> rows = List.of();
+        while (System.currentTimeMillis() < deadline) {
+            rows = auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDesc("Application", entityId);
+            if (rows.size() >= expected) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        return rows;
+    }
+
+    private static AuditLog auditLog(UUID entityId, UUID idempotencyKey, LocalDateTime createdAt) {
+        AuditLog auditLog = new AuditLog("Application", entityId, AuditAction.APPLICATION_SUBMITTED, null, "SYSTEM",
+            null, null, null, null, "SUCCESS");
+        auditLog.setIdempotencyKey(idempotencyKey);
+        auditLog.setCreatedAt(createdAt);
+        return auditLog;
+    }
+}
@@ -0,0 +1,255 @@
+package com.creditapp.integration.shared;
+
+import com.creditapp.auth.repository.UserRepository;
+import com.creditapp.bank.dto.OfferHistoryFilter;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.BankOfferHistoryService;
+import com.creditapp.borrower.dto.ApplicationHistoryRequest;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationHistory;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.borrower.repository.ApplicationHistoryRepository;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.borrower.service.ApplicationHistoryService;
+import com.creditapp.borrower.service.OfferHistoryService;
+import com.creditapp.shared.model.BankStatus;
+import com.creditapp.shared.model.Organization;
+import com.creditapp.shared.model.User;
+import com.creditapp.shared.model.UserRole;
+import com.creditapp.shared.repository.OrganizationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * History pages resolve related applications, offers, banks and borrowers with a fixed number of queries,
+ * however many rows the page holds.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PageAssemblyQueryCountIntegrationTest {
+
+    @Autowired
+    private ApplicationHistoryService applicationHistoryService;
+
+    @Autowired
+    private OfferHistoryService offerHistoryService;
+
+    @Autowired
+    private BankOfferHistoryService bankOfferHistoryService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationHistoryRepository applicationHistoryRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testApplicationHistory_QueriesIndependentOfPageSize() {
+        User small = createBorrowerWithApplications(2, 1);
+        User large = createBorrowerWithApplications(8, 3);
+
+        long smallPageQueries = countQueries(() -> assertEquals(2,
+            applicationHistoryService.getApplicationHistory(small.getId(), new ApplicationHistoryRequest())
+                .getApplications().size()));
+        long largePageQueries = countQueries(() -> assertEquals(8,
+            applicationHistoryService.getApplicationHistory(large.getId(), new ApplicationHistoryRequest())
+                .getApplications().size()));
+
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    void testOfferHistory_QueriesIndependentOfPageSize() {
+        User small = createBorrowerWithApplications(2, 1);
+        User large = createBorrowerWithApplications(8, 2);
+
+        long smallPageQueries = countQueries(() -> assertEquals(2,
+            offerHistoryService.getOfferHistory(small.getId(), 20, 0, null).getOffers().size()));
+        long largePageQueries = countQueries(() -> assertEquals(16,
+            offerHistoryService.getOfferHistory(large.getId(), 20, 0, null).getOffers().size()));
+
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    void testBankOfferHistory_QueriesIndependentOfPageSize() {
+        UUID smallBank = createBank().getId();
+        UUID largeBank = createBank().getId();
+        for (int i = 0; i < 2; i++) {
+            createOffer(createApplication(createBorrower()), smallBank);
+        }
+        for (int i = 0; i < 8; i++) {
+            createOffer(createApplication(createBorrower()), largeBank);
+        }
+        OfferHistoryFilter filter = new OfferHistoryFilter(null, null, null, null, null, null, null, null);
+
+        long smallPageQueries = countQueries(() -> assertEquals(2,
+            bankOfferHistoryService.getOfferHistory(smallBank, filter, 0, 20).getItems().size()));
+        long largePageQueries = countQueries(() -> assertEquals(8,
+            bankOfferHistoryService.getOfferHistory(largeBank, filter, 0, 20).getItems().size()));
+
+        assertEquals(smallPageQueries, largePageQueries);
+    }
+
+    @Test
+    void testApplicationsWithRelations_PagesOverIdsThenFetchesGraphsOfThePage() {
+        User borrower = createBorrowerWithApplications(5, 0);
+        applicationRepository.findByBorrowerId(borrower.getId()).forEach(application -> {
+            for (int i = 0; i < 2; i++) {
+                applicationHistoryRepository.save(ApplicationHistory.builder()
+                    .applicationId(application.getId())
+                    .oldStatus(ApplicationStatus.DRAFT)
+                    .newStatus(ApplicationStatus.SUBMITTED)
+                    .build());
+            }
+        });
+        entityManager.flush();
+        entityManager.clear();
+        List<UUID> expected = applicationRepository.findByBorrowerId(borrower.getId()).stream()
+            .sorted(Comparator.comparing(Application::getCreatedAt).thenComparing(Application::getId).reversed())
+            .map(Application::getId)
+            .toList();
+
+        AtomicReference<Page<Application>> page = new AtomicReference<>();
+        long queries = countQueries(() ->
+            page.set(applicationRepository.findByBorrowerIdWithRelations(borrower.getId(),
+                PageRequest.of(1, 2, Sort.by("loanAmount")))));
+
+        assertEquals(5, page.get().getTotalElements());
+        // The caller's sort is dropped: the page stays newest first
+        assertEquals(expected.subList(2, 4), page.get().getContent().stream().map(Application::getId).toList());
+        page.get().forEach(application -> {
+            assertTrue(Hibernate.isInitialized(application.getHistory()));
+            assertEquals(2, application.getHistory().size());
+        });
+        // id page, count, graphs of the page
+        assertEquals(3, queries);
+    }
+
+    /**
+     * Statements prepared while running the call, starting from an empty persistence context so lookups by id
+     * cannot be answered from it.
+     */
+    private long countQueries(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User createBorrowerWithApplications(int applications, int banks) {
+        User borrower = createBorrower();
+        for (int i = 0; i < applications; i++) {
+            Application application = createApplication(borrower);
+            for (int b = 0; b < banks; b++) {
+                createOffer(application, createBank().getId());
+            }
+        }
+        return borrower;
+    }
+
+    private User createBorrower() {
+        User user = new User();
+        user.setEmail("borrower-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("hashedpassword");
+        user.setRole(UserRole.BORROWER);
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        return userRepository.save(user);
+    }
+
+    private Organization createBank() {
+        Organization bank = new Organization();
+        bank.setId(UUID.randomUUID());
+        bank.setName("Bank " + UUID.randomUUID().toString().substring(0, 8));
+        bank.setTaxId("TAX" + UUID.randomUUID().toString().substring(0, 8));
+        bank.setRegistrationNumber("REG" + UUID.randomUUID().toString().substring(0, 8));
+        bank.setStatus(BankStatus.ACTIVE);
+        bank.setCountryCode("US");
+        return organizationRepository.save(bank);
+    }
+
+    private Application createApplication(User borrower) {
+        Application application = new Application();
+        application.setId(UUID.randomUUID());
+        application.setBorrowerId(borrower.getId());
+        application.setLoanType("PERSONAL");
+        application.setLoanAmount(new BigDecimal("10000"));
+        application.setLoanTermMonths(12);
+        application.setCurrency("USD");
+        application.setStatus(ApplicationStatus.SUBMITTED);
+        application.setSubmittedAt(LocalDateTime.now());
+        return applicationRepository.save(application);
+    }
+
+    private void createOffer(Application application, UUID bankId) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(application.getId());
+        offer.setBankId(bankId);
+        offer.setOfferStatus(OfferStatus.SUBMITTED);
+        offer.setApr(new BigDecimal("5.5"));
+        offer.setMonthlyPayment(new BigDecimal("850.00"));
+        offer.setTotalCost(new BigDecimal("10200"));
+        offer.setOriginationFee(new BigDecimal("100"));
+        offer.setProcessingTimeDays(5);
+        offer.setValidityPeriodDays(30);
+        offer.setExpiresAt(LocalDateTime.now().plusDays(30));
+        offer.setOfferSubmittedAt(LocalDateTime.now());
+        offerRepository.save(offer);
+    }
+}
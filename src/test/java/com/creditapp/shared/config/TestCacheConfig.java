@@ -24,7 +24,8 @@ public class TestCacheConfig {
             "scenarioCalculations",
             "helpArticles",
             "applicationDetails",
-            "borrowerApplicationHistory"
+            "borrowerApplicationHistory",
+            "borrowerOfferHistory"
         );
     }
 }
\ No newline at end of file
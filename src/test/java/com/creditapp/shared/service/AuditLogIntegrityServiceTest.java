@@ -1,16 +1,75 @@
 package com.creditapp.shared.service;
 
+import com.creditapp.shared.audit.AuditLogExporter;
+import com.creditapp.shared.audit.LocalAuditArchiveStorage;
 import com.creditapp.shared.model.AuditAction;
 import com.creditapp.shared.model.AuditLog;
+import com.creditapp.shared.service.AuditLogIntegrityService.VerificationReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
+@ExtendWith(MockitoExtension.class)
 public class AuditLogIntegrityServiceTest {
 
-    private final AuditLogIntegrityService integrityService = new AuditLogIntegrityService();
+    @Mock
+    private AuditLogPartitionService auditLogPartitionService;
+
+    @TempDir
+    Path archiveDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogIntegrityService integrityService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "entity_type VARCHAR(100) NOT NULL, entity_id UUID NOT NULL, action VARCHAR(100) NOT NULL, "
+            + "actor_id UUID, actor_role VARCHAR(50), old_values JSON, new_values JSON, ip_address VARCHAR(45), "
+            + "user_agent VARCHAR(500), result VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE audit_log_checkpoints (seq BIGINT PRIMARY KEY, first_id BIGINT NOT NULL, "
+            + "last_id BIGINT NOT NULL, row_count INTEGER NOT NULL, chain_hash VARCHAR(64) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE audit_log_purges (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "checkpoint_seq BIGINT, segment_key VARCHAR(500) NOT NULL, first_id BIGINT NOT NULL, "
+            + "last_id BIGINT NOT NULL, row_count INTEGER NOT NULL, purged_at TIMESTAMP NOT NULL)");
+        lenient().when(auditLogPartitionService.isPartitioned()).thenReturn(false);
+        integrityService = new AuditLogIntegrityService(jdbcTemplate, new DataSourceTransactionManager(database),
+            auditLogPartitionService, 10, 4, 4, 0, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
 
     @Test
     void testCalculateHash() {
@@ -38,7 +97,7 @@ public class AuditLogIntegrityServiceTest {
     void testHashConsistency() {
         UUID actorId = UUID.randomUUID();
         UUID entityId = UUID.randomUUID();
-        
+
         AuditLog auditLog1 = new AuditLog(
                 "CreditApplication",
                 entityId,
@@ -113,4 +172,162 @@ public class AuditLogIntegrityServiceTest {
 
         assertFalse(isValid);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSealThrough_CheckpointsEveryRangeAndVerifiesInParallel() {
+        insert(35, LocalDateTime.now());
+
+        assertEquals(4, integrityService.sealThrough(Long.MAX_VALUE));
+
+        assertEquals(List.of(10, 10, 10, 5),
+            jdbcTemplate.queryForList("SELECT row_count FROM audit_log_checkpoints ORDER BY seq", Integer.class));
+        VerificationReport report = integrityService.verifyAll();
+        assertTrue(report.isValid());
+        assertEquals(4, report.segmentsVerified());
+        assertEquals(35, report.rowsVerified());
+
+        insert(3, LocalDateTime.now());
+        assertEquals(1, integrityService.sealThrough(Long.MAX_VALUE));
+        assertTrue(integrityService.verifyAll().isValid());
+    }
+
+    @Test
+    void testVerifyAll_DetectsChangedDeletedAndReplacedRows() {
+        insert(30, LocalDateTime.now());
+        integrityService.sealThrough(Long.MAX_VALUE);
+
+        jdbcTemplate.update("UPDATE audit_logs SET action = 'APPLICATION_APPROVED' WHERE id = 3");
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE id = 15");
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE id = 25");
+        jdbcTemplate.update("INSERT INTO audit_logs (id, entity_type, entity_id, action, result, created_at) "
+            + "VALUES (25, 'Application', ?, 'APPLICATION_SUBMITTED', 'SUCCESS', ?)", UUID.randomUUID(),
+            Timestamp.valueOf(LocalDateTime.now()));
+
+        VerificationReport report = integrityService.verifyAll();
+
+        assertEquals(3, report.failures().size());
+        assertTrue(report.failures().get(0).startsWith("Checkpoint 1 "));
+        assertTrue(report.failures().get(0).endsWith("with a different hash"));
+        assertTrue(report.failures().get(1).startsWith("Checkpoint 2 "));
+        assertTrue(report.failures().get(1).contains("expected 10 rows, found 9"));
+        assertTrue(report.failures().get(2).startsWith("Checkpoint 3 "));
+        assertTrue(report.failures().get(2).endsWith("with a different hash"));
+    }
+
+    @Test
+    void testVerifyAll_ReportsDeletedPrefixWithoutPurgeRecord() {
+        insert(30, LocalDateTime.now());
+        integrityService.sealThrough(Long.MAX_VALUE);
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE id <= 14");
+
+        VerificationReport report = integrityService.verifyAll();
+
+        assertFalse(report.isValid());
+        assertEquals(List.of("Checkpoint 1 (ids 1..10): expected 10 rows, found 0",
+            "Checkpoint 2 (ids 11..20): expected 10 rows, found 6"), report.failures());
+        assertEquals(0, report.segmentsSkipped());
+    }
+
+    @Test
+    void testVerifyAll_AccountsForPrefixPurgedAfterExport() throws Exception {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        insert(14, cutoff.minusDays(30));
+        insert(16, cutoff.plusHours(1));
+        integrityService.sealThrough(Long.MAX_VALUE);
+
+        AuditLogExporter.ExportResult exported = new AuditLogExporter(jdbcTemplate,
+            new DataSourceTransactionManager(database), new LocalAuditArchiveStorage(archiveDir.toString()),
+            auditLogPartitionService, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+            4, 100, 3, "audit-logs").exportOlderThan(cutoff);
+        assertEquals(14, exported.rows());
+
+        VerificationReport report = integrityService.verifyAll();
+        assertTrue(report.isValid());
+        assertEquals(2, report.segmentsSkipped());
+        assertEquals(1, report.segmentsVerified());
+
+        // A row of a partly exported range deleted without an export is still missed
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE id = 15");
+        assertEquals(List.of("Checkpoint 2 (ids 11..20): expected 10 rows, found 5 and 4 purged after export"),
+            integrityService.verifyAll().failures());
+    }
+
+    @Test
+    void testSeal_ChainsOnlyRowsThatExistedAtThePreviousRun() {
+        insert(5, LocalDateTime.now());
+        assertEquals(0, integrityService.seal());
+        insert(5, LocalDateTime.now());
+
+        assertEquals(1, integrityService.seal());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT last_id FROM audit_log_checkpoints", Long.class));
+
+        assertEquals(1, integrityService.seal());
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT MAX(last_id) FROM audit_log_checkpoints", Long.class));
+    }
+
+    @Test
+    void testSeal_WaitsForTransactionsOpenAtThePreviousRun() {
+        when(auditLogPartitionService.isPartitioned()).thenReturn(true);
+        jdbcTemplate.execute("CREATE TABLE audit_logs_archive AS SELECT * FROM audit_logs WITH NO DATA");
+        jdbcTemplate.execute("CREATE TABLE pg_stat_activity (datname VARCHAR(100), backend_type VARCHAR(100), "
+            + "backend_xid BIGINT, xact_start TIMESTAMP WITH TIME ZONE)");
+        jdbcTemplate.execute("CREATE ALIAS current_database FOR \""
+            + AuditLogIntegrityServiceTest.class.getName() + ".currentDatabase\"");
+        OffsetDateTime openedBefore = OffsetDateTime.now().minusMinutes(1);
+        jdbcTemplate.update("INSERT INTO pg_stat_activity VALUES (?, 'client backend', 1234, ?)", currentDatabase(),
+            openedBefore);
+        // Neither can commit an audit row: a read-only session and autovacuum
+        jdbcTemplate.update("INSERT INTO pg_stat_activity VALUES (?, 'client backend', NULL, ?)", currentDatabase(),
+            openedBefore);
+        jdbcTemplate.update("INSERT INTO pg_stat_activity VALUES (?, 'autovacuum worker', 5678, ?)", currentDatabase(),
+            openedBefore);
+        insert(5, LocalDateTime.now());
+        assertEquals(0, integrityService.seal());
+        insert(5, LocalDateTime.now());
+
+        // A transaction that started before the rows were seen may still commit a lower id
+        assertEquals(0, integrityService.seal());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_checkpoints", Long.class));
+        assertFalse(integrityService.sealBlockedFor().isZero());
+
+        jdbcTemplate.update("DELETE FROM pg_stat_activity WHERE backend_xid = 1234");
+        assertEquals(1, integrityService.seal());
+        assertTrue(integrityService.sealBlockedFor().isZero());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT last_id FROM audit_log_checkpoints", Long.class));
+    }
+
+    @Test
+    void testVerifyRecent_ResumesFromLastVerifiedCheckpoint() {
+        insert(20, LocalDateTime.now());
+        integrityService.sealThrough(Long.MAX_VALUE);
+        assertEquals(1, integrityService.verifyRecent().segmentsVerified());
+
+        insert(25, LocalDateTime.now());
+        integrityService.sealThrough(Long.MAX_VALUE);
+        jdbcTemplate.update("UPDATE audit_logs SET result = 'FAILURE' WHERE id = 2");
+
+        VerificationReport recent = integrityService.verifyRecent();
+        assertTrue(recent.isValid());
+        assertEquals(3, recent.segmentsVerified());
+        assertEquals(25, recent.rowsVerified());
+        assertEquals(0, integrityService.verifyRecent().segmentsVerified());
+        assertFalse(integrityService.verifyAll().isValid());
+    }
+
+    /**
+     * Stands in for PostgreSQL's current_database().
+     */
+    public static String currentDatabase() {
+        return "creditapp";
+    }
+
+    private void insert(int count, LocalDateTime createdAt) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO audit_logs (entity_type, entity_id, action, actor_id, actor_role, "
+                    + "old_values, new_values, ip_address, user_agent, result, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, NULL, ? FORMAT JSON, ?, ?, ?, ?)",
+                "Application", UUID.randomUUID(), "APPLICATION_SUBMITTED", UUID.randomUUID(), "BORROWER",
+                "{\"status\":\"SUBMITTED\"}", "127.0.0.1", "JUnit", "SUCCESS", Timestamp.valueOf(createdAt));
+        }
+    }
+}
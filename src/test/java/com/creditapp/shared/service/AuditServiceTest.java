@@ -1,5 +1,6 @@
 package com.creditapp.shared.service;
 
+import com.creditapp.shared.audit.AuditLogWriter;
 import com.creditapp.shared.model.AuditAction;
 import com.creditapp.shared.model.AuditLog;
 import com.creditapp.shared.repository.AuditLogRepository;
@@ -7,6 +8,7 @@ import com.creditapp.shared.security.DataRedactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -25,6 +27,9 @@ class AuditServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
     @Mock
     private RequestContextService requestContextService;
 
@@ -168,4 +173,24 @@ class AuditServiceTest {
         assertEquals(1, result.size());
         verify(auditLogRepository, times(1)).findByActorIdOrderByCreatedAtDesc(testActorId);
     }
+
+    @Test
+    void testLogActionWithValues_QueuesSanitizedRowForBatchWrite() {
+        // Arrange
+        Map<String, Object> newValues = new HashMap<>();
+        newValues.put("status", "SUBMITTED");
+        newValues.put("password", "secret");
+
+        // Act
+        auditService.logActionWithValues(testEntityType, testEntityId, AuditAction.APPLICATION_SUBMITTED,
+                testActorId, "BORROWER", null, newValues, "10.0.0.1", "JUnit");
+
+        // Assert
+        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogWriter).submit(captor.capture());
+        assertEquals(testEntityId, captor.getValue().getEntityId());
+        assertEquals(testActorId, captor.getValue().getActorId());
+        assertEquals("***REDACTED***", captor.getValue().getNewValues().get("password"));
+        verifyNoInteractions(auditLogRepository);
+    }
 }
@@ -2,25 +2,18 @@ package com.creditapp.unit.bank;
 
 import com.creditapp.bank.dto.ApplicationQueueRequest;
 import com.creditapp.bank.dto.ApplicationQueueResponse;
-import com.creditapp.bank.model.Offer;
-import com.creditapp.bank.model.OfferStatus;
-import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.model.BankApplicationQueueEntry;
+import com.creditapp.bank.repository.BankApplicationQueueRepository;
 import com.creditapp.bank.service.ApplicationQueueService;
-import com.creditapp.borrower.model.Application;
+import com.creditapp.bank.service.BankApplicationQueueProjection;
 import com.creditapp.borrower.model.ApplicationStatus;
-import com.creditapp.borrower.repository.ApplicationDocumentRepository;
-import com.creditapp.borrower.repository.ApplicationRepository;
-import com.creditapp.shared.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,66 +23,29 @@ import static org.mockito.Mockito.when;
 @SuppressWarnings("null")
 public class ApplicationQueueServiceTest {
 
-    private OfferRepository offerRepository;
-    private ApplicationRepository applicationRepository;
-    private ApplicationDocumentRepository applicationDocumentRepository;
+    private BankApplicationQueueRepository queueRepository;
+    private BankApplicationQueueProjection queueProjection;
     private ApplicationQueueService applicationQueueService;
 
     @BeforeEach
     void setup() {
-        offerRepository = Mockito.mock(OfferRepository.class);
-        applicationRepository = Mockito.mock(ApplicationRepository.class);
-        applicationDocumentRepository = Mockito.mock(ApplicationDocumentRepository.class);
-        applicationQueueService = new ApplicationQueueService(offerRepository, applicationRepository, applicationDocumentRepository);
+        queueRepository = Mockito.mock(BankApplicationQueueRepository.class);
+        queueProjection = Mockito.mock(BankApplicationQueueProjection.class);
+        applicationQueueService = new ApplicationQueueService(queueRepository, queueProjection);
     }
 
     @Test
     void returnsQueueItemsForBankWithMetrics() {
         UUID bankId = UUID.randomUUID();
         UUID appId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        BankApplicationQueueEntry row = new BankApplicationQueueEntry(bankId, appId, UUID.randomUUID(),
+            "Jane Doe", "Jane", "Doe", "jane@example.com", "+1234567890", "PERSONAL", new BigDecimal("10000"), 48,
+            ApplicationStatus.UNDER_REVIEW.name(), "pending", "none", new BigDecimal("5.25"),
+            new BigDecimal("250.00"), new BigDecimal("5.25"), new BigDecimal("250.00"), now.minusDays(2), now.minusDays(2), now, now.minusDays(1));
 
-        Offer offer = new Offer();
-        offer.setId(UUID.randomUUID());
-        offer.setApplicationId(appId);
-        offer.setBankId(bankId);
-        offer.setOfferStatus(OfferStatus.SUBMITTED);
-        offer.setApr(new BigDecimal("5.25"));
-        offer.setMonthlyPayment(new BigDecimal("250.00"));
-        offer.setTotalCost(new BigDecimal("15000.00"));
-        offer.setOriginationFee(new BigDecimal("100.00"));
-        offer.setProcessingTimeDays(5);
-        offer.setValidityPeriodDays(30);
-        offer.setExpiresAt(LocalDateTime.now().plusDays(10));
-
-        List<Offer> offerList = Collections.singletonList(offer);
-        when(offerRepository.findByBankId(Mockito.eq(bankId), Mockito.<Pageable>any()))
-            .thenReturn(new PageImpl<>(offerList, PageRequest.of(0, 20), 1));
-        when(offerRepository.countDistinctApplicationsByBankId(Mockito.eq(bankId))).thenReturn(1L);
-        when(offerRepository.findByApplicationIdAndOfferStatus(Mockito.eq(appId), Mockito.eq(OfferStatus.ACCEPTED))).thenReturn(java.util.Optional.empty());
-
-        Application app = Application.builder()
-            .id(appId)
-            .borrowerId(UUID.randomUUID())
-            .loanType("PERSONAL")
-            .loanAmount(new BigDecimal("10000"))
-            .loanTermMonths(48)
-            .currency("USD")
-            .status(ApplicationStatus.UNDER_REVIEW)
-            .createdAt(LocalDateTime.now().minusDays(2))
-            .submittedAt(LocalDateTime.now().minusDays(2))
-            .updatedAt(LocalDateTime.now())
-            .build();
-        User borrower = new User();
-        borrower.setFirstName("Jane");
-        borrower.setLastName("Doe");
-        borrower.setEmail("jane@example.com");
-        borrower.setPhoneNumber("+1234567890");
-        app.setBorrower(borrower);
-
-        when(applicationRepository.findAllById(Mockito.<Iterable<UUID>>any()))
-            .thenReturn(List.of(app));
-        when(applicationDocumentRepository.findByApplicationIdAndDeletedAtIsNull(Mockito.eq(appId)))
-            .thenReturn(Collections.emptyList());
+        when(queueRepository.findQueue(Mockito.eq(bankId), Mockito.<Pageable>any())).thenReturn(List.of(row));
+        when(queueRepository.countByBankId(bankId)).thenReturn(1L);
 
         ApplicationQueueRequest request = ApplicationQueueRequest.builder()
             .limit(20)
@@ -103,6 +59,7 @@ public class ApplicationQueueServiceTest {
         assertEquals(1, response.getApplications().size());
         assertEquals(20, response.getLimit());
         assertEquals(0, response.getOffset());
+        assertFalse(response.isHasMore());
 
         var item = response.getApplications().get(0);
         assertEquals(appId, item.getApplicationId());
@@ -120,5 +77,65 @@ public class ApplicationQueueServiceTest {
         assertEquals(1, response.getQueueMetrics().getTotalApplications());
         assertEquals(0, response.getQueueMetrics().getApprovedCount());
         assertEquals(0, response.getQueueMetrics().getRejectedCount());
+        Mockito.verify(queueProjection).flushPending();
+    }
+
+    @Test
+    void cursorPageSeeksPastPreviousPageWithoutOffset() {
+        UUID bankId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        BankApplicationQueueEntry first = row(bankId, now);
+        BankApplicationQueueEntry second = row(bankId, now.minusMinutes(1));
+        BankApplicationQueueEntry third = row(bankId, now.minusMinutes(2));
+        when(queueRepository.findQueue(Mockito.eq(bankId), Mockito.<Pageable>any()))
+            .thenReturn(List.of(first, second, third));
+        when(queueRepository.countByBankId(bankId)).thenReturn(3L);
+
+        ApplicationQueueResponse page0 = applicationQueueService.getApplicationQueue(bankId,
+            ApplicationQueueRequest.builder().limit(2).cursor("").build());
+
+        assertEquals(2, page0.getApplications().size());
+        assertTrue(page0.isHasMore());
+        assertNotNull(page0.getNextCursor());
+
+        when(queueRepository.findQueueBefore(Mockito.eq(bankId), Mockito.eq(second.getLatestOfferAt()),
+            Mockito.eq(second.getApplicationId()), Mockito.<Pageable>any())).thenReturn(List.of(third));
+
+        ApplicationQueueResponse page1 = applicationQueueService.getApplicationQueue(bankId,
+            ApplicationQueueRequest.builder().limit(2).cursor(page0.getNextCursor()).build());
+
+        assertEquals(List.of(third.getApplicationId()), page1.getApplications().stream()
+            .map(item -> item.getApplicationId()).toList());
+        assertFalse(page1.isHasMore());
+        assertNull(page1.getNextCursor());
+        // Only the first cursor page counts the queue
+        assertEquals(3, page0.getTotalCount());
+        assertNull(page1.getTotalCount());
+        Mockito.verify(queueRepository, Mockito.times(1)).countByBankId(bankId);
+
+        ApplicationQueueResponse counted = applicationQueueService.getApplicationQueue(bankId,
+            ApplicationQueueRequest.builder().limit(2).cursor(page0.getNextCursor()).includeTotal(true).build());
+        assertEquals(3, counted.getTotalCount());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        UUID bankId = UUID.randomUUID();
+
+        assertThrows(IllegalArgumentException.class, () -> applicationQueueService.getApplicationQueue(bankId,
+            ApplicationQueueRequest.builder().limit(2).cursor("not a cursor!").build()));
+        Mockito.verify(queueRepository, Mockito.never())
+            .findQueueBefore(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    private static BankApplicationQueueEntry row(UUID bankId, LocalDateTime latestOfferAt) {
+        BankApplicationQueueEntry row = new BankApplicationQueueEntry();
+        row.setBankId(bankId);
+        row.setApplicationId(UUID.randomUUID());
+        row.setApplicationStatus(ApplicationStatus.SUBMITTED.name());
+        row.setApprovalStatus("pending");
+        row.setDocumentsStatus("none");
+        row.setLatestOfferAt(latestOfferAt);
+        return row;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,235 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.websocket.ApplicationQueueWebSocketHandler;
+import com.creditapp.bank.websocket.LocalApplicationQueueFanout;
+import com.creditapp.bank.websocket.QueueDeltaCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApplicationQueueWebSocketHandlerTest {
+
+    private static final String BANK_ID = "bank-1";
+
+    /** Tasks the handler hands to the broadcast executor, run explicitly by the test. */
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    /** Tasks scheduled on the WebSocket scheduler, run explicitly by the test. */
+    private final Queue<Runnable> scheduled = new ArrayDeque<>();
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalApplicationQueueFanout fanout;
+    private ApplicationQueueWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = handler(tasks::add);
+    }
+
+    @Test
+    void testBroadcast_SerializesOnceAndDeliversOffCallerThread() throws Exception {
+        WebSocketSession first = connect("s1");
+        WebSocketSession second = connect("s2");
+        runTasks();
+
+        handler.deliverLocal(BANK_ID, delta(1, "app-1"));
+        verify(first, times(1)).sendMessage(any());
+        runTasks();
+
+        ArgumentCaptor<TextMessage> toFirst = ArgumentCaptor.forClass(TextMessage.class);
+        ArgumentCaptor<TextMessage> toSecond = ArgumentCaptor.forClass(TextMessage.class);
+        verify(first, times(2)).sendMessage(toFirst.capture());
+        verify(second, times(2)).sendMessage(toSecond.capture());
+        assertThat(toFirst.getValue()).isSameAs(toSecond.getValue());
+        assertThat(toFirst.getValue().getPayload()).isEqualTo(delta(1, "app-1"));
+    }
+
+    @Test
+    void testBroadcast_DropsSessionWhoseBufferOverflows() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        CountDownLatch stalled = new CountDownLatch(1);
+        try {
+            meterRegistry = new SimpleMeterRegistry();
+            handler = handler(executor);
+            WebSocketSession slow = session("slow");
+            doAnswer(invocation -> stalled.await(10, TimeUnit.SECONDS)).when(slow).sendMessage(any());
+            handler.afterConnectionEstablished(slow);
+            WebSocketSession fast = connect("fast");
+
+            // Paced by the fast session, so only the stalled one accumulates a backlog
+            for (int i = 0; i < 20; i++) {
+                handler.deliverLocal(BANK_ID, delta(i + 1, "app-" + i));
+                verify(fast, timeout(5000).times(i + 2)).sendMessage(any());
+            }
+
+            verify(slow, timeout(5000)).close(any(CloseStatus.class));
+            verify(fast, never()).close(any(CloseStatus.class));
+            assertThat(meterRegistry.counter("creditapp.websocket.sessions.dropped", "reason", "slow_consumer")
+                .count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("creditapp.websocket.sessions").gauge().value()).isEqualTo(1.0);
+        } finally {
+            stalled.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBroadcast_RetriesDrainRejectedByExecutor() throws Exception {
+        AtomicBoolean saturated = new AtomicBoolean();
+        handler = handler(task -> {
+            if (saturated.get()) {
+                throw new TaskRejectedException("saturated");
+            }
+            tasks.add(task);
+        });
+        WebSocketSession session = connect("s1");
+        runTasks();
+
+        saturated.set(true);
+        handler.deliverLocal(BANK_ID, delta(1, "app-1"));
+        verify(session, times(1)).sendMessage(any());
+        assertThat(scheduled).hasSize(1);
+
+        // Nothing else is sent to the session; the scheduled retry alone delivers the queued delta
+        saturated.set(false);
+        runScheduled();
+        runTasks();
+
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(2)).sendMessage(sent.capture());
+        assertThat(sent.getValue().getPayload()).isEqualTo(delta(1, "app-1"));
+    }
+
+    @Test
+    void testBroadcast_NoSessionsForBankIsNoOp() {
+        connect("s1");
+        tasks.clear();
+
+        handler.deliverLocal("other-bank", delta(1, "app-1"));
+
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void testReconnect_ReplaysDeltasAfterSinceVersionOrAsksForResync() throws Exception {
+        // Logged by the coalescer of whichever node produced them; this node never had a session of the bank
+        for (int version = 1; version <= 3; version++) {
+            fanout.appendDelta(BANK_ID, fanout.nextVersion(BANK_ID), delta(version, "app-" + version));
+        }
+
+        WebSocketSession resumed = session("resumed");
+        resumed.getAttributes().put("sinceVersion", 1L);
+        handler.afterConnectionEstablished(resumed);
+        runTasks();
+
+        ArgumentCaptor<TextMessage> replayed = ArgumentCaptor.forClass(TextMessage.class);
+        verify(resumed, times(3)).sendMessage(replayed.capture());
+        assertThat(replayed.getAllValues().get(0).getPayload()).contains("\"type\":\"connected\"", "\"version\":3");
+        assertThat(replayed.getAllValues().subList(1, 3)).extracting(TextMessage::getPayload)
+            .containsExactly(delta(2, "app-2"), delta(3, "app-3"));
+
+        WebSocketSession ahead = session("ahead");
+        ahead.getAttributes().put("sinceVersion", 7L);
+        handler.afterConnectionEstablished(ahead);
+        runTasks();
+
+        ArgumentCaptor<TextMessage> resync = ArgumentCaptor.forClass(TextMessage.class);
+        verify(ahead, times(2)).sendMessage(resync.capture());
+        assertThat(resync.getValue().getPayload()).contains("\"type\":\"resync\"", "\"version\":3");
+    }
+
+    @Test
+    void testConnect_ReportsCurrentVersionBeforeAnyDeltaReachedThisNode() throws Exception {
+        fanout.nextVersion(BANK_ID);
+        fanout.nextVersion(BANK_ID);
+
+        WebSocketSession session = connect("s1");
+        runTasks();
+
+        ArgumentCaptor<TextMessage> connected = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(connected.capture());
+        assertThat(connected.getValue().getPayload()).contains("\"type\":\"connected\"", "\"version\":2");
+    }
+
+    private ApplicationQueueWebSocketHandler handler(Executor executor) {
+        fanout = new LocalApplicationQueueFanout(16);
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+        QueueDeltaCoalescer coalescer = new QueueDeltaCoalescer(fanout, new ObjectMapper(), meterRegistry, scheduler,
+            250);
+        return new ApplicationQueueWebSocketHandler(new ObjectMapper(), fanout, coalescer, executor, scheduler,
+            meterRegistry, 5000, 1024);
+    }
+
+    private static String delta(long version, String applicationId) {
+        return "{\"type\":\"queue_delta\",\"version\":" + version + ",\"applications\":[{\"applicationId\":\""
+            + applicationId + "\",\"status\":\"UNDER_REVIEW\"}],\"timestamp\":0}";
+    }
+
+    private WebSocketSession connect(String sessionId) {
+        WebSocketSession session = session(sessionId);
+        try {
+            handler.afterConnectionEstablished(session);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return session;
+    }
+
+    private static WebSocketSession session(String sessionId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("bankId", BANK_ID);
+        when(session.getId()).thenReturn(sessionId);
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private void runScheduled() {
+        Runnable task;
+        while ((task = scheduled.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
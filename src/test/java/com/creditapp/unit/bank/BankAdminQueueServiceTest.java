@@ -1,38 +1,41 @@
 package com.creditapp.unit.bank;
 
+import com.creditapp.bank.dto.ApplicationQueueFilter;
+import com.creditapp.bank.dto.ApplicationQueueItem;
 import com.creditapp.bank.dto.ApplicationQueueResponse;
-import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.dto.ApplicationQueueRow;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.bank.service.BankAdminQueueService;
-import com.creditapp.borrower.model.Application;
+import com.creditapp.bank.service.BankApplicationQueueProjection;
 import com.creditapp.borrower.model.ApplicationStatus;
-import com.creditapp.borrower.repository.ApplicationRepository;
-import com.creditapp.shared.model.User;
-import com.creditapp.shared.model.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
- * Unit tests for Story 4.2: BankAdminQueueService
+ * Unit tests for Story 4.2: BankAdminQueueService.
+ * Filtering, search and sorting run in the database and are covered by BankAdminQueueIntegrationTest.
  */
 class BankAdminQueueServiceTest {
 
@@ -40,7 +43,7 @@ class BankAdminQueueServiceTest {
     private OfferRepository offerRepository;
 
     @Mock
-    private ApplicationRepository applicationRepository;
+    private BankApplicationQueueProjection queueProjection;
 
     @InjectMocks
     private BankAdminQueueService bankAdminQueueService;
@@ -62,8 +65,7 @@ class BankAdminQueueServiceTest {
     @Test
     void testGetApplicationQueue_EmptyResults() {
         // Given
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Collections.emptyList()));
+        stubQueue(Collections.emptyList(), PageRequest.of(0, 20), 0);
 
         // When
         ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
@@ -80,22 +82,11 @@ class BankAdminQueueServiceTest {
     @Test
     void testGetApplicationQueue_WithApplications() {
         // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
+        ApplicationQueueRow row1 = createRow(applicationId1, borrowerId, new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
+        ApplicationQueueRow row2 = createRow(applicationId2, borrowerId, new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
+        stubQueue(List.of(row1, row2), PageRequest.of(0, 20), 2);
+        when(offerRepository.countDistinctApplicationsByBankIdAndStatus(bankId, ApplicationStatus.SUBMITTED))
+            .thenReturn(1L);
 
         // When
         ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
@@ -108,312 +99,93 @@ class BankAdminQueueServiceTest {
         assertEquals(2, response.getApplications().size());
         assertFalse(response.isHasMore());
         assertEquals(1, response.getQueueMetrics().getDocumentsAwaitingReview()); // Badge count (SUBMITTED)
-    }
-
-    @Test
-    void testGetApplicationQueue_FilterByStatus() {
-        // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - filter by SUBMITTED status
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, List.of("SUBMITTED"), null, null, null, null, null, "NEWEST_FIRST", null, null, null
-        );
-
-        // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals(1, response.getApplications().size());
-        assertEquals("SUBMITTED", response.getApplications().get(0).getStatus());
-    }
-
-    @Test
-    void testGetApplicationQueue_FilterByLoanType() {
-        // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - filter by HOME_LOAN
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, List.of("HOME_LOAN"), null, null, null, null, "NEWEST_FIRST", null, null, null
-        );
-
-        // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals(new BigDecimal("50000"), response.getApplications().get(0).getLoanAmount());
-    }
-
-    @Test
-    void testGetApplicationQueue_FilterByAmountRange() {
-        // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - filter by amount range 40000-60000
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, new BigDecimal("40000"), new BigDecimal("60000"), 
-            "NEWEST_FIRST", null, null, null
-        );
-
-        // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals(new BigDecimal("50000"), response.getApplications().get(0).getLoanAmount());
-    }
-
-    @Test
-    void testGetApplicationQueue_FilterByDateRange() {
-        // Given
-        User borrower = createBorrower();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime yesterday = now.minusDays(1);
-        
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        app1.setSubmittedAt(yesterday);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-        app2.setSubmittedAt(now);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - filter by today's date only
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, LocalDate.now(), LocalDate.now(), null, null, 
-            "NEWEST_FIRST", null, null, null
-        );
-
-        // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals(applicationId2, response.getApplications().get(0).getApplicationId());
-    }
-
-    @Test
-    void testGetApplicationQueue_SearchByApplicationId() {
-        // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - search by partial application ID
-        String searchId = applicationId1.toString().substring(0, 8);
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, null, null, "NEWEST_FIRST", searchId, null, null
-        );
 
-        // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals(applicationId1, response.getApplications().get(0).getApplicationId());
+        ApplicationQueueItem item = response.getApplications().get(0);
+        assertEquals(applicationId1, item.getApplicationId());
+        assertEquals("John Doe", item.getBorrowerName());
+        assertEquals("test@example.com", item.getBorrowerEmail());
+        assertEquals(new BigDecimal("5.5"), item.getSelectedOfferAPR());
+        assertEquals(new BigDecimal("850.00"), item.getSelectedOfferMonthlyPayment());
+        assertEquals("SUBMITTED", item.getStatus());
+        assertEquals(12, item.getTermMonths());
     }
 
     @Test
-    void testGetApplicationQueue_SearchByBorrowerEmail() {
+    void testGetApplicationQueue_MissingBorrower() {
         // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(List.of(offer1)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(List.of(app1));
+        ApplicationQueueRow row = createRow(applicationId1, null, new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
+        stubQueue(List.of(row), PageRequest.of(0, 20), 1);
 
-        // When - search by partial email (case-insensitive)
+        // When
         ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, null, null, "NEWEST_FIRST", null, "TEST", null
+            bankId, 0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null
         );
 
         // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertEquals("test@example.com", response.getApplications().get(0).getBorrowerEmail());
+        assertEquals("N/A", response.getApplications().get(0).getBorrowerName());
     }
 
     @Test
-    void testGetApplicationQueue_SearchByBorrowerName() {
+    void testGetApplicationQueue_PassesFiltersToQuery() {
         // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(List.of(offer1)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(List.of(app1));
+        stubQueue(Collections.emptyList(), PageRequest.of(2, 20), 40);
+        UUID match = UUID.randomUUID();
+        when(offerRepository.searchApplicationIds(eq(bankId), any(ApplicationQueueFilter.class), anyInt()))
+            .thenReturn(List.of(match));
 
-        // When - search by partial name (case-insensitive)
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, "john"
+        // When
+        bankAdminQueueService.getApplicationQueue(
+            bankId, 2, List.of("SUBMITTED"), List.of("HOME"), LocalDate.now(), LocalDate.now(),
+            new BigDecimal("40000"), new BigDecimal("60000"), "AMOUNT_HIGH_LOW", "abc", "TEST", "john"
         );
 
         // Then
-        assertNotNull(response);
-        assertEquals(1, response.getTotalCount());
-        assertTrue(response.getApplications().get(0).getBorrowerName().toLowerCase().contains("john"));
+        ArgumentCaptor<ApplicationQueueFilter> filter = ArgumentCaptor.forClass(ApplicationQueueFilter.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(offerRepository).findApplicationQueue(eq(bankId), filter.capture(), pageable.capture());
+        assertEquals(List.of("SUBMITTED"), filter.getValue().statuses());
+        assertEquals(List.of("HOME"), filter.getValue().loanTypes());
+        assertEquals(new BigDecimal("40000"), filter.getValue().amountFrom());
+        assertEquals("AMOUNT_HIGH_LOW", filter.getValue().sortBy());
+        assertEquals("abc", filter.getValue().searchApplicationId());
+        assertEquals("TEST", filter.getValue().searchBorrowerEmail());
+        assertEquals("john", filter.getValue().searchBorrowerName());
+        assertEquals(List.of(match), filter.getValue().searchMatches());
+        assertEquals(40, pageable.getValue().getOffset());
+        assertEquals(20, pageable.getValue().getPageSize());
     }
 
     @Test
-    void testGetApplicationQueue_SortByOldestFirst() {
+    void testGetApplicationQueue_FlagsTruncatedSearch() {
         // Given
-        User borrower = createBorrower();
-        LocalDateTime now = LocalDateTime.now();
-        
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        app1.setSubmittedAt(now.minusDays(2));
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-        app2.setSubmittedAt(now.minusDays(1));
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - sort by oldest first
-        ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, null, null, "OLDEST_FIRST", null, null, null
-        );
-
-        // Then
-        assertNotNull(response);
-        assertEquals(2, response.getTotalCount());
-        assertEquals(applicationId1, response.getApplications().get(0).getApplicationId());
-        assertEquals(applicationId2, response.getApplications().get(1).getApplicationId());
-    }
+        stubQueue(Collections.emptyList(), PageRequest.of(0, 20), 0);
+        List<UUID> matches = new ArrayList<>();
+        for (int i = 0; i <= BankAdminQueueService.SEARCH_LIMIT; i++) {
+            matches.add(UUID.randomUUID());
+        }
+        when(offerRepository.searchApplicationIds(eq(bankId), any(ApplicationQueueFilter.class),
+            eq(BankAdminQueueService.SEARCH_LIMIT + 1))).thenReturn(matches);
 
-    @Test
-    void testGetApplicationQueue_SortByAmountHighLow() {
-        // Given
-        User borrower = createBorrower();
-        Application app1 = createApplication(applicationId1, borrowerId, "PERSONAL_LOAN", 
-            new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-        app1.setBorrower(borrower);
-        
-        Application app2 = createApplication(applicationId2, borrowerId, "HOME_LOAN", 
-            new BigDecimal("50000"), ApplicationStatus.UNDER_REVIEW);
-        app2.setBorrower(borrower);
-
-        Offer offer1 = createOffer(applicationId1, bankId, new BigDecimal("5.5"));
-        Offer offer2 = createOffer(applicationId2, bankId, new BigDecimal("4.5"));
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Arrays.asList(offer1, offer2)));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(Arrays.asList(app1, app2));
-
-        // When - sort by amount high to low
+        // When
         ApplicationQueueResponse response = bankAdminQueueService.getApplicationQueue(
-            bankId, 0, null, null, null, null, null, null, "AMOUNT_HIGH_LOW", null, null, null
+            bankId, 0, null, null, null, null, null, null, "NEWEST_FIRST", null, null, "a"
         );
 
         // Then
-        assertNotNull(response);
-        assertEquals(2, response.getTotalCount());
-        assertEquals(new BigDecimal("50000"), response.getApplications().get(0).getLoanAmount());
-        assertEquals(new BigDecimal("10000"), response.getApplications().get(1).getLoanAmount());
+        assertTrue(response.isSearchTruncated());
+        ArgumentCaptor<ApplicationQueueFilter> filter = ArgumentCaptor.forClass(ApplicationQueueFilter.class);
+        verify(offerRepository).findApplicationQueue(eq(bankId), filter.capture(), any(Pageable.class));
+        assertEquals(matches.subList(0, BankAdminQueueService.SEARCH_LIMIT), filter.getValue().searchMatches());
     }
 
     @Test
     void testGetApplicationQueue_Pagination() {
         // Given
-        User borrower = createBorrower();
-        List<Application> applications = new ArrayList<>();
-        List<Offer> offers = new ArrayList<>();
-        
+        List<ApplicationQueueRow> rows = new ArrayList<>();
         for (int i = 0; i < 25; i++) {
-            UUID appId = UUID.randomUUID();
-            Application app = createApplication(appId, borrowerId, "PERSONAL_LOAN", 
-                new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-            app.setBorrower(borrower);
-            applications.add(app);
-            offers.add(createOffer(appId, bankId, new BigDecimal("5.5")));
+            rows.add(createRow(UUID.randomUUID(), borrowerId, new BigDecimal("10000"), ApplicationStatus.SUBMITTED));
         }
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(offers));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(applications);
+        stubQueue(rows.subList(0, 20), PageRequest.of(0, 20), 25);
 
         // When - page 0
         ApplicationQueueResponse page0 = bankAdminQueueService.getApplicationQueue(
@@ -427,6 +199,7 @@ class BankAdminQueueServiceTest {
         assertTrue(page0.isHasMore());
 
         // When - page 1
+        stubQueue(rows.subList(20, 25), PageRequest.of(1, 20), 25);
         ApplicationQueueResponse page1 = bankAdminQueueService.getApplicationQueue(
             bankId, 1, null, null, null, null, null, null, "NEWEST_FIRST", null, null, null
         );
@@ -435,29 +208,18 @@ class BankAdminQueueServiceTest {
         assertNotNull(page1);
         assertEquals(25, page1.getTotalCount());
         assertEquals(5, page1.getApplications().size()); // Remaining 5 items
+        assertEquals(20, page1.getOffset());
         assertFalse(page1.isHasMore());
     }
 
     @Test
     void testGetApplicationQueue_ResponseTime() {
         // Given
-        User borrower = createBorrower();
-        List<Application> applications = new ArrayList<>();
-        List<Offer> offers = new ArrayList<>();
-        
-        for (int i = 0; i < 100; i++) {
-            UUID appId = UUID.randomUUID();
-            Application app = createApplication(appId, borrowerId, "PERSONAL_LOAN", 
-                new BigDecimal("10000"), ApplicationStatus.SUBMITTED);
-            app.setBorrower(borrower);
-            applications.add(app);
-            offers.add(createOffer(appId, bankId, new BigDecimal("5.5")));
+        List<ApplicationQueueRow> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(createRow(UUID.randomUUID(), borrowerId, new BigDecimal("10000"), ApplicationStatus.SUBMITTED));
         }
-
-        when(offerRepository.findByBankId(any(UUID.class), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(offers));
-        when(applicationRepository.findAllById(anyIterable()))
-            .thenReturn(applications);
+        stubQueue(rows, PageRequest.of(0, 20), 100);
 
         // When
         long startTime = System.currentTimeMillis();
@@ -472,38 +234,18 @@ class BankAdminQueueServiceTest {
     }
 
     // Helper methods
-    private User createBorrower() {
-        User user = new User();
-        user.setId(borrowerId);
-        user.setEmail("test@example.com");
-        user.setFirstName("John");
-        user.setLastName("Doe");
-        user.setRole(UserRole.BORROWER);
-        return user;
-    }
-
-    private Application createApplication(UUID id, UUID borrowerId, String loanType, 
-                                          BigDecimal amount, ApplicationStatus status) {
-        return Application.builder()
-            .id(id)
-            .borrowerId(borrowerId)
-            .loanType(loanType)
-            .loanAmount(amount)
-            .loanTermMonths(12)
-            .currency("USD")
-            .status(status)
-            .submittedAt(LocalDateTime.now())
-            .build();
+    private void stubQueue(List<ApplicationQueueRow> rows, Pageable pageable, long total) {
+        when(offerRepository.findApplicationQueue(eq(bankId), any(ApplicationQueueFilter.class), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(rows, pageable, total));
     }
 
-    private Offer createOffer(UUID applicationId, UUID bankId, BigDecimal apr) {
-        Offer offer = new Offer();
-        offer.setId(UUID.randomUUID());
-        offer.setApplicationId(applicationId);
-        offer.setBankId(bankId);
-        offer.setApr(apr);
-        offer.setMonthlyPayment(new BigDecimal("850.00"));
-        // createdAt is auto-generated by @CreationTimestamp
-        return offer;
+    private ApplicationQueueRow createRow(UUID applicationId, UUID borrowerUserId, BigDecimal amount,
+                                          ApplicationStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ApplicationQueueRow(applicationId, borrowerUserId,
+            borrowerUserId != null ? "John" : null,
+            borrowerUserId != null ? "Doe" : null,
+            borrowerUserId != null ? "test@example.com" : null,
+            amount, 12, new BigDecimal("5.5"), new BigDecimal("850.00"), status, now, now, now);
     }
 }
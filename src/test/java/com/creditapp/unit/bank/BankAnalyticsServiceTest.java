@@ -2,8 +2,11 @@ package com.creditapp.unit.bank;
 
 import com.creditapp.bank.dto.*;
 import com.creditapp.bank.model.Offer;
-import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.model.OfferStatus;
 import com.creditapp.bank.service.BankAnalyticsService;
+import com.creditapp.bank.service.BankOfferColumnCache;
+import com.creditapp.bank.service.BankOfferColumns;
+import com.creditapp.bank.service.BankDailyMetricsService;
 import com.creditapp.borrower.model.Application;
 import com.creditapp.borrower.repository.ApplicationRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,16 +24,20 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class BankAnalyticsServiceTest {
 
     @Mock
-    private ApplicationRepository applicationRepository;
+    private BankDailyMetricsService dailyMetricsService;
+
+    @Mock
+    private BankOfferColumnCache offerColumnCache;
 
     @Mock
-    private OfferRepository offerRepository;
+    private ApplicationRepository applicationRepository;
 
     @InjectMocks
     private BankAnalyticsService analyticsService;
@@ -43,6 +51,7 @@ class BankAnalyticsServiceTest {
         bankId = UUID.randomUUID();
         dateFrom = LocalDate.now().minusDays(30);
         dateTo = LocalDate.now();
+        ReflectionTestUtils.setField(analyticsService, "rollupEnabled", true);
     }
 
     @Test
@@ -50,8 +59,7 @@ class BankAnalyticsServiceTest {
         List<Application> applications = createMockApplications(10);
         List<Offer> offers = createMockOffers(7, applications);
 
-        when(applicationRepository.findByCreatedAtBetween(any(), any())).thenReturn(applications);
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(offers);
+        stubRollups(applications, offers);
 
         AnalyticsRequest request = AnalyticsRequest.builder()
                 .dateFrom(dateFrom)
@@ -77,8 +85,7 @@ class BankAnalyticsServiceTest {
                 createOffer(applications.get(2), new BigDecimal("7.5"))
         );
 
-        when(applicationRepository.findByCreatedAtBetween(any(), any())).thenReturn(applications);
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(offers);
+        stubRollups(applications, offers);
 
         AnalyticsRequest request = AnalyticsRequest.builder()
                 .dateFrom(dateFrom)
@@ -105,11 +112,8 @@ class BankAnalyticsServiceTest {
         offers.get(0).setBorrowerSelectedAt(LocalDateTime.now());
         offers.get(1).setBorrowerSelectedAt(LocalDateTime.now());
 
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(offers);
-        when(applicationRepository.findById(any())).thenAnswer(invocation -> {
-            UUID id = invocation.getArgument(0);
-            return applications.stream().filter(a -> a.getId().equals(id)).findFirst();
-        });
+        when(dailyMetricsService.getBankMetrics(eq(bankId), any(), any()))
+                .thenReturn(BankDailyMetricsService.aggregate(toFacts(applications, offers)));
 
         Map<String, LoanTypeBreakdownDTO> breakdown = analyticsService.getAcceptanceByLoanType(bankId, dateFrom, dateTo);
 
@@ -132,11 +136,8 @@ class BankAnalyticsServiceTest {
         
         List<Offer> offers = createMockOffers(5, applications);
 
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(offers);
-        when(applicationRepository.findById(any())).thenAnswer(invocation -> {
-            UUID id = invocation.getArgument(0);
-            return applications.stream().filter(a -> a.getId().equals(id)).findFirst();
-        });
+        when(dailyMetricsService.getBankMetrics(eq(bankId), any(), any()))
+                .thenReturn(BankDailyMetricsService.aggregate(toFacts(applications, offers)));
 
         Map<String, AmountRangeBreakdownDTO> breakdown = analyticsService.getAcceptanceByAmountRange(bankId, dateFrom, dateTo);
 
@@ -158,8 +159,7 @@ class BankAnalyticsServiceTest {
         List<Application> applications = createMockApplications(14);
         List<Offer> offers = createMockOffers(10, applications);
 
-        when(applicationRepository.findByCreatedAtBetween(any(), any())).thenReturn(applications);
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(offers);
+        stubRollups(applications, offers);
 
         List<AnalyticsTrendDTO> trends = analyticsService.getTrendData(bankId, start, end, "DAILY");
 
@@ -180,8 +180,7 @@ class BankAnalyticsServiceTest {
                 .preset(AnalyticsRequest.DatePreset.LAST_7)
                 .build();
 
-        when(applicationRepository.findByCreatedAtBetween(any(), any())).thenReturn(Collections.emptyList());
-        when(offerRepository.findByBankIdAndOfferSubmittedAtBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+        stubRollups(Collections.emptyList(), Collections.emptyList());
 
         AnalyticsResponseDTO todayResponse = analyticsService.getAnalytics(bankId, todayRequest);
         AnalyticsResponseDTO last7Response = analyticsService.getAnalytics(bankId, last7Request);
@@ -191,6 +190,83 @@ class BankAnalyticsServiceTest {
         assertEquals(LocalDate.now(), todayResponse.getReportGeneratedAt());
     }
 
+    @Test
+    void testColumnScan_MatchesRollupPath() {
+        List<Application> applications = createMockApplications(20);
+        List<Offer> offers = createMockOffers(12, applications);
+        offers.get(3).setBorrowerSelectedAt(LocalDateTime.now());
+        offers.get(7).setBorrowerSelectedAt(LocalDateTime.now());
+        AnalyticsRequest request = AnalyticsRequest.builder()
+                .preset(AnalyticsRequest.DatePreset.LAST_30)
+                .build();
+
+        stubRollups(applications, offers);
+        AnalyticsResponseDTO fromRollups = analyticsService.getAnalytics(bankId, request);
+
+        ReflectionTestUtils.setField(analyticsService, "rollupEnabled", false);
+        when(offerColumnCache.snapshot(bankId)).thenReturn(BankOfferColumns.of(toRows(applications, offers)));
+        when(applicationRepository.findCreatedAtBetween(any(), any()))
+                .thenReturn(applications.stream().map(Application::getCreatedAt).toList());
+        AnalyticsResponseDTO fromRawData = analyticsService.getAnalytics(bankId, request);
+
+        assertEquals(fromRollups.getMetrics(), fromRawData.getMetrics());
+        assertEquals(fromRollups.getTrends(), fromRawData.getTrends());
+        assertEquals(fromRollups.getLoanTypeBreakdown(), fromRawData.getLoanTypeBreakdown());
+        assertEquals(fromRollups.getAmountRangeBreakdown(), fromRawData.getAmountRangeBreakdown());
+        assertEquals(12L, fromRawData.getMetrics().getOffersSubmitted());
+        assertEquals(2L, fromRawData.getLoanTypeBreakdown().get("PERSONAL").getAccepted());
+    }
+
+    @Test
+    void testTrendDataMonthly_BucketsFollowChainedMonthStarts() {
+        LocalDate start = LocalDate.of(2024, 1, 31);
+        LocalDate end = LocalDate.of(2024, 4, 15);
+        Application application = createApplication("PERSONAL");
+        application.setCreatedAt(LocalDate.of(2024, 2, 29).atTime(9, 0));
+        stubRollups(List.of(application), List.of(createOffer(application, new BigDecimal("8.5"))));
+
+        List<AnalyticsTrendDTO> trends = analyticsService.getTrendData(bankId, start, end, "MONTHLY");
+
+        assertEquals(List.of(start, LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 29)),
+                trends.stream().map(AnalyticsTrendDTO::getDate).toList());
+        assertEquals(0L, trends.get(0).getOffersCount());
+        assertEquals(1L, trends.get(1).getOffersCount());
+        assertEquals(1L, trends.get(1).getApplicationsCount());
+    }
+
+    private void stubRollups(List<Application> applications, List<Offer> offers) {
+        Map<LocalDate, Long> applicationCounts = new TreeMap<>();
+        for (Application application : applications) {
+            applicationCounts.merge(application.getCreatedAt().toLocalDate(), 1L, Long::sum);
+        }
+        when(dailyMetricsService.getApplicationCounts(any(), any())).thenReturn(applicationCounts);
+        when(dailyMetricsService.getBankMetrics(eq(bankId), any(), any()))
+                .thenReturn(BankDailyMetricsService.aggregate(toFacts(applications, offers)));
+    }
+
+    private List<SubmittedOfferFact> toFacts(List<Application> applications, List<Offer> offers) {
+        List<SubmittedOfferFact> facts = new ArrayList<>();
+        for (Offer offer : offers) {
+            Application application = applications.stream()
+                    .filter(a -> a.getId().equals(offer.getApplicationId()))
+                    .findFirst()
+                    .orElseThrow();
+            facts.add(new SubmittedOfferFact(offer.getBankId(), application.getLoanType(), application.getLoanAmount(),
+                    application.getCreatedAt(), offer.getApr(), offer.getOfferSubmittedAt(), offer.getBorrowerSelectedAt()));
+        }
+        return facts;
+    }
+
+    private List<OfferColumnRow> toRows(List<Application> applications, List<Offer> offers) {
+        List<OfferColumnRow> rows = new ArrayList<>();
+        for (SubmittedOfferFact fact : toFacts(applications, offers)) {
+            rows.add(new OfferColumnRow(UUID.randomUUID(), UUID.randomUUID(), OfferStatus.SUBMITTED, fact.apr(),
+                    null, fact.applicationCreatedAt(), fact.offerSubmittedAt(), fact.borrowerSelectedAt(), null,
+                    fact.loanType(), fact.loanAmount(), fact.applicationCreatedAt()));
+        }
+        return rows;
+    }
+
     private List<Application> createMockApplications(int count) {
         List<Application> applications = new ArrayList<>();
         for (int i = 0; i < count; i++) {
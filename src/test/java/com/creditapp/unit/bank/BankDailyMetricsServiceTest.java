@@ -0,0 +1,186 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.dto.SubmittedOfferFact;
+import com.creditapp.bank.model.BankDailyMetric;
+import com.creditapp.bank.model.MarketDailyApplications;
+import com.creditapp.bank.repository.BankDailyMetricRepository;
+import com.creditapp.bank.repository.MarketDailyApplicationsRepository;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.BankDailyMetricsService;
+import com.creditapp.bank.service.BankDailyMetricsTracker;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BankDailyMetricsServiceTest {
+
+    @Mock
+    private BankDailyMetricRepository bankDailyMetricRepository;
+
+    @Mock
+    private MarketDailyApplicationsRepository marketDailyApplicationsRepository;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    private final BankDailyMetricsTracker tracker = new BankDailyMetricsTracker();
+
+    private BankDailyMetricsService service;
+
+    private final UUID bankId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        service = new BankDailyMetricsService(bankDailyMetricRepository, marketDailyApplicationsRepository,
+                offerRepository, applicationRepository, tracker);
+    }
+
+    @Test
+    void testAggregate_BucketsByDayLoanTypeAndAmountRange() {
+        LocalDateTime submitted = today.minusDays(2).atTime(12, 0);
+        List<BankDailyMetric> metrics = BankDailyMetricsService.aggregate(List.of(
+                fact("PERSONAL", "5000", "8.50", submitted, true),
+                fact("PERSONAL", "9000", "9.50", submitted.plusHours(1), false),
+                fact("HOME", "150000", "4.00", submitted, false)));
+
+        assertThat(metrics).hasSize(2);
+        BankDailyMetric personal = metrics.stream().filter(m -> m.getLoanType().equals("PERSONAL")).findFirst().orElseThrow();
+        assertThat(personal.getAmountRange()).isEqualTo("0-10k");
+        assertThat(personal.getMetricDate()).isEqualTo(today.minusDays(2));
+        assertThat(personal.getOffersCount()).isEqualTo(2);
+        assertThat(personal.getAcceptedCount()).isEqualTo(1);
+        assertThat(personal.getAprSum()).isEqualByComparingTo("18.00");
+        assertThat(personal.getTimeToOfferHoursSum()).isEqualTo(2 + 2);
+        assertThat(personal.getTimeToOfferCount()).isEqualTo(2);
+        // Assigned ids must not turn the save into a merge
+        assertThat(metrics).allMatch(BankDailyMetric::isNew);
+    }
+
+    @Test
+    void testGetBankMetrics_UsesRollupForStableDaysAndRawDataForTodayAndDirtyDays() {
+        LocalDate stableDay = today.minusDays(5);
+        LocalDate dirtyDay = today.minusDays(3);
+        BankDailyMetric stable = row(stableDay, 4);
+        BankDailyMetric staleDirty = row(dirtyDay, 1);
+        when(bankDailyMetricRepository.findByBankIdAndMetricDateBetween(bankId, today.minusDays(6), today))
+                .thenReturn(List.of(stable, staleDirty));
+        when(offerRepository.findSubmittedOfferFacts(eq(bankId), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            return from.toLocalDate().equals(dirtyDay)
+                    ? List.of(fact("PERSONAL", "5000", "8.50", dirtyDay.atTime(10, 0), false),
+                              fact("PERSONAL", "5000", "8.50", dirtyDay.atTime(11, 0), false))
+                    : List.of();
+        });
+        tracker.markOfferChanged(bankId, dirtyDay);
+
+        List<BankDailyMetric> metrics = service.getBankMetrics(bankId, today.minusDays(6), today);
+
+        assertThat(metrics).extracting(BankDailyMetric::getMetricDate).containsExactlyInAnyOrder(stableDay, dirtyDay);
+        assertThat(metrics.stream().filter(m -> m.getMetricDate().equals(dirtyDay)).findFirst().orElseThrow()
+                .getOffersCount()).isEqualTo(2);
+        verify(offerRepository, never()).findSubmittedOfferFacts(eq(bankId), eq(stableDay.atStartOfDay()), any());
+    }
+
+    @Test
+    void testRefreshDirtyDays_RewritesOnlyDirtyRowsAndClearsMarks() {
+        LocalDate dirtyDay = today.minusDays(1);
+        tracker.markOfferChanged(bankId, dirtyDay);
+        tracker.markApplicationsChanged(dirtyDay);
+        when(offerRepository.findSubmittedOfferFacts(eq(bankId), any(), any()))
+                .thenReturn(List.of(fact("AUTO", "30000", "6.00", dirtyDay.atTime(9, 0), true)));
+        when(applicationRepository.countByCreatedAtBetween(any(), any())).thenReturn(7L);
+
+        service.refreshDirtyDays();
+
+        verify(bankDailyMetricRepository).deleteByBankIdAndMetricDate(bankId, dirtyDay);
+        ArgumentCaptor<List<BankDailyMetric>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bankDailyMetricRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+                .satisfies(m -> assertThat(m.getAmountRange()).isEqualTo("25k-50k"));
+        ArgumentCaptor<MarketDailyApplications> applications = ArgumentCaptor.forClass(MarketDailyApplications.class);
+        verify(marketDailyApplicationsRepository).save(applications.capture());
+        assertThat(applications.getValue().getApplicationsCount()).isEqualTo(7L);
+        assertThat(tracker.dirtyDays(bankId)).isEmpty();
+        assertThat(tracker.isApplicationDayDirty(dirtyDay)).isFalse();
+    }
+
+    @Test
+    void testRefreshDirtyDays_KeepsMarksWhenRefreshFails() {
+        LocalDate dirtyDay = today.minusDays(1);
+        tracker.markOfferChanged(bankId, dirtyDay);
+        when(offerRepository.findSubmittedOfferFacts(eq(bankId), any(), any()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        assertThatThrownBy(() -> service.refreshDirtyDays()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tracker.dirtyDays(bankId)).containsExactly(dirtyDay);
+    }
+
+    @Test
+    void testRefreshDirtyDays_KeepsDayMarkedAgainDuringRefresh() {
+        LocalDate dirtyDay = today.minusDays(1);
+        tracker.markOfferChanged(bankId, dirtyDay);
+        when(offerRepository.findSubmittedOfferFacts(eq(bankId), any(), any())).thenAnswer(invocation -> {
+            // A concurrent writer changes the same day after its facts were read
+            tracker.markOfferChanged(bankId, dirtyDay);
+            return List.of();
+        });
+
+        service.refreshDirtyDays();
+
+        assertThat(tracker.dirtyDays(bankId)).containsExactly(dirtyDay);
+    }
+
+    @Test
+    void testGetApplicationCounts_ComputesTodayLive() {
+        LocalDate yesterday = today.minusDays(1);
+        when(marketDailyApplicationsRepository.findByMetricDateBetween(yesterday, today))
+                .thenReturn(List.of(MarketDailyApplications.builder().metricDate(yesterday).applicationsCount(12).build()));
+        when(applicationRepository.countByCreatedAtBetween(any(), any())).thenReturn(3L);
+
+        Map<LocalDate, Long> counts = service.getApplicationCounts(yesterday, today);
+
+        assertThat(counts).containsEntry(yesterday, 12L).containsEntry(today, 3L);
+    }
+
+    private SubmittedOfferFact fact(String loanType, String amount, String apr, LocalDateTime submittedAt, boolean accepted) {
+        return new SubmittedOfferFact(bankId, loanType, new BigDecimal(amount), submittedAt.minusHours(2).minusMinutes(30),
+                new BigDecimal(apr), submittedAt, accepted ? submittedAt.plusDays(1) : null);
+    }
+
+    private BankDailyMetric row(LocalDate day, long offers) {
+        return BankDailyMetric.builder()
+                .id(UUID.randomUUID())
+                .bankId(bankId)
+                .metricDate(day)
+                .loanType("PERSONAL")
+                .amountRange("0-10k")
+                .offersCount(offers)
+                .aprSum(BigDecimal.ZERO)
+                .build();
+    }
+}
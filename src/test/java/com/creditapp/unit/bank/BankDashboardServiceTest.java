@@ -1,25 +1,31 @@
 package com.creditapp.unit.bank;
 
+import com.creditapp.bank.dto.ApplicationOfferCount;
 import com.creditapp.bank.dto.BankDashboardMetrics;
-import com.creditapp.bank.model.Offer;
-import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.dto.DashboardAggregate;
 import com.creditapp.bank.repository.OfferRepository;
 import com.creditapp.bank.service.BankDashboardService;
+import com.creditapp.bank.service.BankDashboardTodayCounters;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +34,9 @@ class BankDashboardServiceTest {
     @Mock
     private OfferRepository offerRepository;
 
+    @Mock
+    private BankDashboardTodayCounters todayCounters;
+
     @InjectMocks
     private BankDashboardService dashboardService;
 
@@ -35,8 +44,8 @@ class BankDashboardServiceTest {
     void testGetDashboardMetrics_EmptyData_ReturnsZeroMetrics() {
         // Arrange
         UUID bankId = UUID.randomUUID();
-        when(offerRepository.findByBankIdAndCreatedAtAfter(eq(bankId), any(LocalDateTime.class)))
-            .thenReturn(new ArrayList<>());
+        when(todayCounters.get(eq(bankId), any())).thenReturn(Optional.empty());
+        stubAggregate(bankId, new DashboardAggregate(0L, 0L, null, null, null, 0L));
 
         // Act
         BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "TODAY");
@@ -55,54 +64,29 @@ class BankDashboardServiceTest {
     void testGetDashboardMetrics_WithData_CalculatesCorrectly() {
         // Arrange
         UUID bankId = UUID.randomUUID();
-        UUID app1 = UUID.randomUUID();
-        UUID app2 = UUID.randomUUID();
-        UUID app3 = UUID.randomUUID();
-
-        LocalDateTime base = LocalDateTime.now().minusDays(2);
-
-        List<Offer> offers = List.of(
-            createOffer(app1, OfferStatus.SUBMITTED, base, base.plusHours(1)),
-            createOffer(app1, OfferStatus.ACCEPTED, base, base.plusHours(2)),
-            createOffer(app2, OfferStatus.SUBMITTED, base.minusDays(1), base.minusDays(1).plusDays(1)),
-            createOffer(app3, OfferStatus.REJECTED, base.minusDays(1), base.minusDays(1).plusDays(1))
-        );
-
-        when(offerRepository.findByBankIdAndCreatedAtAfter(eq(bankId), any(LocalDateTime.class)))
-            .thenReturn(offers);
+        stubAggregate(bankId, new DashboardAggregate(1L, 3L, 4L, 1L, 2L, 4L));
 
         // Act
         BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "LAST_7_DAYS");
 
         // Assert
-        assertThat(metrics.applicationsReceivedAll()).isEqualTo(3); // 3 unique applications
-        assertThat(metrics.offersSubmitted()).isEqualTo(4); // All 4 offers (SUBMITTED, ACCEPTED, REJECTED are counted)
-        assertThat(metrics.offersAccepted()).isEqualTo(1); // Only 1 ACCEPTED
+        assertThat(metrics.applicationsReceivedToday()).isEqualTo(1);
+        assertThat(metrics.applicationsReceivedAll()).isEqualTo(3);
+        assertThat(metrics.offersSubmitted()).isEqualTo(4);
+        assertThat(metrics.offersAccepted()).isEqualTo(1);
         assertThat(metrics.conversionRate()).isGreaterThan(BigDecimal.ZERO);
         assertThat(metrics.conversionRate()).isLessThanOrEqualTo(BigDecimal.valueOf(100));
+        verify(todayCounters, never()).get(any(), any());
     }
 
     @Test
     void testGetDashboardMetrics_ConversionRate_CalculatesCorrectly() {
         // Arrange
         UUID bankId = UUID.randomUUID();
-        UUID app1 = UUID.randomUUID();
-        UUID app2 = UUID.randomUUID();
-
-        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-
-        List<Offer> offers = List.of(
-            createOffer(app1, OfferStatus.SUBMITTED, yesterday, yesterday.plusHours(1)),
-            createOffer(app1, OfferStatus.ACCEPTED, yesterday, yesterday.plusHours(2)),
-            createOffer(app2, OfferStatus.SUBMITTED, yesterday, yesterday.plusDays(1)),
-            createOffer(app2, OfferStatus.REJECTED, yesterday, yesterday.plusDays(1))
-        );
-
-        when(offerRepository.findByBankIdAndCreatedAtAfter(eq(bankId), any(LocalDateTime.class)))
-            .thenReturn(offers);
+        stubAggregate(bankId, new DashboardAggregate(0L, 2L, 4L, 1L, 2L, 4L));
 
         // Act
-        BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "TODAY");
+        BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "LAST_7_DAYS");
 
         // Assert
         // 1 accepted out of 4 submitted = 25%
@@ -113,18 +97,8 @@ class BankDashboardServiceTest {
     void testGetDashboardMetrics_AverageTimeToOffer_CalculatesCorrectly() {
         // Arrange
         UUID bankId = UUID.randomUUID();
-        UUID app1 = UUID.randomUUID();
-        UUID app2 = UUID.randomUUID();
-
-        LocalDateTime base = LocalDateTime.now().minusDays(10);
-
-        List<Offer> offers = List.of(
-            createOffer(app1, OfferStatus.SUBMITTED, base, base.plusDays(1)),      // 1 day
-            createOffer(app2, OfferStatus.SUBMITTED, base, base.plusDays(3))       // 3 days
-        );
-
-        when(offerRepository.findByBankIdAndCreatedAtAfter(eq(bankId), any(LocalDateTime.class)))
-            .thenReturn(offers);
+        // Offers submitted after 1 and 3 days
+        stubAggregate(bankId, new DashboardAggregate(0L, 2L, 2L, 0L, 4L, 2L));
 
         // Act
         BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "LAST_30_DAYS");
@@ -134,14 +108,63 @@ class BankDashboardServiceTest {
         assertThat(metrics.averageTimeToOfferDays()).isEqualTo(2);
     }
 
+    @Test
+    void testGetDashboardMetrics_QueriesFromPeriodStart() {
+        // Arrange
+        UUID bankId = UUID.randomUUID();
+        stubAggregate(bankId, new DashboardAggregate(0L, 0L, 0L, 0L, 0L, 0L));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        dashboardService.getDashboardMetrics(bankId, "LAST_30_DAYS");
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> createdAfter = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(offerRepository).aggregateDashboard(eq(bankId), createdAfter.capture(),
+            eq(LocalDate.now().atStartOfDay()), anyCollection(), anyCollection());
+        assertThat(createdAfter.getValue()).isBetween(before.minusDays(30), LocalDateTime.now().minusDays(30));
+    }
+
+    @Test
+    void testGetDashboardMetrics_Today_ServedFromCounters() {
+        // Arrange
+        UUID bankId = UUID.randomUUID();
+        when(todayCounters.get(bankId, LocalDate.now()))
+            .thenReturn(Optional.of(new DashboardAggregate(2L, 2L, 2L, 1L, 0L, 2L)));
+
+        // Act
+        BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "TODAY");
+
+        // Assert
+        assertThat(metrics.applicationsReceivedToday()).isEqualTo(2);
+        assertThat(metrics.conversionRate()).isEqualByComparingTo(BigDecimal.valueOf(50));
+        verify(offerRepository, never()).aggregateDashboard(any(), any(), any(), anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testGetDashboardMetrics_Today_CountersMissSeedsFromAggregate() {
+        // Arrange
+        UUID bankId = UUID.randomUUID();
+        DashboardAggregate aggregate = new DashboardAggregate(1L, 1L, 1L, 1L, 0L, 1L);
+        List<ApplicationOfferCount> applications = List.of(new ApplicationOfferCount(UUID.randomUUID(), 1L));
+        when(todayCounters.get(bankId, LocalDate.now())).thenReturn(Optional.empty());
+        stubAggregate(bankId, aggregate);
+        when(offerRepository.countOffersByApplication(bankId, LocalDate.now().atStartOfDay())).thenReturn(applications);
+
+        // Act
+        BankDashboardMetrics metrics = dashboardService.getDashboardMetrics(bankId, "TODAY");
+
+        // Assert
+        assertThat(metrics.offersAccepted()).isEqualTo(1);
+        verify(todayCounters).seed(bankId, LocalDate.now(), aggregate, applications);
+    }
+
     @Test
     void testGetDashboardMetrics_ResponseTime_LessThan500ms() {
         // Arrange
         UUID bankId = UUID.randomUUID();
-        List<Offer> offers = createLargeOfferList(100);  // 100 offers
-        
-        when(offerRepository.findByBankIdAndCreatedAtAfter(eq(bankId), any(LocalDateTime.class)))
-            .thenReturn(offers);
+        when(todayCounters.get(eq(bankId), any())).thenReturn(Optional.empty());
+        stubAggregate(bankId, new DashboardAggregate(100L, 100L, 100L, 34L, 100L, 100L));
 
         // Act
         long startTime = System.currentTimeMillis();
@@ -153,41 +176,8 @@ class BankDashboardServiceTest {
         assertThat(metrics).isNotNull();
     }
 
-    private Offer createOffer(UUID applicationId, OfferStatus status, LocalDateTime createdAt, LocalDateTime submittedAt) {
-        Offer offer = new Offer();
-        offer.setId(UUID.randomUUID());
-        offer.setApplicationId(applicationId);
-        offer.setBankId(UUID.randomUUID());
-        offer.setOfferStatus(status);
-        offer.setApr(BigDecimal.valueOf(8.5));
-        offer.setMonthlyPayment(BigDecimal.valueOf(500));
-        offer.setTotalCost(BigDecimal.valueOf(30000));
-        offer.setOriginationFee(BigDecimal.valueOf(1000));
-        offer.setProcessingTimeDays(5);
-        offer.setValidityPeriodDays(30);
-        offer.setExpiresAt(LocalDateTime.now().plusDays(30));
-        // Use reflection to set createdAt since it's @CreationTimestamp
-        try {
-            var field = Offer.class.getDeclaredField("createdAt");
-            field.setAccessible(true);
-            field.set(offer, createdAt);
-        } catch (Exception e) {
-            // Ignore
-        }
-        offer.setOfferSubmittedAt(submittedAt);
-        return offer;
-    }
-
-    private List<Offer> createLargeOfferList(int count) {
-        List<Offer> offers = new ArrayList<>();
-        LocalDateTime base = LocalDateTime.now().minusDays(7);
-        
-        for (int i = 0; i < count; i++) {
-            UUID appId = UUID.randomUUID();
-            OfferStatus status = i % 3 == 0 ? OfferStatus.ACCEPTED : OfferStatus.SUBMITTED;
-            offers.add(createOffer(appId, status, base.plusHours(i), base.plusHours(i).plusDays(1)));
-        }
-        
-        return offers;
+    private void stubAggregate(UUID bankId, DashboardAggregate aggregate) {
+        when(offerRepository.aggregateDashboard(eq(bankId), any(), any(), anyCollection(), anyCollection()))
+            .thenReturn(aggregate);
     }
-}
\ No newline at end of file
+}
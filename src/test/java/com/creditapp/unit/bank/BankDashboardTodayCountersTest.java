@@ -0,0 +1,85 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.service.BankDashboardTodayCounters;
+import com.creditapp.bank.service.BankDashboardTodayCounters.OfferState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class BankDashboardTodayCountersTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private BankDashboardTodayCounters counters;
+
+    private final UUID bankId = UUID.randomUUID();
+    private final UUID applicationId = UUID.randomUUID();
+    private final LocalDateTime createdAt = LocalDate.now().atStartOfDay();
+
+    @BeforeEach
+    void setUp() {
+        counters = new BankDashboardTodayCounters(redisTemplate);
+        ReflectionTestUtils.setField(counters, "enabled", true);
+    }
+
+    @Test
+    void newOffer_AddsItsApplication() {
+        counters.recordChange(bankId, LocalDate.now(), OfferState.NONE,
+            new OfferState(applicationId, OfferStatus.CALCULATED, createdAt, null));
+
+        assertThat(appliedArguments()).containsExactly("0", "0", "0", "0", applicationId.toString(), "1");
+    }
+
+    @Test
+    void submission_MovesCountersByTheDifferenceOnly() {
+        counters.recordChange(bankId, LocalDate.now(),
+            new OfferState(applicationId, OfferStatus.CALCULATED, createdAt, null),
+            new OfferState(applicationId, OfferStatus.SUBMITTED, createdAt, createdAt.plusDays(2)));
+
+        // Same application before and after, so the distinct-application counter is untouched
+        assertThat(appliedArguments()).containsExactly("1", "0", "2", "1");
+    }
+
+    @Test
+    void removedAcceptedOffer_DecrementsEverything() {
+        counters.recordChange(bankId, LocalDate.now(),
+            new OfferState(applicationId, OfferStatus.ACCEPTED, createdAt, createdAt.plusDays(1)), OfferState.NONE);
+
+        assertThat(appliedArguments()).containsExactly("-1", "-1", "-1", "-1", applicationId.toString(), "-1");
+    }
+
+    @Test
+    void unchangedContribution_SkipsRedis() {
+        OfferState state = new OfferState(applicationId, OfferStatus.SUBMITTED, createdAt, createdAt);
+
+        counters.recordChange(bankId, LocalDate.now(), state, state);
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private List<Object> appliedArguments() {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), args.capture());
+        return List.of(args.getValue());
+    }
+}
@@ -6,14 +6,16 @@ import com.creditapp.bank.dto.MyBankRateCardDTO;
 import com.creditapp.bank.dto.CompetitivePosition;
 import com.creditapp.bank.exception.InsufficientMarketDataException;
 import com.creditapp.bank.model.BankRateCard;
-import com.creditapp.bank.repository.BankRateCardRepository;
 import com.creditapp.bank.service.BankMarketAnalysisService;
+import com.creditapp.bank.service.MarketSnapshot;
+import com.creditapp.bank.service.MarketSnapshotService;
+import com.creditapp.bank.service.RateCardIndex;
+import com.creditapp.bank.service.RateCardIndexService;
 import com.creditapp.borrower.model.Currency;
 import com.creditapp.borrower.model.LoanType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -28,9 +30,8 @@ import static org.mockito.Mockito.*;
 class BankMarketAnalysisServiceTest {
 
     @Mock
-    private BankRateCardRepository rateCardRepository;
+    private RateCardIndexService rateCardIndexService;
 
-    @InjectMocks
     private BankMarketAnalysisService service;
 
     private UUID bankA;
@@ -44,6 +45,7 @@ class BankMarketAnalysisServiceTest {
         bankB = UUID.randomUUID();
         bankC = UUID.randomUUID();
         bankD = UUID.randomUUID();
+        service = new BankMarketAnalysisService(new MarketSnapshotService(rateCardIndexService));
     }
 
     private BankRateCard card(UUID bankId, LoanType type, Currency currency,
@@ -89,7 +91,7 @@ class BankMarketAnalysisServiceTest {
                 card(bankC, type, curr, 9.0, 0.8, 0.3, 4)
         );
 
-        when(rateCardRepository.findByValidToIsNull()).thenReturn(active);
+        stubActiveCards(active);
 
         MarketAverageDTO avg = service.calculateMarketAverage(type, curr);
         assertNotNull(avg);
@@ -111,16 +113,12 @@ class BankMarketAnalysisServiceTest {
         Currency curr = Currency.USD;
         UUID myBank = bankA;
 
-        // My bank has one active card
-        List<BankRateCard> myCards = Collections.singletonList(card(myBank, type, curr, 7.5, 1.0, 0.5, 5));
-        when(rateCardRepository.findByBankIdAndValidToIsNull(myBank)).thenReturn(myCards);
-
-        // Market has only two unique banks
+        // Market has only two unique banks, one of them mine
         List<BankRateCard> market = Arrays.asList(
                 card(bankA, type, curr, 7.5, 1.0, 0.5, 5),
                 card(bankB, type, curr, 8.0, 1.2, 0.4, 6)
         );
-        when(rateCardRepository.findByValidToIsNull()).thenReturn(market);
+        stubActiveCards(market);
 
         assertThrows(InsufficientMarketDataException.class, () -> service.analyzeMarket(myBank));
     }
@@ -131,14 +129,7 @@ class BankMarketAnalysisServiceTest {
         Currency curr = Currency.USD;
         UUID myBank = bankA;
 
-        // My bank has two active cards (HOME USD and AUTO EUR)
-        List<BankRateCard> myCards = Arrays.asList(
-                card(myBank, type, curr, 7.5, 1.0, 0.5, 5),
-                card(myBank, LoanType.AUTO, Currency.EUR, 6.0, 0.9, 0.2, 7)
-        );
-        when(rateCardRepository.findByBankIdAndValidToIsNull(myBank)).thenReturn(myCards);
-
-        // Market active cards include at least 3 banks for each subset
+        // Market active cards include at least 3 banks for each subset; my bank has HOME USD and AUTO EUR
         List<BankRateCard> market = Arrays.asList(
                 // HOME USD
                 card(bankA, type, curr, 7.5, 1.0, 0.5, 5),
@@ -150,7 +141,7 @@ class BankMarketAnalysisServiceTest {
                 card(bankB, LoanType.AUTO, Currency.EUR, 6.5, 1.0, 0.3, 8),
                 card(bankC, LoanType.AUTO, Currency.EUR, 7.5, 1.1, 0.4, 9)
         );
-        when(rateCardRepository.findByValidToIsNull()).thenReturn(market);
+        stubActiveCards(market);
 
         MarketAnalysisDTO dto = service.analyzeMarket(myBank);
         assertNotNull(dto);
@@ -170,4 +161,67 @@ class BankMarketAnalysisServiceTest {
         assertTrue(dto.overallCompetitivePosition().equals(CompetitivePosition.MORE_COMPETITIVE.name())
                 || dto.overallCompetitivePosition().equals(CompetitivePosition.AVERAGE.name()));
     }
+
+    @Test
+    void marketSnapshot_PercentileMatchesSortedListRanking() {
+        List<BankRateCard> market = Arrays.asList(
+                card(bankA, LoanType.PERSONAL, Currency.EUR, 9.0, 1.0, 0.5, 5),
+                card(bankB, LoanType.PERSONAL, Currency.EUR, 7.5, 1.0, 0.5, 5),
+                card(bankC, LoanType.PERSONAL, Currency.EUR, 9.0, 1.0, 0.5, 5),
+                card(bankD, LoanType.PERSONAL, Currency.EUR, 12.25, 1.0, 0.5, 5)
+        );
+        MarketSnapshot.Market snapshotMarket = MarketSnapshot.build(RateCardIndex.build(market, List.of()))
+                .market(LoanType.PERSONAL, Currency.EUR);
+        List<BigDecimal> aprs = market.stream().map(BankRateCard::getBaseApr).toList();
+
+        for (BigDecimal apr : List.of(BigDecimal.valueOf(7.0), BigDecimal.valueOf(7.5), BigDecimal.valueOf(9.0),
+                BigDecimal.valueOf(12.25), BigDecimal.valueOf(13.0))) {
+            long below = aprs.stream().filter(a -> a.compareTo(apr) < 0).count();
+            assertEquals(below, snapshotMarket.countBelow(apr));
+        }
+        assertEquals(0, snapshotMarket.average().medianApr().compareTo(BigDecimal.valueOf(9.0)));
+        assertEquals(0, snapshotMarket.average().maxApr().compareTo(BigDecimal.valueOf(12.25)));
+    }
+
+    @Test
+    void marketSnapshot_VersionFollowsActiveCards() {
+        BankRateCard homeA = card(bankA, LoanType.HOME, Currency.USD, 7.5, 1.0, 0.5, 5);
+        BankRateCard homeB = card(bankB, LoanType.HOME, Currency.USD, 8.0, 1.2, 0.4, 6);
+        RateCardIndex index = RateCardIndex.build(List.of(homeA, homeB), List.of());
+
+        MarketSnapshot snapshot = MarketSnapshot.build(index);
+        MarketSnapshot rebuilt = MarketSnapshot.build(RateCardIndex.build(List.of(homeB, homeA), List.of()));
+        MarketSnapshot replaced = MarketSnapshot.build(
+                index.withRateCard(card(bankA, LoanType.HOME, Currency.USD, 7.0, 1.0, 0.5, 5), homeA.getId()));
+
+        assertEquals(snapshot.version(), rebuilt.version());
+        assertNotEquals(snapshot.version(), replaced.version());
+        assertEquals(0, replaced.market(LoanType.HOME, Currency.USD).average().minApr().compareTo(BigDecimal.valueOf(7.0)));
+    }
+
+    @Test
+    void analyzeMarket_ReusesSnapshotUntilIndexChanges() {
+        List<BankRateCard> market = Arrays.asList(
+                card(bankA, LoanType.HOME, Currency.USD, 7.5, 1.0, 0.5, 5),
+                card(bankB, LoanType.HOME, Currency.USD, 8.0, 1.2, 0.4, 6),
+                card(bankC, LoanType.HOME, Currency.USD, 9.0, 0.8, 0.3, 4)
+        );
+        RateCardIndex index = RateCardIndex.build(market, List.of());
+        MarketSnapshotService snapshotService = new MarketSnapshotService(rateCardIndexService);
+        when(rateCardIndexService.current()).thenReturn(index);
+
+        MarketSnapshot first = snapshotService.current();
+        assertSame(first, snapshotService.current());
+
+        when(rateCardIndexService.current()).thenReturn(index.withRateCard(
+                card(bankD, LoanType.HOME, Currency.USD, 10.0, 1.0, 0.5, 5), null));
+        MarketSnapshot second = snapshotService.current();
+
+        assertNotSame(first, second);
+        assertEquals(4, second.market(LoanType.HOME, Currency.USD).average().bankCount());
+    }
+
+    private void stubActiveCards(List<BankRateCard> activeCards) {
+        when(rateCardIndexService.current()).thenReturn(RateCardIndex.build(activeCards, List.of()));
+    }
 }
@@ -0,0 +1,167 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.dto.OfferColumnRow;
+import com.creditapp.bank.dto.OfferWatermark;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.BankOfferColumnCache;
+import com.creditapp.bank.service.BankOfferColumns;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BankOfferColumnCacheTest {
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BankOfferColumnCache cache;
+    private UUID bankId;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BankOfferColumnCache(offerRepository, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBanks", 10);
+        ReflectionTestUtils.setField(cache, "maxRows", 1000L);
+        ReflectionTestUtils.setField(cache, "validationIntervalMs", 60000L);
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 600000L);
+        bankId = UUID.randomUUID();
+        base = LocalDateTime.now().minusDays(3);
+    }
+
+    @Test
+    void testSnapshot_LoadsOnceWithinValidationInterval() {
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(row(OfferStatus.SUBMITTED, base)));
+
+        BankOfferColumns first = cache.snapshot(bankId);
+        BankOfferColumns second = cache.snapshot(bankId);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.size()).isEqualTo(1);
+        verify(offerRepository, times(1)).findOfferColumnRows(bankId);
+        verify(offerRepository, never()).findOfferWatermark(any());
+    }
+
+    @Test
+    void testMarkChanged_ReloadsOnlyChangedOffers() {
+        OfferColumnRow kept = row(OfferStatus.SUBMITTED, base);
+        OfferColumnRow updated = row(OfferStatus.SUBMITTED, base);
+        OfferColumnRow deleted = row(OfferStatus.SUBMITTED, base);
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(kept, updated, deleted));
+        cache.snapshot(bankId);
+
+        OfferColumnRow accepted = withStatus(updated, OfferStatus.ACCEPTED);
+        when(offerRepository.findOfferColumnRowsByIds(eq(bankId), eq(Set.of(updated.offerId(), deleted.offerId()))))
+            .thenReturn(List.of(accepted));
+        cache.markChanged(bankId, updated.offerId());
+        cache.markChanged(bankId, deleted.offerId());
+
+        BankOfferColumns columns = cache.snapshot(bankId);
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.maxUpdatedAt()).isEqualTo(accepted.updatedAt());
+        verify(offerRepository, times(1)).findOfferColumnRows(bankId);
+    }
+
+    @Test
+    void testMarkChanged_IgnoresBanksWithoutSnapshot() {
+        cache.markChanged(bankId, UUID.randomUUID());
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of());
+
+        cache.snapshot(bankId);
+
+        verify(offerRepository, never()).findOfferColumnRowsByIds(any(), any());
+    }
+
+    @Test
+    void testWatermarkMismatch_MergesNewerRowsOrReloads() {
+        ReflectionTestUtils.setField(cache, "validationIntervalMs", 0L);
+        OfferColumnRow existing = row(OfferStatus.SUBMITTED, base);
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(existing));
+        cache.snapshot(bankId);
+
+        // Row inserted on another node: merged from the updated_at watermark
+        OfferColumnRow remote = row(OfferStatus.SUBMITTED, base.plusHours(1));
+        when(offerRepository.findOfferWatermark(bankId)).thenReturn(new OfferWatermark(2L, remote.updatedAt()));
+        when(offerRepository.findOfferColumnRowsUpdatedSince(bankId, existing.updatedAt())).thenReturn(List.of(remote));
+        assertThat(cache.snapshot(bankId).size()).isEqualTo(2);
+
+        // Row deleted on another node: count no longer matches, full reload
+        when(offerRepository.findOfferWatermark(bankId)).thenReturn(new OfferWatermark(1L, remote.updatedAt()));
+        when(offerRepository.findOfferColumnRowsUpdatedSince(bankId, remote.updatedAt())).thenReturn(List.of(remote));
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(remote));
+        BankOfferColumns reloaded = cache.snapshot(bankId);
+
+        assertThat(reloaded.size()).isEqualTo(1);
+        assertThat(reloaded.offerId(0)).isEqualTo(remote.offerId());
+        verify(offerRepository, times(2)).findOfferColumnRows(bankId);
+    }
+
+    @Test
+    void testEviction_LeastRecentlyUsedBankBeyondRowBound() {
+        ReflectionTestUtils.setField(cache, "maxRows", 3L);
+        UUID otherBankId = UUID.randomUUID();
+        UUID thirdBankId = UUID.randomUUID();
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(row(OfferStatus.SUBMITTED, base)));
+        when(offerRepository.findOfferColumnRows(otherBankId))
+            .thenReturn(List.of(row(OfferStatus.SUBMITTED, base), row(OfferStatus.SUBMITTED, base)));
+        when(offerRepository.findOfferColumnRows(thirdBankId)).thenReturn(List.of(row(OfferStatus.SUBMITTED, base)));
+
+        cache.snapshot(bankId);
+        cache.snapshot(otherBankId);
+        cache.snapshot(bankId);
+        cache.snapshot(thirdBankId);
+        cache.snapshot(bankId);
+        cache.snapshot(otherBankId);
+
+        verify(offerRepository, times(1)).findOfferColumnRows(bankId);
+        verify(offerRepository, times(2)).findOfferColumnRows(otherBankId);
+        assertThat(meterRegistry.get("creditapp.offers.column-cache.rows").gauge().value()).isLessThanOrEqualTo(3.0);
+    }
+
+    @Test
+    void testDisabled_LoadsOnEveryRead() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        when(offerRepository.findOfferColumnRows(bankId)).thenReturn(List.of(row(OfferStatus.SUBMITTED, base)));
+
+        cache.snapshot(bankId);
+        cache.snapshot(bankId);
+
+        verify(offerRepository, times(2)).findOfferColumnRows(bankId);
+    }
+
+    private OfferColumnRow row(OfferStatus status, LocalDateTime updatedAt) {
+        return new OfferColumnRow(UUID.randomUUID(), UUID.randomUUID(), status, new BigDecimal("7.25"),
+            new BigDecimal("450.00"), base, base.plusHours(4), null, updatedAt, "PERSONAL",
+            new BigDecimal("20000"), base.minusDays(1));
+    }
+
+    private OfferColumnRow withStatus(OfferColumnRow row, OfferStatus status) {
+        return new OfferColumnRow(row.offerId(), row.applicationId(), status, row.apr(), row.monthlyPayment(),
+            row.createdAt(), row.offerSubmittedAt(), LocalDateTime.now(), LocalDateTime.now(), row.loanType(),
+            row.loanAmount(), row.applicationCreatedAt());
+    }
+}
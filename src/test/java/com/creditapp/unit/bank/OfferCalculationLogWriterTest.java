@@ -0,0 +1,101 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.model.CalculationType;
+import com.creditapp.bank.model.OfferCalculationLog;
+import com.creditapp.bank.service.OfferCalculationLogWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferCalculationLogWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private OfferCalculationLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:calc-log-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE offer_calculation_log (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "application_id UUID NOT NULL, bank_id UUID, calculation_method VARCHAR(255), input_parameters JSONB, "
+            + "calculated_values JSONB, calculation_type VARCHAR(50) NOT NULL, timestamp TIMESTAMP NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL)");
+
+        writer = new OfferCalculationLogWriter(jdbcTemplate, objectMapper, meterRegistry, 10);
+        ReflectionTestUtils.setField(writer, "asyncEnabled", true);
+        ReflectionTestUtils.setField(writer, "batchSize", 3);
+        ReflectionTestUtils.setField(writer, "compactionThreshold", 4);
+        ReflectionTestUtils.setField(writer, "sampleThreshold", 6);
+        ReflectionTestUtils.setField(writer, "sampleEvery", 2);
+    }
+
+    @Test
+    void testFlush_WritesQueuedLogsAsRealJson() throws Exception {
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("loanAmount", new BigDecimal("10000.00"));
+        input.put("loanTermMonths", 36);
+        writer.submit(IntStream.range(0, 5).mapToObj(i -> createLog(writer.toJson(input))).toList());
+
+        assertThat(rowCount()).isZero();
+        writer.flush();
+
+        assertThat(rowCount()).isEqualTo(5);
+        assertThat(writer.pendingCount()).isZero();
+        String stored = jdbcTemplate.queryForObject(
+            "SELECT CAST(input_parameters AS VARCHAR) FROM offer_calculation_log FETCH FIRST 1 ROWS ONLY", String.class);
+        JsonNode json = objectMapper.readTree(stored);
+        assertThat(json.get("loanAmount").isNumber()).isTrue();
+        assertThat(json.get("loanTermMonths").asInt()).isEqualTo(36);
+        assertThat(meterRegistry.counter("creditapp.offers.calculation-log.written").count()).isEqualTo(5);
+    }
+
+    @Test
+    void testAdmit_CompactsThenSamplesAsBacklogGrows() {
+        assertThat(writer.admit()).isEqualTo(OfferCalculationLogWriter.Admission.FULL);
+
+        writer.submit(IntStream.range(0, 4).mapToObj(i -> createLog("{}")).toList());
+        assertThat(writer.admit()).isEqualTo(OfferCalculationLogWriter.Admission.COMPACT);
+
+        writer.submit(IntStream.range(0, 2).mapToObj(i -> createLog("{}")).toList());
+        List<OfferCalculationLogWriter.Admission> sampled = IntStream.range(0, 4).mapToObj(i -> writer.admit()).toList();
+        assertThat(sampled).containsExactly(OfferCalculationLogWriter.Admission.SKIP,
+            OfferCalculationLogWriter.Admission.COMPACT, OfferCalculationLogWriter.Admission.SKIP,
+            OfferCalculationLogWriter.Admission.COMPACT);
+    }
+
+    @Test
+    void testSubmit_DropsLogsWhenQueueIsFull() {
+        writer.submit(IntStream.range(0, 12).mapToObj(i -> createLog("{}")).toList());
+
+        assertThat(writer.pendingCount()).isEqualTo(10);
+        assertThat(meterRegistry.counter("creditapp.offers.calculation-log.dropped").count()).isEqualTo(2);
+    }
+
+    private OfferCalculationLog createLog(String inputJson) {
+        return new OfferCalculationLog(UUID.randomUUID(), UUID.randomUUID(), "MOCK_CALCULATION",
+            inputJson, "{\"finalApr\":8.5}", CalculationType.MOCK_CALCULATION, LocalDateTime.now());
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM offer_calculation_log", Integer.class);
+    }
+}
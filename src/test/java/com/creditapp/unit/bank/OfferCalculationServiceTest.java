@@ -0,0 +1,287 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.model.BankRateCard;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferCalculationLog;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.bank.repository.OfferRepository;
+import com.creditapp.bank.service.OfferCalculationLogWriter;
+import com.creditapp.bank.service.OfferCalculationService;
+import com.creditapp.bank.service.RateCardIndex;
+import com.creditapp.bank.service.RateCardIndexService;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.Currency;
+import com.creditapp.borrower.model.LoanType;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.shared.model.AuditAction;
+import com.creditapp.shared.service.AuditService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OfferCalculationServiceTest {
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private RateCardIndexService rateCardIndexService;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private OfferCalculationLogWriter calculationLogWriter;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private OfferCalculationService service;
+
+    private Application application;
+
+    @BeforeEach
+    void setUp() {
+        service = new OfferCalculationService(offerRepository, rateCardIndexService,
+            applicationRepository, calculationLogWriter, auditService, entityManager, eventPublisher, executor);
+        ReflectionTestUtils.setField(service, "validityPeriodHours", 24);
+        ReflectionTestUtils.setField(service, "parallelCalculationEnabled", true);
+        ReflectionTestUtils.setField(service, "perBankTimeoutMs", 500L);
+
+        application = new Application();
+        application.setId(UUID.randomUUID());
+        application.setLoanType("PERSONAL");
+        application.setCurrency("EUR");
+        application.setLoanAmount(new BigDecimal("10000.00"));
+        application.setLoanTermMonths(36);
+        lenient().when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        lenient().when(calculationLogWriter.admit()).thenReturn(OfferCalculationLogWriter.Admission.FULL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCalculateOffers_Parallel_PersistsAllOffersInOneBatch() {
+        RateCardIndex.ActiveBank bank1 = createBank();
+        RateCardIndex.ActiveBank bank2 = createBank();
+        UUID inactiveBankId = UUID.randomUUID();
+        stubIndex(List.of(bank1, bank2), List.of(createRateCard(bank1.id()), createRateCard(bank2.id()),
+            createRateCard(inactiveBankId)));
+
+        List<UUID> offerIds = service.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(2);
+        ArgumentCaptor<Offer> offers = ArgumentCaptor.forClass(Offer.class);
+        verify(entityManager, times(2)).persist(offers.capture());
+        assertThat(offers.getAllValues()).extracting(Offer::getBankId)
+            .containsExactlyInAnyOrder(bank1.id(), bank2.id());
+        ArgumentCaptor<List<OfferCalculationLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(calculationLogWriter).submit(logs.capture());
+        assertThat(logs.getValue()).hasSize(2);
+        verify(offerRepository, never()).save(any(Offer.class));
+        verify(offerRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCalculateOffers_Parallel_CancelsBankThatMissesTheDeadline() throws Exception {
+        ReflectionTestUtils.setField(service, "perBankTimeoutMs", 200L);
+        RateCardIndex.ActiveBank fast = createBank();
+        RateCardIndex.ActiveBank slow = createBank();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        BankRateCard slowCard = spy(createRateCard(slow.id()));
+        doAnswer(inv -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        }).when(slowCard).getBaseApr();
+        stubIndex(List.of(slow, fast), List.of(createRateCard(fast.id()), slowCard));
+
+        List<UUID> offerIds = service.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(1);
+        ArgumentCaptor<Offer> offer = ArgumentCaptor.forClass(Offer.class);
+        verify(entityManager).persist(offer.capture());
+        assertThat(offer.getValue().getBankId()).isEqualTo(fast.id());
+        // The timed-out calculation is interrupted instead of holding its pool thread
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testCalculateOffers_Parallel_RejectedBankIsDropped() {
+        RateCardIndex.ActiveBank accepted = createBank();
+        RateCardIndex.ActiveBank rejected = createBank();
+        stubIndex(List.of(accepted, rejected), List.of(createRateCard(accepted.id()), createRateCard(rejected.id())));
+        OfferCalculationService saturated = new OfferCalculationService(offerRepository, rateCardIndexService,
+            applicationRepository, calculationLogWriter, auditService, entityManager, eventPublisher, new Executor() {
+                private boolean full;
+
+                @Override
+                public void execute(Runnable task) {
+                    if (full) {
+                        throw new RejectedExecutionException("queue full");
+                    }
+                    full = true;
+                    executor.execute(task);
+                }
+            });
+        ReflectionTestUtils.setField(saturated, "validityPeriodHours", 24);
+        ReflectionTestUtils.setField(saturated, "parallelCalculationEnabled", true);
+        ReflectionTestUtils.setField(saturated, "perBankTimeoutMs", 500L);
+
+        List<UUID> offerIds = saturated.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(1);
+        verify(entityManager).persist(any(Offer.class));
+    }
+
+    @Test
+    void testCalculateOffers_SkipsCalculationLogsWhenWriterSheds() {
+        when(calculationLogWriter.admit()).thenReturn(OfferCalculationLogWriter.Admission.SKIP);
+        RateCardIndex.ActiveBank bank = createBank();
+        stubIndex(List.of(bank), List.of(createRateCard(bank.id())));
+
+        List<UUID> offerIds = service.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(1);
+        ArgumentCaptor<List<OfferCalculationLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(calculationLogWriter).submit(logs.capture());
+        assertThat(logs.getValue()).isEmpty();
+    }
+
+    @Test
+    void testCalculateOffers_Parallel_FailingBankIsIsolated() {
+        RateCardIndex.ActiveBank healthy = createBank();
+        RateCardIndex.ActiveBank failing = createBank();
+        BankRateCard brokenCard = createRateCard(failing.id());
+        brokenCard.setBaseApr(null);
+        stubIndex(List.of(healthy, failing), List.of(createRateCard(healthy.id()), brokenCard));
+
+        List<UUID> offerIds = service.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(1);
+    }
+
+    @Test
+    void testCalculateOffers_Sequential_ProducesSameOffers() {
+        ReflectionTestUtils.setField(service, "parallelCalculationEnabled", false);
+        RateCardIndex.ActiveBank bank = createBank();
+        RateCardIndex.ActiveBank bankWithoutCard = createBank();
+        stubIndex(List.of(bank, bankWithoutCard), List.of(createRateCard(bank.id())));
+
+        List<UUID> offerIds = service.calculateOffers(application.getId());
+
+        assertThat(offerIds).hasSize(1);
+    }
+
+    @Test
+    void testRecalculateBankOffers_UpdatesOpenOffersAndCreatesMissingOnes() {
+        BankRateCard card = createRateCard(UUID.randomUUID());
+        Application withOpenOffer = application;
+        Application withAcceptedOffer = createApplication();
+        Application withoutOffer = createApplication();
+        Offer openOffer = createOffer(withOpenOffer.getId(), card.getBankId(), OfferStatus.CALCULATED);
+        openOffer.setApr(new BigDecimal("99.00"));
+        Offer acceptedOffer = createOffer(withAcceptedOffer.getId(), card.getBankId(), OfferStatus.ACCEPTED);
+        when(offerRepository.findByBankIdAndApplicationIdIn(eq(card.getBankId()), anyList()))
+            .thenReturn(List.of(openOffer, acceptedOffer));
+
+        OfferCalculationService.BankRecalculationResult result =
+            service.recalculateBankOffers(card, List.of(withOpenOffer, withAcceptedOffer, withoutOffer));
+
+        assertThat(result).isEqualTo(new OfferCalculationService.BankRecalculationResult(1, 1, 1));
+        // Only the new offer is persisted; the open offer is managed and written by dirty checking
+        ArgumentCaptor<Offer> persisted = ArgumentCaptor.forClass(Offer.class);
+        verify(entityManager).persist(persisted.capture());
+        assertThat(persisted.getValue().getApplicationId()).isEqualTo(withoutOffer.getId());
+        verify(offerRepository, never()).saveAll(anyList());
+        verify(auditService).logAction("Offer", persisted.getValue().getId(), AuditAction.OFFER_CREATED);
+        verify(auditService, times(1)).logAction(any(), any(), any(AuditAction.class));
+        assertThat(openOffer.getApr()).isNotEqualByComparingTo("99.00");
+        assertThat(acceptedOffer.getApr()).isNull();
+    }
+
+    private Application createApplication() {
+        Application other = new Application();
+        other.setId(UUID.randomUUID());
+        other.setLoanType("PERSONAL");
+        other.setCurrency("EUR");
+        other.setLoanAmount(new BigDecimal("5000.00"));
+        other.setLoanTermMonths(24);
+        return other;
+    }
+
+    private Offer createOffer(UUID applicationId, UUID bankId, OfferStatus status) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(applicationId);
+        offer.setBankId(bankId);
+        offer.setOfferStatus(status);
+        offer.setExpiresAt(LocalDateTime.now().plusHours(12));
+        return offer;
+    }
+
+    private void stubIndex(List<RateCardIndex.ActiveBank> banks, List<BankRateCard> cards) {
+        RateCardIndex index = RateCardIndex.build(new ArrayList<>(cards), banks);
+        when(rateCardIndexService.current()).thenReturn(index);
+    }
+
+    private BankRateCard createRateCard(UUID bankId) {
+        return new BankRateCard(UUID.randomUUID(), bankId, LoanType.PERSONAL, Currency.EUR,
+            new BigDecimal("1000"), new BigDecimal("50000"), new BigDecimal("8.50"),
+            new BigDecimal("1.00"), new BigDecimal("1.50"), new BigDecimal("0.50"), 5,
+            LocalDateTime.now().minusDays(1), null);
+    }
+
+    private RateCardIndex.ActiveBank createBank() {
+        UUID bankId = UUID.randomUUID();
+        return new RateCardIndex.ActiveBank(bankId, "Bank " + bankId);
+    }
+}
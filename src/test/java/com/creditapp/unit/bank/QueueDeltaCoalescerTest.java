@@ -0,0 +1,97 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.event.BankQueueChangedEvent;
+import com.creditapp.bank.websocket.ApplicationQueueFanout;
+import com.creditapp.bank.websocket.QueueDeltaCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueueDeltaCoalescerTest {
+
+    private static final String BANK_ID = "bank-1";
+
+    @Mock
+    private ApplicationQueueFanout fanout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskScheduler scheduler;
+    private QueueDeltaCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        coalescer = new QueueDeltaCoalescer(fanout, objectMapper, meterRegistry, scheduler, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testRecord_ChangesInOneWindowBecomeOneVersionedDelta() throws Exception {
+        when(fanout.nextVersion(BANK_ID)).thenReturn(7L);
+
+        coalescer.record(BANK_ID, "app-1", "SUBMITTED");
+        coalescer.record(BANK_ID, "app-2", "SUBMITTED");
+        coalescer.record(BANK_ID, "app-1", "UNDER_REVIEW");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(fanout, timeout(2000)).publish(eq(BANK_ID), payload.capture());
+        verify(fanout).appendDelta(BANK_ID, 7L, payload.getValue());
+        JsonNode delta = objectMapper.readTree(payload.getValue());
+        assertThat(delta.path("type").asText()).isEqualTo("queue_delta");
+        assertThat(delta.path("version").asLong()).isEqualTo(7L);
+        assertThat(delta.path("applications")).hasSize(2);
+        assertThat(delta.path("applications").get(0).path("applicationId").asText()).isEqualTo("app-1");
+        assertThat(delta.path("applications").get(0).path("status").asText()).isEqualTo("UNDER_REVIEW");
+        assertThat(meterRegistry.counter("creditapp.websocket.queue.delta.changes").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testOnQueueChanged_RecordsEveryRefreshedRow() throws Exception {
+        UUID bankId = UUID.randomUUID();
+        UUID applicationId = UUID.randomUUID();
+        when(fanout.nextVersion(bankId.toString())).thenReturn(1L);
+
+        coalescer.onQueueChanged(new BankQueueChangedEvent(this,
+            List.of(new BankQueueChangedEvent.Change(bankId, applicationId, "ACCEPTED"))));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(fanout, timeout(2000)).publish(eq(bankId.toString()), payload.capture());
+        assertThat(payload.getValue()).contains(applicationId.toString(), "\"status\":\"ACCEPTED\"");
+    }
+
+    @Test
+    void testFlush_SendsResyncWhenNoVersionCanBeAssigned() {
+        when(fanout.nextVersion(BANK_ID)).thenThrow(new IllegalStateException("redis down"));
+
+        coalescer.record(BANK_ID, "app-1", "SUBMITTED");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(fanout, timeout(2000)).publish(eq(BANK_ID), payload.capture());
+        assertThat(payload.getValue()).contains("\"type\":\"resync\"");
+    }
+}
@@ -0,0 +1,65 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.model.BankRateCard;
+import com.creditapp.bank.service.RateCardIndex;
+import com.creditapp.borrower.model.Currency;
+import com.creditapp.borrower.model.LoanType;
+import com.creditapp.shared.model.BankStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateCardIndexTest {
+
+    private final UUID bankId = UUID.randomUUID();
+
+    @Test
+    void testBuild_IndexesOnlyActiveCards() {
+        BankRateCard active = createRateCard(LoanType.PERSONAL, Currency.EUR, null);
+        BankRateCard expired = createRateCard(LoanType.AUTO, Currency.EUR, LocalDateTime.now().minusDays(1));
+
+        RateCardIndex index = RateCardIndex.build(List.of(active, expired),
+            List.of(new RateCardIndex.ActiveBank(bankId, "Bank")));
+
+        assertThat(index.findRateCard(bankId, LoanType.PERSONAL, Currency.EUR)).contains(active);
+        assertThat(index.findRateCard(bankId, LoanType.AUTO, Currency.EUR)).isEmpty();
+        assertThat(index.isActiveBank(bankId)).isTrue();
+    }
+
+    @Test
+    void testWithRateCard_ReplacesPreviousVersionAcrossMarkets() {
+        BankRateCard original = createRateCard(LoanType.PERSONAL, Currency.EUR, null);
+        RateCardIndex index = RateCardIndex.build(List.of(original), List.of());
+
+        BankRateCard moved = createRateCard(LoanType.HOME, Currency.EUR, null);
+        RateCardIndex updated = index.withRateCard(moved, original.getId());
+
+        assertThat(updated.findRateCard(bankId, LoanType.PERSONAL, Currency.EUR)).isEmpty();
+        assertThat(updated.findRateCard(bankId, LoanType.HOME, Currency.EUR)).contains(moved);
+        assertThat(index.findRateCard(bankId, LoanType.PERSONAL, Currency.EUR)).contains(original);
+    }
+
+    @Test
+    void testWithBankStatus_AddsAndRemovesActiveBanks() {
+        RateCardIndex index = RateCardIndex.build(List.of(), List.of());
+
+        RateCardIndex activated = index.withBankStatus(bankId, "Bank", BankStatus.ACTIVE);
+        RateCardIndex deactivated = activated.withBankStatus(bankId, "Bank", BankStatus.INACTIVE);
+
+        assertThat(activated.isActiveBank(bankId)).isTrue();
+        assertThat(deactivated.isActiveBank(bankId)).isFalse();
+        assertThat(index.activeBanks()).isEmpty();
+    }
+
+    private BankRateCard createRateCard(LoanType loanType, Currency currency, LocalDateTime validTo) {
+        return new BankRateCard(UUID.randomUUID(), bankId, loanType, currency,
+            new BigDecimal("1000"), new BigDecimal("50000"), new BigDecimal("8.50"),
+            new BigDecimal("1.00"), new BigDecimal("1.50"), new BigDecimal("0.50"), 5,
+            LocalDateTime.now().minusDays(2), validTo);
+    }
+}
@@ -0,0 +1,140 @@
+package com.creditapp.unit.bank;
+
+import com.creditapp.bank.websocket.RedisApplicationQueueFanout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisApplicationQueueFanoutTest {
+
+    private static final ChannelTopic BANK_CHANNEL = new ChannelTopic("ws:bank-queue:bank-1");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisApplicationQueueFanout fanout;
+    private final List<String> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fanout = new RedisApplicationQueueFanout(redisTemplate, listenerContainer, meterRegistry, 256);
+        fanout.setLocalDelivery((bankId, payload) -> delivered.add(bankId + "=" + payload));
+    }
+
+    @Test
+    void testSubscription_HeldWhileAnyLocalSessionOfBankIsOpen() {
+        fanout.sessionOpened("bank-1");
+        fanout.sessionOpened("bank-1");
+        fanout.sessionClosed("bank-1");
+        verify(listenerContainer, times(1)).addMessageListener(fanout, BANK_CHANNEL);
+        verify(listenerContainer, never()).removeMessageListener(any(), any(ChannelTopic.class));
+
+        fanout.sessionClosed("bank-1");
+        fanout.sessionClosed("bank-1");
+        verify(listenerContainer, times(1)).removeMessageListener(fanout, BANK_CHANNEL);
+    }
+
+    @Test
+    void testPublish_GoesThroughRedisAndReceivedMessagesReachLocalSessions() {
+        fanout.publish("bank-1", "{\"type\":\"status_changed\"}");
+        verify(redisTemplate).convertAndSend("ws:bank-queue:bank-1", "{\"type\":\"status_changed\"}");
+        assertThat(delivered).isEmpty();
+
+        fanout.onMessage(new DefaultMessage("ws:bank-queue:bank-1".getBytes(StandardCharsets.UTF_8),
+            "{\"type\":\"status_changed\"}".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(delivered).containsExactly("bank-1={\"type\":\"status_changed\"}");
+    }
+
+    @Test
+    void testPublish_FallsBackToLocalDeliveryWhenRedisIsDown() {
+        when(redisTemplate.convertAndSend(anyString(), any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        fanout.publish("bank-1", "{}");
+
+        assertThat(delivered).containsExactly("bank-1={}");
+        assertThat(meterRegistry.counter("creditapp.websocket.fanout.publish.failures").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testAppendDelta_AddsToTheBanksCappedLogInRedis() {
+        fanout.appendDelta("bank-1", 5L, "{\"version\":5}");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ws:bank-queue-deltas:bank-1")), eq("5"),
+            eq("{\"version\":5}"), eq("256"));
+    }
+
+    @Test
+    void testDeltasSince_ReplaysConsecutiveVersionsOrReportsAGap() {
+        @SuppressWarnings("unchecked")
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.rangeByScoreWithScores("ws:bank-queue-deltas:bank-1", 3, Double.POSITIVE_INFINITY))
+            .thenReturn(tuples(3, 4));
+        when(zSet.rangeByScoreWithScores("ws:bank-queue-deltas:bank-1", 2, Double.POSITIVE_INFINITY))
+            .thenReturn(tuples(3, 4));
+
+        assertThat(fanout.deltasSince("bank-1", 2)).contains(List.of("delta-3", "delta-4"));
+        // Version 2 was evicted, so a client at version 1 has to refetch
+        assertThat(fanout.deltasSince("bank-1", 1)).isEmpty();
+    }
+
+    @Test
+    void testDeltasSince_CurrentClientGetsNothingToReplay() {
+        @SuppressWarnings("unchecked")
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(zSet.rangeByScoreWithScores(anyString(), any(Double.class), any(Double.class))).thenReturn(Set.of());
+        when(values.get("ws:bank-queue-version:bank-1")).thenReturn("4");
+
+        assertThat(fanout.deltasSince("bank-1", 4)).contains(List.of());
+        assertThat(fanout.deltasSince("bank-1", 3)).isEqualTo(Optional.empty());
+        assertThat(fanout.currentVersion("bank-1")).isEqualTo(4L);
+    }
+
+    private static Set<ZSetOperations.TypedTuple<String>> tuples(long from, long to) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (long version = from; version <= to; version++) {
+            tuples.add(new DefaultTypedTuple<>("delta-" + version, (double) version));
+        }
+        return tuples;
+    }
+}
@@ -53,7 +53,7 @@ class ApplicationHistoryServiceTest {
         Page<Application> applicationPage = new PageImpl<>(applications);
         
         when(applicationRepository.findByBorrowerId(eq(borrowerId), any(Pageable.class))).thenReturn(applicationPage);
-        when(offerRepository.findByApplicationId(any())).thenReturn(Arrays.asList());
+        when(offerRepository.findByApplicationIdIn(any())).thenReturn(Arrays.asList());
         
         ApplicationHistoryRequest request = new ApplicationHistoryRequest();
         ApplicationHistoryResponse response = applicationHistoryService.getApplicationHistory(borrowerId, request);
@@ -86,7 +86,7 @@ class ApplicationHistoryServiceTest {
         Page<Application> applicationPage = new PageImpl<>(Arrays.asList(app1, app2));
         
         when(applicationRepository.findByBorrowerId(eq(borrowerId), any(Pageable.class))).thenReturn(applicationPage);
-        when(offerRepository.findByApplicationId(any())).thenReturn(Arrays.asList());
+        when(offerRepository.findByApplicationIdIn(any())).thenReturn(Arrays.asList());
         
         ApplicationHistoryRequest request = new ApplicationHistoryRequest();
         request.setStatus("ACCEPTED");
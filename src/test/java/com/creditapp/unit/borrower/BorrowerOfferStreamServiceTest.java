@@ -0,0 +1,249 @@
+package com.creditapp.unit.borrower;
+
+import com.creditapp.bank.event.OfferChangedEvent;
+import com.creditapp.bank.model.Offer;
+import com.creditapp.bank.model.OfferStatus;
+import com.creditapp.borrower.controller.BorrowerOfferController;
+import com.creditapp.borrower.event.ApplicationStatusChangedEvent;
+import com.creditapp.borrower.model.Application;
+import com.creditapp.borrower.model.ApplicationStatus;
+import com.creditapp.borrower.repository.ApplicationRepository;
+import com.creditapp.borrower.service.BorrowerOfferStreamService;
+import com.creditapp.borrower.service.LocalOfferStreamFanout;
+import com.creditapp.borrower.service.OfferComparisonTableService;
+import com.creditapp.borrower.service.OfferInsightsService;
+import com.creditapp.borrower.service.OfferSelectionService;
+import com.creditapp.shared.exception.RateLimitExceededException;
+import com.creditapp.shared.security.AuthorizationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class BorrowerOfferStreamServiceTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+    @Mock
+    private AuthorizationService authorizationService;
+    @Mock
+    private TaskScheduler retryScheduler;
+
+    private final Queue<Runnable> scheduled = new ArrayDeque<>();
+    private SimpleMeterRegistry meterRegistry;
+    private LocalOfferStreamFanout fanout;
+    private BorrowerOfferStreamService streamService;
+    private MockMvc mockMvc;
+    private UUID borrowerId;
+    private Application application;
+
+    @BeforeEach
+    void setUp() {
+        borrowerId = UUID.randomUUID();
+        application = Application.builder()
+            .id(UUID.randomUUID())
+            .borrowerId(borrowerId)
+            .status(ApplicationStatus.SUBMITTED)
+            .build();
+        meterRegistry = new SimpleMeterRegistry();
+        useExecutor(Runnable::run, 100);
+    }
+
+    private void useExecutor(Executor executor, int maxBufferedEvents) {
+        fanout = new LocalOfferStreamFanout(2, 100);
+        streamService = new BorrowerOfferStreamService(applicationRepository, fanout,
+            new ObjectMapper().findAndRegisterModules(), executor, retryScheduler, meterRegistry, 3, 60000,
+            maxBufferedEvents, 262144);
+        BorrowerOfferController controller = new BorrowerOfferController(mock(OfferComparisonTableService.class),
+            mock(OfferSelectionService.class), mock(OfferInsightsService.class), streamService, authorizationService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testStream_SendsOfferEventsAndStatusTransitionsOnlyOnChange() throws Exception {
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(authorizationService.getCurrentUserId()).thenReturn(borrowerId);
+
+        MvcResult result = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        Offer offer = offer(OfferStatus.CALCULATED);
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer, null));
+        streamService.onApplicationStatusChanged(new ApplicationStatusChangedEvent(this, application.getId(),
+            ApplicationStatus.SUBMITTED, ApplicationStatus.SUBMITTED));
+        streamService.onApplicationStatusChanged(new ApplicationStatusChangedEvent(this, application.getId(),
+            ApplicationStatus.SUBMITTED, ApplicationStatus.OFFERS_AVAILABLE));
+        offer.setOfferStatus(OfferStatus.EXPIRED);
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer, OfferStatus.CALCULATED));
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("id:1\nevent:offer-calculated\ndata:{\"offerId\":\"" + offer.getId());
+        assertThat(body).contains("id:2\nevent:status-transition\n");
+        assertThat(body).contains("\"status\":\"OFFERS_AVAILABLE\",\"previousStatus\":\"SUBMITTED\"");
+        assertThat(body).contains("id:3\nevent:offer-expired\n");
+        assertThat(body).doesNotContain("id:4");
+    }
+
+    @Test
+    void testStream_OfferExpiredOnlyOnTransitionIntoExpiredStatus() throws Exception {
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(authorizationService.getCurrentUserId()).thenReturn(borrowerId);
+        MvcResult result = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        Offer offer = offer(OfferStatus.EXPIRED);
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer, OfferStatus.SUBMITTED));
+        // Rewriting an already expired offer (e.g. EXPIRED to EXPIRED_WITH_SELECTION) is an update
+        offer.setOfferStatus(OfferStatus.EXPIRED_WITH_SELECTION);
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer, OfferStatus.EXPIRED));
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("id:1\nevent:offer-expired\n");
+        assertThat(body).contains("id:2\nevent:offer-updated\n");
+    }
+
+    @Test
+    void testStream_DropsClientThatFallsBehindItsQueueLimit() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        useExecutor(pending::add, 3);
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        streamService.subscribe(borrowerId, application.getId(), null);
+
+        // The connect comment and two events fill the queue; the third event does not fit
+        for (int i = 0; i < 3; i++) {
+            streamService.onOfferChanged(new OfferChangedEvent(this, offer(OfferStatus.CALCULATED), null));
+        }
+
+        assertThat(meterRegistry.counter("creditapp.borrower.offer-stream.dropped").count()).isEqualTo(1.0);
+        // The dropped stream no longer counts against the borrower's connection limit
+        for (int i = 0; i < 3; i++) {
+            streamService.subscribe(borrowerId, application.getId(), null);
+        }
+    }
+
+    @Test
+    void testStream_RetriesDrainRejectedByExecutor() throws Exception {
+        when(retryScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+        boolean[] saturated = {false};
+        useExecutor(task -> {
+            if (saturated[0]) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        }, 100);
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(authorizationService.getCurrentUserId()).thenReturn(borrowerId);
+        MvcResult result = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        saturated[0] = true;
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer(OfferStatus.CALCULATED), null));
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("event:offer-calculated");
+        assertThat(scheduled).hasSize(1);
+
+        saturated[0] = false;
+        scheduled.poll().run();
+        assertThat(result.getResponse().getContentAsString()).contains("id:1\nevent:offer-calculated");
+    }
+
+    @Test
+    void testSubscribe_ReplaysEventsAfterLastEventIdOrAsksForResync() throws Exception {
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(authorizationService.getCurrentUserId()).thenReturn(borrowerId);
+        mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId()));
+        for (int i = 0; i < 3; i++) {
+            streamService.onOfferChanged(new OfferChangedEvent(this, offer(OfferStatus.CALCULATED), null));
+        }
+
+        MvcResult resumed = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId())
+                .header("Last-Event-ID", "2"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String replayed = resumed.getResponse().getContentAsString();
+        assertThat(replayed).contains("id:3\nevent:offer-calculated").doesNotContain("id:2\n");
+
+        // The buffer holds two events, so event 1 has been evicted
+        MvcResult stale = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId())
+                .header("Last-Event-ID", "0"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(stale.getResponse().getContentAsString()).contains("event:resync").doesNotContain("id:2\n");
+    }
+
+    @Test
+    void testSubscribe_ReplaysEventsPublishedWhileThisNodeHadNoStream() throws Exception {
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(authorizationService.getCurrentUserId()).thenReturn(borrowerId);
+        // Published by another node's transaction; the borrower's stream was open there
+        fanout.publish(application.getId(), "offer-calculated", "{\"offerId\":\"a\"}");
+        fanout.publish(application.getId(), "offer-calculated", "{\"offerId\":\"b\"}");
+
+        MvcResult resumed = mockMvc.perform(get("/api/borrower/applications/{id}/events", application.getId())
+                .header("Last-Event-ID", "1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        streamService.onOfferChanged(new OfferChangedEvent(this, offer(OfferStatus.CALCULATED), null));
+
+        String body = resumed.getResponse().getContentAsString();
+        assertThat(body).contains("id:2\nevent:offer-calculated\ndata:{\"offerId\":\"b\"}")
+            .contains("id:3\nevent:offer-calculated").doesNotContain("id:1\n");
+        assertThat(body.indexOf("id:2\n")).isLessThan(body.indexOf("id:3\n"));
+    }
+
+    @Test
+    void testSubscribe_EnforcesOwnershipAndConnectionLimit() {
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+
+        assertThatThrownBy(() -> streamService.subscribe(UUID.randomUUID(), application.getId(), null))
+            .isInstanceOf(AccessDeniedException.class);
+
+        for (int i = 0; i < 3; i++) {
+            streamService.subscribe(borrowerId, application.getId(), null);
+        }
+        assertThatThrownBy(() -> streamService.subscribe(borrowerId, application.getId(), null))
+            .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    private Offer offer(OfferStatus status) {
+        Offer offer = new Offer();
+        offer.setId(UUID.randomUUID());
+        offer.setApplicationId(application.getId());
+        offer.setBankId(UUID.randomUUID());
+        offer.setOfferStatus(status);
+        offer.setApr(new BigDecimal("7.50"));
+        offer.setMonthlyPayment(new BigDecimal("312.40"));
+        return offer;
+    }
+}
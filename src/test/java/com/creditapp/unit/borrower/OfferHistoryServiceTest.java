@@ -19,13 +19,13 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -77,8 +77,8 @@ class OfferHistoryServiceTest {
         Page<Offer> offerPage = new PageImpl<>(offers);
         
         when(offerRepository.findOffersByBorrowerId(eq(borrowerId), any(Pageable.class))).thenReturn(offerPage);
-        when(applicationRepository.findById(applicationId)).thenReturn(Optional.of(app));
-        when(organizationRepository.findById(bankId)).thenReturn(Optional.of(bank));
+        when(applicationRepository.findByIdIn(any())).thenReturn(List.of(app));
+        when(organizationRepository.findAllById(anyIterable())).thenReturn(List.of(bank));
         
         OfferHistoryResponse response = offerHistoryService.getOfferHistory(borrowerId, 20, 0, "createdAt");
         
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -55,6 +56,9 @@ public class OfferSelectionServiceTest {
     @Mock
     private NextStepsService nextStepsService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private UUID applicationId;
     private UUID borrowerId;
     private UUID offerId;
@@ -68,7 +72,8 @@ public class OfferSelectionServiceTest {
                 organizationRepository,
                 emailService,
                 auditService,
-                nextStepsService
+                nextStepsService,
+                eventPublisher
         );
 
         applicationId = UUID.randomUUID();
@@ -0,0 +1,129 @@
+package com.creditapp.unit.borrower;
+
+import com.creditapp.borrower.service.OfferStreamEvent;
+import com.creditapp.borrower.service.RedisOfferStreamFanout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisOfferStreamFanoutTest {
+
+    private static final UUID APPLICATION_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String CHANNEL = "sse:application-offers:" + APPLICATION_ID;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisOfferStreamFanout fanout;
+    private final List<String> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fanout = new RedisOfferStreamFanout(redisTemplate, listenerContainer, meterRegistry, 100, 86400);
+        fanout.setLocalDelivery((applicationId, event) ->
+            delivered.add(applicationId + "=" + event.id() + ":" + event.name() + ":" + event.json()));
+    }
+
+    @Test
+    void testSubscription_HeldWhileAnyLocalStreamOfApplicationIsOpen() {
+        fanout.streamOpened(APPLICATION_ID);
+        fanout.streamOpened(APPLICATION_ID);
+        fanout.streamClosed(APPLICATION_ID);
+        verify(listenerContainer, times(1)).addMessageListener(fanout, new ChannelTopic(CHANNEL));
+        verify(listenerContainer, never()).removeMessageListener(any(), any(ChannelTopic.class));
+
+        fanout.streamClosed(APPLICATION_ID);
+        verify(listenerContainer, times(1)).removeMessageListener(fanout, new ChannelTopic(CHANNEL));
+    }
+
+    @Test
+    void testPublish_NumbersLogsAndPublishesInOneScriptAndReceivedEventsReachLocalStreams() {
+        fanout.publish(APPLICATION_ID, "offer-calculated", "{\"apr\":7.5}");
+        verify(redisTemplate).execute(any(RedisScript.class),
+            eq(List.of("sse:application-offers-id:" + APPLICATION_ID, "sse:application-offers-events:" + APPLICATION_ID)),
+            eq("offer-calculated"), eq("{\"apr\":7.5}"), eq("100"), eq("86400"), eq(CHANNEL));
+        assertThat(delivered).isEmpty();
+
+        fanout.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "12\noffer-calculated\n{\"apr\":7.5}".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(delivered).containsExactly(APPLICATION_ID + "=12:offer-calculated:{\"apr\":7.5}");
+    }
+
+    @Test
+    void testPublish_FallsBackToLocalDeliveryWithoutIdWhenRedisIsDown() {
+        when(redisTemplate.execute(any(RedisScript.class), any(List.class), any(Object[].class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+
+        fanout.publish(APPLICATION_ID, "offer-updated", "{}");
+
+        assertThat(delivered).containsExactly(APPLICATION_ID + "=0:offer-updated:{}");
+        assertThat(meterRegistry.counter("creditapp.borrower.offer-stream.fanout.publish.failures").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void testEventsSince_ReplaysConsecutiveIdsOrReportsAGap() {
+        @SuppressWarnings("unchecked")
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        Set<String> kept = new LinkedHashSet<>(List.of("3\noffer-calculated\n{}", "4\noffer-expired\n{}"));
+        when(zSet.rangeByScore(eq("sse:application-offers-events:" + APPLICATION_ID), anyDouble(), anyDouble()))
+            .thenReturn(kept);
+
+        assertThat(fanout.eventsSince(APPLICATION_ID, 2)).hasValueSatisfying(events ->
+            assertThat(events).extracting(OfferStreamEvent::id).containsExactly(3L, 4L));
+        // Event 2 is no longer kept
+        assertThat(fanout.eventsSince(APPLICATION_ID, 1)).isEmpty();
+    }
+
+    @Test
+    void testEventsSince_CurrentClientGetsNothingToReplay() {
+        @SuppressWarnings("unchecked")
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(zSet.rangeByScore(anyString(), anyDouble(), anyDouble())).thenReturn(Set.of());
+        when(values.get("sse:application-offers-id:" + APPLICATION_ID)).thenReturn("4");
+
+        assertThat(fanout.eventsSince(APPLICATION_ID, 4)).hasValue(List.of());
+        assertThat(fanout.eventsSince(APPLICATION_ID, 3)).isEmpty();
+    }
+}
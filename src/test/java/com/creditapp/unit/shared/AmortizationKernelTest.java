@@ -0,0 +1,64 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.util.AmortizationKernel;
+import com.creditapp.shared.util.CalculationUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmortizationKernelTest {
+
+    @AfterEach
+    void tearDown() {
+        AmortizationKernel.setStrictMode(false);
+    }
+
+    @Test
+    void testAnnuityPayment_MatchesBigDecimalPathAcrossRatesAndTerms() {
+        BigDecimal[] principals = {new BigDecimal("1000.00"), new BigDecimal("12345.67"), new BigDecimal("750000.00")};
+        int[] terms = {1, 6, 12, 36, 60, 120, 240, 360};
+
+        for (int aprBasisPoints = 50; aprBasisPoints <= 3000; aprBasisPoints += 37) {
+            BigDecimal monthlyRate = BigDecimal.valueOf(aprBasisPoints, 2)
+                .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP);
+            for (BigDecimal principal : principals) {
+                for (int months : terms) {
+                    assertThat(CalculationUtils.annuityPayment(principal, monthlyRate, months))
+                        .as("principal=%s rate=%s months=%d", principal, monthlyRate, months)
+                        .isEqualByComparingTo(CalculationUtils.annuityPaymentExact(principal, monthlyRate, months));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAnnuityPayment_ZeroRateIsStraightLine() {
+        assertThat(CalculationUtils.annuityPayment(new BigDecimal("1200.00"), BigDecimal.ZERO, 12))
+            .isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void testAnnuityPayment_SubCentPrincipalUsesExactPath() {
+        BigDecimal principal = new BigDecimal("1000.005");
+        BigDecimal monthlyRate = new BigDecimal("0.007083");
+
+        assertThat(AmortizationKernel.supports(principal)).isFalse();
+        assertThat(CalculationUtils.annuityPayment(principal, monthlyRate, 24))
+            .isEqualByComparingTo(CalculationUtils.annuityPaymentExact(principal, monthlyRate, 24));
+    }
+
+    @Test
+    void testStrictMode_CountsVerifications() {
+        AmortizationKernel.setStrictMode(true);
+        long before = AmortizationKernel.verificationCount();
+
+        CalculationUtils.calculateMonthlyPayment(new BigDecimal("10000.00"), 36, new BigDecimal("8.5"));
+
+        assertThat(AmortizationKernel.verificationCount()).isEqualTo(before + 1);
+    }
+}
@@ -0,0 +1,227 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.audit.AuditArchiveSegment;
+import com.creditapp.shared.audit.AuditArchiveStorage;
+import com.creditapp.shared.audit.AuditLogExporter;
+import com.creditapp.shared.audit.LocalAuditArchiveStorage;
+import com.creditapp.shared.service.AuditLogPartitionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuditLogExporterTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final List<Integer> PURGE_CALLS = new CopyOnWriteArrayList<>();
+
+    @Mock
+    private AuditLogPartitionService auditLogPartitionService;
+
+    @TempDir
+    Path archiveDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "entity_type VARCHAR(100) NOT NULL, entity_id UUID NOT NULL, action VARCHAR(100) NOT NULL, "
+            + "actor_id UUID, actor_role VARCHAR(50), old_values JSON, new_values JSON, ip_address VARCHAR(45), "
+            + "user_agent VARCHAR(500), result VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE audit_log_checkpoints (seq BIGINT PRIMARY KEY, first_id BIGINT NOT NULL, "
+            + "last_id BIGINT NOT NULL, row_count INTEGER NOT NULL, chain_hash VARCHAR(64) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE audit_log_purges (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "checkpoint_seq BIGINT, segment_key VARCHAR(500) NOT NULL, first_id BIGINT NOT NULL, "
+            + "last_id BIGINT NOT NULL, row_count INTEGER NOT NULL, purged_at TIMESTAMP NOT NULL)");
+        lenient().when(auditLogPartitionService.isPartitioned()).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testExportOlderThan_StreamsSegmentsWithManifestsAndPurgesOnlyExportedRows() throws Exception {
+        insert(25, CUTOFF.minusDays(30));
+        insert(3, CUTOFF.plusDays(1));
+
+        AuditLogExporter.ExportResult result = exporter(new LocalAuditArchiveStorage(archiveDir.toString()))
+            .exportOlderThan(CUTOFF);
+
+        assertThat(result.segments()).isEqualTo(3);
+        assertThat(result.rows()).isEqualTo(25);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class)).isEqualTo(3);
+
+        List<Path> manifests;
+        try (var files = Files.walk(archiveDir)) {
+            manifests = files.filter(path -> path.toString().endsWith(".manifest.json")).sorted().toList();
+        }
+        assertThat(manifests).hasSize(3);
+        long previousLastId = 0;
+        long rows = 0;
+        for (Path manifestFile : manifests) {
+            AuditArchiveSegment manifest = objectMapper.readValue(manifestFile.toFile(), AuditArchiveSegment.class);
+            Path segment = archiveDir.resolve(manifest.key());
+            byte[] compressed = Files.readAllBytes(segment);
+            assertThat(manifest.sha256()).isEqualTo(sha256(compressed));
+            assertThat(manifest.compressedBytes()).isEqualTo(compressed.length);
+
+            List<String> lines = ndjsonLines(segment);
+            assertThat(lines).hasSize((int) manifest.rowCount());
+            assertThat(manifest.contentSha256())
+                .isEqualTo(sha256((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8)));
+            JsonNode first = objectMapper.readTree(lines.get(0));
+            assertThat(first.get("id").asLong()).isEqualTo(manifest.firstId()).isGreaterThan(previousLastId);
+            assertThat(first.get("new_values").get("status").asText()).isEqualTo("SUBMITTED");
+            assertThat(first.get("old_values").isNull()).isTrue();
+            previousLastId = manifest.lastId();
+            rows += manifest.rowCount();
+        }
+        assertThat(rows).isEqualTo(25);
+    }
+
+    @Test
+    void testExportOlderThan_KeepsRowsWhenStorageFails() {
+        insert(5, CUTOFF.minusDays(1));
+        AuditArchiveStorage failing = (key, source, sha256) -> {
+            throw new IOException("bucket unavailable");
+        };
+
+        assertThatThrownBy(() -> exporter(failing).exportOlderThan(CUTOFF))
+            .isInstanceOf(IOException.class)
+            .hasMessage("bucket unavailable");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class)).isEqualTo(5);
+    }
+
+    @Test
+    void testExportOlderThan_RecordsPurgedRowsPerCheckpointRange() throws Exception {
+        insert(25, CUTOFF.minusDays(30));
+        checkpoint(1, 1, 7);
+        checkpoint(2, 8, 15);
+
+        exporter(new LocalAuditArchiveStorage(archiveDir.toString())).exportOlderThan(CUTOFF);
+
+        // Segments of 10 rows are purged in chunks of at most 3 that never cross a checkpoint boundary
+        assertThat(jdbcTemplate.queryForList("SELECT checkpoint_seq, SUM(row_count) AS purged, MIN(first_id) AS first_id, "
+                + "MAX(last_id) AS last_id FROM audit_log_purges GROUP BY checkpoint_seq ORDER BY checkpoint_seq NULLS LAST"))
+            .extracting(row -> List.of(String.valueOf(row.get("CHECKPOINT_SEQ")), row.get("PURGED").toString(),
+                row.get("FIRST_ID").toString(), row.get("LAST_ID").toString()))
+            .containsExactly(List.of("1", "7", "1", "7"), List.of("2", "8", "8", "15"), List.of("null", "10", "16", "25"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_purges WHERE first_id <= 7 AND last_id > 7",
+            Long.class)).isZero();
+    }
+
+    @Test
+    void testExportOlderThan_PurgesPartitionedArchiveOnlyThroughPurgeFunction() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE audit_logs_archive AS SELECT * FROM audit_logs WITH NO DATA");
+        jdbcTemplate.execute("CREATE ALIAS purge_exported_audit_logs FOR \""
+            + AuditLogExporterTest.class.getName() + ".purgeExportedAuditLogs\"");
+        insert(7, CUTOFF.minusDays(1));
+        jdbcTemplate.update("INSERT INTO audit_logs_archive SELECT * FROM audit_logs");
+        jdbcTemplate.update("DELETE FROM audit_logs");
+        when(auditLogPartitionService.isPartitioned()).thenReturn(true);
+        PURGE_CALLS.clear();
+
+        AuditLogExporter.ExportResult result = exporter(new LocalAuditArchiveStorage(archiveDir.toString()))
+            .exportOlderThan(CUTOFF);
+
+        assertThat(result.rows()).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs_archive", Long.class)).isZero();
+        // Chunks of at most 3 rows, until a call finds the segment's range empty
+        assertThat(PURGE_CALLS).containsExactly(3, 3, 1, 0);
+    }
+
+    /**
+     * Stands in for the SECURITY DEFINER purge function of the V46 migration.
+     */
+    public static int purgeExportedAuditLogs(Connection connection, long firstId, long lastId, Timestamp cutoff,
+                                             int maxRows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM audit_logs_archive WHERE id IN "
+            + "(SELECT id FROM audit_logs_archive WHERE id BETWEEN ? AND ? AND created_at < ? ORDER BY id LIMIT ?)")) {
+            statement.setLong(1, firstId);
+            statement.setLong(2, lastId);
+            statement.setTimestamp(3, cutoff);
+            statement.setInt(4, maxRows);
+            int deleted = statement.executeUpdate();
+            PURGE_CALLS.add(deleted);
+            return deleted;
+        }
+    }
+
+    private AuditLogExporter exporter(AuditArchiveStorage storage) {
+        return new AuditLogExporter(jdbcTemplate, new DataSourceTransactionManager(database), storage,
+            auditLogPartitionService, objectMapper, new SimpleMeterRegistry(), 4, 10, 3, "audit-logs");
+    }
+
+    private void insert(int count, LocalDateTime createdAt) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO audit_logs (entity_type, entity_id, action, actor_id, actor_role, "
+                    + "old_values, new_values, ip_address, user_agent, result, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, NULL, ? FORMAT JSON, ?, ?, ?, ?)",
+                "Application", UUID.randomUUID(), "APPLICATION_SUBMITTED", UUID.randomUUID(), "BORROWER",
+                "{\"status\":\"SUBMITTED\"}", "127.0.0.1", "JUnit", "SUCCESS", Timestamp.valueOf(createdAt));
+        }
+    }
+
+    private void checkpoint(long seq, long firstId, long lastId) {
+        jdbcTemplate.update("INSERT INTO audit_log_checkpoints (seq, first_id, last_id, row_count, chain_hash, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)", seq, firstId, lastId, (int) (lastId - firstId + 1), "0".repeat(64),
+            Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static List<String> ndjsonLines(Path segment) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
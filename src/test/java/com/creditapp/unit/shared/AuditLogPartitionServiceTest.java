@@ -0,0 +1,112 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.service.AuditLogPartitionService;
+import com.creditapp.shared.service.AuditLogPartitionService.AuditLogPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testUpperBound_ParsesRangeBounds() {
+        assertThat(AuditLogPartitionService.upperBound(
+            "FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')"))
+            .isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+        assertThat(AuditLogPartitionService.upperBound(
+            "FOR VALUES FROM (MINVALUE) TO ('2023-05-17 10:22:33.123456')"))
+            .isEqualTo(LocalDateTime.of(2023, 5, 17, 10, 22, 33, 123_456_000));
+        assertThat(AuditLogPartitionService.upperBound("FOR VALUES FROM ('2024-01-01 00:00:00') TO (MAXVALUE)")).isNull();
+        assertThat(AuditLogPartitionService.upperBound("DEFAULT")).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testArchivePartitionsOlderThan_MovesOnlyPartitionsEntirelyPastCutoff() {
+        postgresPartitioned();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(
+            new AuditLogPartition("audit_logs_legacy",
+                "FOR VALUES FROM ('2021-03-04 09:00:00') TO ('2021-07-01 00:00:00')"),
+            new AuditLogPartition("audit_logs_p202107",
+                "FOR VALUES FROM ('2021-07-01 00:00:00') TO ('2021-08-01 00:00:00')"),
+            new AuditLogPartition("audit_logs_p202108",
+                "FOR VALUES FROM ('2021-08-01 00:00:00') TO ('2021-09-01 00:00:00')")));
+        AuditLogPartitionService service = new AuditLogPartitionService(jdbcTemplate, transactionManager, 3);
+
+        List<String> archived = service.archivePartitionsOlderThan(LocalDateTime.of(2021, 8, 15, 0, 0));
+
+        assertThat(archived).containsExactly("audit_logs_legacy", "audit_logs_p202107");
+        verify(jdbcTemplate).queryForObject("SELECT archive_audit_log_partition(?)::text", String.class, "audit_logs_legacy");
+        verify(jdbcTemplate).queryForObject("SELECT archive_audit_log_partition(?)::text", String.class, "audit_logs_p202107");
+        verify(jdbcTemplate, never()).queryForObject("SELECT archive_audit_log_partition(?)::text", String.class, "audit_logs_p202108");
+        // The bound constraint is validated in transactions of its own before the partition is moved
+        verify(jdbcTemplate).queryForObject("SELECT prepare_audit_log_partition_bound(?)::text", String.class, "audit_logs_p202107");
+        verify(jdbcTemplate).queryForObject("SELECT validate_audit_log_partition_bound(?)::text", String.class, "audit_logs_p202107");
+        verify(jdbcTemplate, never()).queryForObject("SELECT validate_audit_log_partition_bound(?)::text", String.class, "audit_logs_p202108");
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void testEnsureUpcomingPartitions_CreatesCurrentAndAheadMonths() {
+        postgresPartitioned();
+        when(jdbcTemplate.queryForObject(eq("SELECT create_audit_log_partition(?)"), eq(String.class), any(Object[].class)))
+            .thenReturn(null, "audit_logs_p1", "audit_logs_p2", "audit_logs_p3");
+        AuditLogPartitionService service = new AuditLogPartitionService(jdbcTemplate, transactionManager, 3);
+
+        List<String> partitions = service.ensureUpcomingPartitions();
+
+        // The current month is still covered by the legacy partition
+        assertThat(partitions).containsExactly("audit_logs_p1", "audit_logs_p2", "audit_logs_p3");
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        verify(jdbcTemplate).queryForObject("SELECT create_audit_log_partition(?)", String.class, Date.valueOf(month));
+        verify(jdbcTemplate).queryForObject("SELECT create_audit_log_partition(?)", String.class,
+            Date.valueOf(month.plusMonths(3)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOperations_AreNoOpsOffPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        AuditLogPartitionService service = new AuditLogPartitionService(jdbcTemplate, transactionManager, 3);
+
+        assertThat(service.isPartitioned()).isFalse();
+        assertThat(service.ensureUpcomingPartitions()).isEmpty();
+        assertThat(service.archivePartitionsOlderThan(LocalDateTime.now())).isEmpty();
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void postgresPartitioned() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(
+            "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass('audit_logs')", String.class))
+            .thenReturn("p");
+    }
+}
@@ -0,0 +1,220 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.audit.AuditLogWriter;
+import com.creditapp.shared.model.AuditAction;
+import com.creditapp.shared.model.AuditLog;
+import com.creditapp.shared.service.AuditLogPartitionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditLogPartitionService partitionService;
+
+    @TempDir
+    Path spillDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<List<AuditLog>> batches = new CopyOnWriteArrayList<>();
+    private ThreadPoolTaskScheduler flusher;
+
+    @BeforeEach
+    void setUp() {
+        flusher = new ThreadPoolTaskScheduler();
+        flusher.initialize();
+        acceptWrites();
+    }
+
+    @AfterEach
+    void tearDown() {
+        flusher.shutdown();
+    }
+
+    @Test
+    void testSubmit_FlusherWritesInBatchesOfBatchSize() throws Exception {
+        AuditLogWriter writer = writer(true, 1000, 3, 50);
+
+        for (int i = 0; i < 7; i++) {
+            writer.submit(auditLog());
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(written()).isEqualTo(7);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        assertThat(writer.pendingCount()).isZero();
+        writer.shutdown();
+    }
+
+    @Test
+    void testSubmit_OverflowIsSpilledAndReplayedInOrder() throws Exception {
+        AuditLogWriter writer = writer(true, 2, 100, 60_000);
+        List<AuditLog> submitted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AuditLog auditLog = auditLog();
+            submitted.add(auditLog);
+            writer.submit(auditLog);
+        }
+        assertThat(writer.pendingCount()).isEqualTo(2);
+        assertThat(spillSegments()).hasSize(1);
+
+        writer.flush();
+
+        assertThat(batches.stream().flatMap(List::stream).map(AuditLog::getEntityId))
+            .containsExactly(submitted.get(0).getEntityId(), submitted.get(1).getEntityId(),
+                submitted.get(2).getEntityId(), submitted.get(3).getEntityId(), submitted.get(4).getEntityId());
+        assertThat(spillSegments()).isEmpty();
+        writer.shutdown();
+    }
+
+    @Test
+    void testShutdown_SpillsWhatTheDatabaseRejectsForTheNextStart() throws Exception {
+        reset(jdbcTemplate);
+        doThrow(new DataAccessResourceFailureException("database down"))
+            .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        AuditLogWriter writer = writer(true, 1000, 100, 60_000);
+        AuditLog auditLog = auditLog();
+        auditLog.setNewValues(Map.of("status", "SUBMITTED"));
+        writer.submit(auditLog);
+        writer.submit(auditLog());
+
+        writer.shutdown();
+
+        assertThat(spillSegments()).hasSize(1);
+        assertThat(Files.readAllLines(spillSegments().get(0))).hasSize(2);
+
+        reset(jdbcTemplate);
+        acceptWrites();
+        AuditLogWriter restarted = writer(true, 1000, 100, 60_000);
+        restarted.flush();
+
+        assertThat(written()).isEqualTo(2);
+        AuditLog replayed = batches.get(0).get(0);
+        assertThat(replayed.getEntityId()).isEqualTo(auditLog.getEntityId());
+        assertThat(replayed.getAction()).isEqualTo(AuditAction.APPLICATION_SUBMITTED);
+        assertThat(replayed.getNewValues()).containsEntry("status", "SUBMITTED");
+        assertThat(replayed.getCreatedAt()).isEqualTo(auditLog.getCreatedAt());
+        // The key assigned on submit survives the spill, so a repeated replay cannot insert the row twice
+        assertThat(replayed.getIdempotencyKey()).isNotNull().isEqualTo(auditLog.getIdempotencyKey());
+        assertThat(spillSegments()).isEmpty();
+        restarted.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CreatesMissingPartitionAndRejectsRowsOfArchivedMonths() throws Exception {
+        reset(jdbcTemplate);
+        doAnswer(invocation -> {
+            Collection<AuditLog> batch = invocation.getArgument(1);
+            if (batch.size() > 1) {
+                throw new DataIntegrityViolationException("insert failed", new SQLException(
+                    "ERROR: no partition of relation \"audit_logs\" found for row", "23514"));
+            }
+            batches.add(new ArrayList<>(batch));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        AuditLog current = auditLog();
+        current.setCreatedAt(LocalDateTime.now());
+        AuditLog archivedMonth = auditLog();
+        archivedMonth.setCreatedAt(LocalDateTime.now().minusYears(4));
+        when(partitionService.ensurePartitionFor(current.getCreatedAt())).thenReturn(true);
+        when(partitionService.ensurePartitionFor(archivedMonth.getCreatedAt())).thenReturn(false);
+        AuditLogWriter writer = writer(true, 1000, 100, 60_000);
+        writer.submit(current);
+        writer.submit(archivedMonth);
+
+        writer.flush();
+
+        assertThat(batches).containsExactly(List.of(current));
+        assertThat(spillSegments()).containsExactly(spillDir.resolve("rejected"));
+        List<Path> rejected;
+        try (var files = Files.list(spillDir.resolve("rejected"))) {
+            rejected = files.toList();
+        }
+        assertThat(rejected).hasSize(1);
+        assertThat(Files.readAllLines(rejected.get(0))).singleElement()
+            .satisfies(line -> assertThat(line).contains(archivedMonth.getEntityId().toString()));
+        // Nothing is left to retry
+        writer.flush();
+        assertThat(batches).hasSize(1);
+        writer.shutdown();
+    }
+
+    @Test
+    void testSubmit_WritesInlineWhenAsyncDisabled() {
+        AuditLogWriter writer = writer(false, 1000, 100, 60_000);
+
+        writer.submit(auditLog());
+
+        assertThat(written()).isEqualTo(1);
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    private AuditLogWriter writer(boolean async, int capacity, int batchSize, long flushIntervalMillis) {
+        return new AuditLogWriter(jdbcTemplate, objectMapper, new SimpleMeterRegistry(), partitionService, flusher,
+            async, capacity, batchSize, flushIntervalMillis, spillDir.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void acceptWrites() {
+        doAnswer(invocation -> {
+            batches.add(new ArrayList<>((Collection<AuditLog>) invocation.getArgument(1)));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private long written() {
+        return batches.stream().mapToLong(List::size).sum();
+    }
+
+    private List<Path> spillSegments() throws Exception {
+        try (var files = Files.list(spillDir)) {
+            return files.toList();
+        }
+    }
+
+    private static AuditLog auditLog() {
+        return new AuditLog("Application", UUID.randomUUID(), AuditAction.APPLICATION_SUBMITTED, UUID.randomUUID(),
+            "BORROWER", null, null, "127.0.0.1", "JUnit", "SUCCESS");
+    }
+}
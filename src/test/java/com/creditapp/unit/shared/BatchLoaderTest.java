@@ -0,0 +1,62 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.util.BatchLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchLoaderTest {
+
+    private record Row(int id, int parentId) {
+    }
+
+    @Test
+    void testLoad_OneFetchForDistinctNonNullKeys() {
+        List<Collection<Integer>> fetches = new ArrayList<>();
+
+        Map<Integer, Row> rows = BatchLoader.<Integer, Row>of(keys -> {
+                    fetches.add(new ArrayList<>(keys));
+                    return keys.stream().filter(key -> key != 3).map(key -> new Row(key, 0)).toList();
+                }, Row::id)
+                .addAll(Arrays.asList(1, 2, 2, null, 3), key -> key)
+                .load();
+
+        assertThat(fetches).containsExactly(List.of(1, 2, 3));
+        assertThat(rows).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void testLoadGrouped_CollectsValuesPerKey() {
+        Map<Integer, List<Row>> children = BatchLoader.<Integer, Row>of(
+                        keys -> List.of(new Row(10, 1), new Row(11, 1), new Row(20, 2)), Row::parentId)
+                .add(1).add(2).add(3)
+                .loadGrouped();
+
+        assertThat(children.get(1)).extracting(Row::id).containsExactly(10, 11);
+        assertThat(children.get(2)).extracting(Row::id).containsExactly(20);
+        assertThat(children).doesNotContainKey(3);
+    }
+
+    @Test
+    void testLoad_SplitsLargeKeySetsAndSkipsEmptyOnes() {
+        List<Integer> fetchSizes = new ArrayList<>();
+        BatchLoader<Integer, Row> loader = BatchLoader.of(keys -> {
+            fetchSizes.add(keys.size());
+            return List.of();
+        }, Row::id);
+
+        loader.load();
+        assertThat(fetchSizes).isEmpty();
+
+        IntStream.range(0, BatchLoader.MAX_KEYS_PER_QUERY + 1).forEach(loader::add);
+        loader.load();
+        assertThat(fetchSizes).containsExactly(BatchLoader.MAX_KEYS_PER_QUERY, 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.audit.BusinessAudit;
+import com.creditapp.shared.audit.BusinessAuditAspect;
+import com.creditapp.shared.model.AuditAction;
+import com.creditapp.shared.service.AuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BusinessAuditAspectTest {
+
+    public static class Created {
+        private final UUID id;
+
+        Created(UUID id) {
+            this.id = id;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+    }
+
+    public static class AuditedService {
+
+        @BusinessAudit(action = AuditAction.APPLICATION_CREATED, entityType = "Application")
+        public Created create(UUID id) {
+            return new Created(id);
+        }
+
+        @BusinessAudit(action = AuditAction.APPLICATION_SUBMITTED, entityType = "Application")
+        public String withoutId() {
+            return "done";
+        }
+
+        @BusinessAudit(action = AuditAction.APPLICATION_SUBMITTED, entityType = "Application")
+        public Created fail(Created input) {
+            throw new IllegalStateException("rejected");
+        }
+    }
+
+    @Mock
+    private AuditService auditService;
+
+    private AuditedService advised;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new AuditedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BusinessAuditAspect(auditService));
+        advised = factory.getProxy();
+    }
+
+    @Test
+    void testLogBusinessAction_LogsIdOfEveryReturnedEntity() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        advised.create(first);
+        advised.create(second);
+
+        verify(auditService).logAction("Application", first, AuditAction.APPLICATION_CREATED);
+        verify(auditService).logAction("Application", second, AuditAction.APPLICATION_CREATED);
+    }
+
+    @Test
+    void testLogBusinessAction_SkipsResultsWithoutId() {
+        advised.withoutId();
+
+        verify(auditService, never()).logAction(any(), any(), any());
+    }
+
+    @Test
+    void testLogFailedAction_DoesNotLogOrSwallowTheError() {
+        assertThatThrownBy(() -> advised.fail(new Created(UUID.randomUUID())))
+            .isInstanceOf(IllegalStateException.class);
+
+        verify(auditService, never()).logAction(any(), any(), any());
+    }
+}
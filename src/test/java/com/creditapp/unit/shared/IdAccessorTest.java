@@ -0,0 +1,68 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.util.IdAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdAccessorTest {
+
+    public static class WithGetter {
+        private final UUID id;
+
+        WithGetter(UUID id) {
+            this.id = id;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+    }
+
+    static class WithFieldOnly {
+        private final UUID id;
+
+        WithFieldOnly(UUID id) {
+            this.id = id;
+        }
+    }
+
+    public static class WithLongId {
+        public Long getId() {
+            return 42L;
+        }
+    }
+
+    public static class WithThrowingGetter {
+        public UUID getId() {
+            throw new IllegalStateException("not loaded");
+        }
+    }
+
+    @Test
+    void testIdOf_UsesPublicGetter() {
+        UUID id = UUID.randomUUID();
+
+        assertThat(IdAccessor.idOf(new WithGetter(id))).isEqualTo(id);
+        assertThat(IdAccessor.idOf(new WithGetter(null))).isNull();
+    }
+
+    @Test
+    void testIdOf_FallsBackToDeclaredField() {
+        UUID id = UUID.randomUUID();
+
+        assertThat(IdAccessor.idOf(new WithFieldOnly(id))).isEqualTo(id);
+    }
+
+    @Test
+    void testIdOf_NullForMissingOrNonUuidIds() {
+        assertThat(IdAccessor.idOf(null)).isNull();
+        assertThat(IdAccessor.idOf("no id")).isNull();
+        assertThat(IdAccessor.idOf(new WithLongId())).isNull();
+        assertThat(IdAccessor.idOf(new WithThrowingGetter())).isNull();
+        assertThat(IdAccessor.hasAccessor(String.class)).isFalse();
+        assertThat(IdAccessor.hasAccessor(WithGetter.class)).isTrue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.util.IdPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdPageTest {
+
+    private record Row(int id) {
+    }
+
+    @Test
+    void testFetch_KeepsIdPageOrderAndTotal() {
+        Page<Integer> ids = new PageImpl<>(List.of(7, 3, 5), PageRequest.of(1, 3), 10);
+
+        Page<Row> page = IdPage.fetch(ids, keys -> List.of(new Row(3), new Row(5), new Row(7)), Row::id);
+
+        assertThat(page.getContent()).containsExactly(new Row(7), new Row(3), new Row(5));
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getPageable()).isEqualTo(PageRequest.of(1, 3));
+    }
+
+    @Test
+    void testFetch_SkipsIdsDeletedBetweenPhases() {
+        Page<Integer> ids = new PageImpl<>(List.of(1, 2), PageRequest.of(0, 2), 2);
+
+        Page<Row> page = IdPage.fetch(ids, keys -> List.of(new Row(2)), Row::id);
+
+        assertThat(page.getContent()).containsExactly(new Row(2));
+    }
+
+    @Test
+    void testFetch_EmptyIdPageDoesNotQuery() {
+        List<Collection<Integer>> fetches = new ArrayList<>();
+        Page<Integer> ids = new PageImpl<>(List.of(), PageRequest.of(3, 20), 40);
+
+        Page<Row> page = IdPage.fetch(ids, keys -> {
+            fetches.add(keys);
+            return List.of();
+        }, Row::id);
+
+        assertThat(fetches).isEmpty();
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(40);
+    }
+}
@@ -0,0 +1,43 @@
+package com.creditapp.unit.shared;
+
+import com.creditapp.shared.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void testRoundTrip_KeepsKeysAndNulls() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime submittedAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123456000);
+
+        String cursor = KeysetCursor.encode("NEWEST_FIRST", submittedAt, null, new BigDecimal("1000.50"), id);
+
+        assertThat(cursor).doesNotContain("NEWEST_FIRST").matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(cursor, "NEWEST_FIRST", 4))
+            .isEqualTo(Arrays.asList(submittedAt.toString(), null, "1000.50", id.toString()));
+    }
+
+    @Test
+    void testDecode_RejectsCursorOfAnotherSort() {
+        String cursor = KeysetCursor.encode("NEWEST_FIRST", "2024-03-01T10:15", UUID.randomUUID());
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, "AMOUNT_LOW_HIGH", 2))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, "NEWEST_FIRST", 3))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDecode_RejectsMalformedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", "NEWEST_FIRST", 2))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}